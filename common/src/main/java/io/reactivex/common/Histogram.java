@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common;
+
+import java.util.Arrays;
+
+import io.reactivex.common.annotations.Experimental;
+import io.reactivex.common.internal.functions.ObjectHelper;
+
+/**
+ * Counts non-negative long values in logarithmic buckets of bounded relative width so that
+ * percentiles can be computed over any number of values in constant memory.
+ * <p>
+ * Values below {@code 2 * 10^significantDigits} (rounded up to a power of 2) are counted exactly,
+ * larger values in buckets whose width is at most {@code 10^-significantDigits} of their value,
+ * similar to HdrHistogram. The bucket array grows with the largest value recorded; with
+ * 3 significant digits and values up to a minute in nanoseconds it holds about 28000 counters.
+ * <p>
+ * Histograms with the same number of significant digits can be merged, which allows computing
+ * partial histograms in parallel and combining them afterwards.
+ * <p>
+ * This class is not thread-safe.
+ */
+@Experimental
+public final class Histogram {
+
+    final int significantDigits;
+
+    /** The number of bits of the sub-bucket index. */
+    final int subBits;
+
+    /** Half the number of sub-buckets, the number of buckets per power of 2 above the exact range. */
+    final int half;
+
+    long[] counts;
+
+    long count;
+
+    long min;
+
+    long max;
+
+    double sum;
+
+    /**
+     * Constructs an empty Histogram with the given precision.
+     * @param significantDigits the number of significant decimal digits to keep, between 1 and 5
+     * @throws IllegalArgumentException if significantDigits is out of range
+     */
+    public Histogram(int significantDigits) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("significantDigits must be between 1 and 5 but it was " + significantDigits);
+        }
+        long largestExact = 2;
+        for (int i = 0; i < significantDigits; i++) {
+            largestExact *= 10;
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(largestExact - 1);
+        this.significantDigits = significantDigits;
+        this.subBits = bits;
+        this.half = 1 << (bits - 1);
+        this.counts = new long[1 << bits];
+        this.min = Long.MAX_VALUE;
+        this.max = 0L;
+    }
+
+    /**
+     * Returns the number of significant decimal digits kept.
+     * @return the number of significant decimal digits kept
+     */
+    public int significantDigits() {
+        return significantDigits;
+    }
+
+    /**
+     * Records a value.
+     * @param value the value to record, non-negative
+     * @throws IllegalArgumentException if value is negative
+     */
+    public void record(long value) {
+        if (value < 0L) {
+            throw new IllegalArgumentException("value must be non-negative but it was " + value);
+        }
+        int index = indexOf(value);
+        long[] a = counts;
+        if (index >= a.length) {
+            a = grow(index);
+        }
+        a[index]++;
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Adds the counts of the other Histogram to this Histogram.
+     * @param other the other Histogram, not modified
+     * @return this
+     * @throws IllegalArgumentException if the other Histogram has a different number of significant digits
+     */
+    public Histogram merge(Histogram other) {
+        ObjectHelper.requireNonNull(other, "other is null");
+        if (other.significantDigits != significantDigits) {
+            throw new IllegalArgumentException("Different significantDigits: " + significantDigits + " vs " + other.significantDigits);
+        }
+        if (other.count == 0L) {
+            return this;
+        }
+        long[] b = other.counts;
+        long[] a = counts;
+        if (a.length < b.length) {
+            a = grow(b.length - 1);
+        }
+        for (int i = 0; i < b.length; i++) {
+            a[i] += b[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        if (other.min < min) {
+            min = other.min;
+        }
+        if (other.max > max) {
+            max = other.max;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of values recorded.
+     * @return the number of values recorded
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the smallest value recorded or 0 if the Histogram is empty.
+     * @return the smallest value recorded
+     */
+    public long min() {
+        return count == 0L ? 0L : min;
+    }
+
+    /**
+     * Returns the largest value recorded or 0 if the Histogram is empty.
+     * @return the largest value recorded
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns the arithmetic mean of the values recorded or 0 if the Histogram is empty.
+     * @return the mean of the values recorded
+     */
+    public double mean() {
+        return count == 0L ? 0d : sum / count;
+    }
+
+    /**
+     * Returns a value that the given percentage of the recorded values are less than or
+     * equal to, within the precision of the Histogram, or 0 if the Histogram is empty.
+     * @param percentile the percentile between 0 and 100, such as 99.9
+     * @return the value at the percentile
+     * @throws IllegalArgumentException if percentile is out of range
+     */
+    public long valueAtPercentile(double percentile) {
+        if (!(percentile >= 0d && percentile <= 100d)) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100 but it was " + percentile);
+        }
+        long n = count;
+        if (n == 0L) {
+            return 0L;
+        }
+        long target = Math.max(1L, (long)Math.ceil(percentile / 100d * n));
+        long[] a = counts;
+        long seen = 0L;
+        for (int i = 0; i < a.length; i++) {
+            seen += a[i];
+            if (seen >= target) {
+                return Math.max(min, Math.min(highestEquivalent(i), max));
+            }
+        }
+        return max;
+    }
+
+    int indexOf(long value) {
+        int bits = subBits;
+        if (value < (1L << bits)) {
+            return (int)value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - bits;
+        // value >> shift is in [half, 2 * half)
+        return (1 << bits) + (shift - 1) * half + (int)((value >> shift) - half);
+    }
+
+    long highestEquivalent(int index) {
+        int bits = subBits;
+        if (index < (1 << bits)) {
+            return index;
+        }
+        int k = index - (1 << bits);
+        int shift = k / half + 1;
+        long low = (long)(k % half + half) << shift;
+        return low + (1L << shift) - 1;
+    }
+
+    long[] grow(int index) {
+        long[] a = counts;
+        int n = a.length;
+        while (n <= index) {
+            n += half;
+        }
+        a = Arrays.copyOf(a, n);
+        counts = a;
+        return a;
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram[count=" + count
+                + ", min=" + min()
+                + ", p50=" + valueAtPercentile(50)
+                + ", p99=" + valueAtPercentile(99)
+                + ", p999=" + valueAtPercentile(99.9)
+                + ", max=" + max
+                + "]";
+    }
+}
@@ -643,6 +643,22 @@ public final class RxJavaCommonPlugins {
         return new IoScheduler(ObjectHelper.requireNonNull(threadFactory, "threadFactory is null"));
     }
 
+    /**
+     * Create an instance of the default {@link Scheduler} used for {@link Schedulers#io()}
+     * except using {@code threadFactory} for thread creation and limiting the number of threads;
+     * once the limit is reached, new workers share the existing threads.
+     * @param threadFactory thread factory to use for creating worker threads. Note that this takes precedence over any
+     *                      system properties for configuring new thread creation. Cannot be null.
+     * @param maxThreads the maximum number of threads, positive
+     * @return the created Scheduler instance
+     */
+    @Experimental
+    @NonNull
+    public static Scheduler createIoScheduler(@NonNull ThreadFactory threadFactory, int maxThreads) {
+        ObjectHelper.verifyPositive(maxThreads, "maxThreads");
+        return new IoScheduler(ObjectHelper.requireNonNull(threadFactory, "threadFactory is null"), maxThreads);
+    }
+
     /**
      * Create an instance of the default {@link Scheduler} used for {@link Schedulers#newThread()}
      * except using {@code threadFactory} for thread creation.
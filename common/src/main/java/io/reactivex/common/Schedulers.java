@@ -18,10 +18,14 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
+import io.reactivex.common.annotations.Experimental;
 import io.reactivex.common.annotations.NonNull;
+import io.reactivex.common.internal.functions.ObjectHelper;
 import io.reactivex.common.internal.schedulers.ComputationScheduler;
 import io.reactivex.common.internal.schedulers.ExecutorScheduler;
+import io.reactivex.common.internal.schedulers.ForkJoinScheduler;
 import io.reactivex.common.internal.schedulers.IoScheduler;
 import io.reactivex.common.internal.schedulers.NewThreadScheduler;
 import io.reactivex.common.internal.schedulers.SchedulerPoolFactory;
@@ -39,6 +43,7 @@ import kotlin.jvm.functions.Function1;
  * <strong>Supported system properties ({@code System.getProperty()}):</strong>
  * <ul>
  * <li>{@code rx2.io-priority} (int): sets the thread priority of the {@link #io()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
+ * <li>{@code rx2.io-max-threads} (int): limits the number of threads of the {@link #io()} Scheduler, further workers share the existing threads, default is unbounded</li>
  * <li>{@code rx2.computation-threads} (int): sets the number of threads in the {@link #computation()} Scheduler, default is the number of available CPUs</li>
  * <li>{@code rx2.computation-priority} (int): sets the thread priority of the {@link #computation()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
  * <li>{@code rx2.newthread-priority} (int): sets the thread priority of the {@link #newThread()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
@@ -165,6 +170,7 @@ public final class Schedulers {
      * <p><strong>Supported system properties ({@code System.getProperty()}):</strong>
      * <ul>
      * <li>{@code rx2.io-priority} (int): sets the thread priority of the {@link #io()} Scheduler, default is {@link Thread#NORM_PRIORITY}</li>
+     * <li>{@code rx2.io-max-threads} (int): limits the number of threads of the {@link #io()} Scheduler, further workers share the existing threads, default is unbounded</li>
      * </ul>
      * <p>
      * The default value of this scheduler can be overridden at initialization time via the
@@ -350,6 +356,97 @@ public final class Schedulers {
         return new ExecutorScheduler(executor);
     }
 
+    /**
+     * Wraps an {@link Executor} into a new Scheduler instance whose workers limit how long
+     * they occupy an executor thread.
+     * <p>
+     * A {@link io.reactivex.common.Scheduler.Worker} of the default {@link #from(Executor)} scheduler
+     * keeps running its queued tasks until it runs out of them. The workers of this scheduler
+     * stop after {@code maxTasks} tasks or after {@code maxTime} has elapsed, whichever comes first,
+     * and resubmit themselves to the end of the executor's queue if they still have work.
+     * This allows fair sharing of a small executor between many busy workers.
+     * <p>
+     * Otherwise, the scheduler behaves like the one returned by {@link #from(Executor)}.
+     * @param executor
+     *          the executor to wrap
+     * @param maxTasks
+     *          the maximum number of tasks a worker runs before giving up the thread, positive
+     * @param maxTime
+     *          the maximum time a worker runs tasks before giving up the thread, positive
+     * @param unit
+     *          the time unit of {@code maxTime}
+     * @return the new Scheduler wrapping the Executor
+     */
+    @Experimental
+    @NonNull
+    public static Scheduler from(@NonNull Executor executor, int maxTasks, long maxTime, @NonNull TimeUnit unit) {
+        ObjectHelper.requireNonNull(executor, "executor is null");
+        ObjectHelper.verifyPositive(maxTasks, "maxTasks");
+        ObjectHelper.verifyPositive(maxTime, "maxTime");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        return new ExecutorScheduler(executor, maxTasks, unit.toNanos(maxTime));
+    }
+
+    /**
+     * Wraps a {@link java.util.concurrent.ForkJoinPool ForkJoinPool} into a new Scheduler instance that
+     * runs its tasks as {@link java.util.concurrent.ForkJoinTask}s.
+     * <p>
+     * Tasks scheduled directly or through a {@link io.reactivex.common.Scheduler.Worker} from a thread
+     * of the same pool are forked onto that thread's local work queue, thus they tend to run on the same
+     * thread unless an idle thread steals them. Tasks scheduled from outside the pool go to its shared
+     * submission queue. Workers keep executing their tasks in order, one at a time.
+     * <p>
+     * A pool created in async mode ({@code asyncMode = true}), which processes local tasks in FIFO order,
+     * suits the event-style tasks of this scheduler better than the default LIFO mode.
+     * <p>
+     * Tasks scheduled with a time delay or periodically use the {@link #single()} scheduler for the timed
+     * waiting before posting the actual task to the pool. Cancelling a task that has already started
+     * doesn't interrupt it.
+     * <p>
+     * If the executor is not a ForkJoinPool, the scheduler behaves like the one returned by
+     * {@link #from(Executor)}. The ForkJoinPool types are only touched when this method is called,
+     * which requires Java 7 or later.
+     * <p>
+     * Starting, stopping and restarting this scheduler is not supported (no-op) and the provided
+     * pool's lifecycle must be managed externally.
+     * @param pool
+     *          the ForkJoinPool to wrap
+     * @return the new Scheduler wrapping the ForkJoinPool
+     */
+    @Experimental
+    @NonNull
+    public static Scheduler forkJoin(@NonNull Executor pool) {
+        ObjectHelper.requireNonNull(pool, "pool is null");
+        return ForkJoinScheduler.create(pool, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Wraps a {@link java.util.concurrent.ForkJoinPool ForkJoinPool} into a new Scheduler instance as
+     * {@link #forkJoin(Executor)} does, whose workers limit how long they occupy a pool thread
+     * as {@link #from(Executor, int, long, TimeUnit)} does.
+     * <p>
+     * A worker that used up its budget is put behind the tasks already waiting in the pool, even
+     * if the pool processes its local tasks in LIFO order.
+     * @param pool
+     *          the ForkJoinPool to wrap
+     * @param maxTasks
+     *          the maximum number of tasks a worker runs before giving up the thread, positive
+     * @param maxTime
+     *          the maximum time a worker runs tasks before giving up the thread, positive
+     * @param unit
+     *          the time unit of {@code maxTime}
+     * @return the new Scheduler wrapping the ForkJoinPool
+     */
+    @Experimental
+    @NonNull
+    public static Scheduler forkJoin(@NonNull Executor pool, int maxTasks, long maxTime, @NonNull TimeUnit unit) {
+        ObjectHelper.requireNonNull(pool, "pool is null");
+        ObjectHelper.verifyPositive(maxTasks, "maxTasks");
+        ObjectHelper.verifyPositive(maxTime, "maxTime");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        return ForkJoinScheduler.create(pool, maxTasks, unit.toNanos(maxTime));
+    }
+
     /**
      * Shuts down the standard Schedulers.
      * <p>The operation is idempotent and thread-safe.
@@ -0,0 +1,474 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.common.annotations.*;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.common.internal.queues.FifoPriorityQueue;
+import io.reactivex.common.internal.schedulers.RxThreadFactory;
+import io.reactivex.common.internal.utils.*;
+
+/**
+ * A discrete-event simulation scheduler with a manually advanced virtual clock.
+ * <p>
+ * Unlike the {@link TestScheduler}, the clock jumps from one due time to the next and
+ * all tasks due at the same virtual time are taken out of the queue as a single batch.
+ * Cancelled tasks are dropped lazily and purged in bulk, thus the frequent
+ * schedule-then-cancel pattern of timeout-like operators doesn't cost a linear removal.
+ * <p>
+ * With a parallelism greater than one, the tasks of a batch are partitioned by their
+ * {@link Worker} and the partitions run concurrently on an internal thread pool, each
+ * partition executing its own tasks in order. Tasks scheduled while a batch is running
+ * are buffered per partition and enqueued, in partition order, once the whole batch has
+ * completed. The execution order is therefore the same from run to run, provided that
+ * tasks of different workers don't share mutable state.
+ * <p>
+ * In both modes, a crashing task doesn't stop the rest of its batch; the error is rethrown
+ * by the method advancing the clock once the whole batch has run.
+ * <p>
+ * Outside the tasks it runs, the scheduler should only be used from the thread that
+ * advances its clock.
+ */
+@Experimental
+public final class SimulationScheduler extends Scheduler {
+    /** The cancelled count above which a purge is considered. */
+    static final int PURGE_THRESHOLD = 64;
+
+    /**
+     * The partition currently running on a pool thread, set only in parallel mode; shared by
+     * all instances, hence the {@link Partition#owner} has to be checked.
+     */
+    static final ThreadLocal<Partition> CURRENT = new ThreadLocal<Partition>();
+
+    /** The ordered queue of pending tasks, accessed by the clock thread only. */
+    final FifoPriorityQueue<SimulationTask> queue;
+    /** The number of cancelled tasks not yet dropped from the queue. */
+    final AtomicInteger cancelled;
+    /** The number of threads running the partitions of a batch. */
+    final int parallelism;
+    /** The tasks of the current batch. */
+    final ArrayList<SimulationTask> batch;
+    /** The per-scheduler global order counter. */
+    long counter;
+    /** The virtual time in nanoseconds. */
+    volatile long time;
+    /** The lazily created thread pool of the parallel mode. */
+    ExecutorService executor;
+
+    /**
+     * Constructs a sequential SimulationScheduler.
+     */
+    public SimulationScheduler() {
+        this(1);
+    }
+
+    /**
+     * Constructs a SimulationScheduler which runs the tasks of different workers,
+     * due at the same virtual time, in parallel.
+     * @param parallelism the number of threads to run partitions on, 1 means sequential execution
+     */
+    public SimulationScheduler(int parallelism) {
+        ObjectHelper.verifyPositive(parallelism, "parallelism");
+        this.parallelism = parallelism;
+        this.queue = new FifoPriorityQueue<SimulationTask>();
+        this.cancelled = new AtomicInteger();
+        this.batch = new ArrayList<SimulationTask>();
+    }
+
+    @Override
+    public long now(@NonNull TimeUnit unit) {
+        return unit.convert(time, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Moves the Scheduler's clock forward by a specified amount of time,
+     * running the tasks that become due in the meantime.
+     *
+     * @param delayTime
+     *          the amount of time to move the Scheduler's clock forward
+     * @param unit
+     *          the units of time that {@code delayTime} is expressed in
+     */
+    public void advanceTimeBy(long delayTime, TimeUnit unit) {
+        advanceTimeTo(time + unit.toNanos(delayTime), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Moves the Scheduler's clock to a particular moment in time,
+     * running the tasks that become due in the meantime.
+     *
+     * @param delayTime
+     *          the point in time to move the Scheduler's clock to
+     * @param unit
+     *          the units of time that {@code delayTime} is expressed in
+     */
+    public void advanceTimeTo(long delayTime, TimeUnit unit) {
+        long targetTime = unit.toNanos(delayTime);
+        for (;;) {
+            SimulationTask head = peek();
+            if (head == null || head.time > targetTime) {
+                break;
+            }
+            runBatch(head.time);
+        }
+        time = targetTime;
+    }
+
+    /**
+     * Triggers any actions that have not yet been triggered and that are scheduled to be triggered at or
+     * before this Scheduler's present time.
+     */
+    public void triggerActions() {
+        advanceTimeTo(time, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Moves the Scheduler's clock to the due time of the earliest pending task and runs
+     * every task due at that time.
+     * @return true if there was a pending task, false if the queue was empty and the clock wasn't moved
+     */
+    public boolean advanceTimeToNext() {
+        SimulationTask head = peek();
+        if (head == null) {
+            return false;
+        }
+        runBatch(Math.max(head.time, time));
+        return true;
+    }
+
+    /**
+     * Returns the number of tasks waiting to be executed, excluding those already cancelled.
+     * @return the number of pending tasks
+     */
+    public int pendingTasks() {
+        return Math.max(0, queue.size() - cancelled.get());
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return new SimulationWorker();
+    }
+
+    @Override
+    public void shutdown() {
+        ExecutorService exec = executor;
+        if (exec != null) {
+            executor = null;
+            exec.shutdownNow();
+        }
+    }
+
+    SimulationTask peek() {
+        for (;;) {
+            SimulationTask t = queue.peek();
+            if (t == null || !t.isDisposed()) {
+                return t;
+            }
+            queue.poll();
+            cancelled.decrementAndGet();
+        }
+    }
+
+    void enqueue(SimulationTask task) {
+        task.count = counter++;
+        if (task.time <= time) {
+            queue.offerLast(task);
+        } else {
+            queue.offer(task);
+        }
+        int c = cancelled.get();
+        if (c > PURGE_THRESHOLD && c > (queue.size() >> 1)) {
+            purge();
+        }
+    }
+
+    /**
+     * Drops all cancelled tasks; the queue yields the live tasks in order so they can
+     * be put back via the FIFO path.
+     */
+    void purge() {
+        FifoPriorityQueue<SimulationTask> q = queue;
+        ArrayList<SimulationTask> live = new ArrayList<SimulationTask>(q.size());
+        int dropped = 0;
+        SimulationTask t;
+        while ((t = q.poll()) != null) {
+            if (t.isDisposed()) {
+                dropped++;
+            } else {
+                live.add(t);
+            }
+        }
+        for (SimulationTask s : live) {
+            q.offerLast(s);
+        }
+        cancelled.addAndGet(-dropped);
+    }
+
+    void runBatch(long batchTime) {
+        time = batchTime;
+
+        final ArrayList<SimulationTask> b = batch;
+        final FifoPriorityQueue<SimulationTask> q = queue;
+        for (;;) {
+            SimulationTask t = q.peek();
+            if (t == null || t.time > batchTime) {
+                break;
+            }
+            q.poll();
+            if (t.isDisposed()) {
+                cancelled.decrementAndGet();
+            } else {
+                b.add(t);
+            }
+        }
+
+        if (parallelism == 1 || b.size() < 2) {
+            // like the partitions of the parallel mode, run the whole batch and rethrow afterwards
+            AtomicThrowable errors = new AtomicThrowable();
+            for (SimulationTask t : b) {
+                try {
+                    t.execute();
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    errors.addThrowable(ex);
+                }
+            }
+            b.clear();
+
+            Throwable ex = errors.terminate();
+            if (ex != null) {
+                throw ExceptionHelper.wrapOrThrow(ex);
+            }
+        } else {
+            runPartitions();
+        }
+    }
+
+    void runPartitions() {
+        final ArrayList<SimulationTask> b = batch;
+
+        LinkedHashMap<SimulationWorker, Partition> map = new LinkedHashMap<SimulationWorker, Partition>();
+        for (SimulationTask t : b) {
+            Partition p = map.get(t.worker);
+            if (p == null) {
+                p = new Partition(this);
+                map.put(t.worker, p);
+            }
+            p.tasks.add(t);
+        }
+        b.clear();
+
+        final AtomicThrowable errors = new AtomicThrowable();
+        Partition[] partitions = map.values().toArray(new Partition[0]);
+        int n = partitions.length;
+
+        if (n != 1) {
+            ExecutorService exec = executor;
+            if (exec == null) {
+                exec = Executors.newFixedThreadPool(parallelism - 1, new RxThreadFactory("RxSimulationScheduler"));
+                executor = exec;
+            }
+            CountDownLatch latch = new CountDownLatch(n - 1);
+            for (int i = 1; i < n; i++) {
+                partitions[i].errors = errors;
+                partitions[i].latch = latch;
+                exec.execute(partitions[i]);
+            }
+            partitions[0].errors = errors;
+            partitions[0].run();
+            try {
+                latch.await();
+            } catch (InterruptedException ex) {
+                for (int i = 1; i < n; i++) {
+                    partitions[i].cancel();
+                }
+                Thread.currentThread().interrupt();
+                throw ExceptionHelper.wrapOrThrow(ex);
+            }
+        } else {
+            partitions[0].errors = errors;
+            partitions[0].run();
+        }
+
+        for (Partition p : partitions) {
+            for (SimulationTask t : p.outbox) {
+                if (t.isDisposed()) {
+                    cancelled.decrementAndGet();
+                } else {
+                    enqueue(t);
+                }
+            }
+        }
+
+        Throwable ex = errors.terminate();
+        if (ex != null) {
+            throw ExceptionHelper.wrapOrThrow(ex);
+        }
+    }
+
+    /**
+     * The tasks of a batch belonging to the same worker along with
+     * the tasks they scheduled.
+     */
+    static final class Partition implements Runnable {
+        final SimulationScheduler owner;
+
+        final ArrayList<SimulationTask> tasks = new ArrayList<SimulationTask>();
+
+        final ArrayList<SimulationTask> outbox = new ArrayList<SimulationTask>();
+
+        AtomicThrowable errors;
+
+        CountDownLatch latch;
+
+        volatile boolean cancelled;
+
+        Partition(SimulationScheduler owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void run() {
+            CURRENT.set(this);
+            try {
+                for (SimulationTask t : tasks) {
+                    if (cancelled) {
+                        break;
+                    }
+                    try {
+                        t.execute();
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        errors.addThrowable(ex);
+                    }
+                }
+            } finally {
+                CURRENT.remove();
+                CountDownLatch cdl = latch;
+                if (cdl != null) {
+                    cdl.countDown();
+                }
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+    }
+
+    static final class SimulationTask extends AtomicInteger implements Disposable, Comparable<SimulationTask> {
+
+        private static final long serialVersionUID = -5346862452766540707L;
+
+        static final int WAITING = 0;
+        static final int TAKEN = 1;
+        static final int DISPOSED = 2;
+
+        final SimulationWorker worker;
+
+        final Runnable run;
+
+        final long time;
+
+        /** The global order, assigned when the task enters the queue. */
+        long count;
+
+        SimulationTask(SimulationWorker worker, Runnable run, long time) {
+            this.worker = worker;
+            this.run = run;
+            this.time = time;
+        }
+
+        void execute() {
+            if (compareAndSet(WAITING, TAKEN)) {
+                if (!worker.disposed) {
+                    run.run();
+                }
+            } else {
+                worker.scheduler().cancelled.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(WAITING, DISPOSED)) {
+                worker.scheduler().cancelled.incrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get() == DISPOSED;
+        }
+
+        @Override
+        public int compareTo(SimulationTask o) {
+            if (time == o.time) {
+                return ObjectHelper.compare(count, o.count);
+            }
+            return ObjectHelper.compare(time, o.time);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SimulationTask(time = %d, run = %s)", time, run.toString());
+        }
+    }
+
+    final class SimulationWorker extends Worker {
+
+        volatile boolean disposed;
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            if (disposed) {
+                return REJECTED;
+            }
+            SimulationTask task = new SimulationTask(this, run, time + Math.max(0L, unit.toNanos(delay)));
+            Partition p = parallelism != 1 ? CURRENT.get() : null;
+            if (p != null && p.owner == SimulationScheduler.this) {
+                p.outbox.add(task);
+            } else {
+                enqueue(task);
+            }
+            return task;
+        }
+
+        @Override
+        public long now(@NonNull TimeUnit unit) {
+            return SimulationScheduler.this.now(unit);
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        SimulationScheduler scheduler() {
+            return SimulationScheduler.this;
+        }
+    }
+}
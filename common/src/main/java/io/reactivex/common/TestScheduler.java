@@ -13,11 +13,11 @@
 
 package io.reactivex.common;
 
-import java.util.Queue;
-import java.util.concurrent.*;
+import java.util.concurrent.TimeUnit;
 
 import io.reactivex.common.annotations.NonNull;
 import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.common.internal.queues.FifoPriorityQueue;
 
 /**
  * A special, non thread-safe scheduler for testing operators that require
@@ -25,8 +25,8 @@ import io.reactivex.common.internal.functions.ObjectHelper;
  * a virtual time.
  */
 public final class TestScheduler extends Scheduler {
-    /** The ordered queue for the runnable tasks. */
-    final Queue<TimedRunnable> queue = new PriorityBlockingQueue<TimedRunnable>(11);
+    /** The ordered queue for the runnable tasks, immediate tasks take its FIFO path. */
+    final FifoPriorityQueue<TimedRunnable> queue = new FifoPriorityQueue<TimedRunnable>();
     /** The per-scheduler global order counter. */
     long counter;
     // Storing time in nanoseconds internally.
@@ -99,14 +99,14 @@ public final class TestScheduler extends Scheduler {
     }
 
     private void triggerActions(long targetTimeInNanoseconds) {
-        while (!queue.isEmpty()) {
+        for (;;) {
             TimedRunnable current = queue.peek();
-            if (current.time > targetTimeInNanoseconds) {
+            if (current == null || current.time > targetTimeInNanoseconds) {
                 break;
             }
             // if scheduled time is 0 (immediate) use current virtual time
             time = current.time == 0 ? time : current.time;
-            queue.remove();
+            queue.poll();
 
             // Only execute if not unsubscribed
             if (!current.scheduler.disposed) {
@@ -143,7 +143,7 @@ public final class TestScheduler extends Scheduler {
                 return REJECTED;
             }
             final TimedRunnable timedAction = new TimedRunnable(this, time + unit.toNanos(delayTime), run, counter++);
-            queue.add(timedAction);
+            queue.offer(timedAction);
 
             return Disposables.fromRunnable(new QueueRemove(timedAction));
         }
@@ -155,7 +155,7 @@ public final class TestScheduler extends Scheduler {
                 return REJECTED;
             }
             final TimedRunnable timedAction = new TimedRunnable(this, 0, run, counter++);
-            queue.add(timedAction);
+            queue.offerLast(timedAction);
             return Disposables.fromRunnable(new QueueRemove(timedAction));
         }
 
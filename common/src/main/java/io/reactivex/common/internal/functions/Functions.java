@@ -97,6 +97,23 @@ public final class Functions {
         return new Array9Func<T1, T2, T3, T4, T5, T6, T7, T8, T9, R>(f);
     }
 
+    /**
+     * Returns true if the function is one of the adapters created by the {@code toFunction}
+     * overloads. These only read the array during the call, so operators may hand them
+     * a reused array instead of a fresh copy for every invocation.
+     * @param f the function to check
+     * @return true if the function does not retain its array argument
+     */
+    public static boolean isArrayAdapter(Function1<?, ?> f) {
+        return f instanceof ArrayAdapter;
+    }
+
+    /**
+     * Marker for the Object array adapters of the BiFunction, Function3..Function9 instances.
+     */
+    interface ArrayAdapter {
+    }
+
     /**
      * A singleton identity function.
      */
@@ -577,7 +594,7 @@ public final class Functions {
         return new ListSorter<T>(comparator);
     }
 
-    static final class Array2Func<T1, T2, R> implements Function1<Object[], R> {
+    static final class Array2Func<T1, T2, R> implements Function1<Object[], R>, ArrayAdapter {
         final Function2<? super T1, ? super T2, ? extends R> f;
 
         Array2Func(Function2<? super T1, ? super T2, ? extends R> f) {
@@ -600,7 +617,7 @@ public final class Functions {
         }
     }
 
-    static final class Array3Func<T1, T2, T3, R> implements Function1<Object[], R> {
+    static final class Array3Func<T1, T2, T3, R> implements Function1<Object[], R>, ArrayAdapter {
         final Function3<T1, T2, T3, R> f;
 
         Array3Func(Function3<T1, T2, T3, R> f) {
@@ -623,7 +640,7 @@ public final class Functions {
         }
     }
 
-    static final class Array4Func<T1, T2, T3, T4, R> implements Function1<Object[], R> {
+    static final class Array4Func<T1, T2, T3, T4, R> implements Function1<Object[], R>, ArrayAdapter {
         final Function4<T1, T2, T3, T4, R> f;
 
         Array4Func(Function4<T1, T2, T3, T4, R> f) {
@@ -646,7 +663,7 @@ public final class Functions {
         }
     }
 
-    static final class Array5Func<T1, T2, T3, T4, T5, R> implements Function1<Object[], R> {
+    static final class Array5Func<T1, T2, T3, T4, T5, R> implements Function1<Object[], R>, ArrayAdapter {
         private final Function5<T1, T2, T3, T4, T5, R> f;
 
         Array5Func(Function5<T1, T2, T3, T4, T5, R> f) {
@@ -669,7 +686,7 @@ public final class Functions {
         }
     }
 
-    static final class Array6Func<T1, T2, T3, T4, T5, T6, R> implements Function1<Object[], R> {
+    static final class Array6Func<T1, T2, T3, T4, T5, T6, R> implements Function1<Object[], R>, ArrayAdapter {
         final Function6<T1, T2, T3, T4, T5, T6, R> f;
 
         Array6Func(Function6<T1, T2, T3, T4, T5, T6, R> f) {
@@ -692,7 +709,7 @@ public final class Functions {
         }
     }
 
-    static final class Array7Func<T1, T2, T3, T4, T5, T6, T7, R> implements Function1<Object[], R> {
+    static final class Array7Func<T1, T2, T3, T4, T5, T6, T7, R> implements Function1<Object[], R>, ArrayAdapter {
         final Function7<T1, T2, T3, T4, T5, T6, T7, R> f;
 
         Array7Func(Function7<T1, T2, T3, T4, T5, T6, T7, R> f) {
@@ -715,7 +732,7 @@ public final class Functions {
         }
     }
 
-    static final class Array8Func<T1, T2, T3, T4, T5, T6, T7, T8, R> implements Function1<Object[], R> {
+    static final class Array8Func<T1, T2, T3, T4, T5, T6, T7, T8, R> implements Function1<Object[], R>, ArrayAdapter {
         final Function8<T1, T2, T3, T4, T5, T6, T7, T8, R> f;
 
         Array8Func(Function8<T1, T2, T3, T4, T5, T6, T7, T8, R> f) {
@@ -738,7 +755,7 @@ public final class Functions {
         }
     }
 
-    static final class Array9Func<T1, T2, T3, T4, T5, T6, T7, T8, T9, R> implements Function1<Object[], R> {
+    static final class Array9Func<T1, T2, T3, T4, T5, T6, T7, T8, T9, R> implements Function1<Object[], R>, ArrayAdapter {
         final Function9<T1, T2, T3, T4, T5, T6, T7, T8, T9, R> f;
 
         Array9Func(Function9<T1, T2, T3, T4, T5, T6, T7, T8, T9, R> f) {
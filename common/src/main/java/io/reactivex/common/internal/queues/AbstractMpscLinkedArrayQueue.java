@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.internal.queues;
+
+import java.util.concurrent.atomic.*;
+
+import io.reactivex.common.annotations.Nullable;
+import io.reactivex.common.internal.utils.Pow2;
+
+/**
+ * A multi-producer single consumer unbounded queue which stores the elements in
+ * linked chunks of arrays.
+ * <p>
+ * Producers claim a slot with a single {@code getAndIncrement} on the shared
+ * producer index and write into the chunk owning that slot, linking in a new chunk
+ * when they are the first to reach it. Compared to {@link AbstractMpscLinkedQueue}
+ * this allocates one array per chunk instead of one node per element.
+ * @param <T> the contained value type
+ */
+public abstract class AbstractMpscLinkedArrayQueue<T> {
+    final int chunkMask;
+
+    final int chunkShift;
+
+    final AtomicLong producerIndex;
+
+    final AtomicReference<Chunk<T>> producerChunk;
+
+    final AtomicLong consumerIndex;
+
+    /** The chunk the consumer is reading; accessed by the consumer thread only. */
+    Chunk<T> consumerChunk;
+
+    public AbstractMpscLinkedArrayQueue(int chunkSize) {
+        int c = Pow2.roundToPowerOfTwo(Math.max(8, chunkSize));
+        this.chunkMask = c - 1;
+        this.chunkShift = Integer.numberOfTrailingZeros(c);
+        this.producerIndex = new AtomicLong();
+        this.consumerIndex = new AtomicLong();
+        Chunk<T> first = new Chunk<T>(0L, c);
+        this.consumerChunk = first;
+        this.producerChunk = new AtomicReference<Chunk<T>>(first);
+    }
+
+    public final boolean offer(final T e) {
+        if (null == e) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        // read the chunk before claiming the index so the chunk can't be ahead of the index
+        Chunk<T> start = producerChunk.get();
+        long index = producerIndex.getAndIncrement();
+        long chunkIndex = index >> chunkShift;
+
+        Chunk<T> c = start;
+        while (c.index != chunkIndex) {
+            Chunk<T> next = c.get();
+            if (next == null) {
+                next = new Chunk<T>(c.index + 1, chunkMask + 1);
+                if (!c.compareAndSet(null, next)) {
+                    next = c.get();
+                }
+            }
+            c = next;
+        }
+
+        if (c != start) {
+            // advance the shared chunk, best effort; a failed CAS means someone moved it already
+            Chunk<T> current = producerChunk.get();
+            if (current.index < c.index) {
+                producerChunk.compareAndSet(current, c);
+            }
+        }
+
+        c.soElement((int)index & chunkMask, e);
+        return true;
+    }
+
+    public final boolean offer(T v1, T v2) {
+        offer(v1);
+        offer(v2);
+        return true;
+    }
+
+    @Nullable
+    public final T poll() {
+        long index = consumerIndex.get();
+        Chunk<T> c = consumerChunk;
+        long chunkIndex = index >> chunkShift;
+
+        if (c.index != chunkIndex) {
+            Chunk<T> next = c.get();
+            if (next == null) {
+                if (index == producerIndex.get()) {
+                    return null;
+                }
+                // spin, the producer which claimed the slot hasn't linked the chunk yet
+                while ((next = c.get()) == null) { } // NOPMD
+            }
+            consumerChunk = next;
+            c = next;
+        }
+
+        int offset = (int)index & chunkMask;
+        T v = c.lvElement(offset);
+        if (v == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+            // spin, the producer which claimed the slot hasn't written it yet
+            while ((v = c.lvElement(offset)) == null) { } // NOPMD
+        }
+        c.soElement(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return v;
+    }
+
+    public final void clear() {
+        while (poll() != null && !isEmpty()) { } // NOPMD
+    }
+
+    public final boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    static final class Chunk<T> extends AtomicReference<Chunk<T>> {
+
+        private static final long serialVersionUID = -3488224521400489768L;
+
+        final long index;
+
+        final AtomicReferenceArray<T> array;
+
+        Chunk(long index, int size) {
+            this.index = index;
+            this.array = new AtomicReferenceArray<T>(size);
+        }
+
+        T lvElement(int offset) {
+            return array.get(offset);
+        }
+
+        void soElement(int offset, T value) {
+            array.lazySet(offset, value);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.internal.queues;
+
+import io.reactivex.common.annotations.Nullable;
+
+/**
+ * An unsynchronized, unbounded priority queue consisting of a binary min-heap and a
+ * FIFO ring buffer for items arriving in non-decreasing order.
+ * <p>
+ * Items offered via {@link #offerLast(Comparable)} that are not smaller than the
+ * last item in the FIFO part are appended in O(1); everything else goes into the heap.
+ * {@link #poll()} returns the smaller of the two heads, thus the queue yields
+ * items in the same order as a regular priority queue would.
+ * <p>
+ * The class is not thread-safe and is meant for thread-confined use, such as by
+ * the trampoline and test schedulers.
+ *
+ * @param <T> the element type, must be mutually comparable
+ */
+public final class FifoPriorityQueue<T extends Comparable<? super T>> {
+
+    /** The FIFO ring buffer, its length is always a power of 2. */
+    Object[] fifo;
+    /** The index of the first element in the FIFO part. */
+    int fifoHead;
+    /** The number of elements in the FIFO part. */
+    int fifoSize;
+
+    /** The binary min-heap, heap[0] is the smallest. */
+    Object[] heap;
+    /** The number of elements in the heap part. */
+    int heapSize;
+
+    public FifoPriorityQueue() {
+        this.fifo = new Object[16];
+        this.heap = new Object[16];
+    }
+
+    /**
+     * Adds an item to the queue, trying the FIFO fast path first.
+     * @param item the item to add, not null
+     */
+    @SuppressWarnings("unchecked")
+    public void offerLast(T item) {
+        if (item == null) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        int n = fifoSize;
+        if (n != 0) {
+            Object[] a = fifo;
+            T last = (T)a[(fifoHead + n - 1) & (a.length - 1)];
+            if (last.compareTo(item) > 0) {
+                offer(item);
+                return;
+            }
+            if (n == a.length) {
+                a = growFifo();
+            }
+            a[(fifoHead + n) & (a.length - 1)] = item;
+        } else {
+            fifo[fifoHead] = item;
+        }
+        fifoSize = n + 1;
+    }
+
+    /**
+     * Adds an item to the heap part of the queue.
+     * @param item the item to add, not null
+     */
+    public void offer(T item) {
+        if (item == null) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        int n = heapSize;
+        Object[] a = heap;
+        if (n == a.length) {
+            a = new Object[n * 2];
+            System.arraycopy(heap, 0, a, 0, n);
+            heap = a;
+        }
+        siftUp(a, n, item);
+        heapSize = n + 1;
+    }
+
+    /**
+     * Returns the smallest item without removing it.
+     * @return the smallest item or null if the queue is empty
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        T f = fifoSize != 0 ? (T)fifo[fifoHead] : null;
+        T h = heapSize != 0 ? (T)heap[0] : null;
+        if (f == null) {
+            return h;
+        }
+        if (h == null || f.compareTo(h) <= 0) {
+            return f;
+        }
+        return h;
+    }
+
+    /**
+     * Removes and returns the smallest item.
+     * @return the smallest item or null if the queue is empty
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        T f = fifoSize != 0 ? (T)fifo[fifoHead] : null;
+        if (heapSize != 0) {
+            T h = (T)heap[0];
+            if (f == null || f.compareTo(h) > 0) {
+                removeHeapAt(0);
+                return h;
+            }
+        }
+        if (f != null) {
+            fifo[fifoHead] = null;
+            fifoHead = (fifoHead + 1) & (fifo.length - 1);
+            fifoSize--;
+        }
+        return f;
+    }
+
+    /**
+     * Removes the given item (compared by reference) from the queue.
+     * <p>
+     * This is an O(n) operation.
+     * @param item the item to remove
+     * @return true if the item was found and removed
+     */
+    public boolean remove(Object item) {
+        Object[] a = heap;
+        int n = heapSize;
+        for (int i = 0; i < n; i++) {
+            if (a[i] == item) {
+                removeHeapAt(i);
+                return true;
+            }
+        }
+        a = fifo;
+        int m = a.length - 1;
+        n = fifoSize;
+        for (int i = 0; i < n; i++) {
+            if (a[(fifoHead + i) & m] == item) {
+                // shift the remaining items toward the head, keeping the FIFO order
+                for (int j = i; j < n - 1; j++) {
+                    a[(fifoHead + j) & m] = a[(fifoHead + j + 1) & m];
+                }
+                a[(fifoHead + n - 1) & m] = null;
+                fifoSize = n - 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return fifoSize == 0 && heapSize == 0;
+    }
+
+    public int size() {
+        return fifoSize + heapSize;
+    }
+
+    public void clear() {
+        Object[] a = fifo;
+        int m = a.length - 1;
+        for (int i = 0; i < fifoSize; i++) {
+            a[(fifoHead + i) & m] = null;
+        }
+        fifoHead = 0;
+        fifoSize = 0;
+        a = heap;
+        for (int i = 0; i < heapSize; i++) {
+            a[i] = null;
+        }
+        heapSize = 0;
+    }
+
+    Object[] growFifo() {
+        Object[] a = fifo;
+        int n = a.length;
+        Object[] b = new Object[n * 2];
+        int h = fifoHead;
+        System.arraycopy(a, h, b, 0, n - h);
+        System.arraycopy(a, 0, b, n - h, h);
+        fifo = b;
+        fifoHead = 0;
+        return b;
+    }
+
+    @SuppressWarnings("unchecked")
+    void removeHeapAt(int index) {
+        Object[] a = heap;
+        int n = --heapSize;
+        T last = (T)a[n];
+        a[n] = null;
+        if (index != n) {
+            siftDown(a, n, index, last);
+            if (a[index] == last) {
+                siftUp(a, index, last);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Comparable<? super T>> void siftUp(Object[] a, int index, T item) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            T p = (T)a[parent];
+            if (item.compareTo(p) >= 0) {
+                break;
+            }
+            a[index] = p;
+            index = parent;
+        }
+        a[index] = item;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Comparable<? super T>> void siftDown(Object[] a, int size, int index, T item) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            T c = (T)a[child];
+            int right = child + 1;
+            if (right < size && c.compareTo((T)a[right]) > 0) {
+                child = right;
+                c = (T)a[child];
+            }
+            if (item.compareTo(c) <= 0) {
+                break;
+            }
+            a[index] = c;
+            index = child;
+        }
+        a[index] = item;
+    }
+}
@@ -31,16 +31,36 @@ public final class ExecutorScheduler extends Scheduler {
     @NonNull
     final Executor executor;
 
+    /** The maximum number of tasks a worker runs per executor submission. */
+    final int maxTasks;
+
+    /** The maximum time in nanoseconds a worker runs tasks per executor submission. */
+    final long maxNanos;
+
     static final Scheduler HELPER = Schedulers.single();
 
     public ExecutorScheduler(@NonNull Executor executor) {
+        this(executor, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructs an ExecutorScheduler whose workers give up their executor thread and
+     * resubmit themselves once they have run the given number of tasks or for the given
+     * amount of time.
+     * @param executor the executor to run the tasks on
+     * @param maxTasks the maximum number of tasks per submission, Integer.MAX_VALUE means unbounded
+     * @param maxNanos the maximum running time per submission, Long.MAX_VALUE means unbounded
+     */
+    public ExecutorScheduler(@NonNull Executor executor, int maxTasks, long maxNanos) {
         this.executor = executor;
+        this.maxTasks = maxTasks;
+        this.maxNanos = maxNanos;
     }
 
     @NonNull
     @Override
     public Worker createWorker() {
-        return new ExecutorWorker(executor);
+        return new ExecutorWorker(executor, maxTasks, maxNanos);
     }
 
     @NonNull
@@ -107,7 +127,7 @@ public final class ExecutorScheduler extends Scheduler {
         return super.schedulePeriodicallyDirect(run, initialDelay, period, unit);
     }
     /* public: test support. */
-    public static final class ExecutorWorker extends Scheduler.Worker implements Runnable {
+    public static class ExecutorWorker extends Scheduler.Worker implements Runnable {
         final Executor executor;
 
         final AbstractMpscLinkedQueue<Runnable> queue;
@@ -118,8 +138,18 @@ public final class ExecutorScheduler extends Scheduler {
 
         final CompositeDisposable tasks = new CompositeDisposable();
 
+        final int maxTasks;
+
+        final long maxNanos;
+
         public ExecutorWorker(Executor executor) {
+            this(executor, Integer.MAX_VALUE, Long.MAX_VALUE);
+        }
+
+        public ExecutorWorker(Executor executor, int maxTasks, long maxNanos) {
             this.executor = executor;
+            this.maxTasks = maxTasks;
+            this.maxNanos = maxNanos;
             this.queue = new AbstractMpscLinkedQueue<Runnable>() { };
         }
 
@@ -136,12 +166,7 @@ public final class ExecutorScheduler extends Scheduler {
             queue.offer(br);
 
             if (wip.getAndIncrement() == 0) {
-                try {
-                    executor.execute(this);
-                } catch (RejectedExecutionException ex) {
-                    disposed = true;
-                    queue.clear();
-                    RxJavaCommonPlugins.onError(ex);
+                if (!submit(false)) {
                     return REJECTED;
                 }
             }
@@ -149,6 +174,32 @@ public final class ExecutorScheduler extends Scheduler {
             return br;
         }
 
+        /**
+         * Hands the drain loop over to the executor.
+         * @param yield true if the drain loop used up its budget and gives up the thread
+         * @return false if the executor rejected the drain loop
+         */
+        boolean submit(boolean yield) {
+            try {
+                execute(yield);
+            } catch (RejectedExecutionException ex) {
+                disposed = true;
+                queue.clear();
+                RxJavaCommonPlugins.onError(ex);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Submits the drain loop to the executor, overridden by executors that need
+         * a different kind of task.
+         * @param yield true if the drain loop used up its budget and gives up the thread
+         */
+        void execute(boolean yield) {
+            executor.execute(this);
+        }
+
         @NonNull
         @Override
         public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
@@ -208,6 +259,12 @@ public final class ExecutorScheduler extends Scheduler {
         public void run() {
             int missed = 1;
             final AbstractMpscLinkedQueue<Runnable> q = queue;
+            final int limit = maxTasks;
+            final long timeLimit = maxNanos;
+            final boolean countTasks = limit != Integer.MAX_VALUE;
+            final boolean checkTime = timeLimit != Long.MAX_VALUE;
+            final long start = checkTime ? System.nanoTime() : 0L;
+            int count = 0;
             for (;;) {
 
                 if (disposed) {
@@ -226,6 +283,14 @@ public final class ExecutorScheduler extends Scheduler {
                         q.clear();
                         return;
                     }
+
+                    if (((countTasks && ++count >= limit)
+                            || (checkTime && System.nanoTime() - start >= timeLimit))
+                            && !q.isEmpty()) {
+                        // budget used up: let others use the thread, wip stays non-zero until we resume
+                        submit(true);
+                        return;
+                    }
                 }
 
                 if (disposed) {
@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.internal.schedulers;
+
+import java.util.concurrent.*;
+
+import io.reactivex.common.*;
+import io.reactivex.common.annotations.NonNull;
+import io.reactivex.common.internal.disposables.SequentialDisposable;
+import io.reactivex.common.internal.utils.SuppressAnimalSniffer;
+
+/**
+ * Runs tasks as {@link ForkJoinTask}s on a {@link ForkJoinPool}, forking them onto the
+ * local deque of the current thread when scheduled from within the same pool.
+ * <p>
+ * A worker that used up its budget is put behind the work already waiting in the pool
+ * instead of being forked again, which would let it run right away on a LIFO local deque.
+ */
+@SuppressAnimalSniffer
+public final class ForkJoinScheduler extends Scheduler {
+
+    @NonNull
+    final ForkJoinPool pool;
+
+    final int maxTasks;
+
+    final long maxNanos;
+
+    public ForkJoinScheduler(@NonNull ForkJoinPool pool) {
+        this(pool, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public ForkJoinScheduler(@NonNull ForkJoinPool pool, int maxTasks, long maxNanos) {
+        this.pool = pool;
+        this.maxTasks = maxTasks;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Creates a ForkJoinScheduler if the executor is a {@link ForkJoinPool}, an
+     * {@link ExecutorScheduler} otherwise; this is the only place outside this class
+     * that needs the Java 7 types to be present.
+     * @param executor the executor to wrap
+     * @param maxTasks the maximum number of tasks a worker runs before giving up the thread
+     * @param maxNanos the maximum time in nanoseconds a worker runs tasks before giving up the thread
+     * @return the new Scheduler
+     */
+    public static Scheduler create(@NonNull Executor executor, int maxTasks, long maxNanos) {
+        if (executor instanceof ForkJoinPool) {
+            return new ForkJoinScheduler((ForkJoinPool)executor, maxTasks, maxNanos);
+        }
+        return new ExecutorScheduler(executor, maxTasks, maxNanos);
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return new ForkJoinWorker(pool, maxTasks, maxNanos);
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run) {
+        Runnable decoratedRun = RxJavaCommonPlugins.onSchedule(run);
+        ForkJoinDirectTask task = new ForkJoinDirectTask(decoratedRun);
+        try {
+            submit(pool, task);
+        } catch (RejectedExecutionException ex) {
+            RxJavaCommonPlugins.onError(ex);
+            return REJECTED;
+        }
+        return task;
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+        if (delay <= 0L) {
+            return scheduleDirect(run);
+        }
+        Runnable decoratedRun = RxJavaCommonPlugins.onSchedule(run);
+        ForkJoinDirectTask task = new ForkJoinDirectTask(decoratedRun);
+
+        // the pool has no timer, wait on the helper scheduler and submit from there
+        Disposable d = ExecutorScheduler.HELPER.scheduleDirect(new DelayedSubmit(pool, task), delay, unit);
+
+        task.timer.replace(d);
+
+        return task;
+    }
+
+    /**
+     * Forks the task if the current thread belongs to the pool, otherwise submits it
+     * to the pool's shared queue.
+     * @param pool the target pool
+     * @param task the task to run
+     */
+    static void submit(ForkJoinPool pool, ForkJoinTask<?> task) {
+        if (ForkJoinTask.getPool() == pool) {
+            task.fork();
+        } else {
+            pool.execute(task);
+        }
+    }
+
+    /**
+     * Puts the task behind the work already waiting in the pool: the local queues of an
+     * async mode pool are FIFO, otherwise the task is submitted from outside the pool so that
+     * it lands on the shared submission queue instead of the top of the local LIFO deque.
+     * @param pool the target pool
+     * @param worker the worker whose drain loop yields
+     */
+    static void requeue(ForkJoinPool pool, ForkJoinWorker worker) {
+        if (pool.getAsyncMode() || ForkJoinTask.getPool() != pool) {
+            pool.execute(new ForkJoinDrain(worker));
+        } else {
+            ExecutorScheduler.HELPER.scheduleDirect(new Requeue(worker));
+        }
+    }
+
+    static final class ForkJoinWorker extends ExecutorScheduler.ExecutorWorker {
+
+        final ForkJoinPool pool;
+
+        ForkJoinWorker(ForkJoinPool pool, int maxTasks, long maxNanos) {
+            super(pool, maxTasks, maxNanos);
+            this.pool = pool;
+        }
+
+        @Override
+        void execute(boolean yield) {
+            if (yield) {
+                requeue(pool, this);
+            } else {
+                ForkJoinScheduler.submit(pool, new ForkJoinDrain(this));
+            }
+        }
+    }
+
+    /**
+     * Runs the drain loop of a worker as a ForkJoinTask so that it can be forked
+     * onto the local deque of a ForkJoinPool thread.
+     */
+    static final class ForkJoinDrain extends ForkJoinTask<Void> {
+
+        private static final long serialVersionUID = 2709564440815960488L;
+
+        final ForkJoinWorker worker;
+
+        ForkJoinDrain(ForkJoinWorker worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(Void value) {
+            // no result
+        }
+
+        @Override
+        protected boolean exec() {
+            try {
+                worker.run();
+            } catch (Throwable ex) {
+                // the pool would otherwise keep the error to itself
+                RxJavaCommonPlugins.onError(ex);
+            }
+            return true;
+        }
+    }
+
+    static final class Requeue implements Runnable {
+        final ForkJoinWorker worker;
+
+        Requeue(ForkJoinWorker worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public void run() {
+            // off the pool now, a rejection disposes the worker as usual
+            worker.submit(true);
+        }
+    }
+
+    static final class ForkJoinDirectTask extends ForkJoinTask<Void> implements Disposable {
+
+        private static final long serialVersionUID = -1839371428458212399L;
+
+        final Runnable run;
+
+        final SequentialDisposable timer;
+
+        volatile boolean disposed;
+
+        ForkJoinDirectTask(Runnable run) {
+            this.run = run;
+            this.timer = new SequentialDisposable();
+        }
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(Void value) {
+            // no result
+        }
+
+        @Override
+        protected boolean exec() {
+            if (!disposed) {
+                try {
+                    run.run();
+                } catch (Throwable ex) {
+                    // the pool would otherwise keep the error to itself
+                    RxJavaCommonPlugins.onError(ex);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                timer.dispose();
+                cancel(false);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed || isDone();
+        }
+    }
+
+    static final class DelayedSubmit implements Runnable {
+        final ForkJoinPool pool;
+
+        final ForkJoinDirectTask task;
+
+        DelayedSubmit(ForkJoinPool pool, ForkJoinDirectTask task) {
+            this.pool = pool;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (!task.disposed) {
+                try {
+                    pool.execute(task);
+                } catch (RejectedExecutionException ex) {
+                    RxJavaCommonPlugins.onError(ex);
+                }
+            }
+        }
+    }
+}
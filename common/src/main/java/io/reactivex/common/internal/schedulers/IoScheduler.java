@@ -37,11 +37,17 @@ public final class IoScheduler extends Scheduler {
 
     static final ThreadWorker SHUTDOWN_THREAD_WORKER;
     final ThreadFactory threadFactory;
+    final int maxThreads;
     final AtomicReference<CachedWorkerPool> pool;
 
     /** The name of the system property for setting the thread priority for this Scheduler. */
     private static final String KEY_IO_PRIORITY = "rx2.io-priority";
 
+    /** The name of the system property for limiting the number of threads of this Scheduler. */
+    private static final String KEY_IO_MAX_THREADS = "rx2.io-max-threads";
+
+    static final int MAX_THREADS;
+
     static final CachedWorkerPool NONE;
     static {
         SHUTDOWN_THREAD_WORKER = new ThreadWorker(new RxThreadFactory("RxCachedThreadSchedulerShutdown"));
@@ -50,27 +56,55 @@ public final class IoScheduler extends Scheduler {
         int priority = Math.max(Thread.MIN_PRIORITY, Math.min(Thread.MAX_PRIORITY,
                 Integer.getInteger(KEY_IO_PRIORITY, Thread.NORM_PRIORITY)));
 
+        MAX_THREADS = Math.max(1, Integer.getInteger(KEY_IO_MAX_THREADS, Integer.MAX_VALUE));
+
         WORKER_THREAD_FACTORY = new RxThreadFactory(WORKER_THREAD_NAME_PREFIX, priority);
 
         EVICTOR_THREAD_FACTORY = new RxThreadFactory(EVICTOR_THREAD_NAME_PREFIX, priority);
 
-        NONE = new CachedWorkerPool(0, null, WORKER_THREAD_FACTORY);
+        NONE = new CachedWorkerPool(0, null, WORKER_THREAD_FACTORY, Integer.MAX_VALUE);
         NONE.shutdown();
     }
 
     static final class CachedWorkerPool implements Runnable {
+        static final ThreadWorker[] EMPTY = new ThreadWorker[0];
+
         private final long keepAliveTime;
         private final ConcurrentLinkedQueue<ThreadWorker> expiringWorkerQueue;
         final CompositeDisposable allWorkers;
         private final ScheduledExecutorService evictorService;
         private final Future<?> evictorTask;
         private final ThreadFactory threadFactory;
-
-        CachedWorkerPool(long keepAliveTime, TimeUnit unit, ThreadFactory threadFactory) {
+        /** The maximum number of threads, Integer.MAX_VALUE means unbounded. */
+        final int maxThreads;
+        /** The number of threads created and not yet evicted. */
+        final AtomicInteger liveThreads;
+        /** The number of workers waiting in the expiringWorkerQueue. */
+        final AtomicInteger idleWorkers;
+        /** The number of workers evicted due to the keep-alive time. */
+        final AtomicLong evictions;
+        /** The total time immediate tasks waited for their thread, bounded mode only. */
+        final AtomicLong queueWaitTime;
+        /** The number of immediate tasks whose wait time was measured, bounded mode only. */
+        final AtomicLong queueWaitCount;
+        /** The round-robin start index for picking a thread to share. */
+        final AtomicInteger shareIndex;
+        /** The live thread workers to share in bounded mode, copy-on-write while holding this. */
+        volatile ThreadWorker[] live;
+
+        CachedWorkerPool(long keepAliveTime, TimeUnit unit, ThreadFactory threadFactory, int maxThreads) {
             this.keepAliveTime = unit != null ? unit.toNanos(keepAliveTime) : 0L;
             this.expiringWorkerQueue = new ConcurrentLinkedQueue<ThreadWorker>();
             this.allWorkers = new CompositeDisposable();
             this.threadFactory = threadFactory;
+            this.maxThreads = maxThreads;
+            this.liveThreads = new AtomicInteger();
+            this.idleWorkers = new AtomicInteger();
+            this.evictions = new AtomicLong();
+            this.queueWaitTime = new AtomicLong();
+            this.queueWaitCount = new AtomicLong();
+            this.shareIndex = new AtomicInteger();
+            this.live = EMPTY;
 
             ScheduledExecutorService evictor = null;
             Future<?> task = null;
@@ -87,48 +121,167 @@ public final class IoScheduler extends Scheduler {
             evictExpiredWorkers();
         }
 
+        boolean isBounded() {
+            return maxThreads != Integer.MAX_VALUE;
+        }
+
         ThreadWorker get() {
             if (allWorkers.isDisposed()) {
                 return SHUTDOWN_THREAD_WORKER;
             }
-            while (!expiringWorkerQueue.isEmpty()) {
+            for (;;) {
                 ThreadWorker threadWorker = expiringWorkerQueue.poll();
-                if (threadWorker != null) {
+                if (threadWorker == null) {
+                    break;
+                }
+                idleWorkers.decrementAndGet();
+                threadWorker.idle.set(false);
+                if (threadWorker.lease()) {
                     return threadWorker;
                 }
             }
 
+            if (!isBounded()) {
+                liveThreads.getAndIncrement();
+                return create();
+            }
+
+            for (;;) {
+                int n = liveThreads.get();
+                if (n < maxThreads) {
+                    if (liveThreads.compareAndSet(n, n + 1)) {
+                        return create();
+                    }
+                } else {
+                    ThreadWorker threadWorker = share();
+                    if (threadWorker != null) {
+                        return threadWorker;
+                    }
+                }
+            }
+        }
+
+        ThreadWorker create() {
             // No cached worker found, so create a new one.
             ThreadWorker w = new ThreadWorker(threadFactory);
             allWorkers.add(w);
+            if (isBounded()) {
+                synchronized (this) {
+                    ThreadWorker[] a = live;
+                    ThreadWorker[] b = new ThreadWorker[a.length + 1];
+                    System.arraycopy(a, 0, b, 0, a.length);
+                    b[a.length] = w;
+                    live = b;
+                }
+            }
             return w;
         }
 
+        /**
+         * Leases the least used live thread, starting the search at a round-robin position.
+         * @return the leased worker or null if all live workers got evicted in the meantime
+         */
+        ThreadWorker share() {
+            ThreadWorker[] a = live;
+            int n = a.length;
+            if (n == 0) {
+                return null;
+            }
+            int start = (shareIndex.getAndIncrement() & Integer.MAX_VALUE) % n;
+            for (;;) {
+                ThreadWorker best = null;
+                int bestLeases = Integer.MAX_VALUE;
+                for (int i = 0; i < n; i++) {
+                    ThreadWorker w = a[(start + i) % n];
+                    int c = w.leases.get();
+                    if (c >= 0 && c < bestLeases) {
+                        best = w;
+                        bestLeases = c;
+                    }
+                }
+                if (best == null) {
+                    return null;
+                }
+                if (best.lease()) {
+                    return best;
+                }
+            }
+        }
+
         void release(ThreadWorker threadWorker) {
-            // Refresh expire time before putting worker back in pool
-            threadWorker.setExpirationTime(now() + keepAliveTime);
+            if (threadWorker.leases.decrementAndGet() == 0) {
+                // Refresh expire time before putting worker back in pool
+                threadWorker.setExpirationTime(now() + keepAliveTime);
 
-            expiringWorkerQueue.offer(threadWorker);
+                offerIdle(threadWorker);
+            }
         }
 
+        void offerIdle(ThreadWorker threadWorker) {
+            if (threadWorker.idle.compareAndSet(false, true)) {
+                idleWorkers.getAndIncrement();
+                expiringWorkerQueue.offer(threadWorker);
+            }
+        }
+
+        /**
+         * Evicts the expired workers from the head of the queue, stopping at the first
+         * idle worker that hasn't expired yet.
+         */
         void evictExpiredWorkers() {
-            if (!expiringWorkerQueue.isEmpty()) {
-                long currentTimestamp = now();
+            long currentTimestamp = now();
+            for (;;) {
+                ThreadWorker head = expiringWorkerQueue.peek();
+                if (head == null) {
+                    break;
+                }
+                // Queue is ordered with the worker that will expire first in the beginning, so when we
+                // find a non-expired idle worker we can stop evicting.
+                if (head.leases.get() == 0 && head.getExpirationTime() > currentTimestamp) {
+                    break;
+                }
+                ThreadWorker threadWorker = expiringWorkerQueue.poll();
+                if (threadWorker == null) {
+                    break;
+                }
+                idleWorkers.decrementAndGet();
+                threadWorker.idle.set(false);
 
-                for (ThreadWorker threadWorker : expiringWorkerQueue) {
+                // a worker shared while idle is put back by its last release
+                if (threadWorker.leases.get() == 0) {
                     if (threadWorker.getExpirationTime() <= currentTimestamp) {
-                        if (expiringWorkerQueue.remove(threadWorker)) {
-                            allWorkers.remove(threadWorker);
+                        if (threadWorker.leases.compareAndSet(0, -1)) {
+                            evict(threadWorker);
                         }
                     } else {
-                        // Queue is ordered with the worker that will expire first in the beginning, so when we
-                        // find a non-expired worker we can stop evicting.
+                        offerIdle(threadWorker);
                         break;
                     }
                 }
             }
         }
 
+        void evict(ThreadWorker threadWorker) {
+            allWorkers.remove(threadWorker);
+            liveThreads.decrementAndGet();
+            evictions.getAndIncrement();
+            if (isBounded()) {
+                synchronized (this) {
+                    ThreadWorker[] a = live;
+                    int n = a.length;
+                    for (int i = 0; i < n; i++) {
+                        if (a[i] == threadWorker) {
+                            ThreadWorker[] b = new ThreadWorker[n - 1];
+                            System.arraycopy(a, 0, b, 0, i);
+                            System.arraycopy(a, i + 1, b, i, n - i - 1);
+                            live = b;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
         long now() {
             return System.nanoTime();
         }
@@ -145,7 +298,7 @@ public final class IoScheduler extends Scheduler {
     }
 
     public IoScheduler() {
-        this(WORKER_THREAD_FACTORY);
+        this(WORKER_THREAD_FACTORY, MAX_THREADS);
     }
 
     /**
@@ -153,14 +306,25 @@ public final class IoScheduler extends Scheduler {
      *                      system properties for configuring new thread creation. Cannot be null.
      */
     public IoScheduler(ThreadFactory threadFactory) {
+        this(threadFactory, MAX_THREADS);
+    }
+
+    /**
+     * @param threadFactory thread factory to use for creating worker threads. Note that this takes precedence over any
+     *                      system properties for configuring new thread creation. Cannot be null.
+     * @param maxThreads the maximum number of threads, once reached, new workers share the existing
+     *                   threads; Integer.MAX_VALUE means unbounded
+     */
+    public IoScheduler(ThreadFactory threadFactory, int maxThreads) {
         this.threadFactory = threadFactory;
+        this.maxThreads = maxThreads;
         this.pool = new AtomicReference<CachedWorkerPool>(NONE);
         start();
     }
 
     @Override
     public void start() {
-        CachedWorkerPool update = new CachedWorkerPool(KEEP_ALIVE_TIME, KEEP_ALIVE_UNIT, threadFactory);
+        CachedWorkerPool update = new CachedWorkerPool(KEEP_ALIVE_TIME, KEEP_ALIVE_UNIT, threadFactory, maxThreads);
         if (!pool.compareAndSet(NONE, update)) {
             update.shutdown();
         }
@@ -189,10 +353,52 @@ public final class IoScheduler extends Scheduler {
         return pool.get().allWorkers.size();
     }
 
+    /**
+     * Returns the number of threads created and not yet evicted.
+     * @return the number of live threads
+     */
+    public int liveThreads() {
+        return pool.get().liveThreads.get();
+    }
+
+    /**
+     * Returns the number of threads currently not used by any worker and waiting for reuse or eviction.
+     * @return the number of idle threads
+     */
+    public int idleWorkers() {
+        return pool.get().idleWorkers.get();
+    }
+
+    /**
+     * Returns the number of threads evicted because they stayed idle longer than the keep-alive time.
+     * @return the number of evictions
+     */
+    public long evictions() {
+        return pool.get().evictions.get();
+    }
+
+    /**
+     * Returns the total time non-delayed tasks spent waiting for their thread; measured only
+     * if the number of threads is bounded.
+     * @param unit the time unit of the result
+     * @return the total queue wait time
+     */
+    public long queueWaitTime(TimeUnit unit) {
+        return unit.convert(pool.get().queueWaitTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of non-delayed tasks included in {@link #queueWaitTime(TimeUnit)}.
+     * @return the number of measured tasks
+     */
+    public long queueWaitCount() {
+        return pool.get().queueWaitCount.get();
+    }
+
     static final class EventLoopWorker extends Scheduler.Worker {
         private final CompositeDisposable tasks;
         private final CachedWorkerPool pool;
-        private final ThreadWorker threadWorker;
+        final ThreadWorker threadWorker;
 
         final AtomicBoolean once = new AtomicBoolean();
 
@@ -225,16 +431,64 @@ public final class IoScheduler extends Scheduler {
                 return REJECTED;
             }
 
+            if (delayTime <= 0L && pool.isBounded()) {
+                action = new WaitTimeRunnable(action, pool);
+            }
+
             return threadWorker.scheduleActual(action, delayTime, unit, tasks);
         }
     }
 
+    /**
+     * Measures the time between scheduling and running an immediate task.
+     */
+    static final class WaitTimeRunnable implements Runnable {
+        final Runnable actual;
+
+        final CachedWorkerPool pool;
+
+        final long scheduled;
+
+        WaitTimeRunnable(Runnable actual, CachedWorkerPool pool) {
+            this.actual = actual;
+            this.pool = pool;
+            this.scheduled = pool.now();
+        }
+
+        @Override
+        public void run() {
+            pool.queueWaitTime.getAndAdd(pool.now() - scheduled);
+            pool.queueWaitCount.getAndIncrement();
+            actual.run();
+        }
+    }
+
     static final class ThreadWorker extends NewThreadWorker {
         private long expirationTime;
 
+        /** The number of workers using this thread, -1 once evicted. */
+        final AtomicInteger leases;
+
+        /** Set while the worker sits in the expiring queue. */
+        final AtomicBoolean idle;
+
         ThreadWorker(ThreadFactory threadFactory) {
             super(threadFactory);
             this.expirationTime = 0L;
+            this.leases = new AtomicInteger(1);
+            this.idle = new AtomicBoolean();
+        }
+
+        boolean lease() {
+            for (;;) {
+                int c = leases.get();
+                if (c < 0) {
+                    return false;
+                }
+                if (leases.compareAndSet(c, c + 1)) {
+                    return true;
+                }
+            }
         }
 
         public long getExpirationTime() {
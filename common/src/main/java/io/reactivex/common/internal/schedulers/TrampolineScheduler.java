@@ -16,12 +16,13 @@
 
 package io.reactivex.common.internal.schedulers;
 
-import java.util.concurrent.*;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.common.*;
 import io.reactivex.common.annotations.NonNull;
 import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.common.internal.queues.*;
 
 /**
  * Schedules work on the current thread but does not execute immediately. Work is put in a queue and executed
@@ -74,12 +75,19 @@ public final class TrampolineScheduler extends Scheduler {
     }
 
     static final class TrampolineWorker extends Scheduler.Worker implements Disposable {
-        final PriorityBlockingQueue<TimedRunnable> queue = new PriorityBlockingQueue<TimedRunnable>();
+        /** The tasks ordered by due time, only accessed by the thread holding the wip. */
+        final FifoPriorityQueue<TimedRunnable> queue = new FifoPriorityQueue<TimedRunnable>();
+
+        /** The tasks scheduled while another thread holds the wip. */
+        final AbstractMpscLinkedQueue<TimedRunnable> remote = new AbstractMpscLinkedQueue<TimedRunnable>() { };
 
         private final AtomicInteger wip = new AtomicInteger();
 
         final AtomicInteger counter = new AtomicInteger();
 
+        /** The thread running the drain loop, only ever compared against the current thread. */
+        Thread drainer;
+
         volatile boolean disposed;
 
         @NonNull
@@ -101,30 +109,64 @@ public final class TrampolineScheduler extends Scheduler {
                 return DONE;
             }
             final TimedRunnable timedRunnable = new TimedRunnable(action, execTime, counter.incrementAndGet());
-            queue.add(timedRunnable);
+
+            if (drainer == Thread.currentThread()) {
+                // reentrant schedule from a running task, nobody else touches the queue
+                offerLocal(timedRunnable);
+                return Disposables.fromRunnable(new AppendToQueueTask(timedRunnable));
+            }
+
+            if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+                offerLocal(timedRunnable);
+                drain();
+                return DONE;
+            }
+
+            remote.offer(timedRunnable);
 
             if (wip.getAndIncrement() == 0) {
-                int missed = 1;
+                drain();
+                return DONE;
+            }
+            // queue wasn't empty, a parent is already processing so we just add to the end of the queue
+            return Disposables.fromRunnable(new AppendToQueueTask(timedRunnable));
+        }
+
+        void offerLocal(TimedRunnable timedRunnable) {
+            if (timedRunnable.run instanceof SleepingRunnable) {
+                queue.offer(timedRunnable);
+            } else {
+                queue.offerLast(timedRunnable);
+            }
+        }
+
+        void drain() {
+            final Thread current = Thread.currentThread();
+            final FifoPriorityQueue<TimedRunnable> q = queue;
+            final AbstractMpscLinkedQueue<TimedRunnable> r = remote;
+            int missed = 1;
+            drainer = current;
+            for (;;) {
                 for (;;) {
-                    for (;;) {
-                        final TimedRunnable polled = queue.poll();
-                        if (polled == null) {
-                            break;
-                        }
-                        if (!polled.disposed) {
-                            polled.run.run();
-                        }
+                    TimedRunnable t;
+                    while ((t = r.poll()) != null) {
+                        offerLocal(t);
                     }
-                    missed = wip.addAndGet(-missed);
-                    if (missed == 0) {
+
+                    final TimedRunnable polled = q.poll();
+                    if (polled == null) {
                         break;
                     }
+                    if (!polled.disposed) {
+                        polled.run.run();
+                    }
                 }
-
-                return DONE;
-            } else {
-                // queue wasn't empty, a parent is already processing so we just add to the end of the queue
-                return Disposables.fromRunnable(new AppendToQueueTask(timedRunnable));
+                drainer = null;
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+                drainer = current;
             }
         }
 
@@ -147,8 +189,8 @@ public final class TrampolineScheduler extends Scheduler {
 
             @Override
             public void run() {
+                // the drain loop skips and drops disposed tasks
                 timedRunnable.disposed = true;
-                queue.remove(timedRunnable);
             }
         }
     }
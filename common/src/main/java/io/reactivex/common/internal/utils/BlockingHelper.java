@@ -47,6 +47,26 @@ public final class BlockingHelper {
         }
     }
 
+    /**
+     * Waits for the latch to be counted down, disposing the subscription if the current thread
+     * gets interrupted.
+     * @param latch the latch to wait for
+     * @param subscription the subscription to dispose on interruption
+     */
+    public static void awaitForComplete(SpinParkLatch latch, Disposable subscription) {
+        if (latch.getCount() == 0) {
+            return;
+        }
+        try {
+            verifyNonBlocking();
+            latch.await();
+        } catch (InterruptedException e) {
+            subscription.dispose();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for subscription to complete.", e);
+        }
+    }
+
     /**
      * Checks if the {@code failOnNonBlockingScheduler} plugin setting is enabled and the current
      * thread is a Scheduler sensitive to blocking operators.
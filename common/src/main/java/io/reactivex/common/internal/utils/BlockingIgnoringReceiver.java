@@ -13,8 +13,6 @@
 
 package io.reactivex.common.internal.utils;
 
-import java.util.concurrent.CountDownLatch;
-
 import kotlin.Unit;
 import kotlin.jvm.functions.Function0;
 import kotlin.jvm.functions.Function1;
@@ -23,14 +21,10 @@ import kotlin.jvm.functions.Function1;
  * Stores an incoming Throwable (if any) and counts itself down.
  */
 public final class BlockingIgnoringReceiver
-extends CountDownLatch
+extends SpinParkLatch
         implements Function1<Throwable, Unit>, Function0<Unit> {
     public Throwable error;
 
-    public BlockingIgnoringReceiver() {
-        super(1);
-    }
-
     @Override
     public Unit invoke(Throwable e) {
         error = e;
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.internal.utils;
+
+import java.util.concurrent.Callable;
+
+import io.reactivex.common.Histogram;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import kotlin.Unit;
+import kotlin.jvm.functions.*;
+
+/**
+ * The functions the {@code histogram} operators use to collect values into a {@link Histogram}
+ * and to merge partial Histograms.
+ */
+public final class HistogramHelper {
+
+    /** Utility class. */
+    private HistogramHelper() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    public static Callable<Histogram> supplier(int significantDigits) {
+        // validate eagerly, at assembly time
+        new Histogram(significantDigits);
+        return new HistogramSupplier(significantDigits);
+    }
+
+    public static <T> Function2<Histogram, T, Unit> recorder(Function1<? super T, Long> valueMapper) {
+        return new HistogramRecorder<T>(valueMapper);
+    }
+
+    public static Function2<Histogram, Histogram, Histogram> merger() {
+        return HistogramMerger.INSTANCE;
+    }
+
+    static final class HistogramSupplier implements Callable<Histogram> {
+        final int significantDigits;
+
+        HistogramSupplier(int significantDigits) {
+            this.significantDigits = significantDigits;
+        }
+
+        @Override
+        public Histogram call() {
+            return new Histogram(significantDigits);
+        }
+    }
+
+    static final class HistogramRecorder<T> implements Function2<Histogram, T, Unit> {
+        final Function1<? super T, Long> valueMapper;
+
+        HistogramRecorder(Function1<? super T, Long> valueMapper) {
+            this.valueMapper = valueMapper;
+        }
+
+        @Override
+        public Unit invoke(Histogram h, T t) {
+            h.record(ObjectHelper.requireNonNull(valueMapper.invoke(t), "The valueMapper returned a null value"));
+            return Unit.INSTANCE;
+        }
+    }
+
+    enum HistogramMerger implements Function2<Histogram, Histogram, Histogram> {
+        INSTANCE;
+
+        @Override
+        public Histogram invoke(Histogram a, Histogram b) {
+            return a.merge(b);
+        }
+    }
+}
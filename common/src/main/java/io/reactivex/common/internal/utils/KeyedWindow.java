@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package io.reactivex.common.internal.utils;
+
+import java.util.*;
+
+/**
+ * Holds the values of one side of an equi-join, bucketed by key for constant time lookup
+ * and bounded by age and count.
+ * <p>
+ * Every value lives for the same amount of time, therefore arrival order is also
+ * expiration order: a single FIFO of the entries tells which value leaves next and that
+ * value is always the oldest one of its own bucket.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class KeyedWindow<K, V> {
+
+    final Map<K, ArrayDeque<V>> buckets;
+
+    final ArrayDeque<Entry<K>> entries;
+
+    final long maxAge;
+
+    final int maxSize;
+
+    /**
+     * Constructs an empty window.
+     * @param maxAge the time after which a value is removed, in the unit of the timestamps
+     * @param maxSize the maximum number of values held, the oldest is removed beyond this
+     */
+    public KeyedWindow(long maxAge, int maxSize) {
+        this.buckets = new HashMap<K, ArrayDeque<V>>();
+        this.entries = new ArrayDeque<Entry<K>>();
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Adds a value, removing the oldest value if the window would become larger than its maximum size.
+     * @param key the key of the value
+     * @param value the value, not null
+     * @param now the current time
+     */
+    public void add(K key, V value, long now) {
+        ArrayDeque<V> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new ArrayDeque<V>();
+            buckets.put(key, bucket);
+        }
+        bucket.offer(value);
+        entries.offer(new Entry<K>(key, now));
+
+        if (entries.size() > maxSize) {
+            removeOldest();
+        }
+    }
+
+    /**
+     * Returns the values currently held for the given key in arrival order.
+     * @param key the key
+     * @return the values or null if there are none
+     */
+    public Collection<V> get(K key) {
+        return buckets.get(key);
+    }
+
+    /**
+     * Removes the values that are at least {@code maxAge} old.
+     * @param now the current time
+     */
+    public void expire(long now) {
+        long limit = now - maxAge;
+        for (;;) {
+            Entry<K> e = entries.peek();
+            if (e == null || e.time > limit) {
+                break;
+            }
+            removeOldest();
+        }
+    }
+
+    /**
+     * Returns the number of values held.
+     * @return the number of values held
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        buckets.clear();
+        entries.clear();
+    }
+
+    void removeOldest() {
+        Entry<K> e = entries.poll();
+        ArrayDeque<V> bucket = buckets.get(e.key);
+        bucket.poll();
+        if (bucket.isEmpty()) {
+            buckets.remove(e.key);
+        }
+    }
+
+    static final class Entry<K> {
+        final K key;
+
+        final long time;
+
+        Entry(K key, long time) {
+            this.key = key;
+            this.time = time;
+        }
+    }
+}
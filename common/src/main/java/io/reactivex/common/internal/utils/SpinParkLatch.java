@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.internal.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A one-shot latch for a single waiting thread, counted down once, that spins for a
+ * bounded number of rounds before parking the waiter.
+ * <p>
+ * It mirrors the {@link java.util.concurrent.CountDownLatch} methods the blocking
+ * consumers use so it can replace a {@code CountDownLatch(1)}.
+ */
+public class SpinParkLatch extends SpinParkWaiter {
+
+    volatile boolean released;
+
+    /**
+     * Releases the waiting thread; subsequent calls have no effect.
+     */
+    public final void countDown() {
+        if (!released) {
+            released = true;
+            signal();
+        }
+    }
+
+    /**
+     * Returns 1 if the latch hasn't been counted down yet, 0 otherwise.
+     * @return the current count
+     */
+    public final long getCount() {
+        return released ? 0L : 1L;
+    }
+
+    /**
+     * Waits until the latch has been counted down.
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public final void await() throws InterruptedException {
+        int round = 0;
+        while (!released) {
+            round = idle(round);
+        }
+        clear();
+    }
+
+    /**
+     * Waits until the latch has been counted down or the given time elapses.
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the timeout
+     * @return true if the latch has been counted down, false if the time elapsed
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public final boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        if (released) {
+            return true;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int round = 0;
+        while (!released) {
+            long nanos = deadline - System.nanoTime();
+            if (nanos <= 0L) {
+                clear();
+                return false;
+            }
+            round = idle(round, nanos);
+        }
+        clear();
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.internal.utils;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lets a single consumer thread wait for a condition signalled by other threads: the consumer
+ * re-checks its condition for a bounded number of spins before it parks, and producers pay
+ * for an {@link LockSupport#unpark(Thread)} only if the consumer is actually parked.
+ * <p>
+ * The consumer calls {@link #idle(int)} each time it finds the condition false and
+ * {@link #clear()} once it doesn't wait anymore:
+ * <pre><code>
+ * int round = 0;
+ * while (!condition) {
+ *     round = waiter.idle(round);
+ * }
+ * waiter.clear();
+ * </code></pre>
+ * Producers call {@link #signal()} after making the condition true.
+ * <p>
+ * The number of spins can be set via the {@code rx2.blocking-spins} system property, zero
+ * parks right away; the default is 1000, or zero on a single CPU.
+ */
+public class SpinParkWaiter {
+    /** The name of the system property for the number of spins before parking. */
+    static final String KEY_BLOCKING_SPINS = "rx2.blocking-spins";
+
+    /** The number of times the consumer re-checks its condition before parking. */
+    public static final int SPINS;
+
+    static {
+        int def = Runtime.getRuntime().availableProcessors() > 1 ? 1000 : 0;
+        SPINS = Math.max(0, Integer.getInteger(KEY_BLOCKING_SPINS, def));
+    }
+
+    /** The consumer thread once it finished spinning. */
+    volatile Thread waiter;
+
+    /**
+     * Written by producers before reading {@link #waiter} so their preceding writes
+     * can't be reordered after that read.
+     */
+    volatile boolean signalled;
+
+    /**
+     * Wakes up the consumer if it is parked.
+     */
+    public final void signal() {
+        signalled = true;
+        Thread w = waiter;
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+    }
+
+    /**
+     * Spins, registers the current thread or parks it, depending on how many rounds the
+     * consumer has waited already; the caller has to re-check its condition after each call.
+     * @param round the number of rounds waited so far, zero initially
+     * @return the new number of rounds
+     * @throws InterruptedException if the current thread was interrupted while parked
+     */
+    public final int idle(int round) throws InterruptedException {
+        if (round < SPINS) {
+            return round + 1;
+        }
+        if (waiter == null) {
+            waiter = Thread.currentThread();
+            // the condition has to be checked once more before parking
+            return round;
+        }
+        LockSupport.park(this);
+        if (Thread.interrupted()) {
+            waiter = null;
+            throw new InterruptedException();
+        }
+        return round;
+    }
+
+    /**
+     * Spins, registers the current thread or parks it for at most the given time.
+     * @param round the number of rounds waited so far, zero initially
+     * @param nanos the maximum time to park
+     * @return the new number of rounds
+     * @throws InterruptedException if the current thread was interrupted while parked
+     * @see #idle(int)
+     */
+    public final int idle(int round, long nanos) throws InterruptedException {
+        if (round < SPINS) {
+            return round + 1;
+        }
+        if (waiter == null) {
+            waiter = Thread.currentThread();
+            return round;
+        }
+        LockSupport.parkNanos(this, nanos);
+        if (Thread.interrupted()) {
+            waiter = null;
+            throw new InterruptedException();
+        }
+        return round;
+    }
+
+    /**
+     * Deregisters the consumer thread after it stopped waiting.
+     */
+    public final void clear() {
+        if (waiter != null) {
+            waiter = null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package io.reactivex.common;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void empty() {
+        Histogram h = new Histogram(3);
+
+        assertEquals(0, h.count());
+        assertEquals(0, h.min());
+        assertEquals(0, h.max());
+        assertEquals(0d, h.mean(), 0d);
+        assertEquals(0, h.valueAtPercentile(99));
+    }
+
+    @Test
+    public void exactRange() {
+        Histogram h = new Histogram(2);
+
+        for (int i = 1; i <= 100; i++) {
+            h.record(i);
+        }
+
+        assertEquals(100, h.count());
+        assertEquals(1, h.min());
+        assertEquals(100, h.max());
+        assertEquals(50.5d, h.mean(), 1e-9);
+        assertEquals(50, h.valueAtPercentile(50));
+        assertEquals(99, h.valueAtPercentile(99));
+        assertEquals(100, h.valueAtPercentile(100));
+        assertEquals(1, h.valueAtPercentile(0));
+    }
+
+    @Test
+    public void relativeError() {
+        for (int digits = 1; digits <= 4; digits++) {
+            Histogram h = new Histogram(digits);
+            double bound = Math.pow(10, -digits);
+
+            Random rnd = new Random(digits);
+            long[] values = new long[10000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (long)(Math.exp(rnd.nextDouble() * 40));
+                h.record(values[i]);
+            }
+            Arrays.sort(values);
+
+            for (double p : new double[] { 1, 10, 50, 90, 99, 99.9, 100 }) {
+                long expected = values[Math.max(0, (int)Math.ceil(p / 100 * values.length) - 1)];
+                long actual = h.valueAtPercentile(p);
+                assertTrue("digits " + digits + ", p" + p + ": " + expected + " vs " + actual,
+                        Math.abs(actual - expected) <= expected * bound + 1);
+            }
+        }
+    }
+
+    @Test
+    public void largeValues() {
+        Histogram h = new Histogram(3);
+
+        h.record(Long.MAX_VALUE);
+        h.record(0L);
+
+        assertEquals(Long.MAX_VALUE, h.valueAtPercentile(100));
+        assertEquals(0L, h.valueAtPercentile(50));
+    }
+
+    @Test
+    public void merge() {
+        Histogram a = new Histogram(3);
+        Histogram b = new Histogram(3);
+
+        for (int i = 0; i < 1000; i++) {
+            a.record(i);
+            b.record(i * 1000L);
+        }
+
+        Histogram all = new Histogram(3);
+        all.merge(a).merge(b);
+
+        assertEquals(2000, all.count());
+        assertEquals(0, all.min());
+        assertEquals(999000, all.max());
+        assertEquals(998, all.valueAtPercentile(50));
+        assertEquals(a.valueAtPercentile(50), new Histogram(3).merge(a).valueAtPercentile(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mergeDifferentPrecision() {
+        new Histogram(2).merge(new Histogram(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeValue() {
+        new Histogram(2).record(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void digitsOutOfRange() {
+        new Histogram(6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentileOutOfRange() {
+        new Histogram(2).valueAtPercentile(100.5);
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.common.Scheduler.Worker;
+import io.reactivex.common.exceptions.TestException;
+
+public class SimulationSchedulerTest {
+
+    static Runnable record(final List<String> list, final String value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                list.add(value);
+            }
+        };
+    }
+
+    @Test
+    public void orderedByTimeThenSubmission() {
+        SimulationScheduler s = new SimulationScheduler();
+        Worker w = s.createWorker();
+        List<String> list = new ArrayList<String>();
+
+        w.schedule(record(list, "c"), 2, TimeUnit.SECONDS);
+        w.schedule(record(list, "a"), 1, TimeUnit.SECONDS);
+        w.schedule(record(list, "b"), 1, TimeUnit.SECONDS);
+        w.schedule(record(list, "0"));
+
+        s.triggerActions();
+
+        assertEquals(Arrays.asList("0"), list);
+
+        s.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("0", "a", "b"), list);
+        assertEquals(1000, s.now(TimeUnit.MILLISECONDS));
+
+        s.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("0", "a", "b", "c"), list);
+        assertEquals(6000, s.now(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void advanceTimeToNext() {
+        final SimulationScheduler s = new SimulationScheduler();
+        Worker w = s.createWorker();
+        final List<String> list = new ArrayList<String>();
+
+        assertFalse(s.advanceTimeToNext());
+
+        w.schedule(record(list, "a"), 1, TimeUnit.DAYS);
+        w.schedule(record(list, "b"), 30, TimeUnit.DAYS);
+
+        assertTrue(s.advanceTimeToNext());
+        assertEquals(Arrays.asList("a"), list);
+        assertEquals(1, s.now(TimeUnit.DAYS));
+
+        assertTrue(s.advanceTimeToNext());
+        assertEquals(Arrays.asList("a", "b"), list);
+        assertEquals(30, s.now(TimeUnit.DAYS));
+
+        assertFalse(s.advanceTimeToNext());
+    }
+
+    @Test
+    public void periodic() {
+        SimulationScheduler s = new SimulationScheduler();
+        Worker w = s.createWorker();
+        final int[] calls = { 0 };
+
+        Disposable d = w.schedulePeriodically(new Runnable() {
+            @Override
+            public void run() {
+                calls[0]++;
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+
+        s.advanceTimeBy(100, TimeUnit.SECONDS);
+
+        assertEquals(100, calls[0]);
+
+        d.dispose();
+
+        s.advanceTimeBy(100, TimeUnit.SECONDS);
+
+        assertEquals(100, calls[0]);
+        assertEquals(0, s.pendingTasks());
+    }
+
+    @Test
+    public void cancelledTasksArePurged() {
+        SimulationScheduler s = new SimulationScheduler();
+        Worker w = s.createWorker();
+        List<String> list = new ArrayList<String>();
+
+        for (int i = 0; i < 1000; i++) {
+            w.schedule(record(list, "x"), 1, TimeUnit.HOURS).dispose();
+        }
+        w.schedule(record(list, "y"), 1, TimeUnit.HOURS);
+
+        assertEquals(1, s.pendingTasks());
+        assertTrue(s.queue.size() < 1000);
+
+        s.advanceTimeBy(1, TimeUnit.HOURS);
+
+        assertEquals(Arrays.asList("y"), list);
+        assertTrue(s.queue.isEmpty());
+        assertEquals(0, s.cancelled.get());
+    }
+
+    @Test
+    public void disposedWorker() {
+        SimulationScheduler s = new SimulationScheduler();
+        Worker w = s.createWorker();
+        List<String> list = new ArrayList<String>();
+
+        w.schedule(record(list, "a"), 1, TimeUnit.SECONDS);
+        w.dispose();
+
+        assertTrue(w.isDisposed());
+        assertSame(Scheduler.REJECTED, w.schedule(record(list, "b")));
+
+        s.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void crashRunsRestOfBatch() {
+        SimulationScheduler s = new SimulationScheduler();
+        Worker w = s.createWorker();
+        List<String> list = new ArrayList<String>();
+
+        w.schedule(new Runnable() {
+            @Override
+            public void run() {
+                throw new TestException();
+            }
+        }, 1, TimeUnit.SECONDS);
+        w.schedule(record(list, "a"), 1, TimeUnit.SECONDS);
+
+        try {
+            s.advanceTimeBy(1, TimeUnit.SECONDS);
+            fail("Should have thrown");
+        } catch (TestException expected) {
+            // expected
+        }
+
+        assertEquals(Arrays.asList("a"), list);
+        assertEquals(0, s.pendingTasks());
+    }
+
+    List<String> runParallel(int parallelism) {
+        final SimulationScheduler s = new SimulationScheduler(parallelism);
+        try {
+            final List<String> out = Collections.synchronizedList(new ArrayList<String>());
+            final List<List<String>> perWorker = new ArrayList<List<String>>();
+
+            for (int i = 0; i < 8; i++) {
+                final Worker w = s.createWorker();
+                final List<String> local = new ArrayList<String>();
+                perWorker.add(local);
+                final int index = i;
+                w.schedulePeriodically(new Runnable() {
+                    int round;
+                    @Override
+                    public void run() {
+                        local.add(index + ":" + round++ + "@" + s.now(TimeUnit.MILLISECONDS));
+                        // reschedule at the same virtual time to exercise the outbox merging
+                        if (round % 3 == 0) {
+                            w.schedule(record(local, index + ":extra"));
+                        }
+                    }
+                }, 1, 1 + (i % 3), TimeUnit.MILLISECONDS);
+            }
+
+            s.advanceTimeBy(200, TimeUnit.MILLISECONDS);
+
+            for (List<String> local : perWorker) {
+                out.addAll(local);
+            }
+            return out;
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelSameAsSequential() {
+        List<String> expected = runParallel(1);
+
+        assertFalse(expected.isEmpty());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(expected, runParallel(4));
+        }
+    }
+
+    @Test
+    public void parallelCrash() {
+        SimulationScheduler s = new SimulationScheduler(2);
+        try {
+            final List<String> list = Collections.synchronizedList(new ArrayList<String>());
+
+            s.createWorker().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    throw new TestException();
+                }
+            }, 1, TimeUnit.SECONDS);
+            s.createWorker().schedule(record(list, "a"), 1, TimeUnit.SECONDS);
+
+            try {
+                s.advanceTimeBy(1, TimeUnit.SECONDS);
+                fail("Should have thrown");
+            } catch (TestException expected) {
+                // expected
+            }
+
+            assertEquals(Arrays.asList("a"), list);
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelSchedulesOnOtherScheduler() {
+        final SimulationScheduler s = new SimulationScheduler(2);
+        final SimulationScheduler other = new SimulationScheduler();
+        try {
+            final Worker otherWorker = other.createWorker();
+            final List<String> list = Collections.synchronizedList(new ArrayList<String>());
+
+            for (int i = 0; i < 2; i++) {
+                s.createWorker().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        synchronized (other) {
+                            otherWorker.schedule(record(list, "x"), 1, TimeUnit.SECONDS);
+                        }
+                    }
+                }, 1, TimeUnit.SECONDS);
+            }
+
+            s.advanceTimeBy(1, TimeUnit.SECONDS);
+
+            assertEquals(0, s.pendingTasks());
+            assertEquals(2, other.pendingTasks());
+
+            s.advanceTimeBy(1, TimeUnit.SECONDS);
+
+            assertTrue(list.isEmpty());
+
+            other.advanceTimeBy(1, TimeUnit.SECONDS);
+
+            assertEquals(Arrays.asList("x", "x"), list);
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidParallelism() {
+        new SimulationScheduler(0);
+    }
+}
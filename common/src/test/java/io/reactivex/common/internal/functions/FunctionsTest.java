@@ -257,4 +257,15 @@ public class FunctionsTest {
         assertEquals("EmptyConsumer", Functions.EMPTY_CONSUMER.toString());
     }
 
+    @Test
+    public void isArrayAdapter() {
+        assertTrue(Functions.isArrayAdapter(Functions.toFunction(new Function2<Integer, Integer, Integer>() {
+            @Override
+            public Integer invoke(Integer a, Integer b) {
+                return a + b;
+            }
+        })));
+
+        assertFalse(Functions.isArrayAdapter(Functions.identity()));
+    }
 }
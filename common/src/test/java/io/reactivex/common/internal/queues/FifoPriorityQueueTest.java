@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.internal.queues;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+public class FifoPriorityQueueTest {
+
+    @Test
+    public void fifoPath() {
+        FifoPriorityQueue<Integer> q = new FifoPriorityQueue<Integer>();
+
+        for (int i = 0; i < 100; i++) {
+            q.offerLast(i);
+        }
+
+        assertEquals(100, q.size());
+        assertEquals(0, q.heapSize);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, q.peek().intValue());
+            assertEquals(i, q.poll().intValue());
+        }
+
+        assertTrue(q.isEmpty());
+        assertNull(q.peek());
+        assertNull(q.poll());
+    }
+
+    @Test
+    public void outOfOrderFallsBackToHeap() {
+        FifoPriorityQueue<Integer> q = new FifoPriorityQueue<Integer>();
+
+        q.offerLast(5);
+        q.offerLast(3);
+        q.offerLast(7);
+
+        assertEquals(2, q.fifoSize);
+        assertEquals(1, q.heapSize);
+
+        assertEquals(3, q.poll().intValue());
+        assertEquals(5, q.poll().intValue());
+        assertEquals(7, q.poll().intValue());
+        assertNull(q.poll());
+    }
+
+    @Test
+    public void randomMixed() {
+        Random rnd = new Random(1);
+        FifoPriorityQueue<Integer> q = new FifoPriorityQueue<Integer>();
+        List<Integer> expected = new ArrayList<Integer>();
+
+        for (int i = 0; i < 1000; i++) {
+            int v = rnd.nextInt(500);
+            if (rnd.nextBoolean()) {
+                q.offerLast(v);
+            } else {
+                q.offer(v);
+            }
+            expected.add(v);
+        }
+
+        Collections.sort(expected);
+
+        for (Integer v : expected) {
+            assertEquals(v, q.poll());
+        }
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void fifoWrapAround() {
+        FifoPriorityQueue<Integer> q = new FifoPriorityQueue<Integer>();
+
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 13; i++) {
+                q.offerLast(next++);
+            }
+            for (int i = 0; i < 7; i++) {
+                assertEquals(expected++, q.poll().intValue());
+            }
+        }
+        while (!q.isEmpty()) {
+            assertEquals(expected++, q.poll().intValue());
+        }
+        assertEquals(next, expected);
+    }
+
+    @Test
+    public void remove() {
+        FifoPriorityQueue<Integer> q = new FifoPriorityQueue<Integer>();
+        Integer a = 1000;
+        Integer b = 2000;
+        Integer c = 3000;
+        Integer d = 500;
+
+        q.offerLast(a);
+        q.offerLast(b);
+        q.offerLast(c);
+        q.offer(d);
+
+        assertTrue(q.remove(b));
+        assertFalse(q.remove(b));
+        assertTrue(q.remove(d));
+
+        assertEquals(2, q.size());
+        assertSame(a, q.poll());
+        assertSame(c, q.poll());
+        assertNull(q.poll());
+    }
+
+    @Test
+    public void clear() {
+        FifoPriorityQueue<Integer> q = new FifoPriorityQueue<Integer>();
+        q.offerLast(1);
+        q.offer(0);
+
+        q.clear();
+
+        assertTrue(q.isEmpty());
+        assertEquals(0, q.size());
+        assertNull(q.poll());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void offerNull() {
+        new FifoPriorityQueue<Integer>().offer(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void offerLastNull() {
+        new FifoPriorityQueue<Integer>().offerLast(null);
+    }
+}
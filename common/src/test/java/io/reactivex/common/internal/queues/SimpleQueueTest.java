@@ -20,6 +20,7 @@ package io.reactivex.common.internal.queues;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
@@ -158,4 +159,104 @@ public class SimpleQueueTest {
         t1.join();
         t2.join();
     }
+
+    @Test(expected = NullPointerException.class)
+    public void mpscLinkedArrayQueueNull() {
+        AbstractMpscLinkedArrayQueue<Object> q = new AbstractMpscLinkedArrayQueue<Object>(16) { };
+        q.offer(null);
+    }
+
+    @Test
+    public void mpscLinkedArrayQueueBiOffer() {
+        AbstractMpscLinkedArrayQueue<Object> q = new AbstractMpscLinkedArrayQueue<Object>(16) { };
+        q.offer(1, 2);
+
+        assertEquals(1, q.poll());
+        assertEquals(2, q.poll());
+        assertNull(q.poll());
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void mpscLinkedArrayQueueChunks() {
+        AbstractMpscLinkedArrayQueue<Integer> q = new AbstractMpscLinkedArrayQueue<Integer>(8) { };
+
+        for (int i = 0; i < 100; i++) {
+            q.offer(i);
+        }
+
+        assertFalse(q.isEmpty());
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, q.poll().intValue());
+        }
+
+        for (int i = 100; i < 120; i++) {
+            q.offer(i);
+        }
+
+        for (int i = 50; i < 120; i++) {
+            assertEquals(i, q.poll().intValue());
+        }
+
+        assertNull(q.poll());
+        assertTrue(q.isEmpty());
+
+        q.offer(1);
+        q.clear();
+
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void mpscLinkedArrayQueueMultipleProducers() throws Exception {
+        final AbstractMpscLinkedArrayQueue<Integer> q = new AbstractMpscLinkedArrayQueue<Integer>(16) { };
+
+        final int n = 4;
+        final int count = 100000;
+        final AtomicInteger c = new AtomicInteger(n + 1);
+
+        Thread[] threads = new Thread[n];
+        for (int t = 0; t < n; t++) {
+            final int base = t * count;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    c.decrementAndGet();
+                    while (c.get() != 0) { }
+
+                    for (int i = 0; i < count; i++) {
+                        q.offer(base + i);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        c.decrementAndGet();
+        while (c.get() != 0) { }
+
+        int[] last = new int[n];
+        Arrays.fill(last, -1);
+        int received = 0;
+
+        while (received != n * count) {
+            Integer v = q.poll();
+            if (v != null) {
+                int p = v / count;
+                int i = v % count;
+                // the items of the same producer arrive in order
+                assertEquals(last[p] + 1, i);
+                last[p] = i;
+                received++;
+            }
+        }
+
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertNull(q.poll());
+        assertTrue(q.isEmpty());
+    }
 }
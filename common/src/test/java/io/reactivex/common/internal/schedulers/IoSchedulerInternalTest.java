@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.internal.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.Test;
+
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.Scheduler.Worker;
+import io.reactivex.common.internal.schedulers.IoScheduler.*;
+
+public class IoSchedulerInternalTest {
+
+    static ThreadWorker threadWorker(Worker w) {
+        return ((EventLoopWorker)w).threadWorker;
+    }
+
+    @Test
+    public void unboundedCreatesThreads() {
+        IoScheduler s = new IoScheduler(IoScheduler.WORKER_THREAD_FACTORY, Integer.MAX_VALUE);
+        try {
+            Worker w1 = s.createWorker();
+            Worker w2 = s.createWorker();
+
+            assertNotSame(threadWorker(w1), threadWorker(w2));
+            assertEquals(2, s.liveThreads());
+            assertEquals(0, s.idleWorkers());
+
+            w1.dispose();
+
+            assertEquals(1, s.idleWorkers());
+
+            Worker w3 = s.createWorker();
+
+            assertSame(threadWorker(w1), threadWorker(w3));
+            assertEquals(2, s.liveThreads());
+            assertEquals(0, s.idleWorkers());
+
+            w2.dispose();
+            w3.dispose();
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void boundedSharesThreads() {
+        IoScheduler s = new IoScheduler(IoScheduler.WORKER_THREAD_FACTORY, 2);
+        try {
+            List<Worker> workers = new ArrayList<Worker>();
+            Set<ThreadWorker> threads = new HashSet<ThreadWorker>();
+            for (int i = 0; i < 10; i++) {
+                Worker w = s.createWorker();
+                workers.add(w);
+                threads.add(threadWorker(w));
+            }
+
+            assertEquals(2, threads.size());
+            assertEquals(2, s.liveThreads());
+
+            for (ThreadWorker tw : threads) {
+                assertEquals(5, tw.leases.get());
+            }
+
+            for (Worker w : workers) {
+                w.dispose();
+            }
+
+            assertEquals(2, s.idleWorkers());
+            for (ThreadWorker tw : threads) {
+                assertEquals(0, tw.leases.get());
+            }
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void boundedKeepsWorkerOrder() throws Exception {
+        IoScheduler s = new IoScheduler(IoScheduler.WORKER_THREAD_FACTORY, 1);
+        try {
+            final List<Integer> list = Collections.synchronizedList(new ArrayList<Integer>());
+            final CountDownLatch cdl = new CountDownLatch(200);
+            Worker w1 = s.createWorker();
+            Worker w2 = s.createWorker();
+
+            for (int i = 0; i < 100; i++) {
+                final int j = i;
+                w1.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        list.add(j);
+                        cdl.countDown();
+                    }
+                });
+                w2.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        list.add(1000 + j);
+                        cdl.countDown();
+                    }
+                });
+            }
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+            int a = 0;
+            int b = 1000;
+            for (Integer v : list) {
+                if (v < 1000) {
+                    assertEquals(a++, v.intValue());
+                } else {
+                    assertEquals(b++, v.intValue());
+                }
+            }
+
+            assertEquals(200, s.queueWaitCount());
+            assertTrue(s.queueWaitTime(TimeUnit.NANOSECONDS) >= 0L);
+
+            w1.dispose();
+            w2.dispose();
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void incrementalEviction() {
+        IoScheduler s = new IoScheduler(IoScheduler.WORKER_THREAD_FACTORY, 4);
+        try {
+            CachedWorkerPool pool = s.pool.get();
+
+            Worker w1 = s.createWorker();
+            Worker w2 = s.createWorker();
+            Worker w3 = s.createWorker();
+
+            ThreadWorker t1 = threadWorker(w1);
+            ThreadWorker t2 = threadWorker(w2);
+
+            w1.dispose();
+            w2.dispose();
+
+            t1.setExpirationTime(0L);
+            t2.setExpirationTime(Long.MAX_VALUE);
+
+            pool.evictExpiredWorkers();
+
+            assertEquals(1, s.evictions());
+            assertEquals(2, s.liveThreads());
+            assertEquals(1, s.idleWorkers());
+            assertEquals(-1, t1.leases.get());
+            assertTrue(t1.isDisposed());
+            assertFalse(t2.isDisposed());
+            assertEquals(2, pool.live.length);
+
+            Worker w4 = s.createWorker();
+
+            assertSame(t2, threadWorker(w4));
+
+            w3.dispose();
+            w4.dispose();
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void evictionSkipsSharedIdleWorker() {
+        IoScheduler s = new IoScheduler(IoScheduler.WORKER_THREAD_FACTORY, 1);
+        try {
+            CachedWorkerPool pool = s.pool.get();
+
+            Worker w1 = s.createWorker();
+            ThreadWorker t1 = threadWorker(w1);
+            w1.dispose();
+
+            assertEquals(1, s.idleWorkers());
+
+            // leased while still in the queue, through the sharing path
+            assertSame(t1, pool.share());
+
+            t1.setExpirationTime(0L);
+
+            pool.evictExpiredWorkers();
+
+            assertEquals(0, s.evictions());
+            assertEquals(0, s.idleWorkers());
+            assertFalse(t1.isDisposed());
+
+            pool.release(t1);
+
+            assertEquals(1, s.idleWorkers());
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void pluginsFactory() {
+        IoScheduler s = (IoScheduler)RxJavaCommonPlugins.createIoScheduler(IoScheduler.WORKER_THREAD_FACTORY, 3);
+        try {
+            assertEquals(3, s.maxThreads);
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pluginsFactoryInvalid() {
+        RxJavaCommonPlugins.createIoScheduler(IoScheduler.WORKER_THREAD_FACTORY, 0);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.internal.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+public class KeyedWindowTest {
+
+    @Test
+    public void buckets() {
+        KeyedWindow<String, Integer> w = new KeyedWindow<String, Integer>(10, 100);
+
+        w.add("a", 1, 0);
+        w.add("b", 2, 0);
+        w.add("a", 3, 1);
+
+        assertEquals(3, w.size());
+        assertEquals(Arrays.asList(1, 3), new ArrayList<Integer>(w.get("a")));
+        assertEquals(Arrays.asList(2), new ArrayList<Integer>(w.get("b")));
+        assertNull(w.get("c"));
+    }
+
+    @Test
+    public void expire() {
+        KeyedWindow<String, Integer> w = new KeyedWindow<String, Integer>(10, 100);
+
+        w.add("a", 1, 0);
+        w.add("b", 2, 5);
+        w.add("a", 3, 8);
+
+        w.expire(9);
+
+        assertEquals(3, w.size());
+
+        w.expire(10);
+
+        assertEquals(2, w.size());
+        assertEquals(Arrays.asList(3), new ArrayList<Integer>(w.get("a")));
+
+        w.expire(15);
+
+        assertEquals(1, w.size());
+        assertNull(w.get("b"));
+
+        w.expire(100);
+
+        assertEquals(0, w.size());
+        assertNull(w.get("a"));
+    }
+
+    @Test
+    public void maxSize() {
+        KeyedWindow<String, Integer> w = new KeyedWindow<String, Integer>(10, 2);
+
+        w.add("a", 1, 0);
+        w.add("b", 2, 0);
+        w.add("a", 3, 0);
+
+        assertEquals(2, w.size());
+        assertEquals(Arrays.asList(3), new ArrayList<Integer>(w.get("a")));
+
+        w.clear();
+
+        assertEquals(0, w.size());
+        assertNull(w.get("b"));
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.internal.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.common.*;
+
+public class SpinParkLatchTest {
+
+    @Test
+    public void countDownBeforeAwait() throws Exception {
+        SpinParkLatch latch = new SpinParkLatch();
+
+        assertEquals(1, latch.getCount());
+
+        latch.countDown();
+        latch.countDown();
+
+        assertEquals(0, latch.getCount());
+
+        latch.await();
+
+        assertTrue(latch.await(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test(timeout = 5000)
+    public void unparkedByOtherThread() throws Exception {
+        final SpinParkLatch latch = new SpinParkLatch();
+
+        Schedulers.single().scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 100, TimeUnit.MILLISECONDS);
+
+        latch.await();
+
+        assertEquals(0, latch.getCount());
+        assertNull(latch.waiter);
+    }
+
+    @Test(timeout = 5000)
+    public void timedAwaitElapses() throws Exception {
+        SpinParkLatch latch = new SpinParkLatch();
+
+        assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+        assertFalse(latch.await(0, TimeUnit.MILLISECONDS));
+        assertNull(latch.waiter);
+    }
+
+    @Test(timeout = 5000)
+    public void timedAwaitReleased() throws Exception {
+        final SpinParkLatch latch = new SpinParkLatch();
+
+        Schedulers.single().scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void interrupted() {
+        SpinParkLatch latch = new SpinParkLatch();
+
+        Thread.currentThread().interrupt();
+
+        try {
+            latch.await();
+            fail("Should have thrown");
+        } catch (InterruptedException expected) {
+            // expected
+        }
+
+        assertFalse(Thread.interrupted());
+        assertNull(latch.waiter);
+    }
+
+    @Test
+    public void awaitForCompleteInterrupted() {
+        SpinParkLatch latch = new SpinParkLatch();
+        Disposable d = Disposables.empty();
+
+        Thread.currentThread().interrupt();
+
+        try {
+            BlockingHelper.awaitForComplete(latch, d);
+            fail("Should have thrown");
+        } catch (IllegalStateException ex) {
+            assertTrue(ex.getCause() instanceof InterruptedException);
+        }
+        assertTrue(d.isDisposed());
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test(timeout = 10000)
+    public void pingPong() throws Exception {
+        final SpinParkWaiter waiter = new SpinParkWaiter();
+        final int[] box = { 0 };
+        final int n = 10000;
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 1; i <= n; i++) {
+                    synchronized (box) {
+                        box[0] = i;
+                    }
+                    waiter.signal();
+                    while (true) {
+                        synchronized (box) {
+                            if (box[0] != i) {
+                                break;
+                            }
+                        }
+                        Thread.yield();
+                    }
+                }
+            }
+        });
+        t.start();
+
+        for (int i = 1; i <= n; i++) {
+            int round = 0;
+            for (;;) {
+                int v;
+                synchronized (box) {
+                    v = box[0];
+                }
+                if (v == i) {
+                    break;
+                }
+                round = waiter.idle(round);
+            }
+            waiter.clear();
+            synchronized (box) {
+                box[0] = -i;
+            }
+        }
+
+        t.join();
+        assertNull(waiter.waiter);
+    }
+}
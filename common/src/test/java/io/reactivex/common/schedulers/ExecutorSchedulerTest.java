@@ -16,7 +16,7 @@ package io.reactivex.common.schedulers;
 import static org.junit.Assert.*;
 
 import java.lang.management.*;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -547,4 +547,165 @@ public class ExecutorSchedulerTest extends AbstractSchedulerConcurrencyTests {
             executorScheduler.shutdownNow();
         }
     }
+
+    static final class ManualExecutor implements Executor {
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.offer(command);
+        }
+
+        boolean runOne() {
+            Runnable r = tasks.poll();
+            if (r != null) {
+                r.run();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    static Runnable record(final List<String> list, final String value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                list.add(value);
+            }
+        };
+    }
+
+    @Test
+    public void taskBudgetInterleavesWorkers() {
+        ManualExecutor exec = new ManualExecutor();
+        Scheduler s = Schedulers.from(exec, 2, 1, TimeUnit.DAYS);
+
+        Worker w1 = s.createWorker();
+        Worker w2 = s.createWorker();
+        List<String> list = new ArrayList<String>();
+
+        for (int i = 0; i < 5; i++) {
+            w1.schedule(record(list, "a" + i));
+            w2.schedule(record(list, "b" + i));
+        }
+
+        assertEquals(2, exec.tasks.size());
+
+        while (exec.runOne()) { }
+
+        assertEquals(Arrays.asList("a0", "a1", "b0", "b1", "a2", "a3", "b2", "b3", "a4", "b4"), list);
+
+        w1.schedule(record(list, "a5"));
+
+        assertEquals(1, exec.tasks.size());
+
+        w1.dispose();
+        w2.dispose();
+    }
+
+    @Test
+    public void timeBudgetYields() {
+        ManualExecutor exec = new ManualExecutor();
+        Scheduler s = Schedulers.from(exec, Integer.MAX_VALUE, 1, TimeUnit.NANOSECONDS);
+
+        Worker w = s.createWorker();
+        List<String> list = new ArrayList<String>();
+
+        w.schedule(record(list, "a"));
+        w.schedule(record(list, "b"));
+        w.schedule(record(list, "c"));
+
+        assertTrue(exec.runOne());
+        assertEquals(Arrays.asList("a"), list);
+
+        assertTrue(exec.runOne());
+        assertTrue(exec.runOne());
+        assertFalse(exec.runOne());
+        assertEquals(Arrays.asList("a", "b", "c"), list);
+
+        w.dispose();
+    }
+
+    @Test
+    public void budgetResubmitRejected() {
+        final int[] calls = { 0 };
+        Scheduler s = Schedulers.from(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (++calls[0] == 1) {
+                    command.run();
+                } else {
+                    throw new RejectedExecutionException();
+                }
+            }
+        }, 1, 1, TimeUnit.DAYS);
+
+        final Worker w = s.createWorker();
+        List<Throwable> errors = TestCommonHelper.trackPluginErrors();
+        try {
+            final List<String> list = new ArrayList<String>();
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    list.add("a");
+                    w.schedule(record(list, "b"));
+                }
+            });
+
+            assertEquals(Arrays.asList("a"), list);
+            assertTrue(w.isDisposed());
+            TestCommonHelper.assertUndeliverable(errors, 0, RejectedExecutionException.class);
+        } finally {
+            RxJavaCommonPlugins.reset();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxTasks() {
+        Schedulers.from(executor, 0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxTime() {
+        Schedulers.from(executor, 1, 0, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void forkJoinPool() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Scheduler s = Schedulers.from(pool, 4, 1, TimeUnit.MILLISECONDS);
+            final Worker w = s.createWorker();
+            final int n = 1000;
+            final CountDownLatch cdl = new CountDownLatch(n);
+            final AtomicInteger order = new AtomicInteger();
+            final AtomicInteger wrongOrder = new AtomicInteger();
+
+            // from() treats the pool as a plain Executor, the inner schedule calls happen on a pool thread
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < n; i++) {
+                        final int j = i;
+                        w.schedule(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (order.getAndIncrement() != j) {
+                                    wrongOrder.incrementAndGet();
+                                }
+                                cdl.countDown();
+                            }
+                        });
+                    }
+                }
+            });
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            assertEquals(0, wrongOrder.get());
+
+            w.dispose();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.common.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import io.reactivex.common.*;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.common.Scheduler.Worker;
+import io.reactivex.common.internal.functions.Functions;
+import io.reactivex.common.internal.schedulers.*;
+
+public class ForkJoinSchedulerTest extends AbstractSchedulerConcurrencyTests {
+
+    static final ForkJoinPool pool = new ForkJoinPool(2, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+
+    @Override
+    protected Scheduler getScheduler() {
+        return Schedulers.forkJoin(pool);
+    }
+
+    @Test(timeout = 5000)
+    public void directStaysOnPoolThread() throws Exception {
+        final Scheduler s = getScheduler();
+        final AtomicReference<Thread> outer = new AtomicReference<Thread>();
+        final AtomicReference<Thread> inner = new AtomicReference<Thread>();
+        final CountDownLatch cdl = new CountDownLatch(1);
+
+        s.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                outer.set(Thread.currentThread());
+                s.scheduleDirect(new Runnable() {
+                    @Override
+                    public void run() {
+                        inner.set(Thread.currentThread());
+                        cdl.countDown();
+                    }
+                });
+            }
+        });
+
+        assertTrue(cdl.await(5, TimeUnit.SECONDS));
+        assertTrue(outer.get() instanceof ForkJoinWorkerThread);
+        assertTrue(inner.get() instanceof ForkJoinWorkerThread);
+    }
+
+    @Test(timeout = 5000)
+    public void directDelayed() throws Exception {
+        final CountDownLatch cdl = new CountDownLatch(1);
+
+        Disposable d = getScheduler().scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                cdl.countDown();
+            }
+        }, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(cdl.await(5, TimeUnit.SECONDS));
+
+        while (!d.isDisposed()) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void directDelayedDisposed() throws Exception {
+        final int[] calls = { 0 };
+
+        Disposable d = getScheduler().scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                calls[0]++;
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+
+        assertFalse(d.isDisposed());
+
+        d.dispose();
+
+        assertTrue(d.isDisposed());
+
+        Thread.sleep(150);
+
+        assertEquals(0, calls[0]);
+    }
+
+    @Test(timeout = 5000)
+    public void directCrash() throws Exception {
+        List<Throwable> errors = TestCommonHelper.trackPluginErrors();
+        try {
+            Disposable d = getScheduler().scheduleDirect(new Runnable() {
+                @Override
+                public void run() {
+                    throw new TestException();
+                }
+            });
+
+            while (!d.isDisposed()) {
+                Thread.sleep(1);
+            }
+
+            TestCommonHelper.assertUndeliverable(errors, 0, TestException.class);
+        } finally {
+            RxJavaCommonPlugins.reset();
+        }
+    }
+
+    @Test
+    public void rejected() {
+        ForkJoinPool p = new ForkJoinPool(1);
+        p.shutdown();
+
+        List<Throwable> errors = TestCommonHelper.trackPluginErrors();
+        try {
+            assertSame(Scheduler.REJECTED, Schedulers.forkJoin(p).scheduleDirect(Functions.EMPTY_RUNNABLE));
+
+            TestCommonHelper.assertUndeliverable(errors, 0, RejectedExecutionException.class);
+        } finally {
+            RxJavaCommonPlugins.reset();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void budgetYieldsOnLifoPool() throws Exception {
+        ForkJoinPool p = new ForkJoinPool(1);
+        try {
+            Scheduler s = Schedulers.forkJoin(p, 1, 1, TimeUnit.DAYS);
+            final Worker w1 = s.createWorker();
+            final Worker w2 = s.createWorker();
+            final List<String> list = Collections.synchronizedList(new ArrayList<String>());
+            final CountDownLatch cdl = new CountDownLatch(4);
+
+            w1.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    list.add("a0");
+                    // forked onto the local deque of the only pool thread
+                    w2.schedule(new Recorder(list, "b", cdl));
+                    w1.schedule(new Recorder(list, "a1", cdl));
+                    w1.schedule(new Recorder(list, "a2", cdl));
+                    cdl.countDown();
+                }
+            });
+
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            // forking the yielding w1 again would have run it before w2
+            assertEquals(Arrays.asList("a0", "b", "a1", "a2"), list);
+
+            w1.dispose();
+            w2.dispose();
+        } finally {
+            p.shutdownNow();
+        }
+    }
+
+    @Test
+    public void plainExecutor() {
+        ExecutorService exec = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(Schedulers.forkJoin(exec) instanceof ExecutorScheduler);
+            assertTrue(Schedulers.forkJoin(pool) instanceof ForkJoinScheduler);
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxTasks() {
+        Schedulers.forkJoin(pool, 0, 1, TimeUnit.SECONDS);
+    }
+
+    static final class Recorder implements Runnable {
+        final List<String> list;
+
+        final String name;
+
+        final CountDownLatch cdl;
+
+        Recorder(List<String> list, String name, CountDownLatch cdl) {
+            this.list = list;
+            this.name = name;
+            this.cdl = cdl;
+        }
+
+        @Override
+        public void run() {
+            list.add(name);
+            cdl.countDown();
+        }
+    }
+}
@@ -17,6 +17,9 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -32,6 +35,7 @@ import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
 import io.reactivex.common.Disposable;
 import io.reactivex.common.Emitter;
 import io.reactivex.common.ErrorMode;
+import io.reactivex.common.Histogram;
 import io.reactivex.common.Notification;
 import io.reactivex.common.RxJavaCommonPlugins;
 import io.reactivex.common.Scheduler;
@@ -54,6 +58,7 @@ import io.reactivex.common.internal.schedulers.ImmediateThinScheduler;
 import io.reactivex.common.internal.utils.ArrayListSupplier;
 import io.reactivex.common.internal.utils.ExceptionHelper;
 import io.reactivex.common.internal.utils.HashMapSupplier;
+import io.reactivex.common.internal.utils.HistogramHelper;
 import io.reactivex.flowable.internal.operators.*;
 import io.reactivex.flowable.internal.subscribers.BlockingFirstSubscriber;
 import io.reactivex.flowable.internal.subscribers.BlockingLastSubscriber;
@@ -1723,6 +1728,42 @@ public abstract class Flowable<T> implements Publisher<T> {
         return RxJavaFlowablePlugins.onAssembly(new FlowableCreate<T>(source, mode));
     }
 
+    /**
+     * Provides an API (via a cold Flowable) that bridges the reactive world with the callback-style,
+     * generally non-backpressured world, optionally allowing the FlowableEmitter to be called
+     * from multiple threads concurrently.
+     * <p>
+     * With {@code multiProducer} set and {@link BackpressureStrategy#BUFFER}, the emitter itself
+     * accepts concurrent onNext calls: producers append to a chunked multi-producer queue which
+     * is drained by whichever thread currently emits, without any lock or the
+     * {@link FlowableEmitter#serialize()} wrapper. The other modes are given a serialized emitter.
+     * <p>
+     * Even when {@code multiProducer} is set, onError and onComplete should be called once,
+     * after all concurrent onNext calls have returned.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The backpressure behavior is determined by the {@code mode} parameter.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code create} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param <T> the element type
+     * @param source the emitter that is called when a Subscriber subscribes to the returned {@code Flowable}
+     * @param mode the backpressure mode to apply if the downstream Subscriber doesn't request (fast) enough
+     * @param multiProducer if true, the emitter's onNext may be called from multiple threads concurrently
+     * @return the new Flowable instance
+     * @see #create(FlowableOnSubscribe, BackpressureStrategy)
+     */
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.SPECIAL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    @Experimental
+    public static <T> Flowable<T> create(FlowableOnSubscribe<T> source, BackpressureStrategy mode, boolean multiProducer) {
+        ObjectHelper.requireNonNull(source, "source is null");
+        ObjectHelper.requireNonNull(mode, "mode is null");
+        return RxJavaFlowablePlugins.onAssembly(new FlowableCreate<T>(source, mode, multiProducer));
+    }
+
     /**
      * Returns a Flowable that calls a Publisher factory to create a Publisher for each new Subscriber
      * that subscribes. That is, for each subscriber, the actual Publisher that subscriber observes is
@@ -1905,6 +1946,82 @@ public abstract class Flowable<T> implements Publisher<T> {
         return RxJavaFlowablePlugins.onAssembly(new FlowableFromCallable<T>(supplier));
     }
 
+    /**
+     * Reads the channel returned by a supplier for each Subscriber into a pool of reusable buffers and
+     * emits the chunks read as {@link PooledByteBuffer}s, which have to be released once consumed.
+     * <p>
+     * Each chunk holds what a single read returned, at most a buffer's worth, so the bytes
+     * already available are emitted without waiting for a full buffer. The channel is read on the
+     * thread requesting or releasing and only for the outstanding demand; it is closed when the end of
+     * the channel is reached, an error happens or the sequence gets cancelled.
+     * <p>
+     * A non-blocking {@link java.nio.channels.SelectableChannel SelectableChannel} is closed and signalled
+     * as an {@link IllegalArgumentException}.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and never has more than {@code poolSize}
+     *  chunks outstanding: it doesn't emit further chunks until earlier ones are released.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code fromChannel} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param channelSupplier the callable returning a blocking channel to read for each Subscriber
+     * @param bufferSize the capacity of each pooled buffer, positive
+     * @param poolSize the maximum number of buffers allocated per Subscriber, positive
+     * @return the new Flowable instance
+     * @see #fromChannel(Callable, int, int, Scheduler)
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public static Flowable<PooledByteBuffer> fromChannel(Callable<? extends ReadableByteChannel> channelSupplier,
+            int bufferSize, int poolSize) {
+        ObjectHelper.requireNonNull(channelSupplier, "channelSupplier is null");
+        ObjectHelper.verifyPositive(bufferSize, "bufferSize");
+        ObjectHelper.verifyPositive(poolSize, "poolSize");
+        return RxJavaFlowablePlugins.onAssembly(new FlowableFromChannel(channelSupplier, bufferSize, poolSize, null));
+    }
+
+    /**
+     * Reads the channel returned by a supplier for each Subscriber into a pool of reusable buffers on
+     * the given Scheduler, filling the free buffers ahead of the demand, and emits the chunks read as
+     * {@link PooledByteBuffer}s, which have to be released once consumed.
+     * <p>
+     * Each chunk holds what a single read returned, at most a buffer's worth, so the bytes
+     * already available are emitted without waiting for a full buffer. The channel is closed when
+     * the end of the channel is reached, an error happens or the sequence gets cancelled.
+     * <p>
+     * A non-blocking {@link java.nio.channels.SelectableChannel SelectableChannel} is closed and signalled
+     * as an {@link IllegalArgumentException}.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and never has more than {@code poolSize}
+     *  chunks read ahead or outstanding: it doesn't read further until earlier chunks are released.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>You specify which {@link Scheduler} the channel is read and the chunks are emitted on,
+     *  such as {@link Schedulers#io()}.</dd>
+     * </dl>
+     *
+     * @param channelSupplier the callable returning a blocking channel to read for each Subscriber
+     * @param bufferSize the capacity of each pooled buffer, positive
+     * @param poolSize the maximum number of buffers allocated per Subscriber, positive
+     * @param scheduler the Scheduler to read the channel on
+     * @return the new Flowable instance
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    public static Flowable<PooledByteBuffer> fromChannel(Callable<? extends ReadableByteChannel> channelSupplier,
+            int bufferSize, int poolSize, Scheduler scheduler) {
+        ObjectHelper.requireNonNull(channelSupplier, "channelSupplier is null");
+        ObjectHelper.verifyPositive(bufferSize, "bufferSize");
+        ObjectHelper.verifyPositive(poolSize, "poolSize");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        return RxJavaFlowablePlugins.onAssembly(new FlowableFromChannel(channelSupplier, bufferSize, poolSize, scheduler));
+    }
+
     /**
      * Converts a {@link Future} into a Publisher.
      * <p>
@@ -2092,6 +2209,40 @@ public abstract class Flowable<T> implements Publisher<T> {
         return RxJavaFlowablePlugins.onAssembly(new FlowableFromIterable<T>(source));
     }
 
+    /**
+     * Memory-maps the given file for each Subscriber and emits its content as read-only
+     * {@link ByteBuffer} slices of the mapping, without copying the bytes.
+     * <p>
+     * Each slice has {@code chunkSize} bytes, except possibly the last one. The file is mapped region by
+     * region, so files larger than 2 GB are supported too; a slice remains readable as long as it is
+     * referenced. The file is closed when its end is reached, an error happens or the sequence gets cancelled.
+     * <p>
+     * There is no way to unmap a region explicitly: the operator drops its own reference to a region once it
+     * has been sliced up, but the mapping lives until the region and all of its slices have been garbage
+     * collected. Consumers should not hold on to slices longer than necessary, especially when reading
+     * many or large files in a row, and on Windows the file can't be deleted while a mapping is alive.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and maps the next region only when requested.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code fromMappedFile} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param file the file to map
+     * @param chunkSize the number of bytes per slice, positive
+     * @return the new Flowable instance
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public static Flowable<ByteBuffer> fromMappedFile(File file, int chunkSize) {
+        ObjectHelper.requireNonNull(file, "file is null");
+        ObjectHelper.verifyPositive(chunkSize, "chunkSize");
+        return generate(FlowableFromMappedFile.stateSupplier(file, chunkSize),
+                FlowableFromMappedFile.generator(), FlowableFromMappedFile.disposer());
+    }
+
     /**
      * Converts an arbitrary Reactive-Streams Publisher into a Flowable if not already a
      * Flowable.
@@ -2894,7 +3045,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      * @param sources
      *            the Iterable of Publishers
      * @param maxConcurrency
-     *            the maximum number of Publishers that may be subscribed to concurrently
+     *            the maximum number of Publishers that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param bufferSize
      *            the number of items to prefetch from each inner Publisher
      * @return a Flowable that emits items that are the result of flattening the items emitted by the
@@ -2931,7 +3085,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      * @param sources
      *            the array of Publishers
      * @param maxConcurrency
-     *            the maximum number of Publishers that may be subscribed to concurrently
+     *            the maximum number of Publishers that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param bufferSize
      *            the number of items to prefetch from each inner Publisher
      * @return a Flowable that emits items that are the result of flattening the items emitted by the
@@ -2998,7 +3155,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      * @param sources
      *            the Iterable of Publishers
      * @param maxConcurrency
-     *            the maximum number of Publishers that may be subscribed to concurrently
+     *            the maximum number of Publishers that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return a Flowable that emits items that are the result of flattening the items emitted by the
      *         Publishers in the Iterable
      * @throws IllegalArgumentException
@@ -3065,7 +3225,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      * @param sources
      *            a Publisher that emits Publishers
      * @param maxConcurrency
-     *            the maximum number of Publishers that may be subscribed to concurrently
+     *            the maximum number of Publishers that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return a Flowable that emits items that are the result of flattening the Publishers emitted by the
      *         {@code source} Publisher
      * @throws IllegalArgumentException
@@ -3282,7 +3445,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      * @param sources
      *            the Iterable of Publishers
      * @param maxConcurrency
-     *            the maximum number of Publishers that may be subscribed to concurrently
+     *            the maximum number of Publishers that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param bufferSize
      *            the number of items to prefetch from each inner Publisher
      * @return a Flowable that emits items that are the result of flattening the items emitted by the
@@ -3322,7 +3488,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      * @param sources
      *            the array of Publishers
      * @param maxConcurrency
-     *            the maximum number of Publishers that may be subscribed to concurrently
+     *            the maximum number of Publishers that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param bufferSize
      *            the number of items to prefetch from each inner Publisher
      * @return a Flowable that emits items that are the result of flattening the items emitted by the
@@ -3362,7 +3531,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      * @param sources
      *            the Iterable of Publishers
      * @param maxConcurrency
-     *            the maximum number of Publishers that may be subscribed to concurrently
+     *            the maximum number of Publishers that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return a Flowable that emits items that are the result of flattening the items emitted by the
      *         Publishers in the Iterable
      * @see <a href="http://reactivex.io/documentation/operators/merge.html">ReactiveX operators documentation: Merge</a>
@@ -3437,7 +3609,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      * @param sources
      *            a Publisher that emits Publishers
      * @param maxConcurrency
-     *            the maximum number of Publishers that may be subscribed to concurrently
+     *            the maximum number of Publishers that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return a Flowable that emits all of the items emitted by the Publishers emitted by the
      *         {@code source} Publisher
      * @see <a href="http://reactivex.io/documentation/operators/merge.html">ReactiveX operators documentation: Merge</a>
@@ -3618,6 +3793,112 @@ public abstract class Flowable<T> implements Publisher<T> {
         return fromArray(source1, source2, source3, source4).flatMap((Function1) Functions.identity(), true, 4);
     }
 
+    /**
+     * Merges Publishers, each emitting its items in the order defined by a comparator, into a single
+     * Flowable emitting all of their items in that order.
+     * <p>
+     * The operator keeps the next item of each source in a heap; an item is emitted once every source
+     * that hasn't completed has provided its next item, so a slow source holds back the others. Items
+     * which compare equal are emitted in the order of their sources. If the sources are not sorted,
+     * the output is not sorted either.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and prefetches {@link #bufferSize()} items
+     *  from each source {@code Publisher}, which are expected to honor backpressure; if violated,
+     *  the operator will signal a {@code MissingBackpressureException}.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code mergeSorted} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param <T> the common element base type
+     * @param comparator the comparator defining the order of the items of each source and of the result
+     * @param sources the sorted Publishers to merge
+     * @return the new Flowable instance
+     * @see #mergeSorted(Comparator, int, Publisher...)
+     */
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    @Experimental
+    public static <T> Flowable<T> mergeSorted(Comparator<? super T> comparator, Publisher<? extends T>... sources) {
+        return mergeSorted(comparator, bufferSize(), sources);
+    }
+
+    /**
+     * Merges Publishers, each emitting its items in the order defined by a comparator, into a single
+     * Flowable emitting all of their items in that order, prefetching the given number of items
+     * from each source.
+     * <p>
+     * The operator keeps the next item of each source in a heap; an item is emitted once every source
+     * that hasn't completed has provided its next item, so a slow source holds back the others. Items
+     * which compare equal are emitted in the order of their sources. If the sources are not sorted,
+     * the output is not sorted either.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and prefetches {@code prefetch} items
+     *  from each source {@code Publisher}, which are expected to honor backpressure; if violated,
+     *  the operator will signal a {@code MissingBackpressureException}.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code mergeSorted} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param <T> the common element base type
+     * @param comparator the comparator defining the order of the items of each source and of the result
+     * @param prefetch the number of items to prefetch from each source
+     * @param sources the sorted Publishers to merge
+     * @return the new Flowable instance
+     * @see #mergeSorted(Iterable, Comparator, int)
+     */
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    @Experimental
+    public static <T> Flowable<T> mergeSorted(Comparator<? super T> comparator, int prefetch, Publisher<? extends T>... sources) {
+        ObjectHelper.requireNonNull(comparator, "comparator is null");
+        ObjectHelper.verifyPositive(prefetch, "prefetch");
+        ObjectHelper.requireNonNull(sources, "sources is null");
+        if (sources.length == 0) {
+            return empty();
+        }
+        return RxJavaFlowablePlugins.onAssembly(new FlowableMergeSorted<T>(sources, null, comparator, prefetch));
+    }
+
+    /**
+     * Merges an Iterable sequence of Publishers, each emitting its items in the order defined by a comparator,
+     * into a single Flowable emitting all of their items in that order, prefetching the given number of items
+     * from each source.
+     * <p>
+     * The operator keeps the next item of each source in a heap; an item is emitted once every source
+     * that hasn't completed has provided its next item, so a slow source holds back the others. Items
+     * which compare equal are emitted in the order of their sources. If the sources are not sorted,
+     * the output is not sorted either.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and prefetches {@code prefetch} items
+     *  from each source {@code Publisher}, which are expected to honor backpressure; if violated,
+     *  the operator will signal a {@code MissingBackpressureException}.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code mergeSorted} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param <T> the common element base type
+     * @param sources the sorted Publishers to merge
+     * @param comparator the comparator defining the order of the items of each source and of the result
+     * @param prefetch the number of items to prefetch from each source
+     * @return the new Flowable instance
+     * @see #mergeSorted(Comparator, int, Publisher...)
+     */
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    @Experimental
+    public static <T> Flowable<T> mergeSorted(Iterable<? extends Publisher<? extends T>> sources, Comparator<? super T> comparator, int prefetch) {
+        ObjectHelper.requireNonNull(sources, "sources is null");
+        ObjectHelper.requireNonNull(comparator, "comparator is null");
+        ObjectHelper.verifyPositive(prefetch, "prefetch");
+        return RxJavaFlowablePlugins.onAssembly(new FlowableMergeSorted<T>(null, sources, comparator, prefetch));
+    }
+
     /**
      * Returns a Flowable that never sends any items or notifications to a {@link Subscriber}.
      * <p>
@@ -5146,6 +5427,102 @@ public abstract class Flowable<T> implements Publisher<T> {
     // Instance operators
     // ***************************************************************************************************
 
+    /**
+     * Returns a Flowable that folds the items of the source Publisher into an accumulator for each
+     * consecutive, non-overlapping timed window and emits the accumulator when the window ends.
+     * <p>
+     * This is equivalent to {@code window(timespan, unit, scheduler)} followed by a {@code reduce} of
+     * each window but doesn't create a Flowable, a queue or a node per item for the windows: the items
+     * are folded directly into the current accumulator, which may be mutated in place by the
+     * {@code accumulator} function. When the source completes, the current (partial) window's
+     * accumulator is emitted before the completion.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>This operator does not support backpressure as it uses time. It requests {@code Long.MAX_VALUE}
+     *      upstream and signals a {@code MissingBackpressureException} if the downstream hasn't requested
+     *      when a window ends.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>You specify which {@link Scheduler} this operator will use</dd>
+     * </dl>
+     *
+     * @param <R> the accumulator and result type
+     * @param timespan the length of each window
+     * @param unit the unit of time of {@code timespan}
+     * @param scheduler the {@link Scheduler} to use when determining the end and start of a window
+     * @param initialSupplier the supplier of the empty accumulator of each window
+     * @param accumulator the function receiving the current accumulator and an item and returning the
+     *        (possibly same) accumulator
+     * @return the new Flowable instance
+     * @see #aggregateTimed(long, long, TimeUnit, Scheduler, Callable, Function2, Function2)
+     */
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.ERROR)
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    @Experimental
+    public final <R> Flowable<R> aggregateTimed(long timespan, TimeUnit unit, Scheduler scheduler,
+            Callable<R> initialSupplier, Function2<R, ? super T, R> accumulator) {
+        ObjectHelper.verifyPositive(timespan, "timespan");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.requireNonNull(initialSupplier, "initialSupplier is null");
+        ObjectHelper.requireNonNull(accumulator, "accumulator is null");
+        return RxJavaFlowablePlugins.onAssembly(new FlowableAggregateTimed<T, R>(this, timespan, timespan, unit, scheduler,
+                initialSupplier, accumulator, null));
+    }
+
+    /**
+     * Returns a Flowable that folds the items of the source Publisher into an accumulator for each
+     * timed window of length {@code size}, started every {@code skip} time, and emits the aggregate
+     * when the window ends.
+     * <p>
+     * Overlapping windows don't fold each item multiple times: time is split into panes of
+     * {@code gcd(size, skip)} length, each item is folded into the accumulator of the current pane
+     * only, and the aggregate of a window is built by combining its panes, in order, into a fresh
+     * accumulator with the {@code combiner} function. The combiner may mutate its first argument
+     * but not the second, as a pane is part of several windows. When the source completes, the
+     * aggregates of the windows started but not yet ended are emitted before the completion.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>This operator does not support backpressure as it uses time. It requests {@code Long.MAX_VALUE}
+     *      upstream and signals a {@code MissingBackpressureException} if the downstream hasn't requested
+     *      when a window ends.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>You specify which {@link Scheduler} this operator will use</dd>
+     * </dl>
+     *
+     * @param <R> the accumulator and result type
+     * @param size the length of each window
+     * @param skip the period after which a new window starts
+     * @param unit the unit of time of {@code size} and {@code skip}
+     * @param scheduler the {@link Scheduler} to use when determining the end and start of a window
+     * @param initialSupplier the supplier of the empty accumulator of each pane and window
+     * @param accumulator the function receiving the current accumulator and an item and returning the
+     *        (possibly same) accumulator
+     * @param combiner the function receiving a window's accumulator and the accumulator of one of its
+     *        panes and returning the (possibly same) window accumulator
+     * @return the new Flowable instance
+     * @see #aggregateTimed(long, TimeUnit, Scheduler, Callable, Function2)
+     */
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.ERROR)
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    @Experimental
+    public final <R> Flowable<R> aggregateTimed(long size, long skip, TimeUnit unit, Scheduler scheduler,
+            Callable<R> initialSupplier, Function2<R, ? super T, R> accumulator, Function2<R, R, R> combiner) {
+        ObjectHelper.verifyPositive(size, "size");
+        ObjectHelper.verifyPositive(skip, "skip");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.requireNonNull(initialSupplier, "initialSupplier is null");
+        ObjectHelper.requireNonNull(accumulator, "accumulator is null");
+        ObjectHelper.requireNonNull(combiner, "combiner is null");
+        if (size / FlowableAggregateTimed.gcd(size, skip) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("size / gcd(size, skip) is too large: " + size + ", " + skip);
+        }
+        return RxJavaFlowablePlugins.onAssembly(new FlowableAggregateTimed<T, R>(this, size, skip, unit, scheduler,
+                initialSupplier, accumulator, combiner));
+    }
+
     /**
      * Returns a Single that emits a Boolean that indicates whether all of the items emitted by the source
      * Publisher satisfy a condition.
@@ -5381,6 +5758,57 @@ public abstract class Flowable<T> implements Publisher<T> {
         return new BlockingFlowableIterable<T>(this, bufferSize);
     }
 
+    /**
+     * Converts this {@code Flowable} into an {@link Iterable} of lists, each holding the items that
+     * became available since the previous list, up to {@link #bufferSize()} items.
+     * <p>
+     * Each list costs one wait and one replenishing request, which is cheaper than
+     * {@link #blockingIterable()} when the consumer processes items in batches.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator expects the upstream to honor backpressure otherwise the returned
+     *  Iterable's iterator will throw a {@code MissingBackpressureException}.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code blockingChunks} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @return an {@link Iterable} of non-empty lists of the items of this {@code Flowable}
+     * @see #blockingChunks(int)
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Iterable<List<T>> blockingChunks() {
+        return blockingChunks(bufferSize());
+    }
+
+    /**
+     * Converts this {@code Flowable} into an {@link Iterable} of lists, each holding the items that
+     * became available since the previous list, up to {@code batchSize} items.
+     * <p>
+     * Each list costs one wait and one replenishing request, which is cheaper than
+     * {@link #blockingIterable(int)} when the consumer processes items in batches.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator expects the upstream to honor backpressure otherwise the returned
+     *  Iterable's iterator will throw a {@code MissingBackpressureException}.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code blockingChunks} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param batchSize the number of items to prefetch from the current Flowable and the maximum size of each list
+     * @return an {@link Iterable} of non-empty lists of the items of this {@code Flowable}
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Iterable<List<T>> blockingChunks(int batchSize) {
+        ObjectHelper.verifyPositive(batchSize, "batchSize");
+        return new BlockingFlowableChunkIterable<T>(this, batchSize);
+    }
+
     /**
      * Returns the last item emitted by this {@code Flowable}, or throws
      * {@code NoSuchElementException} if this {@code Flowable} emits no items.
@@ -6505,6 +6933,43 @@ public abstract class Flowable<T> implements Publisher<T> {
         return RxJavaFlowablePlugins.onAssembly(new FlowableCache<T>(this, initialCapacity));
     }
 
+    /**
+     * Returns a Flowable that caches the events of this Publisher like {@link #cache()} but
+     * serves them to late Subscribers only for a limited time after the upstream completed and
+     * only up to the given number of items.
+     * <p>
+     * A late Subscriber subscribes to this Publisher again, replacing the cached events, when the
+     * cached sequence completed more than the given time ago, failed or has more than
+     * {@code maxItems} items. Subscribers that are already replaying a sequence that grows beyond
+     * {@code maxItems} items keep receiving it; the segments of the cache they all consumed
+     * are released, and the upstream is cancelled once none of them remains.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator consumes the upstream in an unbounded fashion but respects the backpressure
+     *  of each downstream Subscriber individually.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code cache} uses the given {@link Scheduler} only as its time source.</dd>
+     * </dl>
+     *
+     * @param maxItems the maximum number of items a late Subscriber can replay, positive
+     * @param time the time a completed sequence is replayed to late Subscribers, positive
+     * @param unit the unit of the time
+     * @param scheduler the scheduler providing the current time
+     * @return the new Flowable instance
+     * @see #cache()
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    public final Flowable<T> cache(int maxItems, long time, TimeUnit unit, Scheduler scheduler) {
+        ObjectHelper.verifyPositive(maxItems, "maxItems");
+        ObjectHelper.verifyPositive(time, "time");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        return RxJavaFlowablePlugins.onAssembly(new FlowableCacheBounded<T>(this, maxItems, time, unit, scheduler));
+    }
+
     /**
      * Returns a Flowable that emits the items emitted by the source Publisher, converted to the specified
      * type.
@@ -8356,7 +8821,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      *            a function that, when applied to an item emitted by the source Publisher, returns an
      *            Publisher
      * @param maxConcurrency
-     *         the maximum number of Publishers that may be subscribed to concurrently
+     *         the maximum number of Publishers that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return a Flowable that emits the result of applying the transformation function to each item emitted
      *         by the source Publisher and merging the results of the Publishers obtained from this
      *         transformation
@@ -8392,7 +8860,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      *            a function that, when applied to an item emitted by the source Publisher, returns an
      *            Publisher
      * @param maxConcurrency
-     *         the maximum number of Publishers that may be subscribed to concurrently
+     *         the maximum number of Publishers that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param delayErrors
      *            if true, exceptions from the current Flowable and all inner Publishers are delayed until all of them terminate
      *            if false, the first one signalling an exception will terminate the whole sequence immediately
@@ -8431,7 +8902,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      *            a function that, when applied to an item emitted by the source Publisher, returns an
      *            Publisher
      * @param maxConcurrency
-     *         the maximum number of Publishers that may be subscribed to concurrently
+     *         the maximum number of Publishers that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param delayErrors
      *            if true, exceptions from the current Flowable and all inner Publishers are delayed until all of them terminate
      *            if false, the first one signalling an exception will terminate the whole sequence immediately
@@ -8531,7 +9005,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      *            a function that returns a Publisher to merge for an onComplete notification from the source
      *            Publisher
      * @param maxConcurrency
-     *         the maximum number of Publishers that may be subscribed to concurrently
+     *         the maximum number of Publishers that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return a Flowable that emits the results of merging the Publishers returned from applying the
      *         specified functions to the emissions and notifications of the source Publisher
      * @see <a href="http://reactivex.io/documentation/operators/flatmap.html">ReactiveX operators documentation: FlatMap</a>
@@ -8653,7 +9130,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      *            a function that combines one item emitted by each of the source and collection Publishers and
      *            returns an item to be emitted by the resulting Publisher
      * @param maxConcurrency
-     *         the maximum number of Publishers that may be subscribed to concurrently
+     *         the maximum number of Publishers that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param delayErrors
      *            if true, exceptions from the current Flowable and all inner Publishers are delayed until all of them terminate
      *            if false, the first one signalling an exception will terminate the whole sequence immediately
@@ -8696,7 +9176,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      *            a function that combines one item emitted by each of the source and collection Publishers and
      *            returns an item to be emitted by the resulting Publisher
      * @param maxConcurrency
-     *         the maximum number of Publishers that may be subscribed to concurrently
+     *         the maximum number of Publishers that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param delayErrors
      *            if true, exceptions from the current Flowable and all inner Publishers are delayed until all of them terminate
      *            if false, the first one signalling an exception will terminate the whole sequence immediately
@@ -8745,7 +9228,10 @@ public abstract class Flowable<T> implements Publisher<T> {
      *            a function that combines one item emitted by each of the source and collection Publishers and
      *            returns an item to be emitted by the resulting Publisher
      * @param maxConcurrency
-     *         the maximum number of Publishers that may be subscribed to concurrently
+     *         the maximum number of Publishers that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner Publishers
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return a Flowable that emits the results of applying a function to a pair of values emitted by the
      *         source Publisher and the collection Publisher
      * @see <a href="http://reactivex.io/documentation/operators/flatmap.html">ReactiveX operators documentation: FlatMap</a>
@@ -8759,6 +9245,81 @@ public abstract class Flowable<T> implements Publisher<T> {
         return flatMap(mapper, combiner, false, maxConcurrency, bufferSize());
     }
 
+    /**
+     * Maps each upstream item to a Publisher and merges them like {@link #flatMap(Function1)}, but when the
+     * downstream demand is limited, emits the queued items of the Publishers whose upstream item has a higher
+     * priority first.
+     * <p>
+     * Items of Publishers with the same priority are emitted in the order the Publishers were mapped; scalar
+     * Publishers, such as {@link #just(Object)}, take part in the ordering too.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream. The upstream Flowable is consumed
+     *  in an unbounded manner. The inner {@code Publisher}s are expected to honor backpressure; if violated,
+     *  the operator <em>may</em> signal {@code MissingBackpressureException}.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code flatMapPriority} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param <R> the value type of the inner Publishers and the output type
+     * @param mapper the function that returns a Publisher for each upstream item
+     * @param priority the function that returns the priority of the Publisher of an upstream item,
+     *                 higher values are emitted first
+     * @return the new Flowable instance
+     * @see #flatMapPriority(Function1, Function1, boolean, int, int)
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final <R> Flowable<R> flatMapPriority(Function1<? super T, ? extends Publisher<? extends R>> mapper,
+            Function1<? super T, Integer> priority) {
+        return flatMapPriority(mapper, priority, false, Integer.MAX_VALUE, bufferSize());
+    }
+
+    /**
+     * Maps each upstream item to a Publisher and merges them like
+     * {@link #flatMap(Function1, boolean, int, int)}, but when the downstream demand is limited, emits
+     * the queued items of the Publishers whose upstream item has a higher priority first.
+     * <p>
+     * Items of Publishers with the same priority are emitted in the order the Publishers were mapped; scalar
+     * Publishers, such as {@link #just(Object)}, take part in the ordering too.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream. The upstream Flowable is consumed
+     *  in a bounded manner (up to {@code maxConcurrency} outstanding request amount for items).
+     *  The inner {@code Publisher}s are expected to honor backpressure; if violated,
+     *  the operator <em>may</em> signal {@code MissingBackpressureException}.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code flatMapPriority} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param <R> the value type of the inner Publishers and the output type
+     * @param mapper the function that returns a Publisher for each upstream item
+     * @param priority the function that returns the priority of the Publisher of an upstream item,
+     *                 higher values are emitted first
+     * @param delayErrors
+     *            if true, exceptions from the current Flowable and all inner Publishers are delayed until all of them terminate
+     *            if false, the first one signalling an exception will terminate the whole sequence immediately
+     * @param maxConcurrency
+     *         the maximum number of Publishers that may be subscribed to concurrently
+     * @param bufferSize
+     *            the number of elements to prefetch from each inner Publisher
+     * @return the new Flowable instance
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final <R> Flowable<R> flatMapPriority(Function1<? super T, ? extends Publisher<? extends R>> mapper,
+            Function1<? super T, Integer> priority, boolean delayErrors, int maxConcurrency, int bufferSize) {
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        ObjectHelper.requireNonNull(priority, "priority is null");
+        ObjectHelper.verifyPositive(maxConcurrency, "maxConcurrency");
+        ObjectHelper.verifyPositive(bufferSize, "bufferSize");
+        return RxJavaFlowablePlugins.onAssembly(new FlowableFlatMapPriority<T, R>(this, mapper, priority, delayErrors, maxConcurrency, bufferSize));
+    }
+
     /**
      * Returns a Flowable that merges each item emitted by the source Publisher with the values in an
      * Iterable corresponding to that item that is generated by a selector.
@@ -9027,6 +9588,105 @@ public abstract class Flowable<T> implements Publisher<T> {
         return s;
     }
 
+    /**
+     * Splits the {@link ByteBuffer} chunks emitted by this Flowable into lines separated by {@code '\n'}
+     * and emits each line without the separator.
+     * <p>
+     * This is a shorthand for {@code frameDelimited(new byte[] { '\n' }, maxFrameLength)}; a {@code '\r'}
+     * before the separator is kept as part of the line.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and prefetches chunks from the upstream
+     *  in a bounded manner, splitting them only as lines are requested.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code frameLines} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param maxFrameLength the maximum length of a line, a longer line is signalled as an
+     *                       {@code IllegalStateException}
+     * @return the new Flowable instance
+     * @see #frameDelimited(byte[], int)
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Flowable<ByteBuffer> frameLines(int maxFrameLength) {
+        return frameDelimited(new byte[] { '\n' }, maxFrameLength);
+    }
+
+    /**
+     * Splits the {@link ByteBuffer} chunks emitted by this Flowable into frames separated by the given
+     * delimiter and emits each frame without the delimiter.
+     * <p>
+     * A frame that lies within a single chunk is emitted as a slice sharing the content of the chunk, so
+     * the upstream must not reuse its buffers while the frames are consumed; only frames spanning chunks are
+     * copied. The bytes after the last delimiter, if any, are emitted as the last frame.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and prefetches chunks from the upstream
+     *  in a bounded manner, splitting them only as frames are requested.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code frameDelimited} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param delimiter the non-empty byte sequence separating the frames
+     * @param maxFrameLength the maximum length of a frame, a longer frame is signalled as an
+     *                       {@code IllegalStateException}
+     * @return the new Flowable instance
+     * @see #frameLengthPrefixed(int, int)
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Flowable<ByteBuffer> frameDelimited(byte[] delimiter, int maxFrameLength) {
+        ObjectHelper.requireNonNull(delimiter, "delimiter is null");
+        if (delimiter.length == 0) {
+            throw new IllegalArgumentException("delimiter is empty");
+        }
+        ObjectHelper.verifyPositive(maxFrameLength, "maxFrameLength");
+        @SuppressWarnings("unchecked")
+        Flowable<ByteBuffer> m = (Flowable<ByteBuffer>)this;
+        return RxJavaFlowablePlugins.onAssembly(new FlowableFrame(m, FlowableFrame.delimited(delimiter.clone(), maxFrameLength), bufferSize()));
+    }
+
+    /**
+     * Splits the {@link ByteBuffer} chunks emitted by this Flowable into frames, each preceded by its
+     * length as a big-endian unsigned integer of {@code lengthFieldSize} bytes, and emits each frame
+     * without the length field.
+     * <p>
+     * A frame that lies within a single chunk is emitted as a slice sharing the content of the chunk, so
+     * the upstream must not reuse its buffers while the frames are consumed; only frames spanning chunks are
+     * copied. If the upstream completes within a frame, an {@code IllegalStateException} is signalled.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and prefetches chunks from the upstream
+     *  in a bounded manner, splitting them only as frames are requested.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code frameLengthPrefixed} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param lengthFieldSize the number of bytes of the length field, between 1 and 4
+     * @param maxFrameLength the maximum length of a frame, a longer frame is signalled as an
+     *                       {@code IllegalStateException}
+     * @return the new Flowable instance
+     * @see #frameDelimited(byte[], int)
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Flowable<ByteBuffer> frameLengthPrefixed(int lengthFieldSize, int maxFrameLength) {
+        if (lengthFieldSize < 1 || lengthFieldSize > 4) {
+            throw new IllegalArgumentException("lengthFieldSize must be between 1 and 4 but it was " + lengthFieldSize);
+        }
+        ObjectHelper.verifyPositive(maxFrameLength, "maxFrameLength");
+        @SuppressWarnings("unchecked")
+        Flowable<ByteBuffer> m = (Flowable<ByteBuffer>)this;
+        return RxJavaFlowablePlugins.onAssembly(new FlowableFrame(m, FlowableFrame.lengthPrefixed(lengthFieldSize, maxFrameLength), bufferSize()));
+    }
+
     /**
      * Groups the items emitted by a {@code Publisher} according to a specified criterion, and emits these
      * grouped items as {@link GroupedFlowable}s. The emitted {@code GroupedPublisher} allows only a single
@@ -9331,6 +9991,35 @@ public abstract class Flowable<T> implements Publisher<T> {
         return RxJavaFlowablePlugins.onAssembly(new FlowableHide<T>(this));
     }
 
+    /**
+     * Records a long value mapped from each item of the source Publisher into a {@link Histogram}
+     * and emits the Histogram when the source completes.
+     * <p>
+     * Unlike sorting the items collected via {@code toList}, the memory used doesn't depend on the
+     * number of items: the Histogram keeps logarithmic buckets whose relative width is bound by the
+     * given number of significant digits, from which percentiles such as p50, p99 or p999 can be read.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>This operator does not support backpressure because by intent it will receive all values and reduce
+     *      them to a single {@code onNext}.</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code histogram} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param valueMapper the function returning the non-negative value to record for an item, such as a latency
+     * @param significantDigits the number of significant decimal digits to keep, between 1 and 5
+     * @return the new Flowable instance
+     * @see Histogram
+     */
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    @Experimental
+    public final Flowable<Histogram> histogram(Function1<? super T, Long> valueMapper, int significantDigits) {
+        ObjectHelper.requireNonNull(valueMapper, "valueMapper is null");
+        return collect(HistogramHelper.supplier(significantDigits), HistogramHelper.<T>recorder(valueMapper));
+    }
+
     /**
      * Ignores all items emitted by the source Publisher and only calls {@code onComplete} or {@code onError}.
      * <p>
@@ -9429,6 +10118,117 @@ public abstract class Flowable<T> implements Publisher<T> {
                 this, other, leftEnd, rightEnd, resultSelector));
     }
 
+    /**
+     * Pairs up the items of this and another Publisher which have equal keys and arrived
+     * less than the given time apart.
+     * <p>
+     * Unlike {@link #join(Publisher, Function1, Function1, Function2) join}, which tests each item against
+     * every open window of the other side, this operator keeps the recent items of both sides in hash
+     * buckets by key so an arriving item is matched only against the items with an equal key. An item
+     * is removed once it gets {@code time} old. Matches of an arriving item are emitted in the arrival
+     * order of the other side's items.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't support backpressure and consumes both {@code Publisher}s in
+     *  an unbounded mode (i.e., not applying any backpressure to them).</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code equiJoin} operates by default on the {@code computation} {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param <TRight> the value type of the right Publisher source
+     * @param <K> the key type
+     * @param <R> the result type
+     * @param other
+     *            the second Publisher to join items from
+     * @param leftKeySelector
+     *            a function returning the key of an item of this Publisher
+     * @param rightKeySelector
+     *            a function returning the key of an item of the {@code other} Publisher
+     * @param time
+     *            the time after which an item can no longer be matched
+     * @param unit
+     *            the time unit of {@code time}
+     * @param resultSelector
+     *            a function that computes an item to be emitted for any two items with equal keys
+     * @return the new Flowable instance
+     * @see #equiJoin(Publisher, Function1, Function1, long, TimeUnit, Scheduler, int, Function2)
+     */
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.ERROR)
+    @SchedulerSupport(SchedulerSupport.COMPUTATION)
+    @Experimental
+    public final <TRight, K, R> Flowable<R> equiJoin(
+            Publisher<? extends TRight> other,
+            Function1<? super T, ? extends K> leftKeySelector,
+            Function1<? super TRight, ? extends K> rightKeySelector,
+            long time, TimeUnit unit,
+            Function2<? super T, ? super TRight, ? extends R> resultSelector) {
+        return equiJoin(other, leftKeySelector, rightKeySelector, time, unit, Schedulers.computation(), Integer.MAX_VALUE, resultSelector);
+    }
+
+    /**
+     * Pairs up the items of this and another Publisher which have equal keys and arrived
+     * less than the given time apart, keeping at most {@code count} items of each side.
+     * <p>
+     * Unlike {@link #join(Publisher, Function1, Function1, Function2) join}, which tests each item against
+     * every open window of the other side, this operator keeps the recent items of both sides in hash
+     * buckets by key so an arriving item is matched only against the items with an equal key. An item
+     * is removed once it gets {@code time} old, as measured by the {@code scheduler}, or once
+     * {@code count} newer items arrived on its side. Matches of an arriving item are emitted in the
+     * arrival order of the other side's items.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator doesn't support backpressure and consumes both {@code Publisher}s in
+     *  an unbounded mode (i.e., not applying any backpressure to them).</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>You specify which {@link Scheduler} this operator will use</dd>
+     * </dl>
+     *
+     * @param <TRight> the value type of the right Publisher source
+     * @param <K> the key type
+     * @param <R> the result type
+     * @param other
+     *            the second Publisher to join items from
+     * @param leftKeySelector
+     *            a function returning the key of an item of this Publisher
+     * @param rightKeySelector
+     *            a function returning the key of an item of the {@code other} Publisher
+     * @param time
+     *            the time after which an item can no longer be matched
+     * @param unit
+     *            the time unit of {@code time}
+     * @param scheduler
+     *            the {@link Scheduler} providing the current time and running the periodic
+     *            removal of the expired items
+     * @param count
+     *            the maximum number of items kept for each side
+     * @param resultSelector
+     *            a function that computes an item to be emitted for any two items with equal keys
+     * @return the new Flowable instance
+     * @see #equiJoin(Publisher, Function1, Function1, long, TimeUnit, Function2)
+     */
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.ERROR)
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    @Experimental
+    public final <TRight, K, R> Flowable<R> equiJoin(
+            Publisher<? extends TRight> other,
+            Function1<? super T, ? extends K> leftKeySelector,
+            Function1<? super TRight, ? extends K> rightKeySelector,
+            long time, TimeUnit unit, Scheduler scheduler, int count,
+            Function2<? super T, ? super TRight, ? extends R> resultSelector) {
+        ObjectHelper.requireNonNull(other, "other is null");
+        ObjectHelper.requireNonNull(leftKeySelector, "leftKeySelector is null");
+        ObjectHelper.requireNonNull(rightKeySelector, "rightKeySelector is null");
+        ObjectHelper.verifyPositive(time, "time");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.verifyPositive(count, "count");
+        ObjectHelper.requireNonNull(resultSelector, "resultSelector is null");
+        return RxJavaFlowablePlugins.onAssembly(new FlowableEquiJoin<T, TRight, K, R>(
+                this, other, leftKeySelector, rightKeySelector, time, unit, scheduler, count, resultSelector));
+    }
+
 
     /**
      * Returns a Maybe that emits the last item emitted by this Flowable or completes if
@@ -12534,6 +13334,87 @@ public abstract class Flowable<T> implements Publisher<T> {
         return toList().map(Functions.listSorter(sortFunction)).flatMapIterable(Functions.<List<T>>identity());
     }
 
+    /**
+     * Returns a Flowable that emits the items emitted by the source Publisher in a sorted order
+     * based on a specified comparison function, keeping at most {@code runSize} items in memory
+     * and spilling the rest into temporary files of the default temporary-file directory.
+     * <p>
+     * The items are sorted in runs of {@code runSize}; each full run is written to its own file
+     * via the given {@link SpillSerializer}. Once the source completes, the runs are merged back
+     * into a single sorted sequence, reading only as many items from the files as the
+     * downstream requests. At most 64 files are read at once: with more runs, groups of 64 runs
+     * are first merged into intermediate files on the thread the source completes on. The files
+     * are deleted once they have been read or when the sequence terminates or gets cancelled.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and consumes the source {@code Publisher} in an
+     *  unbounded manner (i.e., without applying backpressure to it).</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code sortedExternal} does not operate by default on a particular {@link Scheduler}; the runs
+     *  are written on the thread the source emits on.</dd>
+     * </dl>
+     *
+     * @param sortFunction
+     *            a function that compares two items emitted by the source Publisher and returns an Integer
+     *            that indicates their sort order
+     * @param runSize the number of items sorted in memory before they are written to a file
+     * @param serializer the serializer writing the items to and reading them back from the files
+     * @return a Flowable that emits the items emitted by the source Publisher in sorted order
+     * @see #sortedExternal(Comparator, int, SpillSerializer, File)
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Flowable<T> sortedExternal(Comparator<? super T> sortFunction, int runSize, SpillSerializer<T> serializer) {
+        ObjectHelper.requireNonNull(sortFunction, "sortFunction is null");
+        ObjectHelper.verifyPositive(runSize, "runSize");
+        ObjectHelper.requireNonNull(serializer, "serializer is null");
+        return using(FlowableSortedExternal.runsSupplier(sortFunction, runSize, serializer, null),
+                FlowableSortedExternal.sorter(this, bufferSize()), FlowableSortedExternal.<T>disposer());
+    }
+
+    /**
+     * Returns a Flowable that emits the items emitted by the source Publisher in a sorted order
+     * based on a specified comparison function, keeping at most {@code runSize} items in memory
+     * and spilling the rest into temporary files of the given directory.
+     * <p>
+     * The items are sorted in runs of {@code runSize}; each full run is written to its own file
+     * via the given {@link SpillSerializer}. Once the source completes, the runs are merged back
+     * into a single sorted sequence, reading only as many items from the files as the
+     * downstream requests. At most 64 files are read at once: with more runs, groups of 64 runs
+     * are first merged into intermediate files on the thread the source completes on. The files
+     * are deleted once they have been read or when the sequence terminates or gets cancelled.
+     * <dl>
+     *  <dt><b>Backpressure:</b></dt>
+     *  <dd>The operator honors backpressure from downstream and consumes the source {@code Publisher} in an
+     *  unbounded manner (i.e., without applying backpressure to it).</dd>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code sortedExternal} does not operate by default on a particular {@link Scheduler}; the runs
+     *  are written on the thread the source emits on.</dd>
+     * </dl>
+     *
+     * @param sortFunction
+     *            a function that compares two items emitted by the source Publisher and returns an Integer
+     *            that indicates their sort order
+     * @param runSize the number of items sorted in memory before they are written to a file
+     * @param serializer the serializer writing the items to and reading them back from the files
+     * @param directory the directory to create the files in
+     * @return a Flowable that emits the items emitted by the source Publisher in sorted order
+     */
+    @Experimental
+    @CheckReturnValue
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Flowable<T> sortedExternal(Comparator<? super T> sortFunction, int runSize, SpillSerializer<T> serializer, File directory) {
+        ObjectHelper.requireNonNull(sortFunction, "sortFunction is null");
+        ObjectHelper.verifyPositive(runSize, "runSize");
+        ObjectHelper.requireNonNull(serializer, "serializer is null");
+        ObjectHelper.requireNonNull(directory, "directory is null");
+        return using(FlowableSortedExternal.runsSupplier(sortFunction, runSize, serializer, directory),
+                FlowableSortedExternal.sorter(this, bufferSize()), FlowableSortedExternal.<T>disposer());
+    }
+
     /**
      * Returns a Flowable that emits the items in a specified {@link Iterable} before it begins to emit items
      * emitted by the source Publisher.
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.concurrent.Callable;
 
 import io.reactivex.common.ErrorMode;
+import io.reactivex.common.Histogram;
 import io.reactivex.common.Scheduler;
 import io.reactivex.common.annotations.CheckReturnValue;
 import io.reactivex.common.annotations.Experimental;
@@ -32,6 +33,7 @@ import kotlin.jvm.functions.Function2;
 import io.reactivex.common.internal.functions.Functions;
 import io.reactivex.common.internal.functions.ObjectHelper;
 import io.reactivex.common.internal.utils.ExceptionHelper;
+import io.reactivex.common.internal.utils.HistogramHelper;
 import io.reactivex.common.internal.utils.ListAddBiConsumer;
 import io.reactivex.common.internal.utils.MergerBiFunction;
 import io.reactivex.common.internal.utils.SorterFunction;
@@ -49,7 +51,9 @@ import io.reactivex.flowable.internal.operators.ParallelMapTry;
 import io.reactivex.flowable.internal.operators.ParallelPeek;
 import io.reactivex.flowable.internal.operators.ParallelReduce;
 import io.reactivex.flowable.internal.operators.ParallelReduceFull;
+import io.reactivex.flowable.internal.operators.ParallelReduceTree;
 import io.reactivex.flowable.internal.operators.ParallelRunOn;
+import io.reactivex.flowable.internal.operators.ParallelRunOnElastic;
 import io.reactivex.flowable.internal.operators.ParallelSortedJoin;
 import io.reactivex.flowable.internal.subscriptions.EmptySubscription;
 import kotlin.Unit;
@@ -315,6 +319,98 @@ public abstract class ParallelFlowable<T> {
         return RxJavaFlowablePlugins.onAssembly(new ParallelRunOn<T>(this, scheduler, prefetch));
     }
 
+    /**
+     * Specifies that the 'rails' observe their incoming values on the given Scheduler without
+     * binding each rail to a Worker, running at most as many rails at once as this
+     * ParallelFlowable's parallelism level is.
+     * <p>
+     * This operator uses the default prefetch size returned by {@code Flowable.bufferSize()}.
+     *
+     * @param scheduler the scheduler to use
+     * @return the new ParallelFlowable instance
+     * @see #runOnElastic(Scheduler, int, int)
+     */
+    @Experimental
+    @CheckReturnValue
+    @NonNull
+    public final ParallelFlowable<T> runOnElastic(@NonNull Scheduler scheduler) {
+        return runOnElastic(scheduler, parallelism(), Flowable.bufferSize());
+    }
+
+    /**
+     * Specifies that the 'rails' observe their incoming values on the given Scheduler without
+     * binding each rail to a Worker, running at most the given number of rails at once.
+     * <p>
+     * Unlike {@link #runOn(Scheduler, int)}, the operator doesn't create Workers; a rail is
+     * scheduled via {@code Scheduler.scheduleDirect} whenever it has items to deliver and
+     * gives its thread back once its queue is drained, therefore idle rails don't occupy
+     * threads and busy rails may move between the threads of the Scheduler. If more rails have
+     * work than {@code maxConcurrency} allows, they wait for a running rail to finish or to
+     * deliver a batch of items ({@code prefetch - prefetch / 4}), at which point the running
+     * rail yields its thread to the longest waiting one.
+     * <p>
+     * This allows many parallel pipelines to share a Scheduler such as
+     * {@code Schedulers.computation()} without each of them pinning a thread per rail.
+     * The {@code maxConcurrency} applies to each subscription on its own; use
+     * {@link #runOnElastic(RailLimiter, int)} to cap the rails of several pipelines together.
+     *
+     * @param scheduler the scheduler to use
+     * @param maxConcurrency the maximum number of rails running at the same time
+     * @param prefetch the number of values to request on each 'rail' from the source
+     * @return the new ParallelFlowable instance
+     */
+    @Experimental
+    @CheckReturnValue
+    @NonNull
+    public final ParallelFlowable<T> runOnElastic(@NonNull Scheduler scheduler, int maxConcurrency, int prefetch) {
+        ObjectHelper.requireNonNull(scheduler, "scheduler");
+        ObjectHelper.verifyPositive(maxConcurrency, "maxConcurrency");
+        ObjectHelper.verifyPositive(prefetch, "prefetch");
+        return RxJavaFlowablePlugins.onAssembly(new ParallelRunOnElastic<T>(this, scheduler, maxConcurrency, prefetch));
+    }
+
+    /**
+     * Specifies that the 'rails' observe their incoming values on the Scheduler of the given
+     * {@link RailLimiter} without binding each rail to a Worker, running rails only while they
+     * hold one of the limiter's permits.
+     * <p>
+     * This operator uses the default prefetch size returned by {@code Flowable.bufferSize()}.
+     *
+     * @param limiter the limiter providing the scheduler and the permits to run
+     * @return the new ParallelFlowable instance
+     * @see #runOnElastic(RailLimiter, int)
+     */
+    @Experimental
+    @CheckReturnValue
+    @NonNull
+    public final ParallelFlowable<T> runOnElastic(@NonNull RailLimiter limiter) {
+        return runOnElastic(limiter, Flowable.bufferSize());
+    }
+
+    /**
+     * Specifies that the 'rails' observe their incoming values on the Scheduler of the given
+     * {@link RailLimiter} without binding each rail to a Worker, running rails only while they
+     * hold one of the limiter's permits.
+     * <p>
+     * The rails behave as with {@link #runOnElastic(Scheduler, int, int)}, except that the permits
+     * are shared by all subscriptions and all ParallelFlowables using the same limiter: sharing one
+     * limiter among the parallel pipelines of an application caps the number of rails running on the
+     * Scheduler at once, however many pipelines are active, and a running rail yields its thread to
+     * the rail of any pipeline waiting for a permit.
+     *
+     * @param limiter the limiter providing the scheduler and the permits to run
+     * @param prefetch the number of values to request on each 'rail' from the source
+     * @return the new ParallelFlowable instance
+     */
+    @Experimental
+    @CheckReturnValue
+    @NonNull
+    public final ParallelFlowable<T> runOnElastic(@NonNull RailLimiter limiter, int prefetch) {
+        ObjectHelper.requireNonNull(limiter, "limiter");
+        ObjectHelper.verifyPositive(prefetch, "prefetch");
+        return RxJavaFlowablePlugins.onAssembly(new ParallelRunOnElastic<T>(this, limiter, prefetch));
+    }
+
     /**
      * Reduces all values within a 'rail' and across 'rails' with a reducer function into a single
      * sequential value.
@@ -349,6 +445,34 @@ public abstract class ParallelFlowable<T> {
         return RxJavaFlowablePlugins.onAssembly(new ParallelReduce<T, R>(this, initialSupplier, reducer));
     }
 
+    /**
+     * Reduces all values within a 'rail' to a single value via a reducer function that is
+     * initialized on each rail from an initialSupplier value, then combines the values of the rails
+     * into a single sequential value.
+     * <p>
+     * The rails are combined pairwise along a binary tree, each pair on the thread of the rail
+     * that finished last, so the combining of independent pairs runs in parallel. The values are
+     * always combined in rail order (the value of the lower rail is the first argument), so the
+     * combiner has to be associative but doesn't have to be commutative.
+     * <p>
+     * Note that the same reducer and combiner functions may be called from multiple threads concurrently.
+     * @param <R> the reduced output type
+     * @param initialSupplier the supplier for the initial value of each rail
+     * @param reducer the function to reduce a previous output of reduce (or the initial value supplied)
+     * with a current source value.
+     * @param combiner the function combining the reduced values of two rails
+     * @return the new Flowable instance emitting the combined value
+     */
+    @Experimental
+    @CheckReturnValue
+    @NonNull
+    public final <R> Flowable<R> reduce(@NonNull Callable<R> initialSupplier, @NonNull Function2<R, ? super T, R> reducer, @NonNull Function2<R, R, R> combiner) {
+        ObjectHelper.requireNonNull(initialSupplier, "initialSupplier");
+        ObjectHelper.requireNonNull(reducer, "reducer");
+        ObjectHelper.requireNonNull(combiner, "combiner");
+        return RxJavaFlowablePlugins.onAssembly(new ParallelReduceTree<R>(new ParallelReduce<T, R>(this, initialSupplier, reducer), combiner));
+    }
+
     /**
      * Merges the values from each 'rail' in a round-robin or same-order fashion and
      * exposes it as a regular Publisher sequence, running with a default prefetch value
@@ -525,6 +649,32 @@ public abstract class ParallelFlowable<T> {
         return RxJavaFlowablePlugins.onAssembly(merged);
     }
 
+    /**
+     * Records a long value mapped from each element into a {@link Histogram} per 'rail' and
+     * merges the Histograms of the 'rails' into one, emitted as a Publisher.
+     * <p>
+     * The memory used doesn't depend on the number of elements, unlike sorting via {@link #toSortedList(Comparator)}.
+     * <p>
+     * This operator requires a finite source ParallelFlowable.
+     *
+     * @param valueMapper the function returning the non-negative value to record for an element
+     * @param significantDigits the number of significant decimal digits to keep, between 1 and 5
+     * @return the new Flowable instance
+     * @see Histogram
+     */
+    @CheckReturnValue
+    @NonNull
+    @Experimental
+    public final Flowable<Histogram> histogram(@NonNull Function1<? super T, Long> valueMapper, int significantDigits) {
+        ObjectHelper.requireNonNull(valueMapper, "valueMapper is null");
+
+        ParallelFlowable<Histogram> railCollected = collect(HistogramHelper.supplier(significantDigits), HistogramHelper.<T>recorder(valueMapper));
+
+        Flowable<Histogram> merged = railCollected.reduce(HistogramHelper.merger());
+
+        return RxJavaFlowablePlugins.onAssembly(merged);
+    }
+
     /**
      * Call the specified consumer with the current element passing through any 'rail'.
      *
@@ -759,6 +909,34 @@ public abstract class ParallelFlowable<T> {
         return RxJavaFlowablePlugins.onAssembly(new ParallelCollect<T, C>(this, collectionSupplier, collector));
     }
 
+    /**
+     * Collect the elements in each rail into a collection supplied via a collectionSupplier
+     * and collected into with a collector action, then combines the collections of the rails
+     * into a single one, emitting it at the end.
+     * <p>
+     * The rails are combined pairwise along a binary tree, each pair on the thread of the rail
+     * that finished last, so the combining of independent pairs runs in parallel. The collections
+     * are always combined in rail order (the collection of the lower rail is the first argument),
+     * so the combiner has to be associative but doesn't have to be commutative; it may add the
+     * contents of the second collection to the first and return the first.
+     *
+     * @param <C> the collection type
+     * @param collectionSupplier the supplier of the collection in each rail
+     * @param collector the collector, taking the per-rail collection and the current item
+     * @param combiner the function combining the collections of two rails
+     * @return the new Flowable instance emitting the combined collection
+     */
+    @Experimental
+    @CheckReturnValue
+    @NonNull
+    public final <C> Flowable<C> collect(@NonNull Callable<? extends C> collectionSupplier,
+            @NonNull Function2<? super C, ? super T, kotlin.Unit> collector, @NonNull Function2<C, C, C> combiner) {
+        ObjectHelper.requireNonNull(collectionSupplier, "collectionSupplier is null");
+        ObjectHelper.requireNonNull(collector, "collector is null");
+        ObjectHelper.requireNonNull(combiner, "combiner is null");
+        return RxJavaFlowablePlugins.onAssembly(new ParallelReduceTree<C>(new ParallelCollect<T, C>(this, collectionSupplier, collector), combiner));
+    }
+
     /**
      * Wraps multiple Publishers into a ParallelFlowable which runs them
      * in parallel and unordered.
@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package io.reactivex.flowable;
+
+import java.nio.ByteBuffer;
+
+import io.reactivex.common.annotations.Experimental;
+
+/**
+ * A chunk of bytes backed by a buffer borrowed from a pool, which has to be handed back
+ * via {@link #release()} once the bytes have been consumed.
+ * <p>
+ * The source emitting these chunks only has a limited number of buffers; it doesn't emit
+ * more chunks until earlier ones are released, even if the downstream requested more.
+ *
+ * @see Flowable#fromChannel(java.util.concurrent.Callable, int, int)
+ */
+@Experimental
+public interface PooledByteBuffer {
+
+    /**
+     * Returns the buffer holding the bytes of this chunk between its position and limit.
+     * <p>
+     * The buffer must not be accessed after {@link #release()} has been called.
+     * @return the buffer holding the bytes of this chunk
+     */
+    ByteBuffer buffer();
+
+    /**
+     * Hands the buffer back to the pool so the source can reuse it for a later chunk;
+     * calling it multiple times has no effect.
+     */
+    void release();
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.common.Scheduler;
+import io.reactivex.common.annotations.*;
+import io.reactivex.common.internal.functions.ObjectHelper;
+
+/**
+ * A number of permits to run 'rails' on a Scheduler, which can be shared by several
+ * ParallelFlowables so that all of them together run at most {@link #maxConcurrency()} rails
+ * at the same time.
+ * <p>
+ * The permits are handed out to the rails having work in the order they asked for one.
+ *
+ * @see ParallelFlowable#runOnElastic(RailLimiter, int)
+ */
+@Experimental
+public final class RailLimiter {
+
+    final Scheduler scheduler;
+
+    final int maxConcurrency;
+
+    final AtomicInteger running;
+
+    final Queue<Runnable> waiting;
+
+    RailLimiter(Scheduler scheduler, int maxConcurrency) {
+        this.scheduler = scheduler;
+        this.maxConcurrency = maxConcurrency;
+        this.running = new AtomicInteger();
+        this.waiting = new ConcurrentLinkedQueue<Runnable>();
+    }
+
+    /**
+     * Creates a RailLimiter running at most the given number of rails at once on the given Scheduler.
+     * @param scheduler the scheduler the rails run on
+     * @param maxConcurrency the maximum number of rails running at the same time, positive
+     * @return the new RailLimiter instance
+     */
+    @NonNull
+    public static RailLimiter create(@NonNull Scheduler scheduler, int maxConcurrency) {
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.verifyPositive(maxConcurrency, "maxConcurrency");
+        return new RailLimiter(scheduler, maxConcurrency);
+    }
+
+    /**
+     * Returns the scheduler the rails run on.
+     * @return the scheduler the rails run on
+     */
+    @NonNull
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns the maximum number of rails running at the same time.
+     * @return the maximum number of rails running at the same time
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Runs the given rail on the scheduler once a permit is free; the rail has to call
+     * {@link #release()} when it stops running.
+     * @param rail the rail to run
+     */
+    public void submit(@NonNull Runnable rail) {
+        waiting.offer(rail);
+        dispatch();
+    }
+
+    /**
+     * Gives back the permit of a rail that stopped running, either because it ran out of work
+     * or because it yielded after {@link #submit(Runnable) submitting} itself again.
+     */
+    public void release() {
+        running.decrementAndGet();
+        dispatch();
+    }
+
+    /**
+     * Returns true if a rail waits for a permit.
+     * @return true if a rail waits for a permit
+     */
+    public boolean hasWaiting() {
+        return !waiting.isEmpty();
+    }
+
+    void dispatch() {
+        AtomicInteger r = running;
+        for (;;) {
+            int a = r.get();
+            if (a >= maxConcurrency || waiting.isEmpty()) {
+                return;
+            }
+            if (r.compareAndSet(a, a + 1)) {
+                Runnable rail = waiting.poll();
+                if (rail == null) {
+                    // another thread took the last waiting rail in the meantime
+                    r.decrementAndGet();
+                    continue;
+                }
+                scheduler.scheduleDirect(rail);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable;
+
+import java.io.*;
+
+import io.reactivex.common.annotations.Experimental;
+
+/**
+ * Writes items to and reads them back from the temporary files an operator spills
+ * its buffered items into when they would not fit into memory.
+ * <p>
+ * {@link #read(DataInput)} has to consume exactly the bytes {@link #write(Object, DataOutput)}
+ * produced for the same item; the files carry no framing of their own.
+ *
+ * @param <T> the item type
+ * @see Flowable#sortedExternal(java.util.Comparator, int, SpillSerializer)
+ */
+@Experimental
+public interface SpillSerializer<T> {
+
+    /**
+     * Writes an item.
+     * @param item the item to write, not null
+     * @param output the output to write to
+     * @throws IOException if writing the output failed
+     */
+    void write(T item, DataOutput output) throws IOException;
+
+    /**
+     * Reads the next item.
+     * @param input the input to read from
+     * @return the item read, not null
+     * @throws IOException if reading the input failed
+     */
+    T read(DataInput input) throws IOException;
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.util.*;
+
+import io.reactivex.common.Disposable;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.internal.operators.BlockingFlowableIterable.BlockingFlowableIterator;
+
+/**
+ * Iterates over lists of the items that became available since the previous list, so the
+ * consumer thread waits, polls and replenishes once per list instead of once per item.
+ *
+ * @param <T> the value type
+ */
+public final class BlockingFlowableChunkIterable<T> implements Iterable<List<T>> {
+    final Flowable<T> source;
+
+    final int batchSize;
+
+    public BlockingFlowableChunkIterable(Flowable<T> source, int batchSize) {
+        this.source = source;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Iterator<List<T>> iterator() {
+        BlockingFlowableIterator<T> it = new BlockingFlowableIterator<T>(batchSize);
+        source.subscribe(it);
+        return new BlockingFlowableChunkIterator<T>(it, batchSize);
+    }
+
+    static final class BlockingFlowableChunkIterator<T> implements Iterator<List<T>>, Disposable {
+        final BlockingFlowableIterator<T> items;
+
+        final int batchSize;
+
+        BlockingFlowableChunkIterator(BlockingFlowableIterator<T> items, int batchSize) {
+            this.items = items;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return items.hasNext();
+        }
+
+        @Override
+        public List<T> next() {
+            while (items.hasNext()) {
+                List<T> list = items.nextChunk(batchSize);
+                // the queue may briefly report non-empty before the item becomes pollable
+                if (!list.isEmpty()) {
+                    return list;
+                }
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override // otherwise default method which isn't available in Java 7
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public void dispose() {
+            items.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return items.isDisposed();
+        }
+    }
+}
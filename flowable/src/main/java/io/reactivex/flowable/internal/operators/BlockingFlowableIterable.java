@@ -15,7 +15,6 @@ package io.reactivex.flowable.internal.operators;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.*;
 
 import org.reactivestreams.Subscription;
 
@@ -56,9 +55,7 @@ public final class BlockingFlowableIterable<T> implements Iterable<T> {
 
         final long limit;
 
-        final Lock lock;
-
-        final Condition condition;
+        final SpinParkWaiter waiter;
 
         long produced;
 
@@ -69,8 +66,7 @@ public final class BlockingFlowableIterable<T> implements Iterable<T> {
             this.queue = new SpscArrayQueue<T>(batchSize);
             this.batchSize = batchSize;
             this.limit = batchSize - (batchSize >> 2);
-            this.lock = new ReentrantLock();
-            this.condition = lock.newCondition();
+            this.waiter = new SpinParkWaiter();
         }
 
         @Override
@@ -89,16 +85,16 @@ public final class BlockingFlowableIterable<T> implements Iterable<T> {
                 }
                 if (empty) {
                     BlockingHelper.verifyNonBlocking();
-                    lock.lock();
                     try {
+                        int round = 0;
                         while (!done && queue.isEmpty()) {
-                            condition.await();
+                            round = waiter.idle(round);
                         }
                     } catch (InterruptedException ex) {
                         run();
                         throw ExceptionHelper.wrapOrThrow(ex);
                     } finally {
-                        lock.unlock();
+                        waiter.clear();
                     }
                 } else {
                     return true;
@@ -124,6 +120,32 @@ public final class BlockingFlowableIterable<T> implements Iterable<T> {
             throw new NoSuchElementException();
         }
 
+        /**
+         * Polls up to the given number of items at once, replenishing once for all of them;
+         * call only after {@link #hasNext()} returned true.
+         * @param max the maximum number of items to poll
+         * @return the list of items polled, possibly empty
+         */
+        List<T> nextChunk(int max) {
+            List<T> list = new ArrayList<T>();
+            for (int i = 0; i < max; i++) {
+                T v = queue.poll();
+                if (v == null) {
+                    break;
+                }
+                list.add(v);
+            }
+
+            long p = produced + list.size();
+            if (p >= limit) {
+                produced = 0;
+                get().request(p);
+            } else {
+                produced = p;
+            }
+            return list;
+        }
+
         @Override
         public void onSubscribe(Subscription s) {
             if (SubscriptionHelper.setOnce(this, s)) {
@@ -156,12 +178,7 @@ public final class BlockingFlowableIterable<T> implements Iterable<T> {
         }
 
         void signalConsumer() {
-            lock.lock();
-            try {
-                condition.signalAll();
-            } finally {
-                lock.unlock();
-            }
+            waiter.signal();
         }
 
         @Override
@@ -0,0 +1,341 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.*;
+
+import io.reactivex.common.*;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.disposables.DisposableHelper;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.internal.queues.MpscLinkedQueue;
+import io.reactivex.flowable.internal.subscribers.QueueDrainSubscriber;
+import io.reactivex.flowable.internal.subscriptions.*;
+import io.reactivex.flowable.internal.utils.QueueDrainHelper;
+import io.reactivex.flowable.subscribers.SerializedSubscriber;
+import kotlin.jvm.functions.Function2;
+
+/**
+ * Folds the upstream items into per-window accumulators in place, emitting one aggregate
+ * for each timed tumbling or sliding window.
+ * <p>
+ * Sliding windows are split into panes of {@code gcd(size, skip)} length; each item is folded
+ * into the current pane only and a window's aggregate is the combination of its panes.
+ *
+ * @param <T> the upstream value type
+ * @param <R> the aggregate type
+ */
+public final class FlowableAggregateTimed<T, R> extends AbstractFlowableWithUpstream<T, R> {
+
+    final long size;
+    final long skip;
+    final TimeUnit unit;
+    final Scheduler scheduler;
+    final Callable<R> initialSupplier;
+    final Function2<R, ? super T, R> accumulator;
+    final Function2<R, R, R> combiner;
+
+    public FlowableAggregateTimed(Flowable<T> source, long size, long skip, TimeUnit unit, Scheduler scheduler,
+            Callable<R> initialSupplier, Function2<R, ? super T, R> accumulator, Function2<R, R, R> combiner) {
+        super(source);
+        this.size = size;
+        this.skip = skip;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.initialSupplier = initialSupplier;
+        this.accumulator = accumulator;
+        this.combiner = combiner;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super R> s) {
+        long pane = gcd(size, skip);
+        source.subscribe(new AggregateTimedSubscriber<T, R>(
+                new SerializedSubscriber<R>(s),
+                initialSupplier, accumulator, combiner,
+                pane, (int)(size / pane), skip / pane, unit, scheduler));
+    }
+
+    /**
+     * Returns the greatest common divisor of two positive numbers, the pane length of the windows.
+     * @param a the first number
+     * @param b the second number
+     * @return the greatest common divisor
+     */
+    public static long gcd(long a, long b) {
+        while (b != 0L) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    static final class AggregateTimedSubscriber<T, R>
+    extends QueueDrainSubscriber<T, R, R> implements Subscription, Runnable, Disposable {
+        final Callable<R> initialSupplier;
+        final Function2<R, ? super T, R> accumulator;
+        final Function2<R, R, R> combiner;
+        final long pane;
+        /** The number of panes in a window. */
+        final int panes;
+        /** The number of panes between the start of consecutive windows. */
+        final long skipPanes;
+        final TimeUnit unit;
+        final Scheduler scheduler;
+
+        /** The last {@code panes} pane accumulators, the current one at {@code index % panes}; guarded by this. */
+        final Object[] ring;
+
+        /** The index of the current pane since the subscription; guarded by this. */
+        long index;
+
+        /** Set when no more items should be accumulated; guarded by this. */
+        boolean stopped;
+
+        Subscription s;
+
+        final AtomicReference<Disposable> timer = new AtomicReference<Disposable>();
+
+        AggregateTimedSubscriber(Subscriber<? super R> actual,
+                Callable<R> initialSupplier, Function2<R, ? super T, R> accumulator, Function2<R, R, R> combiner,
+                long pane, int panes, long skipPanes, TimeUnit unit, Scheduler scheduler) {
+            super(actual, new MpscLinkedQueue<R>());
+            this.initialSupplier = initialSupplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.pane = pane;
+            this.panes = panes;
+            this.skipPanes = skipPanes;
+            this.unit = unit;
+            this.scheduler = scheduler;
+            this.ring = new Object[panes];
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.s, s)) {
+                this.s = s;
+
+                R first;
+
+                try {
+                    first = ObjectHelper.requireNonNull(initialSupplier.call(), "The initialSupplier returned a null value");
+                } catch (Throwable e) {
+                    Exceptions.throwIfFatal(e);
+                    s.cancel();
+                    EmptySubscription.error(e, actual);
+                    return;
+                }
+
+                ring[0] = first;
+
+                actual.onSubscribe(this);
+
+                if (!cancelled) {
+                    s.request(Long.MAX_VALUE);
+
+                    Disposable d = scheduler.schedulePeriodicallyDirect(this, pane, pane, unit);
+                    if (!timer.compareAndSet(null, d)) {
+                        d.dispose();
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNext(T t) {
+            Throwable error = null;
+            synchronized (this) {
+                if (stopped) {
+                    return;
+                }
+                int i = (int)(index % panes);
+                try {
+                    ring[i] = ObjectHelper.requireNonNull(accumulator.invoke((R)ring[i], t), "The accumulator returned a null value");
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    stop();
+                    error = ex;
+                }
+            }
+            if (error != null) {
+                fail(error);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            DisposableHelper.dispose(timer);
+            synchronized (this) {
+                stop();
+            }
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            DisposableHelper.dispose(timer);
+            List<R> open = new ArrayList<R>();
+            Throwable error = null;
+            synchronized (this) {
+                if (stopped) {
+                    return;
+                }
+                long j = index;
+                // the windows that started but haven't ended yet, oldest first
+                long first = Math.max(0L, j - panes + 1);
+                long start = (first + skipPanes - 1) / skipPanes * skipPanes;
+                try {
+                    for (long k = start; k <= j; k += skipPanes) {
+                        open.add(combine(k, j));
+                    }
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    error = ex;
+                }
+                stop();
+            }
+            if (error != null) {
+                actual.onError(error);
+                return;
+            }
+            for (R r : open) {
+                queue.offer(r);
+            }
+            done = true;
+            if (enter()) {
+                QueueDrainHelper.drainMaxLoop(queue, actual, false, this, this);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            requested(n);
+        }
+
+        @Override
+        public void cancel() {
+            s.cancel();
+
+            DisposableHelper.dispose(timer);
+        }
+
+        @Override
+        public void run() {
+            R next;
+
+            try {
+                next = ObjectHelper.requireNonNull(initialSupplier.call(), "The initialSupplier returned a null value");
+            } catch (Throwable e) {
+                Exceptions.throwIfFatal(e);
+                synchronized (this) {
+                    if (stopped) {
+                        return;
+                    }
+                    stop();
+                }
+                fail(e);
+                return;
+            }
+
+            R window = null;
+            Throwable error = null;
+
+            synchronized (this) {
+                if (stopped) {
+                    DisposableHelper.dispose(timer);
+                    return;
+                }
+                long end = index + 1;
+                if (end >= panes && (end - panes) % skipPanes == 0L) {
+                    try {
+                        window = combine(end - panes, index);
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        stop();
+                        error = ex;
+                    }
+                }
+                if (error == null) {
+                    // overwrites the oldest pane which is no longer part of any window
+                    ring[(int)(end % panes)] = next;
+                    index = end;
+                }
+            }
+
+            if (error != null) {
+                fail(error);
+                return;
+            }
+
+            if (window != null) {
+                fastPathEmitMax(window, false, this);
+            }
+        }
+
+        /**
+         * Combines the panes {@code from..to} (inclusive) into a fresh accumulator; guarded by this.
+         * @param from the first pane index
+         * @param to the last pane index
+         * @return the window's aggregate
+         * @throws Exception if the initialSupplier or the combiner failed
+         */
+        @SuppressWarnings("unchecked")
+        R combine(long from, long to) throws Exception {
+            if (from == to) {
+                // the only pane of the window, it won't be accumulated into anymore
+                return (R)ring[(int)(from % panes)];
+            }
+            R acc = ObjectHelper.requireNonNull(initialSupplier.call(), "The initialSupplier returned a null value");
+            for (long k = from; k <= to; k++) {
+                acc = ObjectHelper.requireNonNull(combiner.invoke(acc, (R)ring[(int)(k % panes)]), "The combiner returned a null value");
+            }
+            return acc;
+        }
+
+        /** Stops accumulating and releases the pane accumulators; guarded by this. */
+        void stop() {
+            stopped = true;
+            Arrays.fill(ring, null);
+        }
+
+        void fail(Throwable ex) {
+            cancel();
+            actual.onError(ex);
+        }
+
+        @Override
+        public boolean accept(Subscriber<? super R> a, R v) {
+            actual.onNext(v);
+            return true;
+        }
+
+        @Override
+        public void dispose() {
+            cancel();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return timer.get() == DisposableHelper.DISPOSED;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
+import io.reactivex.common.*;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.flowable.internal.utils.*;
+
+/**
+ * Caches the events of the upstream in generations: late Subscribers replay the current
+ * generation unless it has expired, failed or grown beyond the item limit, in which case
+ * they start a fresh generation by subscribing to the upstream again.
+ * <p>
+ * A generation that outgrew the item limit releases its head so the segments all
+ * Subscribers have moved past can be reclaimed.
+ *
+ * @param <T> the source element type
+ */
+public final class FlowableCacheBounded<T> extends AbstractFlowableWithUpstream<T, T> {
+
+    final int maxItems;
+
+    final long time;
+
+    final TimeUnit unit;
+
+    final Scheduler scheduler;
+
+    final int capacityHint;
+
+    /** The generation late Subscribers may join. */
+    final AtomicReference<CacheState<T>> current;
+
+    public FlowableCacheBounded(Flowable<T> source, int maxItems, long time, TimeUnit unit, Scheduler scheduler) {
+        super(source);
+        this.maxItems = maxItems;
+        this.time = time;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.capacityHint = Math.min(maxItems, 16);
+        this.current = new AtomicReference<CacheState<T>>();
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> t) {
+        long now = scheduler.now(unit);
+        for (;;) {
+            CacheState<T> state = current.get();
+            if (state == null || state.isStale(now)) {
+                CacheState<T> fresh = new CacheState<T>(this);
+                if (!current.compareAndSet(state, fresh)) {
+                    continue;
+                }
+                ReplaySubscription<T> rp = new ReplaySubscription<T>(t, fresh, fresh.head);
+                fresh.addChild(rp);
+
+                t.onSubscribe(rp);
+
+                fresh.connect();
+                return;
+            }
+
+            // latch the head before joining, a generation that lost it can't be replayed from the start
+            Object[] h = state.head;
+            if (h == null) {
+                continue;
+            }
+            ReplaySubscription<T> rp = new ReplaySubscription<T>(t, state, h);
+            if (state.addChild(rp)) {
+                t.onSubscribe(rp);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events cached by the current generation.
+     * @return the number of events cached by the current generation
+     */
+    /* public */ long cachedEventCount() {
+        CacheState<T> state = current.get();
+        return state != null ? state.size : 0L;
+    }
+
+    /**
+     * Holds the events of one upstream subscription and the Subscribers replaying them.
+     *
+     * @param <T> the value type of the cached items
+     */
+    static final class CacheState<T> implements RelaxedSubscriber<T> {
+        /** The parent operator holding the source and limits. */
+        final FlowableCacheBounded<T> parent;
+        /** Holds onto the subscriber connected to source. */
+        final AtomicReference<Subscription> connection = new AtomicReference<Subscription>();
+
+        final AtomicReference<ReplaySubscription<T>[]> subscribers;
+        /** The default empty array of subscribers. */
+        @SuppressWarnings("rawtypes")
+        static final ReplaySubscription[] EMPTY = new ReplaySubscription[0];
+        /** The default empty array of subscribers. */
+        @SuppressWarnings("rawtypes")
+        static final ReplaySubscription[] TERMINATED = new ReplaySubscription[0];
+        /** Indicates a truncated generation without Subscribers, its upstream has been cancelled. */
+        @SuppressWarnings("rawtypes")
+        static final ReplaySubscription[] ABANDONED = new ReplaySubscription[0];
+
+        /**
+         * The first segment; set to null once the number of items exceeds the limit so
+         * no new Subscriber can join.
+         */
+        volatile Object[] head;
+        /** The segment where new events are added. */
+        Object[] tail;
+        /** The next available slot in the current tail. */
+        int indexInTail;
+        /** The number of events that can be read by the Subscribers (acquire). */
+        volatile long size;
+        /** The time until late Subscribers can join, Long.MAX_VALUE while the upstream is active. */
+        volatile long expiresAt;
+
+        boolean sourceDone;
+
+        @SuppressWarnings("unchecked")
+        CacheState(FlowableCacheBounded<T> parent) {
+            this.parent = parent;
+            this.subscribers = new AtomicReference<ReplaySubscription<T>[]>(EMPTY);
+            Object[] h = new Object[parent.capacityHint + 1];
+            this.tail = h;
+            this.head = h;
+            this.expiresAt = Long.MAX_VALUE;
+        }
+
+        boolean isStale(long now) {
+            return head == null || now >= expiresAt;
+        }
+
+        void connect() {
+            parent.source.subscribe(this);
+        }
+
+        void add(Object o) {
+            int c = parent.capacityHint;
+            if (indexInTail == c) {
+                Object[] t = new Object[c + 1];
+                t[0] = o;
+                tail[c] = t;
+                tail = t;
+                indexInTail = 1;
+            } else {
+                tail[indexInTail++] = o;
+            }
+            size++;
+        }
+
+        /**
+         * Adds a ReplaySubscription to the subscribers array atomically.
+         * @param p the target ReplaySubscription wrapping a downstream Subscriber with state
+         * @return false if the generation has been abandoned and can't be joined
+         */
+        boolean addChild(ReplaySubscription<T> p) {
+            for (;;) {
+                ReplaySubscription<T>[] a = subscribers.get();
+                if (a == TERMINATED) {
+                    return true;
+                }
+                if (a == ABANDONED) {
+                    return false;
+                }
+                int n = a.length;
+                @SuppressWarnings("unchecked")
+                ReplaySubscription<T>[] b = new ReplaySubscription[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = p;
+                if (subscribers.compareAndSet(a, b)) {
+                    return true;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void removeChild(ReplaySubscription<T> p) {
+            for (;;) {
+                ReplaySubscription<T>[] a = subscribers.get();
+                int n = a.length;
+                if (n == 0) {
+                    return;
+                }
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == p) {
+                        j = i;
+                        break;
+                    }
+                }
+                if (j < 0) {
+                    return;
+                }
+
+                ReplaySubscription<T>[] b;
+                if (n == 1) {
+                    // nobody can join a truncated generation, stop feeding it
+                    b = head == null ? ABANDONED : EMPTY;
+                } else {
+                    b = new ReplaySubscription[n - 1];
+                    System.arraycopy(a, 0, b, 0, j);
+                    System.arraycopy(a, j + 1, b, j, n - j - 1);
+                }
+                if (subscribers.compareAndSet(a, b)) {
+                    if (b == ABANDONED) {
+                        SubscriptionHelper.cancel(connection);
+                    } else
+                    if (b == EMPTY && head == null && subscribers.compareAndSet(EMPTY, ABANDONED)) {
+                        SubscriptionHelper.cancel(connection);
+                    }
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.setOnce(connection, s)) {
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNext(T t) {
+            if (!sourceDone) {
+                add(NotificationLite.next(t));
+                if (head != null && size > parent.maxItems) {
+                    head = null;
+                    if (subscribers.compareAndSet(EMPTY, ABANDONED)) {
+                        SubscriptionHelper.cancel(connection);
+                    }
+                }
+                for (ReplaySubscription<?> rp : subscribers.get()) {
+                    rp.replay();
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onError(Throwable e) {
+            if (!sourceDone) {
+                sourceDone = true;
+                // errors are not served to late Subscribers, they retry the upstream
+                expiresAt = Long.MIN_VALUE;
+                add(NotificationLite.error(e));
+                SubscriptionHelper.cancel(connection);
+                for (ReplaySubscription<?> rp : subscribers.getAndSet(TERMINATED)) {
+                    rp.replay();
+                }
+            } else {
+                RxJavaCommonPlugins.onError(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onComplete() {
+            if (!sourceDone) {
+                sourceDone = true;
+                long now = parent.scheduler.now(parent.unit);
+                long ttl = parent.time;
+                expiresAt = now > Long.MAX_VALUE - ttl ? Long.MAX_VALUE - 1 : now + ttl;
+                add(NotificationLite.complete());
+                SubscriptionHelper.cancel(connection);
+                for (ReplaySubscription<?> rp : subscribers.getAndSet(TERMINATED)) {
+                    rp.replay();
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps track of the current request amount and the replay position for a child Subscriber.
+     *
+     * @param <T> the value type
+     */
+    static final class ReplaySubscription<T>
+    extends AtomicInteger implements Subscription {
+
+        private static final long serialVersionUID = 3614402163727738347L;
+        private static final long CANCELLED = -1;
+        /** The actual child subscriber. */
+        final Subscriber<? super T> child;
+        /** The cache state object. */
+        final CacheState<T> state;
+
+        final AtomicLong requested;
+
+        /** The segment holding the next event to replay. */
+        Object[] currentBuffer;
+        /** The index into the currentBuffer where the next event is expected. */
+        int currentIndexInBuffer;
+        /** The absolute index up until the events have been replayed so far. */
+        long index;
+
+        ReplaySubscription(Subscriber<? super T> child, CacheState<T> state, Object[] head) {
+            this.child = child;
+            this.state = state;
+            this.requested = new AtomicLong();
+            this.currentBuffer = head;
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                for (;;) {
+                    long r = requested.get();
+                    if (r == CANCELLED) {
+                        return;
+                    }
+                    long u = BackpressureHelper.addCap(r, n);
+                    if (requested.compareAndSet(r, u)) {
+                        replay();
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (requested.getAndSet(CANCELLED) != CANCELLED) {
+                state.removeChild(this);
+            }
+        }
+
+        /**
+         * Continue replaying available events if there are requests for them.
+         */
+        void replay() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            final Subscriber<? super T> child = this.child;
+            AtomicLong rq = requested;
+
+            for (;;) {
+
+                long r = rq.get();
+
+                if (r < 0L) {
+                    return;
+                }
+
+                long s = state.size;
+                Object[] b = currentBuffer;
+                final int n = b.length - 1;
+                long j = index;
+                int k = currentIndexInBuffer;
+                long valuesProduced = 0;
+
+                while (j < s && r > 0) {
+                    if (rq.get() == CANCELLED) {
+                        return;
+                    }
+                    if (k == n) {
+                        b = (Object[])b[n];
+                        k = 0;
+                    }
+                    Object o = b[k];
+
+                    if (NotificationLite.accept(o, child)) {
+                        return;
+                    }
+
+                    k++;
+                    j++;
+                    r--;
+                    valuesProduced++;
+                }
+
+                if (rq.get() == CANCELLED) {
+                    return;
+                }
+
+                if (r == 0 && j < s) {
+                    if (k == n) {
+                        b = (Object[])b[n];
+                        k = 0;
+                    }
+                    Object o = b[k];
+                    if (NotificationLite.isComplete(o)) {
+                        child.onComplete();
+                        return;
+                    } else
+                    if (NotificationLite.isError(o)) {
+                        child.onError(NotificationLite.getError(o));
+                        return;
+                    }
+                }
+
+                if (valuesProduced != 0) {
+                    BackpressureHelper.producedCancel(rq, valuesProduced);
+                }
+
+                index = j;
+                currentIndexInBuffer = k;
+                currentBuffer = b;
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ import io.reactivex.common.RxJavaCommonPlugins;
 import io.reactivex.common.annotations.NonNull;
 import io.reactivex.common.annotations.Nullable;
 import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.functions.Functions;
 import io.reactivex.common.internal.functions.ObjectHelper;
 import io.reactivex.common.internal.utils.ExceptionHelper;
 import io.reactivex.flowable.Flowable;
@@ -169,6 +170,15 @@ extends Flowable<R> {
 
         final Object[] latest;
 
+        /**
+         * The drain-side copy of the latest values if the combiner does not retain its array;
+         * in this case only the changed value is queued instead of a snapshot of all values.
+         */
+        final Object[] row;
+
+        /** Set once the row received the values present when all sources first had one; guarded by this. */
+        boolean rowSeeded;
+
         final boolean delayErrors;
 
         boolean outputFused;
@@ -197,6 +207,7 @@ extends Flowable<R> {
             }
             this.subscribers = a;
             this.latest = new Object[n];
+            this.row = Functions.isArrayAdapter(combiner) ? new Object[n] : null;
             this.queue = new SpscLinkedArrayQueue<Object>(bufferSize);
             this.requested = new AtomicLong();
             this.error = new  AtomicReference<Throwable>();
@@ -246,7 +257,16 @@ extends Flowable<R> {
 
                 if (os.length == localNonEmptySources) {
 
-                    queue.offer(subscribers[index], os.clone());
+                    Object[] r = row;
+                    if (r != null) {
+                        if (!rowSeeded) {
+                            rowSeeded = true;
+                            System.arraycopy(os, 0, r, 0, os.length);
+                        }
+                        queue.offer(subscribers[index], value);
+                    } else {
+                        queue.offer(subscribers[index], os.clone());
+                    }
 
                     replenishInsteadOfDrain = false;
                 } else {
@@ -364,7 +384,7 @@ extends Flowable<R> {
                         break;
                     }
 
-                    T[] va = (T[])q.poll();
+                    Object[] va = values((CombineLatestInnerSubscriber<T>)v, q.poll());
 
                     R w;
 
@@ -417,6 +437,19 @@ extends Flowable<R> {
             }
         }
 
+        /**
+         * Returns the values to combine for a queued entry: the row updated with the queued
+         * value or the queued snapshot itself.
+         */
+        Object[] values(CombineLatestInnerSubscriber<T> inner, Object entry) {
+            Object[] r = row;
+            if (r != null) {
+                r[inner.index] = entry;
+                return r;
+            }
+            return (Object[])entry;
+        }
+
         boolean checkTerminated(boolean d, boolean empty, Subscriber<?> a, SpscLinkedArrayQueue<?> q) {
             if (cancelled) {
                 cancelAll();
@@ -481,7 +514,7 @@ extends Flowable<R> {
             if (e == null) {
                 return null;
             }
-            T[] a = (T[])queue.poll();
+            Object[] a = values((CombineLatestInnerSubscriber<T>)e, queue.poll());
             R r = combiner.invoke(a);
             ((CombineLatestInnerSubscriber<T>)e).requestOne();
             return r;
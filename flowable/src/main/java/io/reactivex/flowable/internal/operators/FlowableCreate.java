@@ -31,6 +31,7 @@ import io.reactivex.flowable.BackpressureStrategy;
 import io.reactivex.flowable.Flowable;
 import io.reactivex.flowable.FlowableEmitter;
 import io.reactivex.flowable.FlowableOnSubscribe;
+import io.reactivex.flowable.internal.queues.MpscLinkedArrayQueue;
 import io.reactivex.flowable.internal.queues.SimplePlainQueue;
 import io.reactivex.flowable.internal.queues.SpscLinkedArrayQueue;
 import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
@@ -44,9 +45,16 @@ public final class FlowableCreate<T> extends Flowable<T> {
 
     final BackpressureStrategy backpressure;
 
+    final boolean multiProducer;
+
     public FlowableCreate(FlowableOnSubscribe<T> source, BackpressureStrategy backpressure) {
+        this(source, backpressure, false);
+    }
+
+    public FlowableCreate(FlowableOnSubscribe<T> source, BackpressureStrategy backpressure, boolean multiProducer) {
         this.source = source;
         this.backpressure = backpressure;
+        this.multiProducer = multiProducer;
     }
 
     @Override
@@ -71,14 +79,19 @@ public final class FlowableCreate<T> extends Flowable<T> {
             break;
         }
         default: {
-            emitter = new BufferAsyncEmitter<T>(t, bufferSize());
+            if (multiProducer) {
+                emitter = new BufferAsyncEmitter<T>(t, new MpscLinkedArrayQueue<T>(bufferSize()), true);
+            } else {
+                emitter = new BufferAsyncEmitter<T>(t, new SpscLinkedArrayQueue<T>(bufferSize()), false);
+            }
             break;
         }
         }
 
         t.onSubscribe(emitter);
         try {
-            source.subscribe(emitter);
+            // the BUFFER emitter accepts concurrent producers natively, the others get serialized
+            source.subscribe(multiProducer ? emitter.serialize() : emitter);
         } catch (Throwable ex) {
             Exceptions.throwIfFatal(ex);
             emitter.onError(ex);
@@ -323,7 +336,7 @@ public final class FlowableCreate<T> extends Flowable<T> {
         }
 
         @Override
-        public final FlowableEmitter<T> serialize() {
+        public FlowableEmitter<T> serialize() {
             return new SerializedEmitter<T>(this);
         }
     }
@@ -427,16 +440,20 @@ public final class FlowableCreate<T> extends Flowable<T> {
 
         private static final long serialVersionUID = 2427151001689639875L;
 
-        final SpscLinkedArrayQueue<T> queue;
+        final SimplePlainQueue<T> queue;
+
+        /** If true, the queue accepts concurrent offers and onNext may be called from multiple threads. */
+        final boolean multiProducer;
 
         Throwable error;
         volatile boolean done;
 
         final AtomicInteger wip;
 
-        BufferAsyncEmitter(Subscriber<? super T> actual, int capacityHint) {
+        BufferAsyncEmitter(Subscriber<? super T> actual, SimplePlainQueue<T> queue, boolean multiProducer) {
             super(actual);
-            this.queue = new SpscLinkedArrayQueue<T>(capacityHint);
+            this.queue = queue;
+            this.multiProducer = multiProducer;
             this.wip = new AtomicInteger();
         }
 
@@ -488,6 +505,14 @@ public final class FlowableCreate<T> extends Flowable<T> {
             }
         }
 
+        @Override
+        public FlowableEmitter<T> serialize() {
+            if (multiProducer) {
+                return this;
+            }
+            return super.serialize();
+        }
+
         void drain() {
             if (wip.getAndIncrement() != 0) {
                 return;
@@ -495,7 +520,7 @@ public final class FlowableCreate<T> extends Flowable<T> {
 
             int missed = 1;
             final Subscriber<? super T> a = actual;
-            final SpscLinkedArrayQueue<T> q = queue;
+            final SimplePlainQueue<T> q = queue;
 
             for (;;) {
                 long r = get();
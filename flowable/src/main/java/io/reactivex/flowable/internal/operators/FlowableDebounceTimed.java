@@ -22,12 +22,21 @@ import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
 import io.reactivex.common.*;
 import io.reactivex.common.Scheduler.Worker;
 import io.reactivex.common.exceptions.MissingBackpressureException;
-import io.reactivex.common.internal.disposables.*;
 import io.reactivex.flowable.Flowable;
 import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
 import io.reactivex.flowable.internal.utils.BackpressureHelper;
 import io.reactivex.flowable.subscribers.SerializedSubscriber;
 
+/**
+ * Emits an item once no newer item arrived within the timeout.
+ * <p>
+ * Instead of scheduling and cancelling a timer task per item, each subscriber keeps one
+ * timer task armed while there is a pending item; items only swap in the latest value
+ * together with its deadline and the timer reschedules itself for the remaining time
+ * whenever it fires before the deadline.
+ *
+ * @param <T> the value type
+ */
 public final class FlowableDebounceTimed<T> extends AbstractFlowableWithUpstream<T, T> {
     final long timeout;
     final TimeUnit unit;
@@ -48,26 +57,23 @@ public final class FlowableDebounceTimed<T> extends AbstractFlowableWithUpstream
     }
 
     static final class DebounceTimedSubscriber<T> extends AtomicLong
-    implements RelaxedSubscriber<T>, Subscription {
+    implements RelaxedSubscriber<T>, Subscription, Runnable {
 
         private static final long serialVersionUID = -9102637559663639004L;
         final Subscriber<? super T> actual;
-        final long timeout;
-        final TimeUnit unit;
+        final long timeoutNanos;
         final Scheduler.Worker worker;
 
         Subscription s;
 
-        final SequentialDisposable timer = new SequentialDisposable();
-
-        volatile long index;
+        /** The pending item, non-null exactly while the timer is armed. */
+        final AtomicReference<DebounceNode<T>> pending = new AtomicReference<DebounceNode<T>>();
 
         boolean done;
 
         DebounceTimedSubscriber(Subscriber<? super T> actual, long timeout, TimeUnit unit, Worker worker) {
             this.actual = actual;
-            this.timeout = timeout;
-            this.unit = unit;
+            this.timeoutNanos = unit.toNanos(timeout);
             this.worker = worker;
         }
 
@@ -85,19 +91,30 @@ public final class FlowableDebounceTimed<T> extends AbstractFlowableWithUpstream
             if (done) {
                 return;
             }
-            long idx = index + 1;
-            index = idx;
+            DebounceNode<T> node = new DebounceNode<T>(t, worker.now(TimeUnit.NANOSECONDS) + timeoutNanos);
 
-            Disposable d = timer.get();
-            if (d != null) {
-                d.dispose();
+            if (pending.getAndSet(node) == null) {
+                worker.schedule(this, timeoutNanos, TimeUnit.NANOSECONDS);
             }
+        }
 
-            DebounceEmitter<T> de = new DebounceEmitter<T>(t, idx, this);
-            if (timer.replace(de)) {
-                d = worker.schedule(de, timeout, unit);
-
-                de.setResource(d);
+        @Override
+        public void run() {
+            for (;;) {
+                DebounceNode<T> node = pending.get();
+                if (node == null) {
+                    return;
+                }
+                long now = worker.now(TimeUnit.NANOSECONDS);
+                if (now < node.deadline) {
+                    worker.schedule(this, node.deadline - now, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                // if a newer item arrived meanwhile, check its deadline instead
+                if (pending.compareAndSet(node, null)) {
+                    emit(node.value);
+                    return;
+                }
             }
         }
 
@@ -119,14 +136,11 @@ public final class FlowableDebounceTimed<T> extends AbstractFlowableWithUpstream
             }
             done = true;
 
-            Disposable d = timer.get();
-            if (!DisposableHelper.isDisposed(d)) {
-                @SuppressWarnings("unchecked")
-                DebounceEmitter<T> de = (DebounceEmitter<T>)d;
-                if (de != null) {
-                    de.emit();
+            if (!worker.isDisposed()) {
+                DebounceNode<T> node = pending.getAndSet(null);
+                if (node != null) {
+                    emit(node.value);
                 }
-                DisposableHelper.dispose(timer);
                 actual.onComplete();
                 worker.dispose();
             }
@@ -145,62 +159,26 @@ public final class FlowableDebounceTimed<T> extends AbstractFlowableWithUpstream
             worker.dispose();
         }
 
-        void emit(long idx, T t, DebounceEmitter<T> emitter) {
-            if (idx == index) {
-                long r = get();
-                if (r != 0L) {
-                    actual.onNext(t);
-                    BackpressureHelper.produced(this, 1);
-
-                    emitter.dispose();
-                } else {
-                    cancel();
-                    actual.onError(new MissingBackpressureException("Could not deliver value due to lack of requests"));
-                }
+        void emit(T t) {
+            long r = get();
+            if (r != 0L) {
+                actual.onNext(t);
+                BackpressureHelper.produced(this, 1);
+            } else {
+                cancel();
+                actual.onError(new MissingBackpressureException("Could not deliver value due to lack of requests"));
             }
         }
     }
 
-    static final class DebounceEmitter<T> extends AtomicReference<Disposable> implements Runnable, Disposable {
-
-        private static final long serialVersionUID = 6812032969491025141L;
-
+    static final class DebounceNode<T> {
         final T value;
-        final long idx;
-        final DebounceTimedSubscriber<T> parent;
-
-        final AtomicBoolean once = new AtomicBoolean();
 
+        final long deadline;
 
-        DebounceEmitter(T value, long idx, DebounceTimedSubscriber<T> parent) {
+        DebounceNode(T value, long deadline) {
             this.value = value;
-            this.idx = idx;
-            this.parent = parent;
-        }
-
-        @Override
-        public void run() {
-            emit();
-        }
-
-        void emit() {
-            if (once.compareAndSet(false, true)) {
-                parent.emit(idx, value, this);
-            }
-        }
-
-        @Override
-        public void dispose() {
-            DisposableHelper.dispose(this);
-        }
-
-        @Override
-        public boolean isDisposed() {
-            return get() == DisposableHelper.DISPOSED;
-        }
-
-        public void setResource(Disposable d) {
-            DisposableHelper.replace(this, d);
+            this.deadline = deadline;
         }
     }
 }
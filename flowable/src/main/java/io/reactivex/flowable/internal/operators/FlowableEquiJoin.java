@@ -0,0 +1,409 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.Scheduler;
+import io.reactivex.common.disposables.CompositeDisposable;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.exceptions.MissingBackpressureException;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.common.internal.utils.ExceptionHelper;
+import io.reactivex.common.internal.utils.KeyedWindow;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.internal.operators.FlowableGroupJoin.JoinSupport;
+import io.reactivex.flowable.internal.operators.FlowableGroupJoin.LeftRightEndSubscriber;
+import io.reactivex.flowable.internal.operators.FlowableGroupJoin.LeftRightSubscriber;
+import io.reactivex.flowable.internal.queues.SpscLinkedArrayQueue;
+import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.flowable.internal.utils.BackpressureHelper;
+import kotlin.jvm.functions.Function1;
+import kotlin.jvm.functions.Function2;
+
+/**
+ * Pairs up the items of two Publishers whose keys are equal and which arrived within
+ * a time window of each other, looking up the matches in per-key hash buckets.
+ *
+ * @param <TLeft> the left value type
+ * @param <TRight> the right value type
+ * @param <K> the key type
+ * @param <R> the result type
+ */
+public final class FlowableEquiJoin<TLeft, TRight, K, R> extends AbstractFlowableWithUpstream<TLeft, R> {
+
+    final Publisher<? extends TRight> other;
+
+    final Function1<? super TLeft, ? extends K> leftKeySelector;
+
+    final Function1<? super TRight, ? extends K> rightKeySelector;
+
+    final long time;
+
+    final TimeUnit unit;
+
+    final Scheduler scheduler;
+
+    final int count;
+
+    final Function2<? super TLeft, ? super TRight, ? extends R> resultSelector;
+
+    public FlowableEquiJoin(
+            Flowable<TLeft> source,
+            Publisher<? extends TRight> other,
+            Function1<? super TLeft, ? extends K> leftKeySelector,
+            Function1<? super TRight, ? extends K> rightKeySelector,
+            long time, TimeUnit unit, Scheduler scheduler, int count,
+            Function2<? super TLeft, ? super TRight, ? extends R> resultSelector) {
+        super(source);
+        this.other = other;
+        this.leftKeySelector = leftKeySelector;
+        this.rightKeySelector = rightKeySelector;
+        this.time = time;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.count = count;
+        this.resultSelector = resultSelector;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super R> s) {
+
+        EquiJoinSubscription<TLeft, TRight, K, R> parent =
+                new EquiJoinSubscription<TLeft, TRight, K, R>(s, leftKeySelector, rightKeySelector,
+                        time, unit, scheduler, count, resultSelector);
+
+        s.onSubscribe(parent);
+
+        LeftRightSubscriber left = new LeftRightSubscriber(parent, true);
+        parent.disposables.add(left);
+        LeftRightSubscriber right = new LeftRightSubscriber(parent, false);
+        parent.disposables.add(right);
+
+        parent.disposables.add(scheduler.schedulePeriodicallyDirect(parent, time, time, unit));
+
+        source.subscribe(left);
+        other.subscribe(right);
+    }
+
+    static final class EquiJoinSubscription<TLeft, TRight, K, R>
+    extends AtomicInteger implements Subscription, JoinSupport, Runnable {
+
+        private static final long serialVersionUID = 3574851306405435270L;
+
+        final Subscriber<? super R> actual;
+
+        final AtomicLong requested;
+
+        final SpscLinkedArrayQueue<Object> queue;
+
+        final CompositeDisposable disposables;
+
+        final KeyedWindow<K, TLeft> lefts;
+
+        final KeyedWindow<K, TRight> rights;
+
+        final AtomicReference<Throwable> error;
+
+        final Function1<? super TLeft, ? extends K> leftKeySelector;
+
+        final Function1<? super TRight, ? extends K> rightKeySelector;
+
+        final TimeUnit unit;
+
+        final Scheduler scheduler;
+
+        final Function2<? super TLeft, ? super TRight, ? extends R> resultSelector;
+
+        final AtomicInteger active;
+
+        volatile boolean cancelled;
+
+        static final Integer LEFT_VALUE = 1;
+
+        static final Integer RIGHT_VALUE = 2;
+
+        static final Integer EXPIRE = 3;
+
+        EquiJoinSubscription(Subscriber<? super R> actual,
+                Function1<? super TLeft, ? extends K> leftKeySelector,
+                Function1<? super TRight, ? extends K> rightKeySelector,
+                long time, TimeUnit unit, Scheduler scheduler, int count,
+                Function2<? super TLeft, ? super TRight, ? extends R> resultSelector) {
+            this.actual = actual;
+            this.requested = new AtomicLong();
+            this.disposables = new CompositeDisposable();
+            this.queue = new SpscLinkedArrayQueue<Object>(bufferSize());
+            this.lefts = new KeyedWindow<K, TLeft>(time, count);
+            this.rights = new KeyedWindow<K, TRight>(time, count);
+            this.error = new AtomicReference<Throwable>();
+            this.leftKeySelector = leftKeySelector;
+            this.rightKeySelector = rightKeySelector;
+            this.unit = unit;
+            this.scheduler = scheduler;
+            this.resultSelector = resultSelector;
+            this.active = new AtomicInteger(2);
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            cancelAll();
+            if (getAndIncrement() == 0) {
+                queue.clear();
+            }
+        }
+
+        void cancelAll() {
+            disposables.dispose();
+        }
+
+        void errorAll(Subscriber<?> a) {
+            Throwable ex = ExceptionHelper.terminate(error);
+
+            lefts.clear();
+            rights.clear();
+
+            a.onError(ex);
+        }
+
+        void fail(Throwable exc, Subscriber<?> a, SpscLinkedArrayQueue<?> q) {
+            Exceptions.throwIfFatal(exc);
+            ExceptionHelper.addThrowable(error, exc);
+            q.clear();
+            cancelAll();
+            errorAll(a);
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                queue.offer(EXPIRE, EXPIRE);
+            }
+            drain();
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            SpscLinkedArrayQueue<Object> q = queue;
+            Subscriber<? super R> a = actual;
+
+            for (;;) {
+                for (;;) {
+                    if (cancelled) {
+                        q.clear();
+                        return;
+                    }
+
+                    Throwable ex = error.get();
+                    if (ex != null) {
+                        q.clear();
+                        cancelAll();
+                        errorAll(a);
+                        return;
+                    }
+
+                    boolean d = active.get() == 0;
+
+                    Integer mode = (Integer)q.poll();
+
+                    boolean empty = mode == null;
+
+                    if (d && empty) {
+
+                        lefts.clear();
+                        rights.clear();
+                        disposables.dispose();
+
+                        a.onComplete();
+                        return;
+                    }
+
+                    if (empty) {
+                        break;
+                    }
+
+                    Object val = q.poll();
+
+                    long now = scheduler.now(unit);
+                    lefts.expire(now);
+                    rights.expire(now);
+
+                    if (mode == LEFT_VALUE) {
+                        TLeft left = (TLeft)val;
+
+                        K key;
+
+                        try {
+                            key = ObjectHelper.requireNonNull(leftKeySelector.invoke(left), "The leftKeySelector returned a null key");
+                        } catch (Throwable exc) {
+                            fail(exc, a, q);
+                            return;
+                        }
+
+                        Collection<TRight> matches = rights.get(key);
+
+                        if (matches != null) {
+                            long r = requested.get();
+                            long e = 0L;
+
+                            for (TRight right : matches) {
+
+                                R w;
+
+                                try {
+                                    w = ObjectHelper.requireNonNull(resultSelector.invoke(left, right), "The resultSelector returned a null value");
+                                } catch (Throwable exc) {
+                                    fail(exc, a, q);
+                                    return;
+                                }
+
+                                if (e != r) {
+                                    a.onNext(w);
+
+                                    e++;
+                                } else {
+                                    ExceptionHelper.addThrowable(error, new MissingBackpressureException("Could not emit value due to lack of requests"));
+                                    q.clear();
+                                    cancelAll();
+                                    errorAll(a);
+                                    return;
+                                }
+                            }
+
+                            if (e != 0L) {
+                                BackpressureHelper.produced(requested, e);
+                            }
+                        }
+
+                        lefts.add(key, left, now);
+                    }
+                    else if (mode == RIGHT_VALUE) {
+                        TRight right = (TRight)val;
+
+                        K key;
+
+                        try {
+                            key = ObjectHelper.requireNonNull(rightKeySelector.invoke(right), "The rightKeySelector returned a null key");
+                        } catch (Throwable exc) {
+                            fail(exc, a, q);
+                            return;
+                        }
+
+                        Collection<TLeft> matches = lefts.get(key);
+
+                        if (matches != null) {
+                            long r = requested.get();
+                            long e = 0L;
+
+                            for (TLeft left : matches) {
+
+                                R w;
+
+                                try {
+                                    w = ObjectHelper.requireNonNull(resultSelector.invoke(left, right), "The resultSelector returned a null value");
+                                } catch (Throwable exc) {
+                                    fail(exc, a, q);
+                                    return;
+                                }
+
+                                if (e != r) {
+                                    a.onNext(w);
+
+                                    e++;
+                                } else {
+                                    ExceptionHelper.addThrowable(error, new MissingBackpressureException("Could not emit value due to lack of requests"));
+                                    q.clear();
+                                    cancelAll();
+                                    errorAll(a);
+                                    return;
+                                }
+                            }
+
+                            if (e != 0L) {
+                                BackpressureHelper.produced(requested, e);
+                            }
+                        }
+
+                        rights.add(key, right, now);
+                    }
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public void innerError(Throwable ex) {
+            if (ExceptionHelper.addThrowable(error, ex)) {
+                active.decrementAndGet();
+                drain();
+            } else {
+                RxJavaCommonPlugins.onError(ex);
+            }
+        }
+
+        @Override
+        public void innerComplete(LeftRightSubscriber sender) {
+            disposables.delete(sender);
+            active.decrementAndGet();
+            drain();
+        }
+
+        @Override
+        public void innerValue(boolean isLeft, Object o) {
+            synchronized (this) {
+                queue.offer(isLeft ? LEFT_VALUE : RIGHT_VALUE, o);
+            }
+            drain();
+        }
+
+        @Override
+        public void innerClose(boolean isLeft, LeftRightEndSubscriber index) {
+            // the windows are bounded by time and count, there are no duration Publishers
+        }
+
+        @Override
+        public void innerCloseError(Throwable ex) {
+            // the windows are bounded by time and count, there are no duration Publishers
+        }
+    }
+}
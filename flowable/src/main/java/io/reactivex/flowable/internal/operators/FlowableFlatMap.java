@@ -41,6 +41,13 @@ import io.reactivex.flowable.internal.utils.BackpressureHelper;
 import kotlin.jvm.functions.Function1;
 
 public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T, U> {
+    /**
+     * The maxConcurrency from which the inner subscribers are tracked in a registry with
+     * a ready queue instead of a copy-on-write array scanned by the drain loop; the unbounded
+     * {@code Integer.MAX_VALUE} of the default overloads keeps using the array.
+     */
+    static final int LARGE_CONCURRENCY = 1024;
+
     final Function1<? super T, ? extends Publisher<? extends U>> mapper;
     final boolean delayErrors;
     final int maxConcurrency;
@@ -67,6 +74,9 @@ public final class FlowableFlatMap<T, U> extends AbstractFlowableWithUpstream<T,
     public static <T, U> RelaxedSubscriber<T> subscribe(Subscriber<? super U> s,
                                                         Function1<? super T, ? extends Publisher<? extends U>> mapper,
                                                         boolean delayErrors, int maxConcurrency, int bufferSize) {
+        if (maxConcurrency >= LARGE_CONCURRENCY && maxConcurrency != Integer.MAX_VALUE) {
+            return new FlowableFlatMapLarge.MergeSubscriber<T, U>(s, mapper, delayErrors, maxConcurrency, bufferSize);
+        }
         return new MergeSubscriber<T, U>(s, mapper, delayErrors, maxConcurrency, bufferSize);
     }
 
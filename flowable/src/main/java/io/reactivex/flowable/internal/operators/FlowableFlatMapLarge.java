@@ -0,0 +1,634 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import hu.akarnokd.reactivestreams.extensions.FusedQueue;
+import hu.akarnokd.reactivestreams.extensions.FusedQueueSubscription;
+import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
+import io.reactivex.common.Disposable;
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.disposables.CompositeDisposable;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.exceptions.MissingBackpressureException;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.common.internal.utils.AtomicThrowable;
+import io.reactivex.common.internal.utils.ExceptionHelper;
+import io.reactivex.flowable.internal.queues.MpscLinkedQueue;
+import io.reactivex.flowable.internal.queues.SimplePlainQueue;
+import io.reactivex.flowable.internal.queues.SpscArrayQueue;
+import io.reactivex.flowable.internal.queues.SpscLinkedArrayQueue;
+import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.flowable.internal.utils.BackpressureHelper;
+import kotlin.jvm.functions.Function1;
+
+/**
+ * The flatMap implementation used for a large maxConcurrency.
+ * <p>
+ * The inner subscribers are tracked in a hash-based registry with O(1) add and remove, and an
+ * inner enqueues itself into a ready queue when it has items or terminated, so the drain loop
+ * only visits the inner sources with something to do instead of scanning all of them.
+ */
+final class FlowableFlatMapLarge {
+
+    /** Utility class. */
+    private FlowableFlatMapLarge() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    static final class MergeSubscriber<T, U> extends AtomicInteger implements RelaxedSubscriber<T>, Subscription {
+
+        private static final long serialVersionUID = 5410472279488231226L;
+
+        final Subscriber<? super U> actual;
+        final Function1<? super T, ? extends Publisher<? extends U>> mapper;
+        final boolean delayErrors;
+        final int maxConcurrency;
+        final int bufferSize;
+
+        volatile SimplePlainQueue<U> queue;
+
+        volatile boolean done;
+
+        final AtomicThrowable errs = new AtomicThrowable();
+
+        volatile boolean cancelled;
+
+        /** The active inner subscribers. */
+        final CompositeDisposable inners;
+
+        /** The inner subscribers with queued items or a terminal event to be processed. */
+        final SimplePlainQueue<InnerSubscriber<T, U>> ready;
+
+        final AtomicLong requested = new AtomicLong();
+
+        Subscription s;
+
+        /** The ready inner the drain loop ran out of requests with, accessed by the drain loop only. */
+        InnerSubscriber<T, U> pending;
+
+        int scalarEmitted;
+        final int scalarLimit;
+
+        MergeSubscriber(Subscriber<? super U> actual, Function1<? super T, ? extends Publisher<? extends U>> mapper,
+                        boolean delayErrors, int maxConcurrency, int bufferSize) {
+            this.actual = actual;
+            this.mapper = mapper;
+            this.delayErrors = delayErrors;
+            this.maxConcurrency = maxConcurrency;
+            this.bufferSize = bufferSize;
+            this.scalarLimit = Math.max(1, maxConcurrency >> 1);
+            this.inners = new CompositeDisposable();
+            this.ready = new MpscLinkedQueue<InnerSubscriber<T, U>>();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+                if (!cancelled) {
+                    if (maxConcurrency == Integer.MAX_VALUE) {
+                        s.request(Long.MAX_VALUE);
+                    } else {
+                        s.request(maxConcurrency);
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNext(T t) {
+            // safeguard against misbehaving sources
+            if (done) {
+                return;
+            }
+            Publisher<? extends U> p;
+            try {
+                p = ObjectHelper.requireNonNull(mapper.invoke(t), "The mapper returned a null Publisher");
+            } catch (Throwable e) {
+                Exceptions.throwIfFatal(e);
+                s.cancel();
+                onError(e);
+                return;
+            }
+            if (p instanceof Callable) {
+                U u;
+
+                try {
+                    u  = ((Callable<U>)p).call();
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    errs.addThrowable(ex);
+                    drain();
+                    return;
+                }
+
+                if (u != null) {
+                    tryEmitScalar(u);
+                } else {
+                    if (maxConcurrency != Integer.MAX_VALUE && !cancelled
+                            && ++scalarEmitted == scalarLimit) {
+                        scalarEmitted = 0;
+                        s.request(scalarLimit);
+                    }
+                }
+            } else {
+                InnerSubscriber<T, U> inner = new InnerSubscriber<T, U>(this);
+                if (inners.add(inner)) {
+                    p.subscribe(inner);
+                }
+            }
+        }
+
+        FusedQueue<U> getMainQueue() {
+            SimplePlainQueue<U> q = queue;
+            if (q == null) {
+                if (maxConcurrency == Integer.MAX_VALUE) {
+                    q = new SpscLinkedArrayQueue<U>(bufferSize);
+                } else {
+                    q = new SpscArrayQueue<U>(maxConcurrency);
+                }
+                queue = q;
+            }
+            return q;
+        }
+
+        void tryEmitScalar(U value) {
+            if (get() == 0 && compareAndSet(0, 1)) {
+                long r = requested.get();
+                FusedQueue<U> q = queue;
+                if (r != 0L && (q == null || q.isEmpty())) {
+                    actual.onNext(value);
+                    if (r != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    if (maxConcurrency != Integer.MAX_VALUE && !cancelled
+                            && ++scalarEmitted == scalarLimit) {
+                        scalarEmitted = 0;
+                        s.request(scalarLimit);
+                    }
+                } else {
+                    if (q == null) {
+                        q = getMainQueue();
+                    }
+                    if (!q.offer(value)) {
+                        onError(new IllegalStateException("Scalar queue full?!"));
+                        return;
+                    }
+                }
+                if (decrementAndGet() == 0) {
+                    return;
+                }
+            } else {
+                FusedQueue<U> q = getMainQueue();
+                if (!q.offer(value)) {
+                    onError(new IllegalStateException("Scalar queue full?!"));
+                    return;
+                }
+                if (getAndIncrement() != 0) {
+                    return;
+                }
+            }
+            drainLoop();
+        }
+
+        FusedQueue<U> getInnerQueue(InnerSubscriber<T, U> inner) {
+            FusedQueue<U> q = inner.queue;
+            if (q == null) {
+                q = new SpscArrayQueue<U>(bufferSize);
+                inner.queue = q;
+            }
+            return q;
+        }
+
+        void tryEmit(U value, InnerSubscriber<T, U> inner) {
+            if (get() == 0 && compareAndSet(0, 1)) {
+                long r = requested.get();
+                FusedQueue<U> q = inner.queue;
+                if (r != 0L && (q == null || q.isEmpty())) {
+                    actual.onNext(value);
+                    if (r != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    inner.requestMore(1);
+                } else {
+                    if (q == null) {
+                        q = getInnerQueue(inner);
+                    }
+                    if (!q.offer(value)) {
+                        onError(new MissingBackpressureException("Inner queue full?!"));
+                        return;
+                    }
+                    markReady(inner);
+                }
+                if (decrementAndGet() == 0) {
+                    return;
+                }
+            } else {
+                FusedQueue<U> q = getInnerQueue(inner);
+                if (!q.offer(value)) {
+                    onError(new MissingBackpressureException("Inner queue full?!"));
+                    return;
+                }
+                markReady(inner);
+                if (getAndIncrement() != 0) {
+                    return;
+                }
+            }
+            drainLoop();
+        }
+
+        /**
+         * Enqueues the inner into the ready queue unless it is already there.
+         * @param inner the inner with queued items or a terminal event
+         */
+        void markReady(InnerSubscriber<T, U> inner) {
+            AtomicBoolean rdy = inner.ready;
+            if (!rdy.get() && rdy.compareAndSet(false, true)) {
+                ready.offer(inner);
+            }
+        }
+
+        void signal(InnerSubscriber<T, U> inner) {
+            markReady(inner);
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // safeguard against misbehaving sources
+            if (done) {
+                RxJavaCommonPlugins.onError(t);
+                return;
+            }
+            if (errs.addThrowable(t)) {
+                done = true;
+                drain();
+            } else {
+                RxJavaCommonPlugins.onError(t);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            // safeguard against misbehaving sources
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                s.cancel();
+                disposeAll();
+                if (getAndIncrement() == 0) {
+                    clearQueues();
+                }
+            }
+        }
+
+        void drain() {
+            if (getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        void drainLoop() {
+            final Subscriber<? super U> child = this.actual;
+            int missed = 1;
+            for (;;) {
+                if (checkTerminate()) {
+                    return;
+                }
+                SimplePlainQueue<U> svq = queue;
+
+                long r = requested.get();
+                boolean unbounded = r == Long.MAX_VALUE;
+
+                long replenishMain = 0;
+
+                if (svq != null) {
+                    for (;;) {
+                        long scalarEmission = 0;
+                        U o = null;
+                        while (r != 0L) {
+                            o = svq.poll();
+
+                            if (checkTerminate()) {
+                                return;
+                            }
+                            if (o == null) {
+                                break;
+                            }
+
+                            child.onNext(o);
+
+                            replenishMain++;
+                            scalarEmission++;
+                            r--;
+                        }
+                        if (scalarEmission != 0L) {
+                            if (unbounded) {
+                                r = Long.MAX_VALUE;
+                            } else {
+                                r = requested.addAndGet(-scalarEmission);
+                            }
+                        }
+                        if (r == 0L || o == null) {
+                            break;
+                        }
+                    }
+                }
+
+                boolean d = done;
+                svq = queue;
+
+                if (d && (svq == null || svq.isEmpty()) && inners.size() == 0) {
+                    Throwable ex = errs.terminate();
+                    if (ex != ExceptionHelper.TERMINATED) {
+                        if (ex == null) {
+                            child.onComplete();
+                        } else {
+                            child.onError(ex);
+                        }
+                    }
+                    return;
+                }
+
+                boolean innerCompleted = false;
+
+                for (;;) {
+                    if (checkTerminate()) {
+                        return;
+                    }
+                    InnerSubscriber<T, U> is = pending;
+                    if (is != null) {
+                        pending = null;
+                    } else {
+                        is = ready.poll();
+                        if (is == null) {
+                            break;
+                        }
+                    }
+
+                    FusedQueue<U> q = is.queue;
+                    boolean failed = false;
+                    if (q != null) {
+                        long produced = 0;
+                        while (r != 0L) {
+                            U o;
+                            try {
+                                o = q.poll();
+                            } catch (Throwable ex) {
+                                Exceptions.throwIfFatal(ex);
+                                is.dispose();
+                                errs.addThrowable(ex);
+                                failed = true;
+                                break;
+                            }
+                            if (o == null) {
+                                break;
+                            }
+
+                            child.onNext(o);
+
+                            if (checkTerminate()) {
+                                return;
+                            }
+
+                            r--;
+                            produced++;
+                        }
+                        if (produced != 0L) {
+                            if (!unbounded) {
+                                r = requested.addAndGet(-produced);
+                            } else {
+                                r = Long.MAX_VALUE;
+                            }
+                            is.requestMore(produced);
+                        }
+                    }
+
+                    if (failed) {
+                        if (checkTerminate()) {
+                            return;
+                        }
+                        inners.delete(is);
+                        innerCompleted = true;
+                        continue;
+                    }
+
+                    boolean innerDone = is.done;
+                    q = is.queue;
+                    boolean empty = q == null || q.isEmpty();
+                    if (innerDone && empty) {
+                        inners.delete(is);
+                        if (checkTerminate()) {
+                            return;
+                        }
+                        replenishMain++;
+                        innerCompleted = true;
+                        continue;
+                    }
+                    if (!empty) {
+                        // keep serving this inner first, even across drain calls once out of requests
+                        pending = is;
+                        if (r == 0L) {
+                            break;
+                        }
+                        continue;
+                    }
+
+                    is.ready.set(false);
+                    // an item or the terminal event may have arrived while the flag was still set
+                    q = is.queue;
+                    if ((is.done || (q != null && !q.isEmpty())) && is.ready.compareAndSet(false, true)) {
+                        ready.offer(is);
+                    }
+                }
+
+                if (replenishMain != 0L && !cancelled) {
+                    s.request(replenishMain);
+                }
+                if (innerCompleted) {
+                    continue;
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        boolean checkTerminate() {
+            if (cancelled) {
+                clearQueues();
+                return true;
+            }
+            if (!delayErrors && errs.get() != null) {
+                clearQueues();
+                Throwable ex = errs.terminate();
+                if (ex != ExceptionHelper.TERMINATED) {
+                    actual.onError(ex);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        void clearQueues() {
+            FusedQueue<U> q = queue;
+            if (q != null) {
+                q.clear();
+            }
+            pending = null;
+            ready.clear();
+        }
+
+        void disposeAll() {
+            if (!inners.isDisposed()) {
+                inners.dispose();
+                Throwable ex = errs.terminate();
+                if (ex != null && ex != ExceptionHelper.TERMINATED) {
+                    RxJavaCommonPlugins.onError(ex);
+                }
+            }
+        }
+
+        void innerError(InnerSubscriber<T, U> inner, Throwable t) {
+            if (errs.addThrowable(t)) {
+                inner.done = true;
+                if (!delayErrors) {
+                    s.cancel();
+                    inners.dispose();
+                }
+                signal(inner);
+            } else {
+                RxJavaCommonPlugins.onError(t);
+            }
+        }
+    }
+
+    static final class InnerSubscriber<T, U> extends AtomicReference<Subscription>
+    implements RelaxedSubscriber<U>, Disposable {
+
+        private static final long serialVersionUID = -7373581318540339788L;
+        final MergeSubscriber<T, U> parent;
+        final int limit;
+        final int bufferSize;
+
+        /** Set while this inner sits in the ready queue of the parent or is pending there. */
+        final AtomicBoolean ready;
+
+        volatile boolean done;
+        volatile FusedQueue<U> queue;
+        long produced;
+        int fusionMode;
+
+        InnerSubscriber(MergeSubscriber<T, U> parent) {
+            this.parent = parent;
+            this.bufferSize = parent.bufferSize;
+            this.limit = bufferSize >> 2;
+            this.ready = new AtomicBoolean();
+        }
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.setOnce(this, s)) {
+
+                if (s instanceof FusedQueueSubscription) {
+                    @SuppressWarnings("unchecked")
+                    FusedQueueSubscription<U> qs = (FusedQueueSubscription<U>) s;
+                    int m = qs.requestFusion(FusedQueueSubscription.ANY | FusedQueueSubscription.BOUNDARY);
+                    if (m == FusedQueueSubscription.SYNC) {
+                        fusionMode = m;
+                        queue = qs;
+                        done = true;
+                        parent.signal(this);
+                        return;
+                    }
+                    if (m == FusedQueueSubscription.ASYNC) {
+                        fusionMode = m;
+                        queue = qs;
+                    }
+
+                }
+
+                s.request(bufferSize);
+            }
+        }
+        @Override
+        public void onNext(U t) {
+            if (fusionMode != FusedQueueSubscription.ASYNC) {
+                parent.tryEmit(t, this);
+            } else {
+                parent.signal(this);
+            }
+        }
+        @Override
+        public void onError(Throwable t) {
+            lazySet(SubscriptionHelper.CANCELLED);
+            parent.innerError(this, t);
+        }
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.signal(this);
+        }
+
+        void requestMore(long n) {
+            if (fusionMode != FusedQueueSubscription.SYNC) {
+                long p = produced + n;
+                if (p >= limit) {
+                    produced = 0;
+                    get().request(p);
+                } else {
+                    produced = p;
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            SubscriptionHelper.cancel(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get() == SubscriptionHelper.CANCELLED;
+        }
+    }
+}
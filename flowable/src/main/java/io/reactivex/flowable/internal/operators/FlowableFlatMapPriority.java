@@ -0,0 +1,607 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.reactivestreams.extensions.*;
+import io.reactivex.common.*;
+import io.reactivex.common.exceptions.*;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.common.internal.utils.*;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.internal.queues.*;
+import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.flowable.internal.utils.BackpressureHelper;
+import kotlin.jvm.functions.Function1;
+
+/**
+ * Merges the inner Publishers like {@link FlowableFlatMap} but, when the downstream demand is
+ * limited, emits the items of inner Publishers and scalar values with a higher priority first.
+ *
+ * @param <T> the source value type
+ * @param <U> the result value type
+ */
+public final class FlowableFlatMapPriority<T, U> extends AbstractFlowableWithUpstream<T, U> {
+    final Function1<? super T, ? extends Publisher<? extends U>> mapper;
+    final Function1<? super T, Integer> priority;
+    final boolean delayErrors;
+    final int maxConcurrency;
+    final int bufferSize;
+
+    public FlowableFlatMapPriority(Flowable<T> source,
+            Function1<? super T, ? extends Publisher<? extends U>> mapper,
+            Function1<? super T, Integer> priority,
+            boolean delayErrors, int maxConcurrency, int bufferSize) {
+        super(source);
+        this.mapper = mapper;
+        this.priority = priority;
+        this.delayErrors = delayErrors;
+        this.maxConcurrency = maxConcurrency;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super U> s) {
+        if (FlowableScalarXMap.tryScalarXMapSubscribe(source, s, mapper)) {
+            return;
+        }
+        source.subscribe(new PriorityMergeSubscriber<T, U>(s, mapper, priority, delayErrors, maxConcurrency, bufferSize));
+    }
+
+    static final class PriorityMergeSubscriber<T, U> extends AtomicInteger implements RelaxedSubscriber<T>, Subscription {
+
+        private static final long serialVersionUID = 7326745718616213402L;
+
+        final Subscriber<? super U> actual;
+        final Function1<? super T, ? extends Publisher<? extends U>> mapper;
+        final Function1<? super T, Integer> priority;
+        final boolean delayErrors;
+        final int maxConcurrency;
+        final int bufferSize;
+
+        /** Scalar values handed over from the upstream to the drain loop. */
+        final SimplePlainQueue<ScalarValue<U>> scalarQueue;
+
+        /** Scalar values in priority order, accessed by the drain loop only. */
+        final PriorityQueue<ScalarValue<U>> scalars;
+
+        volatile boolean done;
+
+        final AtomicThrowable errs = new AtomicThrowable();
+
+        volatile boolean cancelled;
+
+        /** The active inner subscribers in descending priority, ties in subscription order. */
+        final AtomicReference<PriorityInnerSubscriber<?, ?>[]> subscribers = new AtomicReference<PriorityInnerSubscriber<?, ?>[]>();
+
+        static final PriorityInnerSubscriber<?, ?>[] EMPTY = new PriorityInnerSubscriber<?, ?>[0];
+
+        static final PriorityInnerSubscriber<?, ?>[] CANCELLED = new PriorityInnerSubscriber<?, ?>[0];
+
+        final AtomicLong requested = new AtomicLong();
+
+        Subscription s;
+
+        long scalarIndex;
+
+        int scalarEmitted;
+        final int scalarLimit;
+
+        PriorityMergeSubscriber(Subscriber<? super U> actual, Function1<? super T, ? extends Publisher<? extends U>> mapper,
+                Function1<? super T, Integer> priority, boolean delayErrors, int maxConcurrency, int bufferSize) {
+            this.actual = actual;
+            this.mapper = mapper;
+            this.priority = priority;
+            this.delayErrors = delayErrors;
+            this.maxConcurrency = maxConcurrency;
+            this.bufferSize = bufferSize;
+            this.scalarLimit = Math.max(1, maxConcurrency >> 1);
+            this.scalarQueue = new SpscLinkedArrayQueue<ScalarValue<U>>(bufferSize);
+            this.scalars = new PriorityQueue<ScalarValue<U>>();
+            subscribers.lazySet(EMPTY);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+                if (!cancelled) {
+                    if (maxConcurrency == Integer.MAX_VALUE) {
+                        s.request(Long.MAX_VALUE);
+                    } else {
+                        s.request(maxConcurrency);
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNext(T t) {
+            // safeguard against misbehaving sources
+            if (done) {
+                return;
+            }
+            Publisher<? extends U> p;
+            int prio;
+            try {
+                p = ObjectHelper.requireNonNull(mapper.invoke(t), "The mapper returned a null Publisher");
+                prio = ObjectHelper.requireNonNull(priority.invoke(t), "The priority function returned a null value");
+            } catch (Throwable e) {
+                Exceptions.throwIfFatal(e);
+                s.cancel();
+                onError(e);
+                return;
+            }
+            if (p instanceof Callable) {
+                U u;
+
+                try {
+                    u  = ((Callable<U>)p).call();
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    errs.addThrowable(ex);
+                    drain();
+                    return;
+                }
+
+                if (u != null) {
+                    scalarQueue.offer(new ScalarValue<U>(u, prio, scalarIndex++));
+                    drain();
+                } else {
+                    if (maxConcurrency != Integer.MAX_VALUE && !cancelled
+                            && ++scalarEmitted == scalarLimit) {
+                        scalarEmitted = 0;
+                        s.request(scalarLimit);
+                    }
+                }
+            } else {
+                PriorityInnerSubscriber<T, U> inner = new PriorityInnerSubscriber<T, U>(this, prio);
+                if (addInner(inner)) {
+                    p.subscribe(inner);
+                }
+            }
+        }
+
+        boolean addInner(PriorityInnerSubscriber<T, U> inner) {
+            for (;;) {
+                PriorityInnerSubscriber<?, ?>[] a = subscribers.get();
+                if (a == CANCELLED) {
+                    inner.dispose();
+                    return false;
+                }
+                int n = a.length;
+                int k = n;
+                for (int i = 0; i < n; i++) {
+                    if (a[i].priority < inner.priority) {
+                        k = i;
+                        break;
+                    }
+                }
+                PriorityInnerSubscriber<?, ?>[] b = new PriorityInnerSubscriber[n + 1];
+                System.arraycopy(a, 0, b, 0, k);
+                b[k] = inner;
+                System.arraycopy(a, k, b, k + 1, n - k);
+                if (subscribers.compareAndSet(a, b)) {
+                    return true;
+                }
+            }
+        }
+
+        void removeInner(PriorityInnerSubscriber<T, U> inner) {
+            for (;;) {
+                PriorityInnerSubscriber<?, ?>[] a = subscribers.get();
+                if (a == CANCELLED || a == EMPTY) {
+                    return;
+                }
+                int n = a.length;
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == inner) {
+                        j = i;
+                        break;
+                    }
+                }
+                if (j < 0) {
+                    return;
+                }
+                PriorityInnerSubscriber<?, ?>[] b;
+                if (n == 1) {
+                    b = EMPTY;
+                } else {
+                    b = new PriorityInnerSubscriber<?, ?>[n - 1];
+                    System.arraycopy(a, 0, b, 0, j);
+                    System.arraycopy(a, j + 1, b, j, n - j - 1);
+                }
+                if (subscribers.compareAndSet(a, b)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // safeguard against misbehaving sources
+            if (done) {
+                RxJavaCommonPlugins.onError(t);
+                return;
+            }
+            if (errs.addThrowable(t)) {
+                done = true;
+                drain();
+            } else {
+                RxJavaCommonPlugins.onError(t);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            // safeguard against misbehaving sources
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                s.cancel();
+                disposeAll();
+                if (getAndIncrement() == 0) {
+                    clearScalars();
+                }
+            }
+        }
+
+        void drain() {
+            if (getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        void drainLoop() {
+            final Subscriber<? super U> child = this.actual;
+            final SimplePlainQueue<ScalarValue<U>> sq = scalarQueue;
+            final PriorityQueue<ScalarValue<U>> pq = scalars;
+            int missed = 1;
+            for (;;) {
+                if (checkTerminate()) {
+                    return;
+                }
+
+                boolean d = done;
+
+                for (;;) {
+                    ScalarValue<U> v = sq.poll();
+                    if (v == null) {
+                        break;
+                    }
+                    pq.offer(v);
+                }
+
+                @SuppressWarnings("unchecked")
+                PriorityInnerSubscriber<T, U>[] inner = (PriorityInnerSubscriber<T, U>[])subscribers.get();
+                int n = inner.length;
+
+                if (d && pq.isEmpty() && sq.isEmpty() && n == 0) {
+                    Throwable ex = errs.terminate();
+                    if (ex != ExceptionHelper.TERMINATED) {
+                        if (ex == null) {
+                            child.onComplete();
+                        } else {
+                            child.onError(ex);
+                        }
+                    }
+                    return;
+                }
+
+                long r = requested.get();
+                long e = 0L;
+                long replenishMain = 0L;
+                boolean innerCompleted = false;
+
+                sourceLoop:
+                for (int j = 0; j < n; j++) {
+                    PriorityInnerSubscriber<T, U> is = inner[j];
+
+                    if (e != r) {
+                        // scalars of at least the same priority go before this inner
+                        for (;;) {
+                            ScalarValue<U> v = pq.peek();
+                            if (v == null || v.priority < is.priority || e == r) {
+                                break;
+                            }
+                            pq.poll();
+
+                            child.onNext(v.value);
+
+                            if (checkTerminate()) {
+                                return;
+                            }
+                            e++;
+                            replenishMain++;
+                        }
+
+                        FusedQueue<U> q = is.queue;
+                        if (q != null) {
+                            long produced = 0L;
+                            while (e != r) {
+                                U o;
+                                try {
+                                    o = q.poll();
+                                } catch (Throwable ex) {
+                                    Exceptions.throwIfFatal(ex);
+                                    is.dispose();
+                                    errs.addThrowable(ex);
+                                    if (checkTerminate()) {
+                                        return;
+                                    }
+                                    removeInner(is);
+                                    innerCompleted = true;
+                                    continue sourceLoop;
+                                }
+                                if (o == null) {
+                                    break;
+                                }
+
+                                child.onNext(o);
+
+                                if (checkTerminate()) {
+                                    return;
+                                }
+                                e++;
+                                produced++;
+                            }
+                            if (produced != 0L) {
+                                is.requestMore(produced);
+                            }
+                        }
+                    }
+
+                    if (is.done) {
+                        FusedQueue<U> q = is.queue;
+                        if (q == null || q.isEmpty()) {
+                            removeInner(is);
+                            if (checkTerminate()) {
+                                return;
+                            }
+                            replenishMain++;
+                            innerCompleted = true;
+                        }
+                    }
+                }
+
+                while (e != r) {
+                    ScalarValue<U> v = pq.poll();
+                    if (v == null) {
+                        break;
+                    }
+
+                    child.onNext(v.value);
+
+                    if (checkTerminate()) {
+                        return;
+                    }
+                    e++;
+                    replenishMain++;
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+                if (replenishMain != 0L && !cancelled) {
+                    s.request(replenishMain);
+                }
+                if (innerCompleted) {
+                    continue;
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        boolean checkTerminate() {
+            if (cancelled) {
+                clearScalars();
+                return true;
+            }
+            if (!delayErrors && errs.get() != null) {
+                clearScalars();
+                Throwable ex = errs.terminate();
+                if (ex != ExceptionHelper.TERMINATED) {
+                    actual.onError(ex);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        void clearScalars() {
+            scalarQueue.clear();
+            scalars.clear();
+        }
+
+        void disposeAll() {
+            PriorityInnerSubscriber<?, ?>[] a = subscribers.get();
+            if (a != CANCELLED) {
+                a = subscribers.getAndSet(CANCELLED);
+                if (a != CANCELLED) {
+                    for (PriorityInnerSubscriber<?, ?> inner : a) {
+                        inner.dispose();
+                    }
+                    Throwable ex = errs.terminate();
+                    if (ex != null && ex != ExceptionHelper.TERMINATED) {
+                        RxJavaCommonPlugins.onError(ex);
+                    }
+                }
+            }
+        }
+
+        void innerError(PriorityInnerSubscriber<T, U> inner, Throwable t) {
+            if (errs.addThrowable(t)) {
+                inner.done = true;
+                if (!delayErrors) {
+                    s.cancel();
+                    for (PriorityInnerSubscriber<?, ?> a : subscribers.getAndSet(CANCELLED)) {
+                        a.dispose();
+                    }
+                }
+                drain();
+            } else {
+                RxJavaCommonPlugins.onError(t);
+            }
+        }
+    }
+
+    /**
+     * A value of a scalar inner source, ordered by descending priority then arrival.
+     *
+     * @param <U> the value type
+     */
+    static final class ScalarValue<U> implements Comparable<ScalarValue<U>> {
+        final U value;
+        final int priority;
+        final long index;
+
+        ScalarValue(U value, int priority, long index) {
+            this.value = value;
+            this.priority = priority;
+            this.index = index;
+        }
+
+        @Override
+        public int compareTo(ScalarValue<U> o) {
+            if (priority != o.priority) {
+                return priority > o.priority ? -1 : 1;
+            }
+            return index < o.index ? -1 : (index == o.index ? 0 : 1);
+        }
+    }
+
+    static final class PriorityInnerSubscriber<T, U> extends AtomicReference<Subscription>
+    implements RelaxedSubscriber<U>, Disposable {
+
+        private static final long serialVersionUID = -8410984276962434591L;
+        final PriorityMergeSubscriber<T, U> parent;
+        final int priority;
+        final int limit;
+        final int bufferSize;
+
+        volatile boolean done;
+        volatile FusedQueue<U> queue;
+        long produced;
+        int fusionMode;
+
+        PriorityInnerSubscriber(PriorityMergeSubscriber<T, U> parent, int priority) {
+            this.parent = parent;
+            this.priority = priority;
+            this.bufferSize = parent.bufferSize;
+            this.limit = bufferSize >> 2;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.setOnce(this, s)) {
+
+                if (s instanceof FusedQueueSubscription) {
+                    @SuppressWarnings("unchecked")
+                    FusedQueueSubscription<U> qs = (FusedQueueSubscription<U>) s;
+                    int m = qs.requestFusion(FusedQueueSubscription.ANY | FusedQueueSubscription.BOUNDARY);
+                    if (m == FusedQueueSubscription.SYNC) {
+                        fusionMode = m;
+                        queue = qs;
+                        done = true;
+                        parent.drain();
+                        return;
+                    }
+                    if (m == FusedQueueSubscription.ASYNC) {
+                        fusionMode = m;
+                        queue = qs;
+                    }
+                }
+
+                s.request(bufferSize);
+            }
+        }
+
+        @Override
+        public void onNext(U t) {
+            if (fusionMode != FusedQueueSubscription.ASYNC) {
+                FusedQueue<U> q = queue;
+                if (q == null) {
+                    q = new SpscArrayQueue<U>(bufferSize);
+                    queue = q;
+                }
+                if (!q.offer(t)) {
+                    onError(new MissingBackpressureException("Inner queue full?!"));
+                    return;
+                }
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            SubscriptionHelper.cancel(this);
+            parent.innerError(this, t);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        void requestMore(long n) {
+            if (fusionMode != FusedQueueSubscription.SYNC) {
+                long p = produced + n;
+                if (p >= limit) {
+                    produced = 0;
+                    get().request(p);
+                } else {
+                    produced = p;
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            SubscriptionHelper.cancel(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get() == SubscriptionHelper.CANCELLED;
+        }
+    }
+}
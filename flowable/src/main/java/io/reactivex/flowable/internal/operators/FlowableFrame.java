@@ -0,0 +1,628 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.reactivestreams.extensions.*;
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.exceptions.*;
+import io.reactivex.common.internal.utils.ExceptionHelper;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.internal.queues.SpscArrayQueue;
+import io.reactivex.flowable.internal.subscriptions.*;
+import io.reactivex.flowable.internal.utils.BackpressureHelper;
+
+/**
+ * Splits a sequence of ByteBuffer chunks into frames, on demand and one chunk at a time.
+ * <p>
+ * A frame that lies within a single chunk is emitted as a slice sharing the chunk's content;
+ * only a frame spanning chunk boundaries is copied into a buffer of its own.
+ */
+public final class FlowableFrame extends AbstractFlowableWithUpstream<ByteBuffer, ByteBuffer> {
+
+    final Callable<? extends Framer> framerSupplier;
+
+    final int prefetch;
+
+    public FlowableFrame(Flowable<ByteBuffer> source, Callable<? extends Framer> framerSupplier, int prefetch) {
+        super(source);
+        this.framerSupplier = framerSupplier;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super ByteBuffer> s) {
+        Framer framer;
+        try {
+            framer = framerSupplier.call();
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            EmptySubscription.error(ex, s);
+            return;
+        }
+        source.subscribe(new FrameSubscriber(s, framer, prefetch));
+    }
+
+    public static Callable<Framer> delimited(byte[] delimiter, int maxFrameLength) {
+        return new DelimiterFramerSupplier(delimiter, maxFrameLength);
+    }
+
+    public static Callable<Framer> lengthPrefixed(int lengthFieldSize, int maxFrameLength) {
+        return new LengthFramerSupplier(lengthFieldSize, maxFrameLength);
+    }
+
+    /**
+     * Extracts frames from the chunks handed to it, keeping the bytes of an incomplete frame
+     * between chunks.
+     */
+    public abstract static class Framer {
+
+        final int maxFrameLength;
+
+        Framer(int maxFrameLength) {
+            this.maxFrameLength = maxFrameLength;
+        }
+
+        /**
+         * Returns the next frame starting at the position of the chunk and moves the position past it,
+         * or keeps the remaining bytes and returns null if the chunk ends before the frame does.
+         * @param chunk the chunk, owned by the framer while it returns frames from it
+         * @return the next frame or null if the chunk has been consumed
+         */
+        abstract ByteBuffer next(ByteBuffer chunk);
+
+        /**
+         * Returns the frame made up by the kept bytes once there are no more chunks.
+         * @return the last frame or null if there is none
+         */
+        abstract ByteBuffer finish();
+
+        /**
+         * Returns true if no bytes of an incomplete frame are kept.
+         * @return true if no bytes of an incomplete frame are kept
+         */
+        abstract boolean isEmpty();
+
+        void checkLength(long length) {
+            if (length > maxFrameLength) {
+                throw new IllegalStateException("The frame is longer than maxFrameLength: " + length + " > " + maxFrameLength);
+            }
+        }
+
+        static ByteBuffer slice(ByteBuffer chunk, int from, int to) {
+            int limit = chunk.limit();
+            chunk.limit(to);
+            chunk.position(from);
+            ByteBuffer b = chunk.slice();
+            chunk.limit(limit);
+            return b;
+        }
+
+        static ByteBuffer append(ByteBuffer partial, ByteBuffer chunk, int from, int to) {
+            int n = to - from;
+            if (partial == null) {
+                partial = ByteBuffer.allocate(Math.max(n, 64));
+            } else
+            if (partial.remaining() < n) {
+                ByteBuffer b = ByteBuffer.allocate(Math.max(partial.capacity() * 2, partial.position() + n));
+                partial.flip();
+                b.put(partial);
+                partial = b;
+            }
+            ByteBuffer src = chunk.duplicate();
+            src.limit(to);
+            src.position(from);
+            partial.put(src);
+            return partial;
+        }
+    }
+
+    static final class DelimiterFramer extends Framer {
+
+        final byte[] delimiter;
+
+        /** The Knuth-Morris-Pratt failure table of the delimiter. */
+        final int[] failure;
+
+        /** The number of delimiter bytes matched at the end of the bytes seen so far. */
+        int matched;
+
+        /** The bytes of the incomplete frame, in write mode. */
+        ByteBuffer partial;
+
+        DelimiterFramer(byte[] delimiter, int maxFrameLength) {
+            super(maxFrameLength);
+            this.delimiter = delimiter;
+            int n = delimiter.length;
+            int[] f = new int[n];
+            int k = 0;
+            for (int i = 1; i < n; i++) {
+                while (k > 0 && delimiter[k] != delimiter[i]) {
+                    k = f[k - 1];
+                }
+                if (delimiter[k] == delimiter[i]) {
+                    k++;
+                }
+                f[i] = k;
+            }
+            this.failure = f;
+        }
+
+        @Override
+        ByteBuffer next(ByteBuffer chunk) {
+            final byte[] d = delimiter;
+            final int dl = d.length;
+            final int[] f = failure;
+            int start = chunk.position();
+            int limit = chunk.limit();
+            int m = matched;
+
+            for (int i = start; i < limit; i++) {
+                byte c = chunk.get(i);
+                while (m > 0 && d[m] != c) {
+                    m = f[m - 1];
+                }
+                if (d[m] == c) {
+                    m++;
+                }
+                if (m == dl) {
+                    matched = 0;
+                    ByteBuffer p = partial;
+                    ByteBuffer frame;
+                    if (p == null) {
+                        int end = i + 1 - dl;
+                        checkLength(end - start);
+                        frame = slice(chunk, start, end);
+                    } else {
+                        partial = null;
+                        int tail = i + 1 - start;
+                        if (tail >= dl) {
+                            checkLength(p.position() + tail - dl);
+                            p = append(p, chunk, start, i + 1 - dl);
+                        } else {
+                            // the delimiter started in the kept bytes
+                            p.position(p.position() - (dl - tail));
+                            checkLength(p.position());
+                        }
+                        p.flip();
+                        frame = p;
+                    }
+                    chunk.position(i + 1);
+                    return frame;
+                }
+            }
+
+            matched = m;
+            if (limit != start) {
+                ByteBuffer p = partial;
+                checkLength((p != null ? p.position() : 0) + limit - start - m);
+                partial = append(p, chunk, start, limit);
+            }
+            chunk.position(limit);
+            return null;
+        }
+
+        @Override
+        ByteBuffer finish() {
+            ByteBuffer p = partial;
+            partial = null;
+            matched = 0;
+            if (p != null) {
+                p.flip();
+            }
+            return p;
+        }
+
+        @Override
+        boolean isEmpty() {
+            return partial == null;
+        }
+    }
+
+    static final class LengthFramer extends Framer {
+
+        final int lengthFieldSize;
+
+        /** The number of length field bytes read so far. */
+        int headerRead;
+
+        /** The length of the current frame, accumulated from the length field. */
+        int frameLength;
+
+        /** The bytes of the incomplete frame, sized to the frame length. */
+        ByteBuffer partial;
+
+        LengthFramer(int lengthFieldSize, int maxFrameLength) {
+            super(maxFrameLength);
+            this.lengthFieldSize = lengthFieldSize;
+        }
+
+        @Override
+        ByteBuffer next(ByteBuffer chunk) {
+            ByteBuffer p = partial;
+            if (p == null) {
+                int n = lengthFieldSize;
+                int h = headerRead;
+                int len = frameLength;
+                while (h < n) {
+                    if (!chunk.hasRemaining()) {
+                        headerRead = h;
+                        frameLength = len;
+                        return null;
+                    }
+                    len = (len << 8) | (chunk.get() & 0xFF);
+                    h++;
+                }
+                headerRead = h;
+                frameLength = len;
+
+                if (len < 0) {
+                    throw new IllegalStateException("The frame length is negative: " + len);
+                }
+                checkLength(len);
+
+                int start = chunk.position();
+                if (chunk.limit() - start >= len) {
+                    ByteBuffer frame = slice(chunk, start, start + len);
+                    chunk.position(start + len);
+                    headerRead = 0;
+                    frameLength = 0;
+                    return frame;
+                }
+                p = ByteBuffer.allocate(len);
+                partial = p;
+            }
+
+            int n = Math.min(p.remaining(), chunk.remaining());
+            int start = chunk.position();
+            append(p, chunk, start, start + n);
+            chunk.position(start + n);
+
+            if (p.hasRemaining()) {
+                return null;
+            }
+            partial = null;
+            headerRead = 0;
+            frameLength = 0;
+            p.flip();
+            return p;
+        }
+
+        @Override
+        ByteBuffer finish() {
+            if (!isEmpty()) {
+                throw new IllegalStateException("The sequence ended within a frame");
+            }
+            return null;
+        }
+
+        @Override
+        boolean isEmpty() {
+            return headerRead == 0 && partial == null;
+        }
+    }
+
+    static final class DelimiterFramerSupplier implements Callable<Framer> {
+        final byte[] delimiter;
+
+        final int maxFrameLength;
+
+        DelimiterFramerSupplier(byte[] delimiter, int maxFrameLength) {
+            this.delimiter = delimiter;
+            this.maxFrameLength = maxFrameLength;
+        }
+
+        @Override
+        public Framer call() {
+            return new DelimiterFramer(delimiter, maxFrameLength);
+        }
+    }
+
+    static final class LengthFramerSupplier implements Callable<Framer> {
+        final int lengthFieldSize;
+
+        final int maxFrameLength;
+
+        LengthFramerSupplier(int lengthFieldSize, int maxFrameLength) {
+            this.lengthFieldSize = lengthFieldSize;
+            this.maxFrameLength = maxFrameLength;
+        }
+
+        @Override
+        public Framer call() {
+            return new LengthFramer(lengthFieldSize, maxFrameLength);
+        }
+    }
+
+    static final class FrameSubscriber
+    extends AtomicInteger
+    implements RelaxedSubscriber<ByteBuffer>, Subscription {
+
+        private static final long serialVersionUID = -6290410426853436187L;
+
+        final Subscriber<? super ByteBuffer> actual;
+
+        final Framer framer;
+
+        final int prefetch;
+
+        final int limit;
+
+        final AtomicLong requested;
+
+        final AtomicReference<Throwable> error;
+
+        Subscription s;
+
+        FusedQueue<ByteBuffer> queue;
+
+        /** The chunk being framed, a duplicate of the upstream buffer. */
+        ByteBuffer current;
+
+        volatile boolean done;
+
+        volatile boolean cancelled;
+
+        int consumed;
+
+        int fusionMode;
+
+        FrameSubscriber(Subscriber<? super ByteBuffer> actual, Framer framer, int prefetch) {
+            this.actual = actual;
+            this.framer = framer;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.requested = new AtomicLong();
+            this.error = new AtomicReference<Throwable>();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.s, s)) {
+                this.s = s;
+
+                if (s instanceof FusedQueueSubscription) {
+                    @SuppressWarnings("unchecked")
+                    FusedQueueSubscription<ByteBuffer> qs = (FusedQueueSubscription<ByteBuffer>) s;
+
+                    int m = qs.requestFusion(FusedQueueSubscription.ANY);
+
+                    if (m == FusedQueueSubscription.SYNC) {
+                        fusionMode = m;
+                        queue = qs;
+                        done = true;
+
+                        actual.onSubscribe(this);
+                        return;
+                    }
+                    if (m == FusedQueueSubscription.ASYNC) {
+                        fusionMode = m;
+                        queue = qs;
+
+                        actual.onSubscribe(this);
+
+                        s.request(prefetch);
+                        return;
+                    }
+                }
+
+                queue = new SpscArrayQueue<ByteBuffer>(prefetch);
+
+                actual.onSubscribe(this);
+
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(ByteBuffer t) {
+            if (done) {
+                return;
+            }
+            if (fusionMode == FusedQueueSubscription.NONE && !queue.offer(t)) {
+                onError(new MissingBackpressureException("Queue is full?!"));
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (!done && ExceptionHelper.addThrowable(error, t)) {
+                done = true;
+                drain();
+            } else {
+                RxJavaCommonPlugins.onError(t);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+
+                s.cancel();
+
+                if (getAndIncrement() == 0) {
+                    current = null;
+                    queue.clear();
+                }
+            }
+        }
+
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+
+            final Subscriber<? super ByteBuffer> a = actual;
+            final FusedQueue<ByteBuffer> q = queue;
+            final Framer fr = framer;
+            final boolean replenish = fusionMode != FusedQueueSubscription.SYNC;
+            int missed = 1;
+
+            for (;;) {
+                long r = requested.get();
+                long e = 0L;
+
+                while (e != r) {
+                    if (cancelled) {
+                        current = null;
+                        q.clear();
+                        return;
+                    }
+
+                    boolean d = done;
+                    if (d && error.get() != null) {
+                        fail(a, q, null);
+                        return;
+                    }
+
+                    ByteBuffer c = current;
+                    if (c == null) {
+                        ByteBuffer t;
+                        try {
+                            t = q.poll();
+                        } catch (Throwable ex) {
+                            Exceptions.throwIfFatal(ex);
+                            fail(a, q, ex);
+                            return;
+                        }
+
+                        if (t == null) {
+                            if (d) {
+                                ByteBuffer last;
+                                try {
+                                    last = fr.finish();
+                                } catch (Throwable ex) {
+                                    Exceptions.throwIfFatal(ex);
+                                    fail(a, q, ex);
+                                    return;
+                                }
+                                if (last != null) {
+                                    a.onNext(last);
+                                }
+                                if (!cancelled) {
+                                    a.onComplete();
+                                }
+                                return;
+                            }
+                            break;
+                        }
+
+                        c = t.duplicate();
+                        current = c;
+                        consumedOne(replenish);
+                    }
+
+                    ByteBuffer frame;
+                    try {
+                        frame = fr.next(c);
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        fail(a, q, ex);
+                        return;
+                    }
+
+                    if (frame == null) {
+                        current = null;
+                        continue;
+                    }
+
+                    a.onNext(frame);
+
+                    e++;
+                }
+
+                if (e == r) {
+                    if (cancelled) {
+                        current = null;
+                        q.clear();
+                        return;
+                    }
+
+                    if (done) {
+                        if (error.get() != null) {
+                            fail(a, q, null);
+                            return;
+                        }
+                        ByteBuffer c = current;
+                        if (c != null && !c.hasRemaining()) {
+                            current = null;
+                            c = null;
+                        }
+                        if (c == null && q.isEmpty() && fr.isEmpty()) {
+                            a.onComplete();
+                            return;
+                        }
+                    }
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void fail(Subscriber<? super ByteBuffer> a, FusedQueue<ByteBuffer> q, Throwable ex) {
+            current = null;
+            q.clear();
+            if (ex != null) {
+                cancelled = true;
+                s.cancel();
+                ExceptionHelper.addThrowable(error, ex);
+            }
+            a.onError(ExceptionHelper.terminate(error));
+        }
+
+        void consumedOne(boolean enabled) {
+            if (enabled) {
+                int c = consumed + 1;
+                if (c == limit) {
+                    consumed = 0;
+                    s.request(c);
+                } else {
+                    consumed = c;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import io.reactivex.common.*;
+import io.reactivex.common.annotations.Nullable;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.flowable.*;
+import io.reactivex.flowable.internal.queues.*;
+import io.reactivex.flowable.internal.subscriptions.*;
+import io.reactivex.flowable.internal.utils.BackpressureHelper;
+
+/**
+ * Reads a channel into a limited pool of buffers and emits them as {@link PooledByteBuffer}s,
+ * reusing a buffer once the downstream released it.
+ * <p>
+ * Without a scheduler, reading happens on the requesting or releasing thread and only for the
+ * outstanding demand; with a scheduler, the free buffers are filled ahead of the demand on it.
+ */
+public final class FlowableFromChannel extends Flowable<PooledByteBuffer> {
+
+    final Callable<? extends ReadableByteChannel> channelSupplier;
+
+    final int bufferSize;
+
+    final int poolSize;
+
+    @Nullable
+    final Scheduler scheduler;
+
+    public FlowableFromChannel(Callable<? extends ReadableByteChannel> channelSupplier, int bufferSize, int poolSize,
+            @Nullable Scheduler scheduler) {
+        this.channelSupplier = channelSupplier;
+        this.bufferSize = bufferSize;
+        this.poolSize = poolSize;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super PooledByteBuffer> s) {
+        ReadableByteChannel channel;
+        try {
+            channel = ObjectHelper.requireNonNull(channelSupplier.call(), "The channelSupplier returned a null ReadableByteChannel");
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            EmptySubscription.error(ex, s);
+            return;
+        }
+
+        if (channel instanceof SelectableChannel && !((SelectableChannel)channel).isBlocking()) {
+            // a read returning nothing would leave the sequence waiting for a request or release that never comes
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                RxJavaCommonPlugins.onError(ex);
+            }
+            EmptySubscription.error(new IllegalArgumentException("The channelSupplier returned a non-blocking channel"), s);
+            return;
+        }
+
+        Scheduler.Worker w = scheduler != null ? scheduler.createWorker() : null;
+
+        ChannelSubscription parent = new ChannelSubscription(s, channel, bufferSize, poolSize, w);
+        s.onSubscribe(parent);
+
+        if (w != null) {
+            // start reading ahead without waiting for the first request
+            parent.schedule();
+        }
+    }
+
+    static final class ChannelSubscription
+    extends AtomicInteger
+    implements Subscription, Runnable {
+
+        private static final long serialVersionUID = -5431287916305931848L;
+
+        final Subscriber<? super PooledByteBuffer> actual;
+
+        final ReadableByteChannel channel;
+
+        final int bufferSize;
+
+        final int poolSize;
+
+        @Nullable
+        final Scheduler.Worker worker;
+
+        final AtomicLong requested;
+
+        /** The buffers released by the downstream, offered from any thread. */
+        final SimplePlainQueue<ByteBuffer> free;
+
+        /** The filled buffers waiting for demand, accessed by the drain loop only. */
+        final ArrayDeque<ByteBuffer> ready;
+
+        /** The number of buffers allocated so far, accessed by the drain loop only. */
+        int allocated;
+
+        /** Indicates the end of the channel has been reached, accessed by the drain loop only. */
+        boolean eof;
+
+        long emitted;
+
+        volatile boolean cancelled;
+
+        ChannelSubscription(Subscriber<? super PooledByteBuffer> actual, ReadableByteChannel channel,
+                int bufferSize, int poolSize, @Nullable Scheduler.Worker worker) {
+            this.actual = actual;
+            this.channel = channel;
+            this.bufferSize = bufferSize;
+            this.poolSize = poolSize;
+            this.worker = worker;
+            this.requested = new AtomicLong();
+            this.free = new MpscLinkedQueue<ByteBuffer>();
+            this.ready = new ArrayDeque<ByteBuffer>();
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                schedule();
+            }
+        }
+
+        void release(ByteBuffer buffer) {
+            free.offer(buffer);
+            schedule();
+        }
+
+        void schedule() {
+            if (getAndIncrement() == 0) {
+                Scheduler.Worker w = worker;
+                if (w != null) {
+                    w.schedule(this);
+                } else {
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            boolean readahead = worker != null;
+            Subscriber<? super PooledByteBuffer> a = actual;
+            ArrayDeque<ByteBuffer> q = ready;
+            long e = emitted;
+
+            for (;;) {
+                long r = requested.get();
+
+                for (;;) {
+                    if (cancelled) {
+                        cleanup();
+                        return;
+                    }
+
+                    if (e != r) {
+                        ByteBuffer b = q.poll();
+                        if (b != null) {
+                            a.onNext(new PooledChunk(this, b));
+                            e++;
+                            continue;
+                        }
+                    }
+
+                    boolean empty = q.isEmpty();
+
+                    if (eof) {
+                        if (empty) {
+                            cancelled = true;
+                            cleanup();
+                            a.onComplete();
+                            return;
+                        }
+                        break;
+                    }
+
+                    if (!readahead && (e == r || !empty)) {
+                        break;
+                    }
+
+                    ByteBuffer b = free.poll();
+                    if (b == null) {
+                        if (allocated == poolSize) {
+                            break;
+                        }
+                        allocated++;
+                        b = ByteBuffer.allocateDirect(bufferSize);
+                    }
+
+                    b.clear();
+                    try {
+                        // emit whatever arrived, waiting for a full buffer could stall a socket or pipe
+                        int n;
+                        do {
+                            n = channel.read(b);
+                        } while (n == 0);
+                        if (n < 0) {
+                            eof = true;
+                        }
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        cancelled = true;
+                        cleanup();
+                        a.onError(ex);
+                        return;
+                    }
+                    b.flip();
+
+                    if (b.hasRemaining()) {
+                        q.offer(b);
+                    } else {
+                        free.offer(b);
+                    }
+                }
+
+                emitted = e;
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void cleanup() {
+            ready.clear();
+            free.clear();
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                RxJavaCommonPlugins.onError(ex);
+            }
+            Scheduler.Worker w = worker;
+            if (w != null) {
+                w.dispose();
+            }
+        }
+    }
+
+    /**
+     * Lends one pooled buffer to the downstream; a fresh instance per emission keeps a
+     * repeated release from handing back the buffer while it's lent out again.
+     */
+    static final class PooledChunk extends AtomicBoolean implements PooledByteBuffer {
+
+        private static final long serialVersionUID = 2195437463934817373L;
+
+        final ChannelSubscription parent;
+
+        final ByteBuffer data;
+
+        PooledChunk(ChannelSubscription parent, ByteBuffer data) {
+            this.parent = parent;
+            this.data = data;
+        }
+
+        @Override
+        public ByteBuffer buffer() {
+            return data;
+        }
+
+        @Override
+        public void release() {
+            if (compareAndSet(false, true)) {
+                parent.release(data);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+
+import io.reactivex.common.Emitter;
+import io.reactivex.common.RxJavaCommonPlugins;
+import kotlin.Unit;
+import kotlin.jvm.functions.*;
+
+/**
+ * The state, generator and disposer functions that let {@code Flowable.generate} emit
+ * a file as read-only slices of its memory-mapped regions.
+ * <p>
+ * A mapping stays valid until its buffer and all of its slices are garbage collected,
+ * hence the state forgets each region as soon as the last slice has been cut from it.
+ */
+public final class FlowableFromMappedFile {
+
+    /** The largest region mapped at once. */
+    static final int MAX_REGION = 1 << 30;
+
+    /** Utility class. */
+    private FlowableFromMappedFile() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    public static Callable<MappedFileState> stateSupplier(File file, int chunkSize) {
+        return new StateSupplier(file, chunkSize);
+    }
+
+    public static Function2<MappedFileState, Emitter<ByteBuffer>, MappedFileState> generator() {
+        return Generator.INSTANCE;
+    }
+
+    public static Function1<MappedFileState, Unit> disposer() {
+        return Disposer.INSTANCE;
+    }
+
+    /**
+     * The open file and the region currently being sliced.
+     */
+    public static final class MappedFileState {
+
+        final RandomAccessFile file;
+
+        final FileChannel channel;
+
+        final long size;
+
+        final int chunkSize;
+
+        /** The largest multiple of the chunk size not exceeding the region limit. */
+        final int regionSize;
+
+        /** The file position where the next region starts. */
+        long position;
+
+        ByteBuffer region;
+
+        MappedFileState(RandomAccessFile file, int chunkSize) throws IOException {
+            this.file = file;
+            this.channel = file.getChannel();
+            this.size = channel.size();
+            this.chunkSize = chunkSize;
+            this.regionSize = Math.max(chunkSize, MAX_REGION - MAX_REGION % chunkSize);
+        }
+
+        void next(Emitter<ByteBuffer> emitter) throws IOException {
+            ByteBuffer r = region;
+            if (r == null || !r.hasRemaining()) {
+                long remaining = size - position;
+                if (remaining <= 0L) {
+                    region = null;
+                    emitter.onComplete();
+                    return;
+                }
+                int len = (int)Math.min(remaining, regionSize);
+                r = channel.map(FileChannel.MapMode.READ_ONLY, position, len);
+                position += len;
+                region = r;
+            }
+
+            int start = r.position();
+            int end = Math.min(start + chunkSize, r.capacity());
+            r.limit(end);
+            ByteBuffer slice = r.slice();
+            r.limit(r.capacity());
+            r.position(end);
+
+            emitter.onNext(slice);
+
+            if (end == r.capacity()) {
+                // let the region be collected along with its slices, it can't be unmapped explicitly
+                region = null;
+                if (position == size) {
+                    emitter.onComplete();
+                }
+            }
+        }
+
+        void close() {
+            region = null;
+            try {
+                file.close();
+            } catch (IOException ex) {
+                RxJavaCommonPlugins.onError(ex);
+            }
+        }
+    }
+
+    static final class StateSupplier implements Callable<MappedFileState> {
+        final File file;
+
+        final int chunkSize;
+
+        StateSupplier(File file, int chunkSize) {
+            this.file = file;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public MappedFileState call() throws Exception {
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                return new MappedFileState(raf, chunkSize);
+            } catch (IOException ex) {
+                raf.close();
+                throw ex;
+            }
+        }
+    }
+
+    enum Generator implements Function2<MappedFileState, Emitter<ByteBuffer>, MappedFileState> {
+        INSTANCE;
+
+        @Override
+        public MappedFileState invoke(MappedFileState state, Emitter<ByteBuffer> emitter) {
+            try {
+                state.next(emitter);
+            } catch (IOException ex) {
+                emitter.onError(ex);
+            }
+            return state;
+        }
+    }
+
+    enum Disposer implements Function1<MappedFileState, Unit> {
+        INSTANCE;
+
+        @Override
+        public Unit invoke(MappedFileState state) {
+            state.close();
+            return Unit.INSTANCE;
+        }
+    }
+}
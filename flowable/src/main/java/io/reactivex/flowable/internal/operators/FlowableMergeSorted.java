@@ -0,0 +1,471 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import hu.akarnokd.reactivestreams.extensions.FusedQueue;
+import hu.akarnokd.reactivestreams.extensions.FusedQueueSubscription;
+import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.utils.AtomicThrowable;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.internal.queues.SpscArrayQueue;
+import io.reactivex.flowable.internal.subscriptions.EmptySubscription;
+import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.flowable.internal.utils.BackpressureHelper;
+
+/**
+ * Merges the items of Publishers, each sorted according to a comparator, into one sorted
+ * sequence by keeping the current head item of each source in a binary heap.
+ *
+ * @param <T> the value type
+ */
+public final class FlowableMergeSorted<T> extends Flowable<T> {
+
+    final Publisher<? extends T>[] sources;
+
+    final Iterable<? extends Publisher<? extends T>> sourcesIterable;
+
+    final Comparator<? super T> comparator;
+
+    final int prefetch;
+
+    public FlowableMergeSorted(Publisher<? extends T>[] sources,
+            Iterable<? extends Publisher<? extends T>> sourcesIterable,
+            Comparator<? super T> comparator, int prefetch) {
+        this.sources = sources;
+        this.sourcesIterable = sourcesIterable;
+        this.comparator = comparator;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void subscribeActual(Subscriber<? super T> s) {
+        Publisher<? extends T>[] sources = this.sources;
+        int count = 0;
+        if (sources == null) {
+            sources = new Publisher[8];
+            try {
+                for (Publisher<? extends T> p : sourcesIterable) {
+                    if (p == null) {
+                        EmptySubscription.error(new NullPointerException("One of the sources is null"), s);
+                        return;
+                    }
+                    if (count == sources.length) {
+                        Publisher<? extends T>[] b = new Publisher[count + (count >> 2)];
+                        System.arraycopy(sources, 0, b, 0, count);
+                        sources = b;
+                    }
+                    sources[count++] = p;
+                }
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                EmptySubscription.error(ex, s);
+                return;
+            }
+        } else {
+            count = sources.length;
+        }
+
+        if (count == 0) {
+            EmptySubscription.complete(s);
+            return;
+        }
+
+        MergeSortedCoordinator<T> coordinator = new MergeSortedCoordinator<T>(s, comparator, count, prefetch);
+
+        s.onSubscribe(coordinator);
+
+        coordinator.subscribe(sources, count);
+    }
+
+    static final class MergeSortedCoordinator<T>
+    extends AtomicInteger
+    implements Subscription {
+
+        private static final long serialVersionUID = -8467324377226330554L;
+
+        final Subscriber<? super T> actual;
+
+        final MergeSortedSubscriber<T>[] subscribers;
+
+        final Comparator<? super T> comparator;
+
+        final AtomicLong requested;
+
+        final AtomicThrowable errors;
+
+        /** The current head item of each source, null if not yet polled or the source finished. */
+        final Object[] heads;
+
+        /** The indexes of the sources having a head item, ordered as a binary min-heap of their heads. */
+        final int[] heap;
+
+        /** The indexes of the sources which need to provide their next item before anything can be emitted. */
+        final int[] pending;
+
+        int heapSize;
+
+        int pendingCount;
+
+        volatile boolean cancelled;
+
+        @SuppressWarnings("unchecked")
+        MergeSortedCoordinator(Subscriber<? super T> actual, Comparator<? super T> comparator, int n, int prefetch) {
+            this.actual = actual;
+            this.comparator = comparator;
+            MergeSortedSubscriber<T>[] a = new MergeSortedSubscriber[n];
+            int[] p = new int[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = new MergeSortedSubscriber<T>(this, prefetch);
+                p[i] = i;
+            }
+            this.subscribers = a;
+            this.heads = new Object[n];
+            this.heap = new int[n];
+            this.pending = p;
+            this.pendingCount = n;
+            this.requested = new AtomicLong();
+            this.errors = new AtomicThrowable();
+        }
+
+        void subscribe(Publisher<? extends T>[] sources, int n) {
+            MergeSortedSubscriber<T>[] a = subscribers;
+            for (int i = 0; i < n; i++) {
+                if (cancelled || errors.get() != null) {
+                    return;
+                }
+                sources[i].subscribe(a[i]);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelAll();
+
+                if (getAndIncrement() == 0) {
+                    clear();
+                }
+            }
+        }
+
+        void error(Throwable e) {
+            if (errors.addThrowable(e)) {
+                drain();
+            } else {
+                RxJavaCommonPlugins.onError(e);
+            }
+        }
+
+        void cancelAll() {
+            for (MergeSortedSubscriber<T> s : subscribers) {
+                s.cancel();
+            }
+        }
+
+        void clear() {
+            for (MergeSortedSubscriber<T> s : subscribers) {
+                FusedQueue<T> q = s.queue;
+                if (q != null) {
+                    q.clear();
+                }
+            }
+            Arrays.fill(heads, null);
+            heapSize = 0;
+        }
+
+        /**
+         * Polls the next item of each pending source.
+         * @return true if no source is pending anymore
+         * @throws Throwable if polling a fused source or comparing the items failed
+         */
+        boolean fill() throws Throwable {
+            int[] p = pending;
+            int c = pendingCount;
+            MergeSortedSubscriber<T>[] qs = subscribers;
+
+            for (int j = c - 1; j >= 0; j--) {
+                int i = p[j];
+                MergeSortedSubscriber<T> inner = qs[i];
+
+                boolean d = inner.done;
+                FusedQueue<T> q = inner.queue;
+                T v = q != null ? q.poll() : null;
+
+                if (v != null) {
+                    heads[i] = v;
+                    siftUp(i);
+                } else if (!d) {
+                    continue;
+                }
+
+                p[j] = p[--c];
+            }
+
+            pendingCount = c;
+            return c == 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean less(int i, int j) {
+            int c = comparator.compare((T)heads[i], (T)heads[j]);
+            return c < 0 || (c == 0 && i < j);
+        }
+
+        void siftUp(int index) {
+            int[] h = heap;
+            int k = heapSize++;
+            while (k > 0) {
+                int parent = (k - 1) >> 1;
+                int pi = h[parent];
+                if (!less(index, pi)) {
+                    break;
+                }
+                h[k] = pi;
+                k = parent;
+            }
+            h[k] = index;
+        }
+
+        int removeFirst() {
+            int[] h = heap;
+            int first = h[0];
+            int n = --heapSize;
+            if (n != 0) {
+                int last = h[n];
+                int k = 0;
+                int half = n >> 1;
+                while (k < half) {
+                    int child = (k << 1) + 1;
+                    int ci = h[child];
+                    int right = child + 1;
+                    if (right < n && less(h[right], ci)) {
+                        child = right;
+                        ci = h[child];
+                    }
+                    if (!less(ci, last)) {
+                        break;
+                    }
+                    h[k] = ci;
+                    k = child;
+                }
+                h[k] = last;
+            }
+            return first;
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+
+            final Subscriber<? super T> a = actual;
+            final MergeSortedSubscriber<T>[] qs = subscribers;
+
+            int missed = 1;
+
+            for (;;) {
+
+                long r = requested.get();
+                long e = 0L;
+
+                for (;;) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+
+                    if (errors.get() != null) {
+                        cancelAll();
+                        clear();
+                        a.onError(errors.terminate());
+                        return;
+                    }
+
+                    boolean ready;
+
+                    try {
+                        ready = fill();
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        cancelAll();
+                        clear();
+                        errors.addThrowable(ex);
+                        a.onError(errors.terminate());
+                        return;
+                    }
+
+                    if (!ready) {
+                        break;
+                    }
+
+                    if (heapSize == 0) {
+                        a.onComplete();
+                        return;
+                    }
+
+                    if (e == r) {
+                        break;
+                    }
+
+                    int index;
+
+                    try {
+                        index = removeFirst();
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        cancelAll();
+                        clear();
+                        errors.addThrowable(ex);
+                        a.onError(errors.terminate());
+                        return;
+                    }
+
+                    T v = (T)heads[index];
+                    heads[index] = null;
+                    pending[pendingCount++] = index;
+
+                    a.onNext(v);
+
+                    qs[index].requestOne();
+
+                    e++;
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    static final class MergeSortedSubscriber<T>
+    extends AtomicReference<Subscription>
+    implements RelaxedSubscriber<T> {
+
+        private static final long serialVersionUID = -3498425417616328530L;
+
+        final MergeSortedCoordinator<T> parent;
+
+        final int prefetch;
+
+        final int limit;
+
+        FusedQueue<T> queue;
+
+        long produced;
+
+        volatile boolean done;
+
+        int sourceMode;
+
+        MergeSortedSubscriber(MergeSortedCoordinator<T> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.setOnce(this, s)) {
+                if (s instanceof FusedQueueSubscription) {
+                    FusedQueueSubscription<T> f = (FusedQueueSubscription<T>) s;
+
+                    int m = f.requestFusion(FusedQueueSubscription.ANY | FusedQueueSubscription.BOUNDARY);
+
+                    if (m == FusedQueueSubscription.SYNC) {
+                        sourceMode = m;
+                        queue = f;
+                        done = true;
+                        parent.drain();
+                        return;
+                    }
+                    if (m == FusedQueueSubscription.ASYNC) {
+                        sourceMode = m;
+                        queue = f;
+                        s.request(prefetch);
+                        return;
+                    }
+                }
+
+                queue = new SpscArrayQueue<T>(prefetch);
+
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (sourceMode != FusedQueueSubscription.ASYNC) {
+                queue.offer(t);
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            parent.error(t);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        void cancel() {
+            SubscriptionHelper.cancel(this);
+        }
+
+        void requestOne() {
+            if (sourceMode != FusedQueueSubscription.SYNC) {
+                long p = produced + 1;
+                if (p == limit) {
+                    produced = 0L;
+                    get().request(p);
+                } else {
+                    produced = p;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,470 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import org.reactivestreams.Publisher;
+
+import io.reactivex.common.Emitter;
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.SpillSerializer;
+import kotlin.Unit;
+import kotlin.jvm.functions.*;
+
+/**
+ * The resource, source and disposer functions that let {@code Flowable.using} sort a sequence
+ * larger than the memory: the items are sorted in runs of a fixed size, every full run is
+ * written to a temporary file and the runs are merged back by {@link FlowableMergeSorted}
+ * once the upstream completed.
+ */
+public final class FlowableSortedExternal {
+
+    /** The size of the buffers between the run files and their streams. */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The maximum number of run files open at once: when there are more runs, they are
+     * merged in groups of this size into intermediate run files before the final merge.
+     */
+    static final int MAX_FAN_IN = 64;
+
+    /** Utility class. */
+    private FlowableSortedExternal() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    public static <T> Callable<SortedRuns<T>> runsSupplier(Comparator<? super T> comparator, int runSize,
+            SpillSerializer<T> serializer, File directory) {
+        return new RunsSupplier<T>(comparator, runSize, serializer, directory);
+    }
+
+    public static <T> Function1<SortedRuns<T>, Publisher<T>> sorter(Flowable<T> source, int prefetch) {
+        return new Sorter<T>(source, prefetch);
+    }
+
+    public static <T> Function1<SortedRuns<T>, Unit> disposer() {
+        return new Disposer<T>();
+    }
+
+    /**
+     * The run being filled and the files holding the runs spilled so far.
+     *
+     * @param <T> the item type
+     */
+    public static final class SortedRuns<T> {
+
+        final Comparator<? super T> comparator;
+
+        final int runSize;
+
+        final SpillSerializer<T> serializer;
+
+        final File directory;
+
+        /** The files of the spilled runs, guarded by this. */
+        final List<File> files;
+
+        /** The number of items in each spilled run. */
+        final List<Integer> counts;
+
+        final List<T> run;
+
+        /** Written while holding this. */
+        volatile boolean disposed;
+
+        SortedRuns(Comparator<? super T> comparator, int runSize, SpillSerializer<T> serializer, File directory) {
+            this.comparator = comparator;
+            this.runSize = runSize;
+            this.serializer = serializer;
+            this.directory = directory;
+            this.files = new ArrayList<File>();
+            this.counts = new ArrayList<Integer>();
+            this.run = new ArrayList<T>();
+        }
+
+        void add(T item) throws IOException {
+            List<T> r = run;
+            r.add(item);
+            if (r.size() == runSize) {
+                spill(r);
+                r.clear();
+            }
+        }
+
+        void spill(List<T> r) throws IOException {
+            Collections.sort(r, comparator);
+
+            File f = File.createTempFile("rxjava-sort", ".run", directory);
+            synchronized (this) {
+                if (disposed) {
+                    f.delete();
+                    return;
+                }
+                files.add(f);
+            }
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f), BUFFER_SIZE));
+            try {
+                for (T v : r) {
+                    serializer.write(v, out);
+                }
+            } finally {
+                out.close();
+            }
+            counts.add(r.size());
+        }
+
+        Publisher<T> merge(int prefetch) throws IOException {
+            List<T> r = run;
+            Collections.sort(r, comparator);
+
+            List<File> fs;
+            synchronized (this) {
+                fs = new ArrayList<File>(files);
+            }
+            if (fs.isEmpty()) {
+                return Flowable.fromIterable(r);
+            }
+            List<Integer> cs = new ArrayList<Integer>(counts);
+
+            // the in-memory run takes one more slot in the final merge
+            while (fs.size() >= MAX_FAN_IN && !disposed) {
+                List<File> nextFiles = new ArrayList<File>();
+                List<Integer> nextCounts = new ArrayList<Integer>();
+                for (int i = 0; i < fs.size(); i += MAX_FAN_IN) {
+                    int j = Math.min(i + MAX_FAN_IN, fs.size());
+                    if (j - i == 1) {
+                        nextFiles.add(fs.get(i));
+                        nextCounts.add(cs.get(i));
+                    } else {
+                        // consecutive runs are merged in place so equal items keep their order
+                        File f = mergeRuns(fs.subList(i, j), cs.subList(i, j));
+                        if (f == null) {
+                            break;
+                        }
+                        nextFiles.add(f);
+                        int c = 0;
+                        for (int k = i; k < j; k++) {
+                            c += cs.get(k);
+                        }
+                        nextCounts.add(c);
+                    }
+                }
+                fs = nextFiles;
+                cs = nextCounts;
+            }
+
+            List<Publisher<T>> sources = new ArrayList<Publisher<T>>(fs.size() + 1);
+            for (int i = 0; i < fs.size(); i++) {
+                sources.add(Flowable.generate(new RunReaderSupplier<T>(fs.get(i), cs.get(i), serializer),
+                        new RunGenerator<T>(), new RunDisposer<T>()));
+            }
+            if (!r.isEmpty()) {
+                sources.add(Flowable.fromIterable(r));
+            }
+            return new FlowableMergeSorted<T>(null, sources, comparator, prefetch);
+        }
+
+        /**
+         * Merges the given runs into a new run file and deletes them.
+         * @param fs the files of the runs, in their original order
+         * @param cs the number of items in each run
+         * @return the file of the merged run or null if the runs got disposed in the meantime
+         * @throws IOException if reading or writing a run file failed
+         */
+        File mergeRuns(List<File> fs, List<Integer> cs) throws IOException {
+            File f = File.createTempFile("rxjava-sort", ".run", directory);
+            synchronized (this) {
+                if (disposed) {
+                    f.delete();
+                    return null;
+                }
+                files.add(f);
+            }
+
+            int n = fs.size();
+            PriorityQueue<RunHead<T>> heads = new PriorityQueue<RunHead<T>>(n, new RunHeadComparator<T>(comparator));
+            List<DataInputStream> inputs = new ArrayList<DataInputStream>(n);
+            DataOutputStream out = null;
+            try {
+                for (int i = 0; i < n; i++) {
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fs.get(i)), BUFFER_SIZE));
+                    inputs.add(in);
+                    RunHead<T> h = new RunHead<T>(i, in, cs.get(i));
+                    if (h.next(serializer)) {
+                        heads.offer(h);
+                    }
+                }
+
+                out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f), BUFFER_SIZE));
+                for (;;) {
+                    if (disposed) {
+                        return null;
+                    }
+                    RunHead<T> h = heads.poll();
+                    if (h == null) {
+                        break;
+                    }
+                    serializer.write(h.value, out);
+                    if (h.next(serializer)) {
+                        heads.offer(h);
+                    }
+                }
+            } finally {
+                for (DataInputStream in : inputs) {
+                    try {
+                        in.close();
+                    } catch (IOException ex) {
+                        RxJavaCommonPlugins.onError(ex);
+                    }
+                }
+                if (out != null) {
+                    out.close();
+                }
+            }
+
+            synchronized (this) {
+                files.removeAll(fs);
+            }
+            for (File g : fs) {
+                g.delete();
+            }
+            return f;
+        }
+
+        void dispose() {
+            List<File> fs;
+            synchronized (this) {
+                disposed = true;
+                fs = new ArrayList<File>(files);
+                files.clear();
+            }
+            for (File f : fs) {
+                f.delete();
+            }
+        }
+    }
+
+    /**
+     * The open file of a spilled run and the number of items still to be read from it.
+     *
+     * @param <T> the item type
+     */
+    static final class RunReader<T> {
+
+        final File file;
+
+        final DataInputStream input;
+
+        final SpillSerializer<T> serializer;
+
+        int remaining;
+
+        RunReader(File file, DataInputStream input, SpillSerializer<T> serializer, int count) {
+            this.file = file;
+            this.input = input;
+            this.serializer = serializer;
+            this.remaining = count;
+        }
+
+        void next(Emitter<T> emitter) throws IOException {
+            if (remaining == 0) {
+                emitter.onComplete();
+                return;
+            }
+            remaining--;
+            emitter.onNext(serializer.read(input));
+        }
+
+        void close() {
+            try {
+                input.close();
+            } catch (IOException ex) {
+                RxJavaCommonPlugins.onError(ex);
+            }
+            // the run is read only once, the file may go as soon as it is closed
+            file.delete();
+        }
+    }
+
+    /**
+     * The next item of a run being merged into an intermediate run.
+     *
+     * @param <T> the item type
+     */
+    static final class RunHead<T> {
+
+        /** The position of the run, ties are resolved in favor of the earlier run. */
+        final int index;
+
+        final DataInputStream input;
+
+        int remaining;
+
+        T value;
+
+        RunHead(int index, DataInputStream input, int count) {
+            this.index = index;
+            this.input = input;
+            this.remaining = count;
+        }
+
+        boolean next(SpillSerializer<T> serializer) throws IOException {
+            if (remaining == 0) {
+                value = null;
+                return false;
+            }
+            remaining--;
+            value = serializer.read(input);
+            return true;
+        }
+    }
+
+    static final class RunHeadComparator<T> implements Comparator<RunHead<T>> {
+        final Comparator<? super T> comparator;
+
+        RunHeadComparator(Comparator<? super T> comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        public int compare(RunHead<T> a, RunHead<T> b) {
+            int c = comparator.compare(a.value, b.value);
+            if (c == 0) {
+                c = a.index < b.index ? -1 : (a.index == b.index ? 0 : 1);
+            }
+            return c;
+        }
+    }
+
+    static final class RunsSupplier<T> implements Callable<SortedRuns<T>> {
+        final Comparator<? super T> comparator;
+
+        final int runSize;
+
+        final SpillSerializer<T> serializer;
+
+        final File directory;
+
+        RunsSupplier(Comparator<? super T> comparator, int runSize, SpillSerializer<T> serializer, File directory) {
+            this.comparator = comparator;
+            this.runSize = runSize;
+            this.serializer = serializer;
+            this.directory = directory;
+        }
+
+        @Override
+        public SortedRuns<T> call() throws Exception {
+            return new SortedRuns<T>(comparator, runSize, serializer, directory);
+        }
+    }
+
+    static final class Sorter<T> implements Function1<SortedRuns<T>, Publisher<T>> {
+        final Flowable<T> source;
+
+        final int prefetch;
+
+        Sorter(Flowable<T> source, int prefetch) {
+            this.source = source;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public Publisher<T> invoke(SortedRuns<T> runs) {
+            return source.collectInto(runs, new RunsAdder<T>()).concatMap(new RunsMerger<T>(prefetch));
+        }
+    }
+
+    static final class RunsAdder<T> implements Function2<SortedRuns<T>, T, Unit> {
+        @Override
+        public Unit invoke(SortedRuns<T> runs, T item) {
+            try {
+                runs.add(item);
+            } catch (IOException ex) {
+                throw Exceptions.propagate(ex);
+            }
+            return Unit.INSTANCE;
+        }
+    }
+
+    static final class RunsMerger<T> implements Function1<SortedRuns<T>, Publisher<T>> {
+        final int prefetch;
+
+        RunsMerger(int prefetch) {
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public Publisher<T> invoke(SortedRuns<T> runs) {
+            try {
+                return runs.merge(prefetch);
+            } catch (IOException ex) {
+                throw Exceptions.propagate(ex);
+            }
+        }
+    }
+
+    static final class Disposer<T> implements Function1<SortedRuns<T>, Unit> {
+        @Override
+        public Unit invoke(SortedRuns<T> runs) {
+            runs.dispose();
+            return Unit.INSTANCE;
+        }
+    }
+
+    static final class RunReaderSupplier<T> implements Callable<RunReader<T>> {
+        final File file;
+
+        final int count;
+
+        final SpillSerializer<T> serializer;
+
+        RunReaderSupplier(File file, int count, SpillSerializer<T> serializer) {
+            this.file = file;
+            this.count = count;
+            this.serializer = serializer;
+        }
+
+        @Override
+        public RunReader<T> call() throws Exception {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+            return new RunReader<T>(file, in, serializer, count);
+        }
+    }
+
+    static final class RunGenerator<T> implements Function2<RunReader<T>, Emitter<T>, RunReader<T>> {
+        @Override
+        public RunReader<T> invoke(RunReader<T> state, Emitter<T> emitter) {
+            try {
+                state.next(emitter);
+            } catch (IOException ex) {
+                emitter.onError(ex);
+            }
+            return state;
+        }
+    }
+
+    static final class RunDisposer<T> implements Function1<RunReader<T>, Unit> {
+        @Override
+        public Unit invoke(RunReader<T> state) {
+            state.close();
+            return Unit.INSTANCE;
+        }
+    }
+}
@@ -14,27 +14,32 @@
 package io.reactivex.flowable.internal.operators;
 
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicReference;
 
 import org.reactivestreams.*;
 
 import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
 import io.reactivex.common.*;
 import io.reactivex.common.Scheduler.Worker;
-import io.reactivex.common.internal.disposables.DisposableHelper;
 import io.reactivex.flowable.Flowable;
 import io.reactivex.flowable.internal.subscribers.FullArbiterSubscriber;
 import io.reactivex.flowable.internal.subscriptions.*;
 import io.reactivex.flowable.subscribers.SerializedSubscriber;
 
+/**
+ * Times out if the next item doesn't arrive within the timeout after the previous one.
+ * <p>
+ * Instead of scheduling and cancelling a timer task per item, each subscriber keeps one
+ * timer task and items only record the latest deadline; the timer reschedules itself
+ * for the remaining time whenever it fires before the deadline.
+ *
+ * @param <T> the value type
+ */
 public final class FlowableTimeoutTimed<T> extends AbstractFlowableWithUpstream<T, T> {
     final long timeout;
     final TimeUnit unit;
     final Scheduler scheduler;
     final Publisher<? extends T> other;
 
-    static final Disposable NEW_TIMER = new EmptyDispose();
-
     public FlowableTimeoutTimed(Flowable<T> source,
             long timeout, TimeUnit unit, Scheduler scheduler, Publisher<? extends T> other) {
         super(source);
@@ -57,29 +62,69 @@ public final class FlowableTimeoutTimed<T> extends AbstractFlowableWithUpstream<
         }
     }
 
-    static final class TimeoutTimedOtherSubscriber<T> implements RelaxedSubscriber<T>, Disposable {
-        final Subscriber<? super T> actual;
-        final long timeout;
-        final TimeUnit unit;
+    /**
+     * Runs on the worker when the timeout may have elapsed and reschedules itself
+     * if the deadline has moved since it was armed.
+     */
+    abstract static class DeadlineTimer implements Runnable {
+        /** Indicates an item is being emitted and the timeout is paused. */
+        static final long EMITTING = Long.MAX_VALUE;
+
         final Scheduler.Worker worker;
+
+        final long timeoutNanos;
+
+        /** The worker time in nanoseconds when the timeout elapses. */
+        volatile long deadline;
+
+        DeadlineTimer(Scheduler.Worker worker, long timeout, TimeUnit unit) {
+            this.worker = worker;
+            this.timeoutNanos = unit.toNanos(timeout);
+        }
+
+        final void start() {
+            deadline = worker.now(TimeUnit.NANOSECONDS) + timeoutNanos;
+            worker.schedule(this, timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+
+        final void emitting() {
+            deadline = EMITTING;
+        }
+
+        final void emitted() {
+            deadline = worker.now(TimeUnit.NANOSECONDS) + timeoutNanos;
+        }
+
+        @Override
+        public final void run() {
+            long d = deadline;
+            long now = worker.now(TimeUnit.NANOSECONDS);
+            if (d == EMITTING) {
+                worker.schedule(this, timeoutNanos, TimeUnit.NANOSECONDS);
+            } else if (now < d) {
+                worker.schedule(this, d - now, TimeUnit.NANOSECONDS);
+            } else {
+                onTimeout();
+            }
+        }
+
+        abstract void onTimeout();
+    }
+
+    static final class TimeoutTimedOtherSubscriber<T> extends DeadlineTimer implements RelaxedSubscriber<T>, Disposable {
+        final Subscriber<? super T> actual;
         final Publisher<? extends T> other;
 
         Subscription s;
 
         final FullArbiter<T> arbiter;
 
-        final AtomicReference<Disposable> timer = new AtomicReference<Disposable>();
-
-        volatile long index;
-
         volatile boolean done;
 
         TimeoutTimedOtherSubscriber(Subscriber<? super T> actual, long timeout, TimeUnit unit, Worker worker,
                 Publisher<? extends T> other) {
+            super(worker, timeout, unit);
             this.actual = actual;
-            this.timeout = timeout;
-            this.unit = unit;
-            this.worker = worker;
             this.other = other;
             this.arbiter = new FullArbiter<T>(actual, this, 8);
         }
@@ -91,7 +136,7 @@ public final class FlowableTimeoutTimed<T> extends AbstractFlowableWithUpstream<
                 if (arbiter.setSubscription(s)) {
                     actual.onSubscribe(arbiter);
 
-                    scheduleTimeout(0L);
+                    start();
                 }
             }
         }
@@ -101,24 +146,10 @@ public final class FlowableTimeoutTimed<T> extends AbstractFlowableWithUpstream<
             if (done) {
                 return;
             }
-            long idx = index + 1;
-            index = idx;
+            emitting();
 
             if (arbiter.onNext(t, s)) {
-                scheduleTimeout(idx);
-            }
-        }
-
-        void scheduleTimeout(final long idx) {
-            Disposable d = timer.get();
-            if (d != null) {
-                d.dispose();
-            }
-
-            if (timer.compareAndSet(d, NEW_TIMER)) {
-                d = worker.schedule(new TimeoutTask(idx), timeout, unit);
-
-                DisposableHelper.replace(timer, d);
+                emitted();
             }
         }
 
@@ -158,47 +189,29 @@ public final class FlowableTimeoutTimed<T> extends AbstractFlowableWithUpstream<
             return worker.isDisposed();
         }
 
-        final class TimeoutTask implements Runnable {
-            private final long idx;
-
-            TimeoutTask(long idx) {
-                this.idx = idx;
-            }
-
-            @Override
-            public void run() {
-                if (idx == index) {
-                    done = true;
-                    s.cancel();
-                    DisposableHelper.dispose(timer);
+        @Override
+        void onTimeout() {
+            if (!done) {
+                done = true;
+                s.cancel();
 
-                    subscribeNext();
+                subscribeNext();
 
-                    worker.dispose();
-                }
+                worker.dispose();
             }
         }
     }
 
-    static final class TimeoutTimedSubscriber<T> implements RelaxedSubscriber<T>, Disposable, Subscription {
+    static final class TimeoutTimedSubscriber<T> extends DeadlineTimer implements RelaxedSubscriber<T>, Disposable, Subscription {
         final Subscriber<? super T> actual;
-        final long timeout;
-        final TimeUnit unit;
-        final Scheduler.Worker worker;
 
         Subscription s;
 
-        final AtomicReference<Disposable> timer = new AtomicReference<Disposable>();
-
-        volatile long index;
-
         volatile boolean done;
 
         TimeoutTimedSubscriber(Subscriber<? super T> actual, long timeout, TimeUnit unit, Worker worker) {
+            super(worker, timeout, unit);
             this.actual = actual;
-            this.timeout = timeout;
-            this.unit = unit;
-            this.worker = worker;
         }
 
         @Override
@@ -206,7 +219,7 @@ public final class FlowableTimeoutTimed<T> extends AbstractFlowableWithUpstream<
             if (SubscriptionHelper.validate(this.s, s)) {
                 this.s = s;
                 actual.onSubscribe(this);
-                scheduleTimeout(0L);
+                start();
             }
         }
 
@@ -215,25 +228,11 @@ public final class FlowableTimeoutTimed<T> extends AbstractFlowableWithUpstream<
             if (done) {
                 return;
             }
-            long idx = index + 1;
-            index = idx;
+            emitting();
 
             actual.onNext(t);
 
-            scheduleTimeout(idx);
-        }
-
-        void scheduleTimeout(final long idx) {
-            Disposable d = timer.get();
-            if (d != null) {
-                d.dispose();
-            }
-
-            if (timer.compareAndSet(d, NEW_TIMER)) {
-                d = worker.schedule(new TimeoutTask(idx), timeout, unit);
-
-                DisposableHelper.replace(timer, d);
-            }
+            emitted();
         }
 
         @Override
@@ -280,34 +279,14 @@ public final class FlowableTimeoutTimed<T> extends AbstractFlowableWithUpstream<
             dispose();
         }
 
-        final class TimeoutTask implements Runnable {
-            private final long idx;
-
-            TimeoutTask(long idx) {
-                this.idx = idx;
-            }
-
-            @Override
-            public void run() {
-                if (idx == index) {
-                    done = true;
-                    dispose();
-
-                    actual.onError(new TimeoutException());
-                }
-            }
-        }
-    }
-
-    static final class EmptyDispose implements Disposable {
         @Override
-        public void dispose() { }
+        void onTimeout() {
+            if (!done) {
+                done = true;
+                dispose();
 
-        @Override
-        public boolean isDisposed() {
-            return true;
+                actual.onError(new TimeoutException());
+            }
         }
     }
-
-
 }
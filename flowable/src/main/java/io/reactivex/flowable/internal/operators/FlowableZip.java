@@ -27,6 +27,7 @@ import hu.akarnokd.reactivestreams.extensions.FusedQueueSubscription;
 import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
 import io.reactivex.common.RxJavaCommonPlugins;
 import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.functions.Functions;
 import io.reactivex.common.internal.functions.ObjectHelper;
 import io.reactivex.common.internal.utils.AtomicThrowable;
 import io.reactivex.flowable.Flowable;
@@ -110,6 +111,9 @@ public final class FlowableZip<T, R> extends Flowable<R> {
 
         final Object[] current;
 
+        /** True if the zipper does not retain its array, so the current row can be passed without a copy. */
+        final boolean reuseRow;
+
         ZipCoordinator(Subscriber<? super R> actual,
                        Function1<? super Object[], ? extends R> zipper, int n, int prefetch, boolean delayErrors) {
             this.actual = actual;
@@ -121,6 +125,7 @@ public final class FlowableZip<T, R> extends Flowable<R> {
                 a[i] = new ZipSubscriber<T, R>(this, prefetch);
             }
             this.current = new Object[n];
+            this.reuseRow = Functions.isArrayAdapter(zipper);
             this.subscribers = a;
             this.requested = new AtomicLong();
             this.errors = new AtomicThrowable();
@@ -246,7 +251,7 @@ public final class FlowableZip<T, R> extends Flowable<R> {
                     R v;
 
                     try {
-                        v = ObjectHelper.requireNonNull(zipper.invoke(values.clone()), "The zipper returned a null value");
+                        v = ObjectHelper.requireNonNull(zipper.invoke(reuseRow ? values : values.clone()), "The zipper returned a null value");
                     } catch (Throwable ex) {
                         Exceptions.throwIfFatal(ex);
                         cancelAll();
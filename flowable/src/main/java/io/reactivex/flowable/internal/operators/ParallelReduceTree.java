@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.ParallelFlowable;
+import io.reactivex.flowable.internal.subscriptions.DeferredScalarSubscription;
+import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
+import kotlin.jvm.functions.Function2;
+
+/**
+ * Reduces all 'rails' into a single value each, then combines these values pairwise
+ * along a binary tree over the rail indexes into a single Publisher sequence.
+ * <p>
+ * Each node of the tree is combined by whichever of its two children completes last,
+ * so independent subtrees are combined in parallel on the threads of their rails. The
+ * left operand is always the lower rail, hence the combiner only has to be associative.
+ *
+ * @param <T> the value type
+ */
+public final class ParallelReduceTree<T> extends Flowable<T> {
+
+    final ParallelFlowable<? extends T> source;
+
+    final Function2<T, T, T> combiner;
+
+    public ParallelReduceTree(ParallelFlowable<? extends T> source, Function2<T, T, T> combiner) {
+        this.source = source;
+        this.combiner = combiner;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> s) {
+        ParallelReduceTreeMainSubscriber<T> parent = new ParallelReduceTreeMainSubscriber<T>(s, source.parallelism(), combiner);
+        s.onSubscribe(parent);
+
+        source.subscribe(parent.subscribers);
+    }
+
+    static final class ParallelReduceTreeMainSubscriber<T> extends DeferredScalarSubscription<T> {
+
+        private static final long serialVersionUID = 4286165460826428245L;
+
+        final ParallelReduceTreeInnerSubscriber<T>[] subscribers;
+
+        final Function2<T, T, T> combiner;
+
+        /**
+         * The values of the tree nodes in heap order: the root is at 1, the children of node k
+         * are at 2k and 2k + 1 and rail i is the leaf at {@code leaves + i}.
+         */
+        final Object[] nodes;
+
+        /** The number of children of each inner node that have their value ready. */
+        final AtomicIntegerArray arrived;
+
+        /** The number of leaves, the smallest power of two not less than the number of rails. */
+        final int leaves;
+
+        final AtomicBoolean terminated;
+
+        final AtomicReference<Throwable> error;
+
+        ParallelReduceTreeMainSubscriber(Subscriber<? super T> subscriber, int n, Function2<T, T, T> combiner) {
+            super(subscriber);
+            @SuppressWarnings("unchecked")
+            ParallelReduceTreeInnerSubscriber<T>[] a = new ParallelReduceTreeInnerSubscriber[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = new ParallelReduceTreeInnerSubscriber<T>(this, i, combiner);
+            }
+            this.subscribers = a;
+            this.combiner = combiner;
+
+            int m = 1;
+            while (m < n) {
+                m <<= 1;
+            }
+            this.leaves = m;
+            this.nodes = new Object[m << 1];
+            this.terminated = new AtomicBoolean();
+            this.error = new AtomicReference<Throwable>();
+
+            // leaves beyond the last rail never complete, count them and their ancestors as arrived
+            AtomicIntegerArray c = new AtomicIntegerArray(m);
+            for (int k = m - 1; k >= 1; k--) {
+                int missing = 0;
+                if (firstLeaf(k << 1, m) >= n) {
+                    missing++;
+                }
+                if (firstLeaf((k << 1) + 1, m) >= n) {
+                    missing++;
+                }
+                c.lazySet(k, missing);
+            }
+            this.arrived = c;
+        }
+
+        static int firstLeaf(int k, int leaves) {
+            while (k < leaves) {
+                k <<= 1;
+            }
+            return k - leaves;
+        }
+
+        @Override
+        public void cancel() {
+            super.cancel();
+            cancelAll();
+        }
+
+        void cancelAll() {
+            for (ParallelReduceTreeInnerSubscriber<T> inner : subscribers) {
+                inner.cancel();
+            }
+        }
+
+        void innerError(Throwable ex) {
+            if (error.compareAndSet(null, ex)) {
+                if (terminated.compareAndSet(false, true)) {
+                    cancelAll();
+                    actual.onError(ex);
+                    return;
+                }
+            } else if (ex == error.get()) {
+                // the same error reached several rails
+                return;
+            }
+            RxJavaCommonPlugins.onError(ex);
+        }
+
+        @SuppressWarnings("unchecked")
+        void innerComplete(int index, T value) {
+            Object[] a = nodes;
+            int k = leaves + index;
+            a[k] = value;
+
+            while (k > 1) {
+                int parent = k >> 1;
+                if (arrived.incrementAndGet(parent) != 2) {
+                    // the sibling hasn't finished yet, it will carry on from here
+                    return;
+                }
+                if (terminated.get()) {
+                    return;
+                }
+
+                int left = parent << 1;
+                T lv = (T)a[left];
+                T rv = (T)a[left + 1];
+                a[left] = null;
+                a[left + 1] = null;
+
+                T v;
+                if (lv == null) {
+                    v = rv;
+                } else if (rv == null) {
+                    v = lv;
+                } else {
+                    try {
+                        v = ObjectHelper.requireNonNull(combiner.invoke(lv, rv), "The combiner returned a null value");
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        innerError(ex);
+                        return;
+                    }
+                }
+                a[parent] = v;
+                k = parent;
+            }
+
+            if (terminated.compareAndSet(false, true)) {
+                T v = (T)a[1];
+                a[1] = null;
+                if (v != null) {
+                    complete(v);
+                } else {
+                    actual.onComplete();
+                }
+            }
+        }
+    }
+
+    static final class ParallelReduceTreeInnerSubscriber<T>
+    extends AtomicReference<Subscription>
+    implements RelaxedSubscriber<T> {
+
+        private static final long serialVersionUID = -2404839617616296017L;
+
+        final ParallelReduceTreeMainSubscriber<T> parent;
+
+        final int index;
+
+        final Function2<T, T, T> combiner;
+
+        T value;
+
+        boolean done;
+
+        ParallelReduceTreeInnerSubscriber(ParallelReduceTreeMainSubscriber<T> parent, int index, Function2<T, T, T> combiner) {
+            this.parent = parent;
+            this.index = index;
+            this.combiner = combiner;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.setOnce(this, s)) {
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (!done) {
+                T v = value;
+
+                if (v == null) {
+                    value = t;
+                } else {
+
+                    try {
+                        v = ObjectHelper.requireNonNull(combiner.invoke(v, t), "The combiner returned a null value");
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        get().cancel();
+                        onError(ex);
+                        return;
+                    }
+
+                    value = v;
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaCommonPlugins.onError(t);
+                return;
+            }
+            done = true;
+            value = null;
+            parent.innerError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                T v = value;
+                value = null;
+                parent.innerComplete(index, v);
+            }
+        }
+
+        void cancel() {
+            SubscriptionHelper.cancel(this);
+        }
+    }
+}
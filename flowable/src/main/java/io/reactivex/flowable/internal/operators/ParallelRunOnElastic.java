@@ -0,0 +1,317 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
+import io.reactivex.common.*;
+import io.reactivex.common.annotations.Nullable;
+import io.reactivex.common.exceptions.MissingBackpressureException;
+import io.reactivex.flowable.*;
+import io.reactivex.flowable.internal.queues.SpscArrayQueue;
+import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.flowable.internal.utils.BackpressureHelper;
+
+/**
+ * Runs the 'rails' from upstream on a Scheduler without binding them to Workers:
+ * a rail only occupies a thread while it has items to deliver, at most a given number
+ * of rails run at the same time and a rail yields its thread to a waiting rail after
+ * each batch.
+ * <p>
+ * The rails draw their permits from the given {@link RailLimiter}, possibly shared with other
+ * ParallelFlowables, or from a new one per subscription.
+ *
+ * @param <T> the value type
+ */
+public final class ParallelRunOnElastic<T> extends ParallelFlowable<T> {
+    final ParallelFlowable<? extends T> source;
+
+    final Scheduler scheduler;
+
+    final int maxConcurrency;
+
+    /** The limiter shared by all subscriptions, null if each subscription gets its own. */
+    @Nullable
+    final RailLimiter limiter;
+
+    final int prefetch;
+
+    public ParallelRunOnElastic(ParallelFlowable<? extends T> parent,
+            Scheduler scheduler, int maxConcurrency, int prefetch) {
+        this.source = parent;
+        this.scheduler = scheduler;
+        this.maxConcurrency = maxConcurrency;
+        this.limiter = null;
+        this.prefetch = prefetch;
+    }
+
+    public ParallelRunOnElastic(ParallelFlowable<? extends T> parent, RailLimiter limiter, int prefetch) {
+        this.source = parent;
+        this.scheduler = limiter.scheduler();
+        this.maxConcurrency = limiter.maxConcurrency();
+        this.limiter = limiter;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T>[] subscribers) {
+        if (!validate(subscribers)) {
+            return;
+        }
+
+        int n = subscribers.length;
+
+        @SuppressWarnings("unchecked")
+        Subscriber<T>[] parents = new Subscriber[n];
+
+        RailLimiter pool = limiter;
+        if (pool == null) {
+            pool = RailLimiter.create(scheduler, maxConcurrency);
+        }
+
+        for (int i = 0; i < n; i++) {
+            parents[i] = new ElasticRunOnSubscriber<T>(subscribers[i], prefetch, pool);
+        }
+
+        source.subscribe(parents);
+    }
+
+    @Override
+    public int parallelism() {
+        return source.parallelism();
+    }
+
+    static final class ElasticRunOnSubscriber<T> extends AtomicInteger
+    implements RelaxedSubscriber<T>, Subscription, Runnable {
+
+        private static final long serialVersionUID = 5238744862371386237L;
+
+        final Subscriber<? super T> actual;
+
+        final int prefetch;
+
+        final int limit;
+
+        final SpscArrayQueue<T> queue;
+
+        final RailLimiter pool;
+
+        Subscription s;
+
+        volatile boolean done;
+
+        Throwable error;
+
+        final AtomicLong requested = new AtomicLong();
+
+        volatile boolean cancelled;
+
+        int consumed;
+
+        ElasticRunOnSubscriber(Subscriber<? super T> actual, int prefetch, RailLimiter pool) {
+            this.actual = actual;
+            this.prefetch = prefetch;
+            this.queue = new SpscArrayQueue<T>(prefetch);
+            this.limit = prefetch - (prefetch >> 2);
+            this.pool = pool;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.s, s)) {
+                this.s = s;
+
+                actual.onSubscribe(this);
+
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(t)) {
+                s.cancel();
+                onError(new MissingBackpressureException("Queue is full?!"));
+                return;
+            }
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaCommonPlugins.onError(t);
+                return;
+            }
+            error = t;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                s.cancel();
+
+                if (getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+
+        void schedule() {
+            if (getAndIncrement() == 0) {
+                pool.submit(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (drain()) {
+                pool.submit(this);
+            }
+            pool.release();
+        }
+
+        /**
+         * Delivers the queued items until there is nothing to do or a batch has been delivered
+         * while other rails wait for a permit.
+         * @return true if the rail has to be resubmitted to continue later
+         */
+        boolean drain() {
+            int missed = 1;
+            int c = consumed;
+            SpscArrayQueue<T> q = queue;
+            Subscriber<? super T> a = actual;
+            int lim = limit;
+
+            for (;;) {
+
+                long r = requested.get();
+                long e = 0L;
+
+                while (e != r) {
+                    if (cancelled) {
+                        q.clear();
+                        return false;
+                    }
+
+                    boolean d = done;
+
+                    if (d) {
+                        Throwable ex = error;
+                        if (ex != null) {
+                            q.clear();
+
+                            a.onError(ex);
+                            return false;
+                        }
+                    }
+
+                    T v = q.poll();
+
+                    boolean empty = v == null;
+
+                    if (d && empty) {
+                        a.onComplete();
+                        return false;
+                    }
+
+                    if (empty) {
+                        break;
+                    }
+
+                    a.onNext(v);
+
+                    e++;
+
+                    int p = ++c;
+                    if (p == lim) {
+                        c = 0;
+                        s.request(p);
+
+                        if (pool.hasWaiting()) {
+                            // let a waiting rail have this thread, the wip counter keeps this rail scheduled
+                            consumed = c;
+                            if (r != Long.MAX_VALUE) {
+                                requested.addAndGet(-e);
+                            }
+                            return true;
+                        }
+                    }
+                }
+
+                if (e == r) {
+                    if (cancelled) {
+                        q.clear();
+                        return false;
+                    }
+
+                    if (done) {
+                        Throwable ex = error;
+                        if (ex != null) {
+                            q.clear();
+
+                            a.onError(ex);
+                            return false;
+                        }
+                        if (q.isEmpty()) {
+                            a.onComplete();
+                            return false;
+                        }
+                    }
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+
+                int w = get();
+                if (w == missed) {
+                    consumed = c;
+                    missed = addAndGet(-missed);
+                    if (missed == 0) {
+                        return false;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+    }
+}
@@ -12,15 +12,13 @@
  */
 package io.reactivex.flowable.internal.subscribers;
 
-import java.util.concurrent.CountDownLatch;
-
 import org.reactivestreams.Subscription;
 
 import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
 import io.reactivex.common.internal.utils.*;
 import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
 
-public abstract class BlockingBaseSubscriber<T> extends CountDownLatch
+public abstract class BlockingBaseSubscriber<T> extends SpinParkLatch
 implements RelaxedSubscriber<T> {
 
     T value;
@@ -30,10 +28,6 @@ implements RelaxedSubscriber<T> {
 
     volatile boolean cancelled;
 
-    public BlockingBaseSubscriber() {
-        super(1);
-    }
-
     @Override
     public final void onSubscribe(Subscription s) {
         if (SubscriptionHelper.validate(this.s, s)) {
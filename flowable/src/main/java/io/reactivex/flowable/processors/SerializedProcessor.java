@@ -13,26 +13,36 @@
 
 package io.reactivex.flowable.processors;
 
+import java.util.concurrent.atomic.*;
+
 import org.reactivestreams.*;
 
 import io.reactivex.common.RxJavaCommonPlugins;
-import io.reactivex.flowable.internal.utils.*;
+import io.reactivex.flowable.internal.queues.*;
+import io.reactivex.flowable.internal.utils.NotificationLite;
 
 /**
  * Serializes calls to the Subscriber methods.
  * <p>All other Publisher and Subject methods are thread-safe by design.
+ * <p>The calling threads never block: the first caller emits directly, concurrent callers
+ * enqueue their events into a multi-producer queue which is drained by the thread currently
+ * emitting.
  *
  * @param <T> the item value type
  */
 /* public */ final class SerializedProcessor<T> extends FlowableProcessor<T> {
     /** The actual subscriber to serialize Subscriber calls to. */
     final FlowableProcessor<T> actual;
-    /** Indicates an emission is going on, guarded by this. */
-    boolean emitting;
-    /** If not null, it holds the missed NotificationLite events. */
-    AppendOnlyLinkedArrayList<Object> queue;
+    /** Counts the pending emissions; the thread that increments it from zero emits. */
+    final AtomicInteger wip;
+    /** Holds the NotificationLite onSubscribe and onNext events that arrived while another thread was emitting. */
+    final SimplePlainQueue<Object> queue;
+    /** Holds the terminal NotificationLite event, set at most once. */
+    final AtomicReference<Object> terminal;
     /** Indicates a terminal event has been received and all further events will be dropped. */
     volatile boolean done;
+    /** Set once the terminal event has been emitted; accessed while holding the wip counter. */
+    boolean terminated;
 
     /**
      * Constructor that wraps an actual subject.
@@ -40,6 +50,9 @@ import io.reactivex.flowable.internal.utils.*;
      */
     SerializedProcessor(final FlowableProcessor<T> actual) {
         this.actual = actual;
+        this.wip = new AtomicInteger();
+        this.queue = new MpscLinkedQueue<Object>();
+        this.terminal = new AtomicReference<Object>();
     }
 
     @Override
@@ -49,34 +62,27 @@ import io.reactivex.flowable.internal.utils.*;
 
     @Override
     public void onSubscribe(Subscription s) {
-        boolean cancel;
-        if (!done) {
-            synchronized (this) {
-                if (done) {
-                    cancel = true;
-                } else {
-                    if (emitting) {
-                        AppendOnlyLinkedArrayList<Object> q = queue;
-                        if (q == null) {
-                            q = new AppendOnlyLinkedArrayList<Object>(4);
-                            queue = q;
-                        }
-                        q.add(NotificationLite.subscription(s));
-                        return;
-                    }
-                    emitting = true;
-                    cancel = false;
-                }
-            }
-        } else {
-            cancel = true;
-        }
-        if (cancel) {
+        if (done) {
             s.cancel();
+            return;
+        }
+        AtomicInteger w = wip;
+        if (w.get() == 0 && w.compareAndSet(0, 1)) {
+            if (terminated) {
+                s.cancel();
+            } else {
+                actual.onSubscribe(s);
+            }
+            if (w.decrementAndGet() == 0) {
+                return;
+            }
         } else {
-            actual.onSubscribe(s);
-            emitLoop();
+            queue.offer(NotificationLite.subscription(s));
+            if (w.getAndIncrement() != 0) {
+                return;
+            }
         }
+        drainLoop();
     }
 
     @Override
@@ -84,95 +90,100 @@ import io.reactivex.flowable.internal.utils.*;
         if (done) {
             return;
         }
-        synchronized (this) {
-            if (done) {
+        AtomicInteger w = wip;
+        if (w.get() == 0 && w.compareAndSet(0, 1)) {
+            if (!terminated) {
+                actual.onNext(t);
+            }
+            if (w.decrementAndGet() == 0) {
                 return;
             }
-            if (emitting) {
-                AppendOnlyLinkedArrayList<Object> q = queue;
-                if (q == null) {
-                    q = new AppendOnlyLinkedArrayList<Object>(4);
-                    queue = q;
-                }
-                q.add(NotificationLite.next(t));
+        } else {
+            queue.offer(NotificationLite.next(t));
+            if (w.getAndIncrement() != 0) {
                 return;
             }
-            emitting = true;
         }
-        actual.onNext(t);
-        emitLoop();
+        drainLoop();
     }
 
     @Override
     public void onError(Throwable t) {
-        if (done) {
-            RxJavaCommonPlugins.onError(t);
-            return;
-        }
-        boolean reportError;
-        synchronized (this) {
-            if (done) {
-                reportError = true;
-            } else {
-                done = true;
-                if (emitting) {
-                    AppendOnlyLinkedArrayList<Object> q = queue;
-                    if (q == null) {
-                        q = new AppendOnlyLinkedArrayList<Object>(4);
-                        queue = q;
-                    }
-                    q.setFirst(NotificationLite.error(t));
-                    return;
-                }
-                reportError = false;
-                emitting = true;
-            }
-        }
-        if (reportError) {
+        if (done || !terminal.compareAndSet(null, NotificationLite.error(t))) {
             RxJavaCommonPlugins.onError(t);
             return;
         }
-        actual.onError(t);
+        done = true;
+        drain();
     }
 
     @Override
     public void onComplete() {
-        if (done) {
+        if (done || !terminal.compareAndSet(null, NotificationLite.complete())) {
             return;
         }
-        synchronized (this) {
-            if (done) {
-                return;
-            }
-            done = true;
-            if (emitting) {
-                AppendOnlyLinkedArrayList<Object> q = queue;
-                if (q == null) {
-                    q = new AppendOnlyLinkedArrayList<Object>(4);
-                    queue = q;
-                }
-                q.add(NotificationLite.complete());
-                return;
-            }
-            emitting = true;
+        done = true;
+        drain();
+    }
+
+    void drain() {
+        if (wip.getAndIncrement() == 0) {
+            drainLoop();
         }
-        actual.onComplete();
     }
 
     /** Loops until all notifications in the queue has been processed. */
-    void emitLoop() {
+    void drainLoop() {
+        final Subscriber<? super T> a = actual;
+        final SimplePlainQueue<Object> q = queue;
+        int missed = 1;
+
         for (;;) {
-            AppendOnlyLinkedArrayList<Object> q;
-            synchronized (this) {
-                q = queue;
-                if (q == null) {
-                    emitting = false;
-                    return;
+            while (!terminated) {
+                Object term = terminal.get();
+                if (term != null && NotificationLite.isError(term)) {
+                    terminated = true;
+                    NotificationLite.accept(term, a);
+                    break;
+                }
+
+                Object o = q.poll();
+
+                if (o == null) {
+                    if (term != null) {
+                        terminated = true;
+                        NotificationLite.accept(term, a);
+                    }
+                    break;
                 }
-                queue = null;
+
+                NotificationLite.acceptFull(o, a);
+            }
+
+            if (terminated) {
+                clear(q);
             }
 
-            q.accept(actual);
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Drops the queued events after termination, cancelling the queued Subscriptions.
+     * @param q the queue to clear
+     */
+    static void clear(SimplePlainQueue<Object> q) {
+        for (;;) {
+            Object o = q.poll();
+            if (o == null) {
+                break;
+            }
+            if (NotificationLite.isSubscription(o)) {
+                NotificationLite.getSubscription(o).cancel();
+            }
         }
     }
 
@@ -12,12 +12,15 @@
  */
 package io.reactivex.flowable.subscribers;
 
+import java.util.concurrent.atomic.*;
+
 import org.reactivestreams.*;
 
 import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
 import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.flowable.internal.queues.*;
 import io.reactivex.flowable.internal.subscriptions.SubscriptionHelper;
-import io.reactivex.flowable.internal.utils.*;
+import io.reactivex.flowable.internal.utils.NotificationLite;
 
 /**
  * Serializes access to the onNext, onError and onComplete methods of another Subscriber.
@@ -26,6 +29,10 @@ import io.reactivex.flowable.internal.utils.*;
  * make sure the {@code onSubscribe} is called with a non-null {@code Subscription}
  * before any of the other methods are called.
  *
+ * <p>The calling threads never block: the first caller emits directly, concurrent callers
+ * enqueue their events into a multi-producer queue which is drained by the thread currently
+ * emitting.
+ *
  * <p>The implementation assumes that the actual Subscriber's methods don't throw.
  *
  * @param <T> the value type
@@ -34,15 +41,22 @@ public final class SerializedSubscriber<T> implements RelaxedSubscriber<T>, Subs
     final Subscriber<? super T> actual;
     final boolean delayError;
 
-    static final int QUEUE_LINK_SIZE = 4;
+    /** Counts the pending emissions; the thread that increments it from zero emits. */
+    final AtomicInteger wip;
 
-    Subscription subscription;
+    /** Holds the onNext values that arrived while another thread was emitting. */
+    final SimplePlainQueue<T> queue;
 
-    boolean emitting;
-    AppendOnlyLinkedArrayList<Object> queue;
+    /** Holds the terminal NotificationLite event, set at most once. */
+    final AtomicReference<Object> terminal;
+
+    Subscription subscription;
 
     volatile boolean done;
 
+    /** Set once the terminal event has been emitted; accessed while holding the wip counter. */
+    boolean terminated;
+
     /**
      * Construct a SerializedSubscriber by wrapping the given actual Subscriber.
      * @param actual the actual Subscriber, not null (not verified)
@@ -61,6 +75,9 @@ public final class SerializedSubscriber<T> implements RelaxedSubscriber<T>, Subs
     public SerializedSubscriber(Subscriber<? super T> actual, boolean delayError) {
         this.actual = actual;
         this.delayError = delayError;
+        this.wip = new AtomicInteger();
+        this.queue = new MpscLinkedQueue<T>();
+        this.terminal = new AtomicReference<Object>();
     }
 
     @Override
@@ -81,108 +98,82 @@ public final class SerializedSubscriber<T> implements RelaxedSubscriber<T>, Subs
             onError(new NullPointerException("onNext called with null. Null values are generally not allowed in 2.x operators and sources."));
             return;
         }
-        synchronized (this) {
-            if (done) {
+        AtomicInteger w = wip;
+        if (w.get() == 0 && w.compareAndSet(0, 1)) {
+            if (!terminated) {
+                actual.onNext(t);
+            }
+            if (w.decrementAndGet() == 0) {
                 return;
             }
-            if (emitting) {
-                AppendOnlyLinkedArrayList<Object> q = queue;
-                if (q == null) {
-                    q = new AppendOnlyLinkedArrayList<Object>(QUEUE_LINK_SIZE);
-                    queue = q;
-                }
-                q.add(NotificationLite.next(t));
+        } else {
+            queue.offer(t);
+            if (w.getAndIncrement() != 0) {
                 return;
             }
-            emitting = true;
         }
-
-        actual.onNext(t);
-
-        emitLoop();
+        drainLoop();
     }
 
     @Override
     public void onError(Throwable t) {
-        if (done) {
-            RxJavaCommonPlugins.onError(t);
-            return;
-        }
-        boolean reportError;
-        synchronized (this) {
-            if (done) {
-                reportError = true;
-            } else
-            if (emitting) {
-                done = true;
-                AppendOnlyLinkedArrayList<Object> q = queue;
-                if (q == null) {
-                    q = new AppendOnlyLinkedArrayList<Object>(QUEUE_LINK_SIZE);
-                    queue = q;
-                }
-                Object err = NotificationLite.error(t);
-                if (delayError) {
-                    q.add(err);
-                } else {
-                    q.setFirst(err);
-                }
-                return;
-            } else {
-                done = true;
-                emitting = true;
-                reportError = false;
-            }
-        }
-
-        if (reportError) {
+        if (done || !terminal.compareAndSet(null, NotificationLite.error(t))) {
             RxJavaCommonPlugins.onError(t);
             return;
         }
-
-        actual.onError(t);
-        // no need to loop because this onError is the last event
+        done = true;
+        drain();
     }
 
     @Override
     public void onComplete() {
-        if (done) {
+        if (done || !terminal.compareAndSet(null, NotificationLite.complete())) {
             return;
         }
-        synchronized (this) {
-            if (done) {
-                return;
-            }
-            if (emitting) {
-                AppendOnlyLinkedArrayList<Object> q = queue;
-                if (q == null) {
-                    q = new AppendOnlyLinkedArrayList<Object>(QUEUE_LINK_SIZE);
-                    queue = q;
-                }
-                q.add(NotificationLite.complete());
-                return;
-            }
-            done = true;
-            emitting = true;
-        }
+        done = true;
+        drain();
+    }
 
-        actual.onComplete();
-        // no need to loop because this onComplete is the last event
+    void drain() {
+        if (wip.getAndIncrement() == 0) {
+            drainLoop();
+        }
     }
 
-    void emitLoop() {
+    void drainLoop() {
+        final Subscriber<? super T> a = actual;
+        final SimplePlainQueue<T> q = queue;
+        int missed = 1;
+
         for (;;) {
-            AppendOnlyLinkedArrayList<Object> q;
-            synchronized (this) {
-                q = queue;
-                if (q == null) {
-                    emitting = false;
-                    return;
+            while (!terminated) {
+                Object term = terminal.get();
+                if (term != null && !delayError && NotificationLite.isError(term)) {
+                    terminated = true;
+                    NotificationLite.accept(term, a);
+                    break;
+                }
+
+                T v = q.poll();
+
+                if (v == null) {
+                    if (term != null) {
+                        terminated = true;
+                        NotificationLite.accept(term, a);
+                    }
+                    break;
                 }
-                queue = null;
+
+                a.onNext(v);
             }
 
-            if (q.accept(actual)) {
-                return;
+            if (terminated) {
+                q.clear();
+            }
+
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
             }
         }
     }
@@ -23,6 +23,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.reactivex.common.Histogram;
 import io.reactivex.common.RxJavaCommonPlugins;
 import io.reactivex.common.internal.functions.Functions;
 import kotlin.Unit;
@@ -327,4 +328,44 @@ public final class FlowableCollectTest {
             }
         });
     }
+
+    @Test
+    public void histogram() {
+        Histogram h = Flowable.range(1, 1000)
+        .histogram(new Function1<Integer, Long>() {
+            @Override
+            public Long invoke(Integer v) {
+                return v.longValue();
+            }
+        }, 3)
+        .blockingSingle();
+
+        assertEquals(1000, h.count());
+        assertEquals(500, h.valueAtPercentile(50));
+        assertEquals(990, h.valueAtPercentile(99));
+        assertEquals(1000, h.max());
+    }
+
+    @Test
+    public void histogramNegativeValue() {
+        Flowable.just(1, -1)
+        .histogram(new Function1<Integer, Long>() {
+            @Override
+            public Long invoke(Integer v) {
+                return v.longValue();
+            }
+        }, 3)
+        .test()
+        .assertFailure(IllegalArgumentException.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void histogramDigitsOutOfRange() {
+        Flowable.just(1).histogram(new Function1<Integer, Long>() {
+            @Override
+            public Long invoke(Integer v) {
+                return v.longValue();
+            }
+        }, 0);
+    }
 }
@@ -20,6 +20,7 @@ import java.util.*;
 import org.junit.*;
 import org.reactivestreams.*;
 
+import io.reactivex.common.Schedulers;
 import io.reactivex.common.exceptions.*;
 import io.reactivex.flowable.Flowable;
 import io.reactivex.flowable.internal.operators.BlockingFlowableIterable.BlockingFlowableIterator;
@@ -185,4 +186,44 @@ public class BlockingFlowableToIteratorTest {
 
         it.next();
     }
+
+    @Test
+    public void chunks() {
+        Iterator<List<Integer>> it = Flowable.range(1, 10).blockingChunks(4).iterator();
+
+        assertTrue(it.hasNext());
+        assertEquals(Arrays.asList(1, 2, 3, 4), it.next());
+        assertEquals(Arrays.asList(5, 6, 7, 8), it.next());
+        assertEquals(Arrays.asList(9, 10), it.next());
+        assertFalse(it.hasNext());
+
+        try {
+            it.next();
+            fail("Should have thrown");
+        } catch (NoSuchElementException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void chunksAsync() {
+        List<Integer> all = new ArrayList<Integer>();
+        for (List<Integer> list : Flowable.range(1, 10000).subscribeOn(Schedulers.computation()).blockingChunks(16)) {
+            assertFalse(list.isEmpty());
+            assertTrue(list.size() <= 16);
+            all.addAll(list);
+        }
+
+        assertEquals(Flowable.range(1, 10000).toList().blockingFirst(), all);
+    }
+
+    @Test(expected = TestException.class)
+    public void chunksError() {
+        Flowable.<Integer>error(new TestException()).blockingChunks().iterator().hasNext();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void chunksInvalidBatchSize() {
+        Flowable.range(1, 10).blockingChunks(0);
+    }
 }
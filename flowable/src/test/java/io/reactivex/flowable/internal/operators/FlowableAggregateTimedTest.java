@@ -0,0 +1,268 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.*;
+
+import org.junit.Test;
+
+import io.reactivex.common.TestScheduler;
+import io.reactivex.common.exceptions.*;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.processors.PublishProcessor;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+import kotlin.jvm.functions.Function2;
+
+public class FlowableAggregateTimedTest {
+
+    static final Callable<Integer> ZERO = new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+            return 0;
+        }
+    };
+
+    static final Function2<Integer, Integer, Integer> SUM = new Function2<Integer, Integer, Integer>() {
+        @Override
+        public Integer invoke(Integer a, Integer b) {
+            return a + b;
+        }
+    };
+
+    @Test
+    public void tumbling() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp.aggregateTimed(1, TimeUnit.SECONDS, scheduler, ZERO, SUM).test();
+
+        pp.onNext(1);
+        pp.onNext(2);
+
+        ts.assertEmpty();
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        ts.assertValues(3);
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        ts.assertValues(3, 0);
+
+        pp.onNext(3);
+        pp.onNext(4);
+        pp.onComplete();
+
+        ts.assertResult(3, 0, 7);
+
+        assertFalse(pp.hasSubscribers());
+    }
+
+    @Test
+    public void sliding() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp.aggregateTimed(3, 1, TimeUnit.SECONDS, scheduler, ZERO, SUM, SUM).test();
+
+        pp.onNext(1);
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        pp.onNext(2);
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        pp.onNext(3);
+
+        ts.assertEmpty();
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        ts.assertValues(6);
+
+        pp.onNext(4);
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        ts.assertValues(6, 9);
+
+        pp.onNext(5);
+        pp.onComplete();
+
+        // the windows started at 2s, 3s and 4s
+        ts.assertResult(6, 9, 12, 9, 5);
+    }
+
+    @Test
+    public void slidingPanes() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        // panes of 2 seconds, 3 panes per window, a window every 2 panes
+        TestSubscriber<Integer> ts = pp.aggregateTimed(6, 4, TimeUnit.SECONDS, scheduler, ZERO, SUM, SUM).test();
+
+        for (int i = 1; i <= 12; i++) {
+            pp.onNext(i);
+            scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        }
+
+        // [0, 6) = 1..6, [4, 10) = 5..10
+        ts.assertValues(21, 45);
+    }
+
+    @Test
+    public void slidingWithGaps() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp.aggregateTimed(1, 2, TimeUnit.SECONDS, scheduler, ZERO, SUM, SUM).test();
+
+        for (int i = 1; i <= 4; i++) {
+            pp.onNext(i);
+            scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        }
+
+        // the items at 1s and 3s fall between the windows
+        ts.assertValues(1, 3);
+
+        pp.onComplete();
+
+        ts.assertResult(1, 3, 0);
+    }
+
+    @Test
+    public void mutableAccumulator() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<long[]> ts = pp.aggregateTimed(2, 1, TimeUnit.SECONDS, scheduler,
+                new Callable<long[]>() {
+                    @Override
+                    public long[] call() throws Exception {
+                        return new long[1];
+                    }
+                },
+                new Function2<long[], Integer, long[]>() {
+                    @Override
+                    public long[] invoke(long[] a, Integer t) {
+                        a[0] += t;
+                        return a;
+                    }
+                },
+                new Function2<long[], long[], long[]>() {
+                    @Override
+                    public long[] invoke(long[] a, long[] b) {
+                        a[0] += b[0];
+                        return a;
+                    }
+                }).test();
+
+        for (int i = 1; i <= 4; i++) {
+            pp.onNext(i);
+            scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        }
+
+        ts.assertValueCount(3);
+        assertEquals(3, ts.values().get(0)[0]);
+        assertEquals(5, ts.values().get(1)[0]);
+        assertEquals(7, ts.values().get(2)[0]);
+    }
+
+    @Test
+    public void accumulatorThrows() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp.aggregateTimed(1, TimeUnit.SECONDS, scheduler, ZERO,
+                new Function2<Integer, Integer, Integer>() {
+                    @Override
+                    public Integer invoke(Integer a, Integer b) {
+                        throw new TestException();
+                    }
+                }).test();
+
+        pp.onNext(1);
+
+        ts.assertFailure(TestException.class);
+
+        assertFalse(pp.hasSubscribers());
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        ts.assertFailure(TestException.class);
+    }
+
+    @Test
+    public void initialSupplierThrows() {
+        Flowable.just(1)
+        .aggregateTimed(1, TimeUnit.SECONDS, new TestScheduler(), new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                throw new TestException();
+            }
+        }, SUM)
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @Test
+    public void error() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp.aggregateTimed(1, TimeUnit.SECONDS, scheduler, ZERO, SUM).test();
+
+        pp.onNext(1);
+        pp.onError(new TestException());
+
+        ts.assertFailure(TestException.class);
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        ts.assertFailure(TestException.class);
+    }
+
+    @Test
+    public void missingBackpressure() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp.aggregateTimed(1, TimeUnit.SECONDS, scheduler, ZERO, SUM).test(0L);
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        ts.assertFailure(MissingBackpressureException.class);
+
+        assertFalse(pp.hasSubscribers());
+    }
+
+    @Test
+    public void cancel() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp.aggregateTimed(1, TimeUnit.SECONDS, scheduler, ZERO, SUM).test();
+
+        ts.cancel();
+
+        assertFalse(pp.hasSubscribers());
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        ts.assertEmpty();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sizeNonPositive() {
+        Flowable.just(1).aggregateTimed(0, 1, TimeUnit.SECONDS, new TestScheduler(), ZERO, SUM, SUM);
+    }
+}
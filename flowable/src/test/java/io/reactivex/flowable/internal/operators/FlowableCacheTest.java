@@ -18,15 +18,18 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.common.Schedulers;
 import io.reactivex.common.TestCommonHelper;
+import io.reactivex.common.TestScheduler;
 import io.reactivex.common.exceptions.TestException;
 import io.reactivex.flowable.Flowable;
 import io.reactivex.flowable.TestHelper;
@@ -439,4 +442,154 @@ public class FlowableCacheTest {
                 .test(0L)
                 .assertFailure(TestException.class);
     }
+
+    @Test
+    public void boundedExpires() {
+        TestScheduler scheduler = new TestScheduler();
+        final AtomicInteger subscriptions = new AtomicInteger();
+
+        Flowable<Integer> cached = Flowable.range(1, 3)
+                .doOnSubscribe(new Function1<Subscription, Unit>() {
+                    @Override
+                    public Unit invoke(Subscription s) {
+                        subscriptions.getAndIncrement();
+                        return Unit.INSTANCE;
+                    }
+                })
+                .cache(10, 1, TimeUnit.SECONDS, scheduler);
+
+        cached.test().assertResult(1, 2, 3);
+
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+
+        cached.test().assertResult(1, 2, 3);
+
+        assertEquals(1, subscriptions.get());
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+
+        cached.test().assertResult(1, 2, 3);
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void boundedTruncated() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+        final AtomicInteger cancellations = new AtomicInteger();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        Flowable<Integer> cached = pp
+                .doOnSubscribe(new Function1<Subscription, Unit>() {
+                    @Override
+                    public Unit invoke(Subscription s) {
+                        subscriptions.getAndIncrement();
+                        return Unit.INSTANCE;
+                    }
+                })
+                .doOnCancel(new Function0() {
+                    @Override
+                    public Object invoke() {
+                        cancellations.getAndIncrement();
+                        return Unit.INSTANCE;
+                    }
+                })
+                .cache(2, 1, TimeUnit.SECONDS, Schedulers.trampoline());
+
+        TestSubscriber<Integer> ts1 = cached.test();
+
+        pp.onNext(1);
+        pp.onNext(2);
+
+        TestSubscriber<Integer> ts0 = cached.test();
+
+        ts0.assertValues(1, 2);
+
+        assertEquals(1, subscriptions.get());
+
+        pp.onNext(3);
+
+        TestSubscriber<Integer> ts2 = cached.test();
+
+        assertEquals(2, subscriptions.get());
+
+        pp.onNext(4);
+
+        ts1.assertValues(1, 2, 3, 4);
+        ts2.assertValues(4);
+
+        ts1.cancel();
+
+        assertEquals(0, cancellations.get());
+
+        ts0.cancel();
+
+        assertEquals(1, cancellations.get());
+
+        pp.onNext(5);
+        pp.onComplete();
+
+        ts2.assertResult(4, 5);
+    }
+
+    @Test
+    public void boundedBackpressure() {
+        TestSubscriber<Integer> ts = Flowable.range(1, 5)
+                .cache(10, 1, TimeUnit.SECONDS, Schedulers.trampoline())
+                .test(0L);
+
+        ts.assertEmpty();
+
+        ts.request(2);
+
+        ts.assertValues(1, 2).assertNotComplete();
+
+        ts.request(3);
+
+        ts.assertResult(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void boundedErrorNotCached() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+
+        Flowable<Integer> cached = Flowable.defer(new Callable<Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> call() throws Exception {
+                if (subscriptions.getAndIncrement() == 0) {
+                    return Flowable.error(new TestException());
+                }
+                return Flowable.just(1);
+            }
+        })
+        .cache(10, 1, TimeUnit.SECONDS, Schedulers.trampoline());
+
+        cached.test().assertFailure(TestException.class);
+
+        cached.test().assertResult(1);
+
+        cached.test().assertResult(1);
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void boundedInvalidMaxItems() {
+        try {
+            Flowable.just(1).cache(0, 1, TimeUnit.SECONDS, Schedulers.trampoline());
+            fail("Should have thrown");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("maxItems > 0 required but it was 0", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void boundedInvalidTime() {
+        try {
+            Flowable.just(1).cache(10, -1, TimeUnit.SECONDS, Schedulers.trampoline());
+            fail("Should have thrown");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("time > 0 required but it was -1", ex.getMessage());
+        }
+    }
 }
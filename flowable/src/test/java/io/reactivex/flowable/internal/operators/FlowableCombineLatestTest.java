@@ -21,6 +21,8 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import hu.akarnokd.reactivestreams.extensions.FusedQueueSubscription;
+
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -53,6 +55,7 @@ import io.reactivex.flowable.TestHelper;
 import io.reactivex.flowable.internal.operators.FlowableZipTest.ArgsToString;
 import io.reactivex.flowable.processors.PublishProcessor;
 import io.reactivex.flowable.subscribers.DefaultSubscriber;
+import io.reactivex.flowable.subscribers.SubscriberFusion;
 import io.reactivex.flowable.subscribers.TestSubscriber;
 import kotlin.Unit;
 import kotlin.jvm.functions.Function0;
@@ -1595,4 +1598,89 @@ public class FlowableCombineLatestTest {
         pp2.onNext(2);
         ts.assertResult(3);
     }
+
+    @Test
+    public void combineLatest2QueuedWithReusedRow() {
+        PublishProcessor<Integer> pp1 = PublishProcessor.create();
+        PublishProcessor<Integer> pp2 = PublishProcessor.create();
+
+        TestSubscriber<String> ts = Flowable.combineLatest(pp1, pp2, new Function2<Integer, Integer, String>() {
+            @Override
+            public String invoke(Integer a, Integer b) {
+                return a + "-" + b;
+            }
+        })
+        .test(0L);
+
+        pp1.onNext(1);
+        pp1.onNext(2);
+        pp2.onNext(10);
+        pp1.onNext(3);
+        pp2.onNext(20);
+        pp2.onNext(30);
+
+        ts.assertEmpty();
+
+        ts.request(2);
+
+        ts.assertValues("2-10", "3-10");
+
+        pp1.onComplete();
+        pp2.onComplete();
+
+        ts.request(2);
+
+        ts.assertResult("2-10", "3-10", "3-20", "3-30");
+    }
+
+    @Test
+    public void combineLatest2FusedWithReusedRow() {
+        PublishProcessor<Integer> pp1 = PublishProcessor.create();
+        PublishProcessor<Integer> pp2 = PublishProcessor.create();
+
+        TestSubscriber<String> ts = SubscriberFusion.newTest(FusedQueueSubscription.ANY);
+
+        Flowable.combineLatest(pp1, pp2, new Function2<Integer, Integer, String>() {
+            @Override
+            public String invoke(Integer a, Integer b) {
+                return a + "-" + b;
+            }
+        })
+        .subscribe(ts);
+
+        ts.assertOf(SubscriberFusion.<String>assertFusionMode(FusedQueueSubscription.ASYNC));
+
+        pp1.onNext(1);
+        pp2.onNext(10);
+        pp2.onNext(20);
+        pp1.onNext(2);
+        pp1.onComplete();
+        pp2.onComplete();
+
+        ts.assertResult("1-10", "1-20", "2-20");
+    }
+
+    @Test
+    public void combineLatestArrayFunctionGetsCopies() {
+        PublishProcessor<Integer> pp1 = PublishProcessor.create();
+        PublishProcessor<Integer> pp2 = PublishProcessor.create();
+
+        @SuppressWarnings("unchecked")
+        TestSubscriber<Object[]> ts = Flowable.combineLatest(new Function1<Object[], Object[]>() {
+            @Override
+            public Object[] invoke(Object[] a) {
+                return a;
+            }
+        }, pp1, pp2)
+        .test(0L);
+
+        pp1.onNext(1);
+        pp2.onNext(10);
+        pp1.onNext(2);
+
+        ts.request(2);
+
+        assertEquals(Arrays.asList(1, 10), Arrays.asList(ts.values().get(0)));
+        assertEquals(Arrays.asList(2, 10), Arrays.asList(ts.values().get(1)));
+    }
 }
@@ -20,6 +20,10 @@ import org.reactivestreams.Subscription;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import hu.akarnokd.reactivestreams.extensions.RelaxedSubscriber;
 import io.reactivex.common.Disposable;
@@ -893,4 +897,119 @@ public class FlowableCreateTest {
         }
     }
 
+    @Test
+    public void multiProducerBuffer() throws Exception {
+        final int n = 4;
+        final int count = 10000;
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicBoolean overlap = new AtomicBoolean();
+
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>() {
+            @Override
+            public void onNext(Integer t) {
+                if (concurrent.getAndIncrement() != 0) {
+                    overlap.set(true);
+                }
+                super.onNext(t);
+                concurrent.decrementAndGet();
+            }
+        };
+
+        Flowable.create(new FlowableOnSubscribe<Integer>() {
+            @Override
+            public void subscribe(final FlowableEmitter<Integer> e) throws Exception {
+                assertSame(e, e.serialize());
+
+                final CountDownLatch start = new CountDownLatch(1);
+                final CountDownLatch finish = new CountDownLatch(n);
+                for (int t = 0; t < n; t++) {
+                    new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                start.await();
+                            } catch (InterruptedException ex) {
+                                return;
+                            }
+                            for (int i = 0; i < count; i++) {
+                                e.onNext(i);
+                            }
+                            finish.countDown();
+                        }
+                    }).start();
+                }
+                start.countDown();
+                finish.await();
+                e.onComplete();
+            }
+        }, BackpressureStrategy.BUFFER, true)
+        .subscribeOn(Schedulers.single())
+        .subscribe(ts);
+
+        ts.awaitDone(5, TimeUnit.SECONDS)
+        .assertValueCount(n * count)
+        .assertNoErrors()
+        .assertComplete();
+
+        assertFalse(overlap.get());
+    }
+
+    @Test
+    public void multiProducerBufferBackpressure() {
+        TestSubscriber<Integer> ts = Flowable.create(new FlowableOnSubscribe<Integer>() {
+            @Override
+            public void subscribe(FlowableEmitter<Integer> e) throws Exception {
+                for (int i = 1; i <= 100; i++) {
+                    e.onNext(i);
+                }
+                e.onComplete();
+            }
+        }, BackpressureStrategy.BUFFER, true)
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.request(10);
+
+        ts.assertValueCount(10).assertNotComplete();
+        assertEquals(10, ts.values().get(9).intValue());
+
+        ts.request(90);
+
+        ts.assertValueCount(100)
+        .assertNoErrors()
+        .assertComplete();
+    }
+
+    @Test
+    public void multiProducerBufferError() {
+        Flowable.create(new FlowableOnSubscribe<Integer>() {
+            @Override
+            public void subscribe(FlowableEmitter<Integer> e) throws Exception {
+                e.onNext(1);
+                e.onError(new TestException());
+            }
+        }, BackpressureStrategy.BUFFER, true)
+        .test()
+        .assertFailure(TestException.class, 1);
+    }
+
+    @Test
+    public void multiProducerOtherModesSerialized() {
+        for (BackpressureStrategy m : BackpressureStrategy.values()) {
+            if (m == BackpressureStrategy.BUFFER) {
+                continue;
+            }
+            Flowable.create(new FlowableOnSubscribe<Integer>() {
+                @Override
+                public void subscribe(FlowableEmitter<Integer> e) throws Exception {
+                    assertTrue(e.getClass().toString(), e instanceof FlowableCreate.SerializedEmitter);
+                    e.onNext(1);
+                    e.onComplete();
+                }
+            }, m, true)
+            .test()
+            .assertResult(1);
+        }
+    }
 }
@@ -22,7 +22,6 @@ import org.reactivestreams.Subscriber;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-import io.reactivex.common.Disposable;
 import io.reactivex.common.RxJavaCommonPlugins;
 import io.reactivex.common.Scheduler;
 import io.reactivex.common.TestCommonHelper;
@@ -336,12 +335,44 @@ public class FlowableDebounceTest {
 
         TestHelper.checkDisposed(PublishProcessor.create().debounce(Functions.justFunction(Flowable.never())));
 
-        Disposable d = new FlowableDebounceTimed.DebounceEmitter<Integer>(1, 1, null);
-        assertFalse(d.isDisposed());
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+        TestSubscriber<Integer> ts = pp.debounce(1, TimeUnit.SECONDS, scheduler).test();
+
+        pp.onNext(1);
+
+        assertTrue(pp.hasSubscribers());
+
+        ts.cancel();
+
+        assertFalse(pp.hasSubscribers());
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        ts.assertEmpty();
+    }
+
+    @Test
+    public void timerRearmsForLatestItem() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+        TestSubscriber<Integer> ts = pp.debounce(1, TimeUnit.SECONDS, scheduler).test();
+
+        for (int i = 0; i < 10; i++) {
+            pp.onNext(i);
+            scheduler.advanceTimeBy(900, TimeUnit.MILLISECONDS);
+        }
+
+        ts.assertEmpty();
+
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+
+        ts.assertValue(9).assertNoErrors().assertNotComplete();
 
-        d.dispose();
+        pp.onNext(10);
+        pp.onComplete();
 
-        assertTrue(d.isDisposed());
+        ts.assertResult(9, 10);
     }
 
     @Test
@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.common.TestScheduler;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.common.exceptions.MissingBackpressureException;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.processors.PublishProcessor;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+import kotlin.jvm.functions.Function1;
+import kotlin.jvm.functions.Function2;
+
+public class FlowableEquiJoinTest {
+
+    static final Function1<String, Character> KEY = new Function1<String, Character>() {
+        @Override
+        public Character invoke(String s) {
+            return s.charAt(0);
+        }
+    };
+
+    static final Function2<String, String, String> PAIR = new Function2<String, String, String>() {
+        @Override
+        public String invoke(String a, String b) {
+            return a + "+" + b;
+        }
+    };
+
+    final TestScheduler scheduler = new TestScheduler();
+
+    @Test
+    public void matchByKey() {
+        PublishProcessor<String> left = PublishProcessor.create();
+        PublishProcessor<String> right = PublishProcessor.create();
+
+        TestSubscriber<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test();
+
+        left.onNext("a1");
+        left.onNext("b1");
+        right.onNext("a2");
+        right.onNext("c1");
+        left.onNext("a3");
+        right.onNext("a4");
+
+        t.assertValues("a1+a2", "a3+a2", "a1+a4", "a3+a4");
+
+        left.onComplete();
+
+        t.assertNotComplete();
+
+        right.onComplete();
+
+        t.assertComplete();
+    }
+
+    @Test
+    public void expireByTime() {
+        PublishProcessor<String> left = PublishProcessor.create();
+        PublishProcessor<String> right = PublishProcessor.create();
+
+        TestSubscriber<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test();
+
+        left.onNext("a1");
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        left.onNext("a2");
+        right.onNext("a3");
+
+        t.assertValues("a1+a3", "a2+a3");
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        right.onNext("a4");
+
+        t.assertValues("a1+a3", "a2+a3", "a2+a4");
+
+        scheduler.advanceTimeBy(10, TimeUnit.SECONDS);
+
+        right.onNext("a5");
+        left.onNext("a6");
+
+        t.assertValues("a1+a3", "a2+a3", "a2+a4", "a6+a5");
+    }
+
+    @Test
+    public void expireByCount() {
+        PublishProcessor<String> left = PublishProcessor.create();
+        PublishProcessor<String> right = PublishProcessor.create();
+
+        TestSubscriber<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 2, PAIR)
+        .test();
+
+        left.onNext("a1");
+        left.onNext("b1");
+        left.onNext("a2");
+        right.onNext("a3");
+
+        t.assertValues("a2+a3");
+    }
+
+    @Test
+    public void leftError() {
+        PublishProcessor<String> left = PublishProcessor.create();
+        PublishProcessor<String> right = PublishProcessor.create();
+
+        TestSubscriber<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test();
+
+        left.onError(new TestException());
+
+        t.assertFailure(TestException.class);
+
+        assertFalse(right.hasSubscribers());
+    }
+
+    @Test
+    public void keySelectorCrash() {
+        PublishProcessor<String> left = PublishProcessor.create();
+        PublishProcessor<String> right = PublishProcessor.create();
+
+        TestSubscriber<String> t = left.equiJoin(right, new Function1<String, Character>() {
+            @Override
+            public Character invoke(String s) {
+                throw new TestException();
+            }
+        }, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test();
+
+        left.onNext("a1");
+
+        t.assertFailure(TestException.class);
+
+        assertFalse(left.hasSubscribers());
+        assertFalse(right.hasSubscribers());
+    }
+
+    @Test
+    public void resultSelectorCrash() {
+        PublishProcessor<String> left = PublishProcessor.create();
+        PublishProcessor<String> right = PublishProcessor.create();
+
+        TestSubscriber<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, new Function2<String, String, String>() {
+            @Override
+            public String invoke(String a, String b) {
+                throw new TestException();
+            }
+        })
+        .test();
+
+        left.onNext("a1");
+        right.onNext("b1");
+
+        t.assertEmpty();
+
+        right.onNext("a2");
+
+        t.assertFailure(TestException.class);
+    }
+
+    @Test
+    public void missingBackpressure() {
+        PublishProcessor<String> left = PublishProcessor.create();
+        PublishProcessor<String> right = PublishProcessor.create();
+
+        TestSubscriber<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test(1L);
+
+        left.onNext("a1");
+        left.onNext("a2");
+        right.onNext("a3");
+
+        t.assertFailure(MissingBackpressureException.class, "a1+a3");
+    }
+
+    @Test
+    public void dispose() {
+        PublishProcessor<String> left = PublishProcessor.create();
+        PublishProcessor<String> right = PublishProcessor.create();
+
+        TestSubscriber<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test();
+
+        assertTrue(left.hasSubscribers());
+        assertTrue(right.hasSubscribers());
+
+        t.cancel();
+
+        assertFalse(left.hasSubscribers());
+        assertFalse(right.hasSubscribers());
+    }
+
+    @Test
+    public void manyKeys() {
+        TestSubscriber<String> t = Flowable.range(0, 1000).map(new Function1<Integer, String>() {
+            @Override
+            public String invoke(Integer v) {
+                return (char)('a' + v % 26) + "l" + v;
+            }
+        })
+        .equiJoin(Flowable.just("zr", "ar"), KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 1000, PAIR)
+        .test()
+        .assertComplete();
+
+        List<String> list = t.values();
+        assertEquals(38 + 39, list.size());
+        assertEquals("zl25+zr", list.get(0));
+        assertEquals("al0+ar", list.get(38));
+    }
+}
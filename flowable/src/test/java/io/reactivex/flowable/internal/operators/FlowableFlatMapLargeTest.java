@@ -0,0 +1,325 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.reactivestreams.*;
+
+import io.reactivex.common.Schedulers;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.processors.PublishProcessor;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+import kotlin.Unit;
+import kotlin.jvm.functions.Function1;
+
+public class FlowableFlatMapLargeTest {
+
+    static final int LARGE = FlowableFlatMap.LARGE_CONCURRENCY;
+
+    @Test
+    public void manyInners() {
+        Flowable.range(0, 5000)
+        .flatMap(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return Flowable.just(v).hide();
+            }
+        }, LARGE * 8)
+        .test()
+        .assertValueCount(5000)
+        .assertNoErrors()
+        .assertComplete();
+    }
+
+    @Test
+    public void backpressured() {
+        TestSubscriber<Integer> ts = Flowable.range(0, 3000)
+        .flatMap(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return Flowable.range(v * 2, 2).hide();
+            }
+        }, LARGE * 4)
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.request(10);
+
+        ts.assertValueCount(10).assertNotComplete();
+
+        ts.request(Long.MAX_VALUE);
+
+        ts.assertValueCount(6000)
+        .assertNoErrors()
+        .assertComplete();
+
+        Set<Integer> set = new HashSet<Integer>(ts.values());
+        assertEquals(6000, set.size());
+    }
+
+    @Test
+    public void innerOrderKept() {
+        List<PublishProcessor<Integer>> list = new ArrayList<PublishProcessor<Integer>>();
+        for (int i = 0; i < LARGE * 2; i++) {
+            list.add(PublishProcessor.<Integer>create());
+        }
+
+        TestSubscriber<Integer> ts = Flowable.fromIterable(list)
+        .flatMap(new Function1<PublishProcessor<Integer>, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(PublishProcessor<Integer> v) {
+                return v;
+            }
+        }, LARGE * 2)
+        .test(0L);
+
+        list.get(100).onNext(1);
+        list.get(100).onNext(2);
+        list.get(1500).onNext(3);
+        list.get(100).onNext(4);
+
+        ts.request(1);
+        ts.assertValues(1);
+
+        ts.request(3);
+        ts.assertValues(1, 2, 4, 3);
+
+        for (PublishProcessor<Integer> pp : list) {
+            pp.onComplete();
+        }
+
+        ts.assertResult(1, 2, 4, 3);
+    }
+
+    @Test
+    public void completesOnlyAfterAllInners() {
+        List<PublishProcessor<Integer>> list = new ArrayList<PublishProcessor<Integer>>();
+        for (int i = 0; i < LARGE * 2; i++) {
+            list.add(PublishProcessor.<Integer>create());
+        }
+
+        TestSubscriber<Integer> ts = Flowable.fromIterable(list)
+        .flatMap(new Function1<PublishProcessor<Integer>, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(PublishProcessor<Integer> v) {
+                return v;
+            }
+        }, LARGE * 2)
+        .test();
+
+        for (int i = list.size() - 1; i > 0; i--) {
+            list.get(i).onNext(i);
+            list.get(i).onComplete();
+        }
+
+        ts.assertValueCount(list.size() - 1).assertNotComplete();
+
+        list.get(0).onComplete();
+
+        ts.assertValueCount(list.size() - 1)
+        .assertNoErrors()
+        .assertComplete();
+    }
+
+    @Test
+    public void maxConcurrencyRespected() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+        final List<PublishProcessor<Integer>> list = new ArrayList<PublishProcessor<Integer>>();
+
+        TestSubscriber<Integer> ts = Flowable.range(0, LARGE * 2)
+        .flatMap(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                subscriptions.getAndIncrement();
+                PublishProcessor<Integer> pp = PublishProcessor.create();
+                list.add(pp);
+                return pp;
+            }
+        }, LARGE)
+        .test();
+
+        assertEquals(LARGE, subscriptions.get());
+
+        for (int i = 0; i < 10; i++) {
+            list.get(i).onComplete();
+        }
+
+        assertEquals(LARGE + 10, subscriptions.get());
+
+        for (int i = 10; i < list.size(); i++) {
+            list.get(i).onComplete();
+        }
+
+        ts.assertResult();
+        assertEquals(LARGE * 2, subscriptions.get());
+    }
+
+    @Test
+    public void cancelDisposesInners() {
+        List<PublishProcessor<Integer>> list = new ArrayList<PublishProcessor<Integer>>();
+        for (int i = 0; i < LARGE * 2; i++) {
+            list.add(PublishProcessor.<Integer>create());
+        }
+
+        TestSubscriber<Integer> ts = Flowable.fromIterable(list)
+        .flatMap(new Function1<PublishProcessor<Integer>, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(PublishProcessor<Integer> v) {
+                return v;
+            }
+        }, LARGE * 2)
+        .test();
+
+        for (PublishProcessor<Integer> pp : list) {
+            assertTrue(pp.hasSubscribers());
+        }
+
+        ts.cancel();
+
+        for (PublishProcessor<Integer> pp : list) {
+            assertFalse(pp.hasSubscribers());
+        }
+    }
+
+    @Test
+    public void innerError() {
+        PublishProcessor<Integer> pp1 = PublishProcessor.create();
+        PublishProcessor<Integer> pp2 = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = Flowable.just(pp1, pp2)
+        .flatMap(new Function1<PublishProcessor<Integer>, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(PublishProcessor<Integer> v) {
+                return v;
+            }
+        }, LARGE)
+        .test();
+
+        pp1.onNext(1);
+        pp2.onError(new TestException());
+
+        ts.assertFailure(TestException.class, 1);
+
+        assertFalse(pp1.hasSubscribers());
+    }
+
+    @Test
+    public void innerErrorDelayed() {
+        PublishProcessor<Integer> pp1 = PublishProcessor.create();
+        PublishProcessor<Integer> pp2 = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = Flowable.just(pp1, pp2)
+        .flatMap(new Function1<PublishProcessor<Integer>, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(PublishProcessor<Integer> v) {
+                return v;
+            }
+        }, true, LARGE)
+        .test();
+
+        pp2.onError(new TestException());
+        pp1.onNext(1);
+
+        ts.assertValues(1).assertNotTerminated();
+
+        pp1.onComplete();
+
+        ts.assertFailure(TestException.class, 1);
+    }
+
+    @Test
+    public void scalarsAndInnersMixed() {
+        Flowable.range(0, 2000)
+        .flatMap(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                if (v % 2 == 0) {
+                    return Flowable.just(v);
+                }
+                return Flowable.just(v).hide();
+            }
+        }, LARGE * 2)
+        .rebatchRequests(7)
+        .test()
+        .assertValueCount(2000)
+        .assertNoErrors()
+        .assertComplete();
+    }
+
+    @Test
+    public void async() {
+        for (int i = 0; i < 10; i++) {
+            TestSubscriber<Integer> ts = Flowable.range(0, 2000)
+            .flatMap(new Function1<Integer, Publisher<Integer>>() {
+                @Override
+                public Publisher<Integer> invoke(Integer v) {
+                    return Flowable.range(v * 3, 3).subscribeOn(Schedulers.computation());
+                }
+            }, LARGE * 2)
+            .observeOn(Schedulers.single(), false, 16)
+            .test();
+
+            ts.awaitDone(10, TimeUnit.SECONDS)
+            .assertValueCount(6000)
+            .assertNoErrors()
+            .assertComplete();
+        }
+    }
+
+    @Test
+    public void subscribeOnce() {
+        final AtomicInteger subscribed = new AtomicInteger();
+
+        Flowable.range(0, LARGE * 2)
+        .flatMap(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return Flowable.just(v).hide().doOnSubscribe(new Function1<Subscription, Unit>() {
+                    @Override
+                    public Unit invoke(Subscription s) {
+                        subscribed.getAndIncrement();
+                        return Unit.INSTANCE;
+                    }
+                });
+            }
+        }, LARGE * 2)
+        .test()
+        .assertValueCount(LARGE * 2)
+        .assertComplete();
+
+        assertEquals(LARGE * 2, subscribed.get());
+    }
+
+    @Test
+    public void unboundedKeepsArray() {
+        Function1<Integer, Publisher<Integer>> mapper = new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return Flowable.just(v);
+            }
+        };
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+
+        assertTrue(FlowableFlatMap.subscribe(ts, mapper, false, Integer.MAX_VALUE, 16) instanceof FlowableFlatMap.MergeSubscriber);
+        assertTrue(FlowableFlatMap.subscribe(ts, mapper, false, LARGE, 16) instanceof FlowableFlatMapLarge.MergeSubscriber);
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.common.Schedulers;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.processors.PublishProcessor;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+import kotlin.jvm.functions.Function1;
+
+public class FlowableFlatMapPriorityTest {
+
+    static final Function1<Integer, Integer> IDENTITY = new Function1<Integer, Integer>() {
+        @Override
+        public Integer invoke(Integer v) {
+            return v;
+        }
+    };
+
+    static Function1<Integer, Publisher<Integer>> inners(final Map<Integer, ? extends Publisher<Integer>> map) {
+        return new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return map.get(v);
+            }
+        };
+    }
+
+    @Test
+    public void normal() {
+        Flowable.range(1, 5)
+        .flatMapPriority(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return Flowable.range(v * 10, 2);
+            }
+        }, IDENTITY)
+        .test()
+        .assertResult(10, 11, 20, 21, 30, 31, 40, 41, 50, 51);
+    }
+
+    @Test
+    public void higherPriorityFirst() {
+        PublishProcessor<Integer> low = PublishProcessor.create();
+        PublishProcessor<Integer> high = PublishProcessor.create();
+        Map<Integer, PublishProcessor<Integer>> map = new HashMap<Integer, PublishProcessor<Integer>>();
+        map.put(1, low);
+        map.put(10, high);
+
+        TestSubscriber<Integer> ts = Flowable.just(1, 10)
+        .flatMapPriority(inners(map), IDENTITY)
+        .test(0L);
+
+        low.onNext(1);
+        low.onNext(2);
+        high.onNext(100);
+
+        ts.request(1);
+
+        ts.assertValues(100);
+
+        high.onNext(101);
+        low.onNext(3);
+
+        ts.request(2);
+
+        ts.assertValues(100, 101, 1);
+
+        high.onComplete();
+
+        ts.request(2);
+
+        ts.assertValues(100, 101, 1, 2, 3);
+
+        low.onComplete();
+
+        ts.assertResult(100, 101, 1, 2, 3);
+    }
+
+    @Test
+    public void scalarsInPriorityOrder() {
+        TestSubscriber<Integer> ts = Flowable.range(1, 5)
+        .flatMapPriority(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return Flowable.just(v);
+            }
+        }, IDENTITY)
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.request(2);
+
+        ts.assertValues(5, 4);
+
+        ts.request(3);
+
+        ts.assertResult(5, 4, 3, 2, 1);
+    }
+
+    @Test
+    public void scalarsAndInners() {
+        PublishProcessor<Integer> mid = PublishProcessor.create();
+        Map<Integer, Publisher<Integer>> map = new HashMap<Integer, Publisher<Integer>>();
+        map.put(0, Flowable.just(0));
+        map.put(5, mid);
+        map.put(10, Flowable.just(10));
+
+        TestSubscriber<Integer> ts = Flowable.just(0, 5, 10)
+        .flatMapPriority(inners(map), IDENTITY)
+        .test(0L);
+
+        mid.onNext(5);
+        mid.onNext(6);
+        mid.onComplete();
+
+        ts.request(4);
+
+        ts.assertResult(10, 5, 6, 0);
+    }
+
+    @Test
+    public void async() {
+        for (int i = 0; i < 20; i++) {
+            Flowable.range(1, 100)
+            .flatMapPriority(new Function1<Integer, Publisher<Integer>>() {
+                @Override
+                public Publisher<Integer> invoke(Integer v) {
+                    return Flowable.range(v * 1000, 100).subscribeOn(Schedulers.computation());
+                }
+            }, new Function1<Integer, Integer>() {
+                @Override
+                public Integer invoke(Integer v) {
+                    return v % 3;
+                }
+            }, false, 8, 16)
+            .test()
+            .awaitDone(5, TimeUnit.SECONDS)
+            .assertValueCount(10000)
+            .assertNoErrors()
+            .assertComplete();
+        }
+    }
+
+    @Test
+    public void innerError() {
+        Flowable.just(1, 2)
+        .flatMapPriority(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return v == 1 ? Flowable.<Integer>error(new TestException()) : Flowable.just(v).hide();
+            }
+        }, IDENTITY)
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @Test
+    public void innerErrorDelayed() {
+        Flowable.just(1, 2)
+        .flatMapPriority(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return v == 1 ? Flowable.<Integer>error(new TestException()) : Flowable.just(v).hide();
+            }
+        }, IDENTITY, true, Integer.MAX_VALUE, 16)
+        .test()
+        .assertFailure(TestException.class, 2);
+    }
+
+    @Test
+    public void priorityCrash() {
+        Flowable.just(1)
+        .hide()
+        .flatMapPriority(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return Flowable.just(v);
+            }
+        }, new Function1<Integer, Integer>() {
+            @Override
+            public Integer invoke(Integer v) {
+                throw new TestException();
+            }
+        })
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @Test
+    public void cancel() {
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+        PublishProcessor<Integer> inner = PublishProcessor.create();
+        Map<Integer, Publisher<Integer>> map = new HashMap<Integer, Publisher<Integer>>();
+        map.put(1, inner);
+
+        TestSubscriber<Integer> ts = pp.flatMapPriority(inners(map), IDENTITY).test();
+
+        pp.onNext(1);
+
+        assertTrue(inner.hasSubscribers());
+
+        ts.cancel();
+
+        assertFalse(pp.hasSubscribers());
+        assertFalse(inner.hasSubscribers());
+    }
+
+    @Test
+    public void orderedPriorities() {
+        final List<Integer> order = new ArrayList<Integer>();
+        for (int p : new int[] { 3, 1, 2, 3, 1 }) {
+            order.add(p);
+        }
+        TestSubscriber<Integer> ts = Flowable.fromIterable(order)
+        .flatMapPriority(new Function1<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> invoke(Integer v) {
+                return Flowable.just(v).hide();
+            }
+        }, IDENTITY)
+        .test(0L);
+
+        ts.request(5);
+
+        ts.assertResult(3, 3, 2, 1, 1);
+    }
+}
@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.*;
+
+import org.junit.Test;
+
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.processors.PublishProcessor;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+
+public class FlowableFrameTest {
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    static Flowable<ByteBuffer> chunks(String... parts) {
+        List<ByteBuffer> list = new ArrayList<ByteBuffer>();
+        for (String s : parts) {
+            list.add(ByteBuffer.wrap(s.getBytes(UTF8)));
+        }
+        return Flowable.fromIterable(list);
+    }
+
+    static List<String> strings(TestSubscriber<ByteBuffer> ts) {
+        List<String> list = new ArrayList<String>();
+        for (ByteBuffer b : ts.values()) {
+            byte[] a = new byte[b.remaining()];
+            b.duplicate().get(a);
+            list.add(new String(a, UTF8));
+        }
+        return list;
+    }
+
+    static ByteBuffer lengthPrefixed(int fieldSize, String... frames) {
+        ByteBuffer b = ByteBuffer.allocate(1024);
+        for (String s : frames) {
+            byte[] a = s.getBytes(UTF8);
+            for (int i = fieldSize - 1; i >= 0; i--) {
+                b.put((byte)(a.length >> (i * 8)));
+            }
+            b.put(a);
+        }
+        b.flip();
+        return b;
+    }
+
+    static Flowable<ByteBuffer> split(ByteBuffer b, int size) {
+        List<ByteBuffer> list = new ArrayList<ByteBuffer>();
+        while (b.hasRemaining()) {
+            int n = Math.min(size, b.remaining());
+            ByteBuffer c = b.slice();
+            c.limit(n);
+            list.add(c);
+            b.position(b.position() + n);
+        }
+        return Flowable.fromIterable(list);
+    }
+
+    @Test
+    public void lines() {
+        TestSubscriber<ByteBuffer> ts = chunks("abc\ndef\n", "ghi\n")
+        .frameLines(100)
+        .test()
+        .assertValueCount(3)
+        .assertNoErrors()
+        .assertComplete();
+
+        assertEquals(Arrays.asList("abc", "def", "ghi"), strings(ts));
+    }
+
+    @Test
+    public void linesSliceOriginal() {
+        ByteBuffer chunk = ByteBuffer.wrap("abc\ndef\n".getBytes(UTF8));
+
+        TestSubscriber<ByteBuffer> ts = Flowable.just(chunk)
+        .frameLines(100)
+        .test();
+
+        assertSame(chunk.array(), ts.values().get(1).array());
+        assertEquals(0, chunk.position());
+    }
+
+    @Test
+    public void linesAcrossChunks() {
+        TestSubscriber<ByteBuffer> ts = chunks("ab", "c\nde", "", "f", "\ngh")
+        .frameLines(100)
+        .test()
+        .assertNoErrors()
+        .assertComplete();
+
+        assertEquals(Arrays.asList("abc", "def", "gh"), strings(ts));
+    }
+
+    @Test
+    public void emptyLines() {
+        TestSubscriber<ByteBuffer> ts = chunks("\n\na\n", "\n")
+        .frameLines(100)
+        .test()
+        .assertComplete();
+
+        assertEquals(Arrays.asList("", "", "a", ""), strings(ts));
+    }
+
+    @Test
+    public void multiByteDelimiterAcrossChunks() {
+        TestSubscriber<ByteBuffer> ts = chunks("a\r", "\nb\r\r", "\nc\r")
+        .frameDelimited("\r\n".getBytes(UTF8), 100)
+        .test()
+        .assertComplete();
+
+        assertEquals(Arrays.asList("a", "b\r", "c\r"), strings(ts));
+    }
+
+    @Test
+    public void selfOverlappingDelimiter() {
+        TestSubscriber<ByteBuffer> ts = chunks("xaab", "yaaa", "abz")
+        .frameDelimited("aab".getBytes(UTF8), 100)
+        .test()
+        .assertComplete();
+
+        assertEquals(Arrays.asList("x", "yaa", "z"), strings(ts));
+    }
+
+    @Test
+    public void delimiterSplitEveryByte() {
+        String text = "alpha--beta---gamma--";
+        List<String> parts = new ArrayList<String>();
+        for (char c : text.toCharArray()) {
+            parts.add(String.valueOf(c));
+        }
+
+        TestSubscriber<ByteBuffer> ts = chunks(parts.toArray(new String[0]))
+        .frameDelimited("--".getBytes(UTF8), 100)
+        .test()
+        .assertComplete();
+
+        assertEquals(Arrays.asList("alpha", "beta", "-gamma"), strings(ts));
+    }
+
+    @Test
+    public void backpressure() {
+        TestSubscriber<ByteBuffer> ts = chunks("a\nb\nc\n", "d\n")
+        .frameLines(100)
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.request(2);
+
+        assertEquals(Arrays.asList("a", "b"), strings(ts));
+        ts.assertNotComplete();
+
+        ts.request(2);
+
+        assertEquals(Arrays.asList("a", "b", "c", "d"), strings(ts));
+        ts.assertComplete();
+    }
+
+    @Test
+    public void lastPartialLineNeedsRequest() {
+        TestSubscriber<ByteBuffer> ts = chunks("a\nb")
+        .frameLines(100)
+        .test(1L);
+
+        assertEquals(Arrays.asList("a"), strings(ts));
+        ts.assertNotComplete();
+
+        ts.request(1);
+
+        assertEquals(Arrays.asList("a", "b"), strings(ts));
+        ts.assertComplete();
+    }
+
+    @Test
+    public void lineTooLong() {
+        chunks("abcd\n")
+        .frameLines(3)
+        .test()
+        .assertFailure(IllegalStateException.class);
+    }
+
+    @Test
+    public void lineTooLongAcrossChunks() {
+        chunks("ab", "cd", "ef")
+        .frameLines(3)
+        .test()
+        .assertFailure(IllegalStateException.class);
+    }
+
+    @Test
+    public void upstreamError() {
+        chunks("a\nb")
+        .concatWith(Flowable.<ByteBuffer>error(new TestException()))
+        .frameLines(100)
+        .test()
+        .assertFailure(TestException.class, ByteBuffer.wrap("a".getBytes(UTF8)));
+    }
+
+    @Test
+    public void async() {
+        PublishProcessor<ByteBuffer> pp = PublishProcessor.create();
+
+        TestSubscriber<ByteBuffer> ts = pp.frameLines(100).test();
+
+        pp.onNext(ByteBuffer.wrap("ab".getBytes(UTF8)));
+
+        ts.assertEmpty();
+
+        pp.onNext(ByteBuffer.wrap("\ncd\n".getBytes(UTF8)));
+
+        assertEquals(Arrays.asList("ab", "cd"), strings(ts));
+
+        pp.onComplete();
+
+        ts.assertComplete();
+    }
+
+    @Test
+    public void lengthPrefixed() {
+        for (int fieldSize = 1; fieldSize <= 4; fieldSize++) {
+            for (int chunkSize = 1; chunkSize <= 12; chunkSize++) {
+                TestSubscriber<ByteBuffer> ts = split(lengthPrefixed(fieldSize, "hello", "", "world!", "x"), chunkSize)
+                .frameLengthPrefixed(fieldSize, 100)
+                .test()
+                .assertNoErrors()
+                .assertComplete();
+
+                assertEquals("fieldSize " + fieldSize + ", chunkSize " + chunkSize,
+                        Arrays.asList("hello", "", "world!", "x"), strings(ts));
+            }
+        }
+    }
+
+    @Test
+    public void lengthPrefixedTooLong() {
+        Flowable.just(lengthPrefixed(2, "hello"))
+        .frameLengthPrefixed(2, 4)
+        .test()
+        .assertFailure(IllegalStateException.class);
+    }
+
+    @Test
+    public void lengthPrefixedTruncated() {
+        ByteBuffer b = lengthPrefixed(2, "hello");
+        b.limit(b.limit() - 1);
+
+        Flowable.just(b)
+        .frameLengthPrefixed(2, 100)
+        .test()
+        .assertFailure(IllegalStateException.class);
+    }
+
+    @Test
+    public void lengthPrefixedTruncatedHeader() {
+        Flowable.just(ByteBuffer.wrap(new byte[] { 0 }))
+        .frameLengthPrefixed(2, 100)
+        .test()
+        .assertFailure(IllegalStateException.class);
+    }
+
+    @Test
+    public void cancel() {
+        PublishProcessor<ByteBuffer> pp = PublishProcessor.create();
+
+        TestSubscriber<ByteBuffer> ts = pp.frameLines(100).test();
+
+        assertTrue(pp.hasSubscribers());
+
+        ts.cancel();
+
+        assertFalse(pp.hasSubscribers());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyDelimiter() {
+        chunks("a").frameDelimited(new byte[0], 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lengthFieldSizeInvalid() {
+        chunks("a").frameLengthPrefixed(5, 10);
+    }
+}
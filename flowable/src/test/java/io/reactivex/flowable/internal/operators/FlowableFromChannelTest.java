@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import io.reactivex.common.Schedulers;
+import io.reactivex.flowable.*;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+
+public class FlowableFromChannelTest {
+
+    static byte[] data(int n) {
+        byte[] b = new byte[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = (byte)i;
+        }
+        return b;
+    }
+
+    static final class TrackingChannel implements ReadableByteChannel {
+        final ReadableByteChannel source;
+
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        TrackingChannel(byte[] data) {
+            this.source = Channels.newChannel(new ByteArrayInputStream(data));
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed.set(true);
+            source.close();
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return source.read(dst);
+        }
+    }
+
+    static Callable<ReadableByteChannel> supplier(final ReadableByteChannel channel) {
+        return new Callable<ReadableByteChannel>() {
+            @Override
+            public ReadableByteChannel call() throws Exception {
+                return channel;
+            }
+        };
+    }
+
+    static byte[] concat(List<PooledByteBuffer> list, boolean release) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (PooledByteBuffer pb : list) {
+            ByteBuffer b = pb.buffer();
+            while (b.hasRemaining()) {
+                out.write(b.get());
+            }
+            if (release) {
+                pb.release();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void readAll() {
+        byte[] data = data(1000);
+        TrackingChannel ch = new TrackingChannel(data);
+
+        TestSubscriber<PooledByteBuffer> ts = new TestSubscriber<PooledByteBuffer>(0L) {
+            @Override
+            public void onNext(PooledByteBuffer t) {
+                ByteBuffer b = t.buffer();
+                byte[] copy = new byte[b.remaining()];
+                b.get(copy);
+                super.onNext(new CopiedBuffer(copy));
+                t.release();
+            }
+        };
+
+        Flowable.fromChannel(supplier(ch), 64, 2)
+        .subscribe(ts);
+
+        ts.request(Long.MAX_VALUE);
+
+        ts.assertValueCount(16)
+        .assertNoErrors()
+        .assertComplete();
+
+        assertArrayEquals(data, concat(ts.values(), false));
+        assertEquals(40, ts.values().get(15).buffer().limit());
+        assertTrue(ch.closed.get());
+    }
+
+    static final class CopiedBuffer implements PooledByteBuffer {
+        final ByteBuffer data;
+
+        CopiedBuffer(byte[] data) {
+            this.data = ByteBuffer.wrap(data);
+        }
+
+        @Override
+        public ByteBuffer buffer() {
+            return data;
+        }
+
+        @Override
+        public void release() {
+        }
+    }
+
+    @Test
+    public void waitsForRelease() {
+        TrackingChannel ch = new TrackingChannel(data(100));
+
+        TestSubscriber<PooledByteBuffer> ts = Flowable.fromChannel(supplier(ch), 10, 2)
+        .test();
+
+        ts.assertValueCount(2).assertNotComplete();
+
+        PooledByteBuffer first = ts.values().get(0);
+        assertEquals(0, first.buffer().get(0));
+
+        first.release();
+
+        ts.assertValueCount(3).assertNotComplete();
+
+        // the released buffer is reused
+        assertSame(first.buffer(), ts.values().get(2).buffer());
+        assertEquals(20, ts.values().get(2).buffer().get(0));
+
+        first.release();
+
+        ts.assertValueCount(3);
+
+        for (int i = 1; i < 10; i++) {
+            ts.values().get(i).release();
+        }
+
+        ts.assertValueCount(10)
+        .assertNoErrors()
+        .assertComplete();
+    }
+
+    @Test
+    public void backpressure() {
+        TrackingChannel ch = new TrackingChannel(data(100));
+
+        TestSubscriber<PooledByteBuffer> ts = Flowable.fromChannel(supplier(ch), 10, 4)
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.request(1);
+
+        ts.assertValueCount(1);
+
+        ts.values().get(0).release();
+
+        ts.assertValueCount(1).assertNotComplete();
+
+        ts.request(2);
+
+        ts.assertValueCount(3).assertNotComplete();
+    }
+
+    @Test
+    public void empty() {
+        TrackingChannel ch = new TrackingChannel(new byte[0]);
+
+        Flowable.fromChannel(supplier(ch), 10, 4)
+        .test()
+        .assertResult();
+
+        assertTrue(ch.closed.get());
+    }
+
+    @Test
+    public void cancelCloses() {
+        TrackingChannel ch = new TrackingChannel(data(100));
+
+        TestSubscriber<PooledByteBuffer> ts = Flowable.fromChannel(supplier(ch), 10, 4)
+        .test(1L);
+
+        assertFalse(ch.closed.get());
+
+        ts.cancel();
+
+        assertTrue(ch.closed.get());
+    }
+
+    @Test
+    public void readError() {
+        ReadableByteChannel ch = new ReadableByteChannel() {
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() throws IOException {
+            }
+
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                throw new IOException("read");
+            }
+        };
+
+        Flowable.fromChannel(supplier(ch), 10, 4)
+        .test()
+        .assertFailureAndMessage(IOException.class, "read");
+    }
+
+    @Test
+    public void supplierError() {
+        Flowable.fromChannel(new Callable<ReadableByteChannel>() {
+            @Override
+            public ReadableByteChannel call() throws Exception {
+                throw new IOException("open");
+            }
+        }, 10, 4)
+        .test()
+        .assertFailureAndMessage(IOException.class, "open");
+    }
+
+    @Test
+    public void readahead() throws Exception {
+        byte[] data = data(100000);
+        TrackingChannel ch = new TrackingChannel(data);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        TestSubscriber<PooledByteBuffer> ts = new TestSubscriber<PooledByteBuffer>() {
+            @Override
+            public void onNext(PooledByteBuffer t) {
+                ByteBuffer b = t.buffer();
+                while (b.hasRemaining()) {
+                    out.write(b.get());
+                }
+                t.release();
+                super.onNext(t);
+            }
+        };
+
+        Flowable.fromChannel(supplier(ch), 1000, 4, Schedulers.io())
+        .observeOn(Schedulers.single())
+        .subscribe(ts);
+
+        ts.awaitDone(5, TimeUnit.SECONDS)
+        .assertValueCount(100)
+        .assertNoErrors()
+        .assertComplete();
+
+        assertArrayEquals(data, out.toByteArray());
+        assertTrue(ch.closed.get());
+    }
+
+    @Test
+    public void readaheadFillsPool() throws Exception {
+        TrackingChannel ch = new TrackingChannel(data(100));
+
+        TestSubscriber<PooledByteBuffer> ts = Flowable.fromChannel(supplier(ch), 10, 3, Schedulers.io())
+        .test(0L);
+
+        Thread.sleep(200);
+
+        ts.assertEmpty();
+
+        // three buffers have been read ahead
+        assertEquals(70, ch.source.read(ByteBuffer.allocate(100)));
+
+        ts.cancel();
+    }
+
+    @Test
+    public void nonBlockingRejected() throws Exception {
+        final Pipe pipe = Pipe.open();
+        try {
+            pipe.source().configureBlocking(false);
+
+            Flowable.fromChannel(new Callable<ReadableByteChannel>() {
+                @Override
+                public ReadableByteChannel call() throws Exception {
+                    return pipe.source();
+                }
+            }, 10, 4)
+            .test()
+            .assertFailureAndMessage(IllegalArgumentException.class, "The channelSupplier returned a non-blocking channel");
+
+            assertFalse(pipe.source().isOpen());
+        } finally {
+            pipe.sink().close();
+        }
+    }
+
+    @Test
+    public void partialReadEmitted() throws Exception {
+        final Pipe pipe = Pipe.open();
+        try {
+            TestSubscriber<PooledByteBuffer> ts = Flowable.fromChannel(new Callable<ReadableByteChannel>() {
+                @Override
+                public ReadableByteChannel call() throws Exception {
+                    return pipe.source();
+                }
+            }, 64, 4, Schedulers.io())
+            .test();
+
+            pipe.sink().write(ByteBuffer.wrap(data(5)));
+
+            // the 5 bytes don't fill a buffer yet have to arrive while the pipe is open
+            for (int i = 0; i < 500 && ts.valueCount() == 0; i++) {
+                Thread.sleep(10);
+            }
+
+            ts.assertValueCount(1).assertNoErrors().assertNotComplete();
+
+            assertArrayEquals(data(5), concat(ts.values(), true));
+
+            pipe.sink().close();
+
+            ts.awaitDone(5, TimeUnit.SECONDS)
+            .assertValueCount(1)
+            .assertNoErrors()
+            .assertComplete();
+        } finally {
+            pipe.sink().close();
+        }
+    }
+}
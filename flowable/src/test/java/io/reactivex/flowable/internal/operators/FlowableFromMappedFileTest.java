@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+
+public class FlowableFromMappedFileTest {
+
+    static File createFile(int n) throws IOException {
+        File f = File.createTempFile("rxjava-mapped", ".bin");
+        f.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(f);
+        try {
+            for (int i = 0; i < n; i++) {
+                out.write(i);
+            }
+        } finally {
+            out.close();
+        }
+        return f;
+    }
+
+    @Test
+    public void normal() throws IOException {
+        File f = createFile(1000);
+
+        TestSubscriber<ByteBuffer> ts = Flowable.fromMappedFile(f, 64)
+        .test()
+        .assertValueCount(16)
+        .assertNoErrors()
+        .assertComplete();
+
+        List<ByteBuffer> list = ts.values();
+        int k = 0;
+        for (ByteBuffer b : list) {
+            assertTrue(b.isReadOnly());
+            while (b.hasRemaining()) {
+                assertEquals((byte)k++, b.get());
+            }
+        }
+        assertEquals(1000, k);
+        assertEquals(40, list.get(15).limit());
+
+        assertTrue(f.delete());
+    }
+
+    @Test
+    public void backpressure() throws IOException {
+        File f = createFile(100);
+
+        TestSubscriber<ByteBuffer> ts = Flowable.fromMappedFile(f, 10)
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.request(3);
+
+        ts.assertValueCount(3).assertNotComplete();
+        assertEquals(20, ts.values().get(2).get(0));
+
+        ts.request(7);
+
+        ts.assertValueCount(10).assertComplete();
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        File f = createFile(0);
+
+        Flowable.fromMappedFile(f, 10)
+        .test()
+        .assertResult();
+    }
+
+    @Test
+    public void missingFile() {
+        Flowable.fromMappedFile(new File("rxjava-missing-file-" + System.nanoTime()), 10)
+        .test()
+        .assertFailure(FileNotFoundException.class);
+    }
+
+    @Test
+    public void regionBoundary() throws Exception {
+        File f = createFile(1000);
+
+        FlowableFromMappedFile.MappedFileState state = FlowableFromMappedFile.stateSupplier(f, 64).call();
+        try {
+            assertEquals(FlowableFromMappedFile.MAX_REGION - FlowableFromMappedFile.MAX_REGION % 64, state.regionSize);
+        } finally {
+            state.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void chunkSizeNonPositive() {
+        Flowable.fromMappedFile(new File("x"), 0);
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.common.Schedulers;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.common.internal.functions.Functions;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.processors.PublishProcessor;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+import kotlin.jvm.functions.Function1;
+
+public class FlowableMergeSortedTest {
+
+    static final Comparator<Integer> NATURAL = Functions.naturalOrder();
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void normal() {
+        Flowable.mergeSorted(NATURAL,
+                Flowable.just(1, 4, 7, 10),
+                Flowable.just(2, 5, 8),
+                Flowable.<Integer>empty(),
+                Flowable.just(3, 6, 9, 11, 12))
+        .test()
+        .assertResult(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void equalItemsInSourceOrder() {
+        Comparator<String> byLength = new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                return a.length() - b.length();
+            }
+        };
+
+        Flowable.mergeSorted(byLength,
+                Flowable.just("b", "bb"),
+                Flowable.just("a", "aa"),
+                Flowable.just("c", "cc"))
+        .test()
+        .assertResult("b", "a", "c", "bb", "aa", "cc");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void backpressure() {
+        TestSubscriber<Integer> ts = Flowable.mergeSorted(NATURAL, 2,
+                Flowable.range(0, 10).map(new Function1<Integer, Integer>() {
+                    @Override
+                    public Integer invoke(Integer v) {
+                        return v * 2;
+                    }
+                }),
+                Flowable.range(0, 10).map(new Function1<Integer, Integer>() {
+                    @Override
+                    public Integer invoke(Integer v) {
+                        return v * 2 + 1;
+                    }
+                }))
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.request(3);
+
+        ts.assertValues(0, 1, 2).assertNotComplete();
+
+        ts.request(17);
+
+        ts.assertValueCount(20).assertNoErrors().assertComplete();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void waitsForAllSources() {
+        PublishProcessor<Integer> pp1 = PublishProcessor.create();
+        PublishProcessor<Integer> pp2 = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = Flowable.mergeSorted(NATURAL, pp1, pp2).test();
+
+        pp1.onNext(1);
+        pp1.onNext(3);
+
+        ts.assertEmpty();
+
+        pp2.onNext(2);
+
+        ts.assertValues(1, 2);
+
+        pp2.onNext(4);
+
+        ts.assertValues(1, 2, 3);
+
+        pp1.onComplete();
+
+        ts.assertValues(1, 2, 3, 4);
+
+        pp2.onNext(5);
+        pp2.onComplete();
+
+        ts.assertResult(1, 2, 3, 4, 5);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void error() {
+        PublishProcessor<Integer> pp1 = PublishProcessor.create();
+        PublishProcessor<Integer> pp2 = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = Flowable.mergeSorted(NATURAL, pp1, pp2).test();
+
+        pp1.onNext(1);
+        pp2.onError(new TestException());
+
+        ts.assertFailure(TestException.class);
+
+        assertFalse(pp1.hasSubscribers());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void comparatorCrash() {
+        Flowable.mergeSorted(new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                throw new TestException();
+            }
+        }, Flowable.just(1), Flowable.just(2))
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void cancel() {
+        PublishProcessor<Integer> pp1 = PublishProcessor.create();
+        PublishProcessor<Integer> pp2 = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = Flowable.mergeSorted(NATURAL, pp1, pp2).test();
+
+        assertTrue(pp1.hasSubscribers());
+        assertTrue(pp2.hasSubscribers());
+
+        ts.cancel();
+
+        assertFalse(pp1.hasSubscribers());
+        assertFalse(pp2.hasSubscribers());
+    }
+
+    @Test
+    public void empty() {
+        Flowable.mergeSorted(NATURAL)
+        .test()
+        .assertResult();
+
+        Flowable.mergeSorted(Collections.<Flowable<Integer>>emptyList(), NATURAL, 16)
+        .test()
+        .assertResult();
+    }
+
+    @Test
+    public void iterable() {
+        Flowable.mergeSorted(Arrays.asList(Flowable.just(2, 3), Flowable.just(1, 4)), NATURAL, 16)
+        .test()
+        .assertResult(1, 2, 3, 4);
+    }
+
+    @Test
+    public void manySourcesAsync() {
+        List<Flowable<Integer>> sources = new ArrayList<Flowable<Integer>>();
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 33; i++) {
+            List<Integer> list = new ArrayList<Integer>();
+            for (int j = i; j < 3000; j += 7 + i) {
+                list.add(j);
+                expected.add(j);
+            }
+            sources.add(Flowable.fromIterable(list).subscribeOn(Schedulers.computation()));
+        }
+        Collections.sort(expected);
+
+        Flowable.mergeSorted(sources, NATURAL, 8)
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertResult(expected.toArray(new Integer[0]));
+    }
+}
@@ -0,0 +1,320 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.*;
+
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.common.internal.functions.Functions;
+import io.reactivex.flowable.*;
+import io.reactivex.flowable.processors.PublishProcessor;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+
+public class FlowableSortedExternalTest {
+
+    static final SpillSerializer<Integer> INTS = new SpillSerializer<Integer>() {
+        @Override
+        public void write(Integer item, DataOutput output) throws IOException {
+            output.writeInt(item);
+        }
+
+        @Override
+        public Integer read(DataInput input) throws IOException {
+            return input.readInt();
+        }
+    };
+
+    File directory;
+
+    @Before
+    public void before() throws IOException {
+        directory = File.createTempFile("rxjava-sort", "");
+        assertTrue(directory.delete());
+        assertTrue(directory.mkdir());
+    }
+
+    @After
+    public void after() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    void assertNoFiles() {
+        assertEquals(Arrays.toString(directory.list()), 0, directory.list().length);
+    }
+
+    static List<Integer> shuffled(int n) {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++) {
+            list.add(i);
+        }
+        Collections.shuffle(list, new Random(0));
+        return list;
+    }
+
+    static List<Integer> range(int n) {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Test
+    public void spilled() {
+        Flowable.fromIterable(shuffled(1000))
+        .sortedExternal(Functions.<Integer>naturalComparator(), 64, INTS, directory)
+        .test()
+        .assertResult(range(1000).toArray(new Integer[0]));
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void fullRunsOnly() {
+        Flowable.fromIterable(shuffled(100))
+        .sortedExternal(Functions.<Integer>naturalComparator(), 10, INTS, directory)
+        .test()
+        .assertResult(range(100).toArray(new Integer[0]));
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void inMemory() {
+        Flowable.just(3, 1, 2)
+        .sortedExternal(Functions.<Integer>naturalComparator(), 10, INTS, directory)
+        .test()
+        .assertResult(1, 2, 3);
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void moreRunsThanFanIn() {
+        // 334 runs need two intermediate passes before the final merge
+        Flowable.fromIterable(shuffled(1000))
+        .sortedExternal(Functions.<Integer>naturalComparator(), 3, INTS, directory)
+        .test()
+        .assertResult(range(1000).toArray(new Integer[0]));
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void moreRunsThanFanInStable() {
+        Comparator<Integer> lastDigit = new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return (a % 10) - (b % 10);
+            }
+        };
+
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int d = 0; d < 10; d++) {
+            for (int i = d; i < 1000; i += 10) {
+                expected.add(i);
+            }
+        }
+
+        Flowable.fromIterable(range(1000))
+        .sortedExternal(lastDigit, 5, INTS, directory)
+        .test()
+        .assertResult(expected.toArray(new Integer[0]));
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void readErrorMoreRunsThanFanIn() {
+        SpillSerializer<Integer> serializer = new SpillSerializer<Integer>() {
+            @Override
+            public void write(Integer item, DataOutput output) throws IOException {
+                output.writeInt(item);
+            }
+
+            @Override
+            public Integer read(DataInput input) throws IOException {
+                throw new IOException("read");
+            }
+        };
+
+        TestSubscriber<Integer> ts = Flowable.fromIterable(shuffled(1000))
+        .sortedExternal(Functions.<Integer>naturalComparator(), 3, serializer, directory)
+        .test()
+        .assertFailure(RuntimeException.class);
+
+        assertTrue(ts.errors().get(0).getCause() instanceof IOException);
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void defaultDirectory() {
+        Flowable.fromIterable(shuffled(100))
+        .sortedExternal(Functions.<Integer>naturalComparator(), 7, INTS)
+        .test()
+        .assertResult(range(100).toArray(new Integer[0]));
+    }
+
+    @Test
+    public void empty() {
+        Flowable.<Integer>empty()
+        .sortedExternal(Functions.<Integer>naturalComparator(), 10, INTS, directory)
+        .test()
+        .assertResult();
+    }
+
+    @Test
+    public void duplicates() {
+        Flowable.just(2, 1, 2, 1, 3, 1, 2)
+        .sortedExternal(Functions.<Integer>naturalComparator(), 2, INTS, directory)
+        .test()
+        .assertResult(1, 1, 1, 2, 2, 2, 3);
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void comparator() {
+        Flowable.fromIterable(shuffled(10))
+        .sortedExternal(Collections.<Integer>reverseOrder(), 3, INTS, directory)
+        .test()
+        .assertResult(9, 8, 7, 6, 5, 4, 3, 2, 1, 0);
+    }
+
+    @Test
+    public void backpressure() {
+        TestSubscriber<Integer> ts = Flowable.fromIterable(shuffled(100))
+        .sortedExternal(Functions.<Integer>naturalComparator(), 10, INTS, directory)
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.request(5);
+
+        ts.assertValues(0, 1, 2, 3, 4).assertNotComplete();
+
+        ts.request(95);
+
+        ts.assertValueCount(100).assertNoErrors().assertComplete();
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void cancelWhileMerging() {
+        TestSubscriber<Integer> ts = Flowable.fromIterable(shuffled(100))
+        .sortedExternal(Functions.<Integer>naturalComparator(), 10, INTS, directory)
+        .test(1L);
+
+        ts.assertValues(0);
+
+        ts.cancel();
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void cancelWhileSpilling() {
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp
+        .sortedExternal(Functions.<Integer>naturalComparator(), 2, INTS, directory)
+        .test();
+
+        pp.onNext(3);
+        pp.onNext(1);
+        pp.onNext(2);
+
+        assertEquals(1, directory.list().length);
+
+        ts.cancel();
+
+        assertFalse(pp.hasSubscribers());
+        assertNoFiles();
+    }
+
+    @Test
+    public void sourceError() {
+        Flowable.fromIterable(shuffled(10))
+        .concatWith(Flowable.<Integer>error(new TestException()))
+        .sortedExternal(Functions.<Integer>naturalComparator(), 3, INTS, directory)
+        .test()
+        .assertFailure(TestException.class);
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void writeError() {
+        SpillSerializer<Integer> serializer = new SpillSerializer<Integer>() {
+            @Override
+            public void write(Integer item, DataOutput output) throws IOException {
+                throw new IOException("write");
+            }
+
+            @Override
+            public Integer read(DataInput input) throws IOException {
+                return input.readInt();
+            }
+        };
+
+        TestSubscriber<Integer> ts = Flowable.fromIterable(shuffled(10))
+        .sortedExternal(Functions.<Integer>naturalComparator(), 3, serializer, directory)
+        .test()
+        .assertFailure(RuntimeException.class);
+
+        assertTrue(ts.errors().get(0).getCause() instanceof IOException);
+
+        assertNoFiles();
+    }
+
+    @Test
+    public void readError() {
+        SpillSerializer<Integer> serializer = new SpillSerializer<Integer>() {
+            @Override
+            public void write(Integer item, DataOutput output) throws IOException {
+                output.writeInt(item);
+            }
+
+            @Override
+            public Integer read(DataInput input) throws IOException {
+                throw new IOException("read");
+            }
+        };
+
+        Flowable.fromIterable(shuffled(10))
+        .sortedExternal(Functions.<Integer>naturalComparator(), 3, serializer, directory)
+        .test()
+        .assertFailure(IOException.class);
+
+        assertNoFiles();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void runSizeInvalid() {
+        Flowable.just(1).sortedExternal(Functions.<Integer>naturalComparator(), 0, INTS);
+    }
+}
@@ -425,9 +425,27 @@ public class FlowableTimeoutTests {
     }
 
     @Test
-    public void newTimer() {
-        FlowableTimeoutTimed.NEW_TIMER.dispose();
-        assertTrue(FlowableTimeoutTimed.NEW_TIMER.isDisposed());
+    public void timerRearmsUntilDeadline() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+        TestSubscriber<Integer> ts = pp.timeout(1, TimeUnit.SECONDS, scheduler).test();
+
+        for (int i = 0; i < 10; i++) {
+            scheduler.advanceTimeBy(900, TimeUnit.MILLISECONDS);
+            pp.onNext(i);
+        }
+
+        ts.assertValueCount(10).assertNoErrors().assertNotComplete();
+
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+
+        ts.assertNoErrors();
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+
+        ts.assertFailure(TimeoutException.class, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+        assertFalse(pp.hasSubscribers());
     }
 
     @Test
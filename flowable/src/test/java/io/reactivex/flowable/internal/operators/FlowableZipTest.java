@@ -1924,4 +1924,44 @@ public class FlowableZipTest {
 
         ts.assertResult(4);
     }
+
+    @Test
+    public void zip2WithReusedRow() {
+        PublishProcessor<Integer> p1 = PublishProcessor.create();
+        PublishProcessor<Integer> p2 = PublishProcessor.create();
+
+        TestSubscriber<String> t = Flowable.zip(p1, p2, new Function2<Integer, Integer, String>() {
+            @Override
+            public String invoke(Integer a, Integer b) {
+                return a + "-" + b;
+            }
+        })
+        .test();
+
+        p1.onNext(1);
+        p1.onNext(2);
+        p2.onNext(10);
+        p2.onNext(20);
+        p2.onNext(30);
+        p1.onNext(3);
+        p1.onComplete();
+
+        t.assertResult("1-10", "2-20", "3-30");
+    }
+
+    @Test
+    public void zipArrayFunctionGetsCopies() {
+        @SuppressWarnings("unchecked")
+        TestSubscriber<Object[]> t = Flowable.zipArray(new Function1<Object[], Object[]>() {
+            @Override
+            public Object[] invoke(Object[] a) {
+                return a;
+            }
+        }, false, 16, Flowable.just(1, 2), Flowable.just(10, 20))
+        .test();
+
+        t.assertValueCount(2);
+        assertEquals(Arrays.asList(1, 10), Arrays.asList(t.values().get(0)));
+        assertEquals(Arrays.asList(2, 20), Arrays.asList(t.values().get(1)));
+    }
 }
@@ -29,6 +29,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import io.reactivex.common.Histogram;
 import io.reactivex.common.RxJavaCommonPlugins;
 import io.reactivex.common.Scheduler;
 import io.reactivex.common.Schedulers;
@@ -1407,4 +1408,44 @@ public class ParallelFlowableTest {
     public void fromArraySubscriberCount() {
         ParallelFlowableTest.checkSubscriberCount(ParallelFlowable.fromArray(new Publisher[] { Flowable.just(1) }));
     }
+
+    @Test
+    public void histogram() {
+        for (int i = 1; i <= 8; i *= 2) {
+            Histogram h = Flowable.range(1, 100000)
+            .parallel(i)
+            .runOn(Schedulers.computation())
+            .histogram(new Function1<Integer, Long>() {
+                @Override
+                public Long invoke(Integer v) {
+                    return v.longValue();
+                }
+            }, 3)
+            .blockingSingle();
+
+            assertEquals(100000, h.count());
+            assertEquals(1, h.min());
+            assertEquals(100000, h.max());
+            long p99 = h.valueAtPercentile(99);
+            assertTrue("" + p99, Math.abs(p99 - 99000) <= 99);
+        }
+    }
+
+    @Test
+    public void histogramEmpty() {
+        TestSubscriber<Histogram> ts = Flowable.<Integer>empty()
+        .parallel(2)
+        .histogram(new Function1<Integer, Long>() {
+            @Override
+            public Long invoke(Integer v) {
+                return v.longValue();
+            }
+        }, 3)
+        .test()
+        .assertValueCount(1)
+        .assertNoErrors()
+        .assertComplete();
+
+        assertEquals(0, ts.values().get(0).count());
+    }
 }
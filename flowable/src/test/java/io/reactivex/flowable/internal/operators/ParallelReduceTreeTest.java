@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.Schedulers;
+import io.reactivex.common.TestCommonHelper;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.ParallelFlowable;
+import io.reactivex.flowable.processors.PublishProcessor;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+import kotlin.Unit;
+import kotlin.jvm.functions.Function2;
+
+public class ParallelReduceTreeTest {
+
+    static final Callable<Integer> ZERO = new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+            return 0;
+        }
+    };
+
+    static final Function2<Integer, Integer, Integer> SUM = new Function2<Integer, Integer, Integer>() {
+        @Override
+        public Integer invoke(Integer a, Integer b) {
+            return a + b;
+        }
+    };
+
+    static final Callable<List<Integer>> LIST = new Callable<List<Integer>>() {
+        @Override
+        public List<Integer> call() throws Exception {
+            return new ArrayList<Integer>();
+        }
+    };
+
+    static final Function2<List<Integer>, Integer, Unit> ADD = new Function2<List<Integer>, Integer, Unit>() {
+        @Override
+        public Unit invoke(List<Integer> a, Integer b) {
+            a.add(b);
+            return Unit.INSTANCE;
+        }
+    };
+
+    static final Function2<List<Integer>, List<Integer>, List<Integer>> ADD_ALL = new Function2<List<Integer>, List<Integer>, List<Integer>>() {
+        @Override
+        public List<Integer> invoke(List<Integer> a, List<Integer> b) {
+            a.addAll(b);
+            return a;
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    static ParallelFlowable<Integer> rails(int n, int perRail) {
+        Publisher<Integer>[] sources = new Publisher[n];
+        for (int i = 0; i < n; i++) {
+            sources[i] = Flowable.range(i * perRail, perRail);
+        }
+        return ParallelFlowable.fromArray(sources);
+    }
+
+    static List<Integer> range(int n) {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Test
+    public void reduce() {
+        for (int n = 1; n <= 9; n++) {
+            Flowable.range(1, 100)
+            .parallel(n)
+            .reduce(ZERO, SUM, SUM)
+            .test()
+            .assertResult(5050);
+        }
+    }
+
+    @Test
+    public void reduceEmpty() {
+        Flowable.<Integer>empty()
+        .parallel(3)
+        .reduce(ZERO, SUM, SUM)
+        .test()
+        .assertResult(0);
+    }
+
+    @Test
+    public void collectInRailOrder() {
+        for (int n = 1; n <= 9; n++) {
+            rails(n, 10)
+            .collect(LIST, ADD, ADD_ALL)
+            .test()
+            .assertResult(range(n * 10));
+        }
+    }
+
+    @Test
+    public void collectInRailOrderAsync() {
+        for (int i = 0; i < 50; i++) {
+            rails(7, 1000)
+            .runOn(Schedulers.computation())
+            .collect(LIST, ADD, ADD_ALL)
+            .test()
+            .awaitDone(5, TimeUnit.SECONDS)
+            .assertResult(range(7000));
+        }
+    }
+
+    @Test
+    public void reduceAsync() {
+        for (int i = 0; i < 50; i++) {
+            Flowable.range(1, 10000)
+            .parallel(5)
+            .runOn(Schedulers.computation())
+            .reduce(ZERO, SUM, SUM)
+            .test()
+            .awaitDone(5, TimeUnit.SECONDS)
+            .assertResult(50005000);
+        }
+    }
+
+    @Test
+    public void error() {
+        List<Throwable> errors = TestCommonHelper.trackPluginErrors();
+
+        try {
+            Flowable.<Integer>error(new TestException())
+            .parallel(3)
+            .reduce(ZERO, SUM, SUM)
+            .test()
+            .assertFailure(TestException.class);
+
+            assertTrue(errors.toString(), errors.isEmpty());
+        } finally {
+            RxJavaCommonPlugins.reset();
+        }
+    }
+
+    @Test
+    public void combinerCrash() {
+        rails(4, 2)
+        .reduce(ZERO, SUM, new Function2<Integer, Integer, Integer>() {
+            @Override
+            public Integer invoke(Integer a, Integer b) {
+                throw new TestException();
+            }
+        })
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @Test
+    public void combinerReturnsNull() {
+        rails(2, 2)
+        .reduce(ZERO, SUM, new Function2<Integer, Integer, Integer>() {
+            @Override
+            public Integer invoke(Integer a, Integer b) {
+                return null;
+            }
+        })
+        .test()
+        .assertFailure(NullPointerException.class);
+    }
+
+    @Test
+    public void cancel() {
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<List<Integer>> ts = pp
+        .parallel()
+        .collect(LIST, ADD, ADD_ALL)
+        .test();
+
+        assertTrue(pp.hasSubscribers());
+
+        ts.cancel();
+
+        assertFalse(pp.hasSubscribers());
+    }
+
+    @Test
+    public void firstLeaf() {
+        assertEquals(0, ParallelReduceTree.ParallelReduceTreeMainSubscriber.firstLeaf(1, 8));
+        assertEquals(4, ParallelReduceTree.ParallelReduceTreeMainSubscriber.firstLeaf(3, 8));
+        assertEquals(6, ParallelReduceTree.ParallelReduceTreeMainSubscriber.firstLeaf(7, 8));
+        assertEquals(5, ParallelReduceTree.ParallelReduceTreeMainSubscriber.firstLeaf(13, 8));
+    }
+}
@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.flowable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+
+import io.reactivex.common.Schedulers;
+import io.reactivex.common.exceptions.MissingBackpressureException;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.common.internal.schedulers.ImmediateThinScheduler;
+import io.reactivex.flowable.Flowable;
+import io.reactivex.flowable.ParallelFlowable;
+import io.reactivex.flowable.RailLimiter;
+import io.reactivex.flowable.internal.subscriptions.BooleanSubscription;
+import io.reactivex.flowable.processors.PublishProcessor;
+import io.reactivex.flowable.subscribers.TestSubscriber;
+import kotlin.Unit;
+import kotlin.jvm.functions.Function1;
+
+public class ParallelRunOnElasticTest {
+
+    @Test
+    public void subscriberCount() {
+        ParallelFlowableTest.checkSubscriberCount(Flowable.range(1, 5).parallel()
+        .runOnElastic(Schedulers.computation()));
+    }
+
+    @Test
+    public void normal() {
+        for (int i = 0; i < 20; i++) {
+            TestSubscriber<Integer> ts = Flowable.range(1, 10000)
+            .parallel(4)
+            .runOnElastic(Schedulers.computation())
+            .sequential()
+            .test()
+            .awaitDone(5, TimeUnit.SECONDS)
+            .assertValueCount(10000)
+            .assertNoErrors()
+            .assertComplete();
+
+            Set<Integer> set = new HashSet<Integer>(ts.values());
+            assertEquals(10000, set.size());
+        }
+    }
+
+    @Test
+    public void maxConcurrency() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        Flowable.range(1, 10000)
+        .parallel(4)
+        .runOnElastic(Schedulers.computation(), 2, 16)
+        .doOnNext(new Function1<Integer, Unit>() {
+            @Override
+            public Unit invoke(Integer v) {
+                int r = running.incrementAndGet();
+                for (;;) {
+                    int m = maxRunning.get();
+                    if (r <= m || maxRunning.compareAndSet(m, r)) {
+                        break;
+                    }
+                }
+                running.decrementAndGet();
+                return Unit.INSTANCE;
+            }
+        })
+        .sequential()
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertValueCount(10000)
+        .assertNoErrors()
+        .assertComplete();
+
+        assertTrue(String.valueOf(maxRunning.get()), maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void singleThreadAllRails() {
+        final Set<Integer> values = Collections.synchronizedSet(new HashSet<Integer>());
+
+        Flowable.range(1, 1000)
+        .parallel(8)
+        .runOnElastic(Schedulers.computation(), 1, 8)
+        .doOnNext(new Function1<Integer, Unit>() {
+            @Override
+            public Unit invoke(Integer v) {
+                values.add(v);
+                return Unit.INSTANCE;
+            }
+        })
+        .sequential()
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertValueCount(1000)
+        .assertNoErrors()
+        .assertComplete();
+
+        assertEquals(1000, values.size());
+    }
+
+    @Test
+    public void conditionalPath() {
+        Flowable.range(1, 1000)
+        .parallel(2)
+        .runOnElastic(Schedulers.computation())
+        .filter(new Function1<Integer, Boolean>() {
+            @Override
+            public Boolean invoke(Integer v) {
+                return v % 2 == 0;
+            }
+        })
+        .sequential()
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertValueCount(500)
+        .assertNoErrors()
+        .assertComplete();
+    }
+
+    @Test
+    public void backpressured() {
+        TestSubscriber<Integer> ts = Flowable.range(1, 10)
+        .parallel(2)
+        .runOnElastic(ImmediateThinScheduler.INSTANCE, 1, 4)
+        .sequential(1)
+        .test(0L);
+
+        ts.assertEmpty();
+
+        ts.request(3);
+
+        ts.assertValueCount(3).assertNotComplete();
+
+        ts.request(7);
+
+        ts.assertValueCount(10).assertNoErrors().assertComplete();
+    }
+
+    @Test
+    public void missingBackpressure() {
+        new ParallelFlowable<Integer>() {
+            @Override
+            public int parallelism() {
+                return 1;
+            }
+
+            @Override
+            public void subscribe(Subscriber<? super Integer>[] subscribers) {
+                subscribers[0].onSubscribe(new BooleanSubscription());
+                subscribers[0].onNext(1);
+                subscribers[0].onNext(2);
+                subscribers[0].onNext(3);
+            }
+        }
+        .runOnElastic(ImmediateThinScheduler.INSTANCE, 1, 1)
+        .sequential(1)
+        .test(0)
+        .assertFailure(MissingBackpressureException.class);
+    }
+
+    @Test
+    public void error() {
+        Flowable.error(new TestException())
+        .parallel(2)
+        .runOnElastic(ImmediateThinScheduler.INSTANCE)
+        .sequential()
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @Test
+    public void cancel() {
+        PublishProcessor<Integer> pp = PublishProcessor.create();
+
+        TestSubscriber<Integer> ts = pp
+        .parallel(2)
+        .runOnElastic(Schedulers.computation())
+        .sequential()
+        .test();
+
+        assertTrue(pp.hasSubscribers());
+
+        ts.cancel();
+
+        assertFalse(pp.hasSubscribers());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxConcurrencyInvalid() {
+        Flowable.range(1, 5).parallel().runOnElastic(Schedulers.computation(), 0, 16);
+    }
+
+    @Test
+    public void sharedLimiter() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        Function1<Integer, Unit> track = new Function1<Integer, Unit>() {
+            @Override
+            public Unit invoke(Integer v) {
+                int r = running.incrementAndGet();
+                for (;;) {
+                    int m = maxRunning.get();
+                    if (r <= m || maxRunning.compareAndSet(m, r)) {
+                        break;
+                    }
+                }
+                running.decrementAndGet();
+                return Unit.INSTANCE;
+            }
+        };
+
+        RailLimiter limiter = RailLimiter.create(Schedulers.computation(), 2);
+
+        Flowable<Integer> first = Flowable.range(1, 10000)
+        .parallel(4)
+        .runOnElastic(limiter, 16)
+        .doOnNext(track)
+        .sequential();
+
+        Flowable<Integer> second = Flowable.range(1, 10000)
+        .parallel(4)
+        .runOnElastic(limiter, 16)
+        .doOnNext(track)
+        .sequential();
+
+        Flowable.merge(first.subscribeOn(Schedulers.io()), second.subscribeOn(Schedulers.io()))
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertValueCount(20000)
+        .assertNoErrors()
+        .assertComplete();
+
+        // both pipelines together ran at most two rails at once
+        assertTrue(String.valueOf(maxRunning.get()), maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void sharedLimiterSerializes() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        RailLimiter limiter = RailLimiter.create(Schedulers.computation(), 1);
+
+        List<Flowable<Integer>> pipelines = new ArrayList<Flowable<Integer>>();
+        for (int i = 0; i < 3; i++) {
+            pipelines.add(Flowable.range(1, 1000)
+            .parallel(2)
+            .runOnElastic(limiter)
+            .doOnNext(new Function1<Integer, Unit>() {
+                @Override
+                public Unit invoke(Integer v) {
+                    int r = running.incrementAndGet();
+                    if (r > maxRunning.get()) {
+                        maxRunning.set(r);
+                    }
+                    running.decrementAndGet();
+                    return Unit.INSTANCE;
+                }
+            })
+            .sequential()
+            .subscribeOn(Schedulers.io()));
+        }
+
+        Flowable.merge(pipelines)
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertValueCount(3000)
+        .assertNoErrors()
+        .assertComplete();
+
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void limiterMaxConcurrencyInvalid() {
+        RailLimiter.create(Schedulers.computation(), 0);
+    }
+}
@@ -17,6 +17,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.openjdk.jmh.annotations.*;
 
+import io.reactivex.common.Schedulers;
 import io.reactivex.flowable.Flowable;
 import io.reactivex.observable.*;
 
@@ -37,6 +38,14 @@ public class BlockingGetPerf {
 
     Completable completable;
 
+    Flowable<Integer> flowableAsync;
+
+    Single<Integer> singleAsync;
+
+    Maybe<Integer> maybeAsync;
+
+    Completable completableAsync;
+
     @Setup
     public void setup() {
         flowable = Flowable.just(1);
@@ -48,6 +57,14 @@ public class BlockingGetPerf {
         maybe = Maybe.just(1);
 
         completable = Completable.complete();
+
+        flowableAsync = flowable.subscribeOn(Schedulers.single());
+
+        singleAsync = single.subscribeOn(Schedulers.single());
+
+        maybeAsync = maybe.subscribeOn(Schedulers.single());
+
+        completableAsync = completable.subscribeOn(Schedulers.single());
     }
 
     @Benchmark
@@ -84,4 +101,34 @@ public class BlockingGetPerf {
     public Object completable() {
         return completable.blockingGet();
     }
+
+    // latency of waking up the blocked caller from another thread
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object flowableBlockingFirstAsync() {
+        return flowableAsync.blockingFirst();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object singleAsync() {
+        return singleAsync.blockingGet();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object maybeAsync() {
+        return maybeAsync.blockingGet();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object completableAsync() {
+        return completableAsync.blockingGet();
+    }
 }
@@ -17,7 +17,9 @@ import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
 
+import io.reactivex.common.Schedulers;
 import io.reactivex.flowable.Flowable;
 import io.reactivex.observable.Observable;
 
@@ -35,6 +37,10 @@ public class BlockingPerf {
 
     Observable<Integer> observable;
 
+    Flowable<Integer> flowableAsync;
+
+    Observable<Integer> observableAsync;
+
     @Setup
     public void setup() {
         Integer[] array = new Integer[times];
@@ -43,6 +49,10 @@ public class BlockingPerf {
         flowable = Flowable.fromArray(array);
 
         observable = Observable.fromArray(array);
+
+        flowableAsync = flowable.subscribeOn(Schedulers.single());
+
+        observableAsync = observable.subscribeOn(Schedulers.single());
     }
 
     @Benchmark
@@ -64,4 +74,38 @@ public class BlockingPerf {
     public Object observableBlockingFirst() {
         return observable.blockingFirst();
     }
+
+    // latency of handing items over to a blocked consumer thread
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void flowableBlockingIterableAsync(Blackhole bh) {
+        for (Integer v : flowableAsync.blockingIterable()) {
+            bh.consume(v);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void observableBlockingIterableAsync(Blackhole bh) {
+        for (Integer v : observableAsync.blockingIterable()) {
+            bh.consume(v);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object flowableBlockingLastAsync() {
+        return flowableAsync.blockingLast();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object observableBlockingLastAsync() {
+        return observableAsync.blockingLast();
+    }
 }
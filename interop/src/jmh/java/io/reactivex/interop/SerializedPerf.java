@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.interop;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.reactivex.common.Disposable;
+import io.reactivex.flowable.processors.*;
+import io.reactivex.observable.Observer;
+import io.reactivex.observable.subjects.*;
+
+/**
+ * Compares the queue-drain serialization of {@code toSerialized()} against the
+ * lock-based emitter-loop with one and with several producer threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class SerializedPerf {
+
+    static final Integer ITEM = 777;
+
+    Subject<Integer> subject;
+
+    FlowableProcessor<Integer> processor;
+
+    Observer<Integer> emitterLoop;
+
+    @Setup
+    public void setup(Blackhole bh) {
+        subject = PublishSubject.<Integer>create().toSerialized();
+        subject.subscribe(new PerfObserver(bh));
+
+        processor = PublishProcessor.<Integer>create().toSerialized();
+        processor.subscribe(new PerfSubscriber(bh));
+
+        emitterLoop = new EmitterLoopObserver<Integer>(new PerfObserver(bh));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void subject1() {
+        subject.onNext(ITEM);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void subject4() {
+        subject.onNext(ITEM);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void processor1() {
+        processor.onNext(ITEM);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void processor4() {
+        processor.onNext(ITEM);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void emitterLoop1() {
+        emitterLoop.onNext(ITEM);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void emitterLoop4() {
+        emitterLoop.onNext(ITEM);
+    }
+
+    /**
+     * The synchronized emitter-loop serialization the serialized subjects used before,
+     * kept as the baseline.
+     * @param <T> the value type
+     */
+    static final class EmitterLoopObserver<T> implements Observer<T> {
+        final Observer<? super T> actual;
+
+        boolean emitting;
+
+        List<T> queue;
+
+        EmitterLoopObserver(Observer<? super T> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            actual.onSubscribe(d);
+        }
+
+        @Override
+        public void onNext(T t) {
+            synchronized (this) {
+                if (emitting) {
+                    List<T> q = queue;
+                    if (q == null) {
+                        q = new ArrayList<T>(4);
+                        queue = q;
+                    }
+                    q.add(t);
+                    return;
+                }
+                emitting = true;
+            }
+
+            actual.onNext(t);
+
+            for (;;) {
+                List<T> q;
+                synchronized (this) {
+                    q = queue;
+                    if (q == null) {
+                        emitting = false;
+                        return;
+                    }
+                    queue = null;
+                }
+                for (T v : q) {
+                    actual.onNext(v);
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            actual.onError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            actual.onComplete();
+        }
+    }
+}
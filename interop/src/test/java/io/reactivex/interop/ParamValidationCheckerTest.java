@@ -18,6 +18,10 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -56,6 +60,8 @@ import io.reactivex.flowable.FlowableTransformer;
 import io.reactivex.flowable.ParallelFailureHandling;
 import io.reactivex.flowable.ParallelFlowable;
 import io.reactivex.flowable.ParallelTransformer;
+import io.reactivex.flowable.RailLimiter;
+import io.reactivex.flowable.SpillSerializer;
 import io.reactivex.observable.Completable;
 import io.reactivex.observable.CompletableEmitter;
 import io.reactivex.observable.CompletableObserver;
@@ -360,6 +366,9 @@ public class ParamValidationCheckerTest {
         addOverride(new ParamOverride(Maybe.class, 0, ParamMode.ANY, "delaySubscription", Long.TYPE, TimeUnit.class));
         addOverride(new ParamOverride(Maybe.class, 0, ParamMode.ANY, "delaySubscription", Long.TYPE, TimeUnit.class, Scheduler.class));
 
+        // zero time doesn't keep the outcome
+        addOverride(new ParamOverride(Maybe.class, 1, ParamMode.NON_NEGATIVE, "singleFlight", Function1.class, Long.TYPE, TimeUnit.class, Scheduler.class));
+
         // ***********************************************************************************************************************
 
         // negative timeout time is considered as zero timeout time
@@ -391,6 +400,13 @@ public class ParamValidationCheckerTest {
         addOverride(new ParamOverride(Single.class, 0, ParamMode.ANY, "delaySubscription", Long.TYPE, TimeUnit.class));
         addOverride(new ParamOverride(Single.class, 0, ParamMode.ANY, "delaySubscription", Long.TYPE, TimeUnit.class, Scheduler.class));
 
+        // zero time doesn't keep the outcome
+        addOverride(new ParamOverride(Single.class, 1, ParamMode.NON_NEGATIVE, "singleFlight", Function1.class, Long.TYPE, TimeUnit.class, Scheduler.class));
+
+        // zero time loads the batch as soon as the scheduler gets to it
+        addOverride(new ParamOverride(Single.class, 2, ParamMode.NON_NEGATIVE, "batchLoader", Function1.class, Integer.TYPE, Long.TYPE, TimeUnit.class));
+        addOverride(new ParamOverride(Single.class, 2, ParamMode.NON_NEGATIVE, "batchLoader", Function1.class, Integer.TYPE, Long.TYPE, TimeUnit.class, Scheduler.class));
+
         // ***********************************************************************************************************************
 
         // zero index allowed
@@ -621,6 +637,7 @@ public class ParamValidationCheckerTest {
         defaultValues.put(BackpressureStrategy.class, BackpressureStrategy.MISSING);
         defaultValues.put(BackpressureOverflowStrategy.class, BackpressureOverflowStrategy.ERROR);
         defaultValues.put(Throwable.class, new TestException());
+        defaultValues.put(File.class, new File("rxjava-param-check"));
 
         defaultValues.put(Publisher[].class, new Publisher[] { new NeverPublisher(), new NeverPublisher() });
         defaultValues.put(ObservableSource[].class, new ObservableSource[] { new NeverObservable(), new NeverObservable() });
@@ -629,9 +646,23 @@ public class ParamValidationCheckerTest {
         defaultValues.put(CompletableSource[].class, new CompletableSource[] { new NeverCompletable(), new NeverCompletable() });
 
         defaultValues.put(Object[].class, new Object[] { new Object(), new Object() });
+        defaultValues.put(byte[].class, new byte[] { '\n' });
+
+        defaultValues.put(SpillSerializer.class, new SpillSerializer<Object>() {
+            @Override
+            public void write(Object item, DataOutput output) throws IOException {
+                output.writeUTF(String.valueOf(item));
+            }
+
+            @Override
+            public Object read(DataInput input) throws IOException {
+                return input.readUTF();
+            }
+        });
         defaultValues.put(Future.class, new FutureTask<Object>(Functions.EMPTY_RUNNABLE, 1));
 
         defaultValues.put(ParallelFlowable.class, ParallelFlowable.from(Flowable.never()));
+        defaultValues.put(RailLimiter.class, RailLimiter.create(Schedulers.single(), 1));
         defaultValues.put(Subscriber[].class, new Subscriber[] { new AllFunctionals() });
 
         defaultValues.put(ParallelFailureHandling.class, ParallelFailureHandling.ERROR);
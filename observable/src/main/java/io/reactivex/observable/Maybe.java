@@ -41,6 +41,7 @@ import io.reactivex.observable.extensions.FuseToObservable;
 import io.reactivex.observable.internal.observers.BlockingMultiObserver;
 import io.reactivex.observable.internal.operators.MaybeAmb;
 import io.reactivex.observable.internal.operators.MaybeCache;
+import io.reactivex.observable.internal.operators.MaybeCacheTimed;
 import io.reactivex.observable.internal.operators.MaybeCallbackObserver;
 import io.reactivex.observable.internal.operators.MaybeConcatArray;
 import io.reactivex.observable.internal.operators.MaybeConcatArrayDelayError;
@@ -68,6 +69,7 @@ import io.reactivex.observable.internal.operators.MaybeFlatMapNotification;
 import io.reactivex.observable.internal.operators.MaybeFlatMapSingle;
 import io.reactivex.observable.internal.operators.MaybeFlatMapSingleElement;
 import io.reactivex.observable.internal.operators.MaybeFlatten;
+import io.reactivex.observable.internal.operators.MaybeFlight;
 import io.reactivex.observable.internal.operators.MaybeFromAction;
 import io.reactivex.observable.internal.operators.MaybeFromCallable;
 import io.reactivex.observable.internal.operators.MaybeFromCompletable;
@@ -1253,6 +1255,67 @@ public abstract class Maybe<T> implements MaybeSource<T> {
         return RxJavaObservablePlugins.onAssembly((Maybe<T>)MaybeNever.INSTANCE);
     }
 
+    /**
+     * Returns a function that maps keys to Maybes which share one subscription to the
+     * Maybe loaded for the key among all MaybeObservers subscribing while it is in flight.
+     * <p>
+     * The loader is invoked when a MaybeObserver subscribes to the Maybe of a key with
+     * no subscription in flight; a MaybeObserver subscribing after the outcome has been signalled
+     * causes a new invocation. The shared subscription is disposed once all of its MaybeObservers
+     * disposed. Keys are compared via {@code equals} and {@code hashCode}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>{@code singleFlight} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param loader the function returning the MaybeSource to subscribe to for a key
+     * @return the function returning the shared Maybe of a key
+     * @see #singleFlight(Function1, long, TimeUnit, Scheduler)
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public static <K, V> Function1<K, Maybe<V>> singleFlight(Function1<? super K, ? extends MaybeSource<? extends V>> loader) {
+        ObjectHelper.requireNonNull(loader, "loader is null");
+        return new MaybeFlight<K, V>(loader, 0L, TimeUnit.NANOSECONDS, Schedulers.trampoline());
+    }
+
+    /**
+     * Returns a function that maps keys to Maybes which share one subscription to the
+     * Maybe loaded for the key among all MaybeObservers subscribing while it is in flight
+     * and keep its success value or completion for the given time.
+     * <p>
+     * The loader is invoked when a MaybeObserver subscribes to the Maybe of a key with
+     * neither a subscription in flight nor a kept outcome. The shared subscription is disposed
+     * once all of its MaybeObservers disposed. Errors are not kept. Keys are compared via
+     * {@code equals} and {@code hashCode}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>{@code singleFlight} drops kept outcomes on the given {@link Scheduler}.</dd>
+     * </dl>
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param loader the function returning the MaybeSource to subscribe to for a key
+     * @param time the time a success value or completion is kept, zero to not keep it, non-negative
+     * @param unit the unit of the time
+     * @param scheduler the scheduler to drop the kept outcomes on
+     * @return the function returning the shared Maybe of a key
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    public static <K, V> Function1<K, Maybe<V>> singleFlight(Function1<? super K, ? extends MaybeSource<? extends V>> loader,
+            long time, TimeUnit unit, Scheduler scheduler) {
+        ObjectHelper.requireNonNull(loader, "loader is null");
+        if (time < 0L) {
+            throw new IllegalArgumentException("time >= 0 required but it was " + time);
+        }
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        return new MaybeFlight<K, V>(loader, time, unit, scheduler);
+    }
+
 
     /**
      * Returns a Single that emits a Boolean value that indicates whether two MaybeSource sequences are the
@@ -2043,6 +2106,62 @@ public abstract class Maybe<T> implements MaybeSource<T> {
         return RxJavaObservablePlugins.onAssembly(new MaybeCache<T>(this));
     }
 
+    /**
+     * Caches the success value or completion of the current Maybe for the given time and subscribes to it again
+     * when a MaybeObserver arrives after the success value or completion expired.
+     * <p>
+     * Errors are not cached, MaybeObservers arriving after an error subscribe to the current Maybe again.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>{@code cache} uses the given {@link Scheduler} only as its time source.</dd>
+     * </dl>
+     *
+     * @param time the time the success value or completion is cached, positive
+     * @param unit the unit of the time
+     * @param scheduler the scheduler providing the current time
+     * @return the new Maybe instance
+     * @see #cache(long, long, TimeUnit, Scheduler)
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    public final Maybe<T> cache(long time, TimeUnit unit, Scheduler scheduler) {
+        return cache(time, time, unit, scheduler);
+    }
+
+    /**
+     * Caches the success value or completion of the current Maybe for the given time and refreshes it ahead of expiry.
+     * <p>
+     * Once the cached success value or completion is older than {@code refreshAfter}, it is still served but the
+     * first MaybeObserver to receive it triggers a new subscription to the current Maybe on the given
+     * {@link Scheduler}, after that MaybeObserver has been served; the success value or completion of that
+     * subscription replaces the cached one. A failed refresh keeps the
+     * cached success value or completion until it expires. MaybeObservers arriving after the success value or completion expired wait for a
+     * new subscription, and errors are not cached.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>{@code cache} uses the given {@link Scheduler} as its time source and subscribes to the current
+     * Maybe on it to refresh the cached success value or completion.</dd>
+     * </dl>
+     *
+     * @param time the time the success value or completion is cached, positive
+     * @param refreshAfter the age of the cached success value or completion from which it is refreshed, no refresh happens
+     *                     if not less than {@code time}, positive
+     * @param unit the unit of the times
+     * @param scheduler the scheduler providing the current time and running the refresh
+     * @return the new Maybe instance
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    public final Maybe<T> cache(long time, long refreshAfter, TimeUnit unit, Scheduler scheduler) {
+        ObjectHelper.verifyPositive(time, "time");
+        ObjectHelper.verifyPositive(refreshAfter, "refreshAfter");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        return RxJavaObservablePlugins.onAssembly(new MaybeCacheTimed<T>(this, time, refreshAfter, unit, scheduler));
+    }
+
     /**
      * Casts the success value of the current Maybe into the target type or signals a
      * ClassCastException if not compatible.
@@ -26,6 +26,7 @@ import java.util.concurrent.TimeUnit;
 import io.reactivex.common.Disposable;
 import io.reactivex.common.Emitter;
 import io.reactivex.common.ErrorMode;
+import io.reactivex.common.Histogram;
 import io.reactivex.common.Notification;
 import io.reactivex.common.RxJavaCommonPlugins;
 import io.reactivex.common.Scheduler;
@@ -48,6 +49,7 @@ import io.reactivex.common.internal.functions.ObjectHelper;
 import io.reactivex.common.internal.utils.ArrayListSupplier;
 import io.reactivex.common.internal.utils.ExceptionHelper;
 import io.reactivex.common.internal.utils.HashMapSupplier;
+import io.reactivex.common.internal.utils.HistogramHelper;
 import io.reactivex.observable.extensions.ScalarCallable;
 import io.reactivex.observable.internal.observers.BlockingFirstObserver;
 import io.reactivex.observable.internal.observers.BlockingLastObserver;
@@ -2558,7 +2560,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      * @param sources
      *            the Iterable of ObservableSources
      * @param maxConcurrency
-     *            the maximum number of ObservableSources that may be subscribed to concurrently
+     *            the maximum number of ObservableSources that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param bufferSize
      *            the number of items to prefetch from each inner ObservableSource
      * @return an Observable that emits items that are the result of flattening the items emitted by the
@@ -2591,7 +2596,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      * @param sources
      *            the array of ObservableSources
      * @param maxConcurrency
-     *            the maximum number of ObservableSources that may be subscribed to concurrently
+     *            the maximum number of ObservableSources that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param bufferSize
      *            the number of items to prefetch from each inner ObservableSource
      * @return an Observable that emits items that are the result of flattening the items emitted by the
@@ -2650,7 +2658,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      * @param sources
      *            the Iterable of ObservableSources
      * @param maxConcurrency
-     *            the maximum number of ObservableSources that may be subscribed to concurrently
+     *            the maximum number of ObservableSources that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return an Observable that emits items that are the result of flattening the items emitted by the
      *         ObservableSources in the Iterable
      * @throws IllegalArgumentException
@@ -2710,7 +2721,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      * @param sources
      *            an ObservableSource that emits ObservableSources
      * @param maxConcurrency
-     *            the maximum number of ObservableSources that may be subscribed to concurrently
+     *            the maximum number of ObservableSources that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return an Observable that emits items that are the result of flattening the ObservableSources emitted by the
      *         {@code source} ObservableSource
      * @throws IllegalArgumentException
@@ -2904,7 +2918,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      * @param sources
      *            the Iterable of ObservableSources
      * @param maxConcurrency
-     *            the maximum number of ObservableSources that may be subscribed to concurrently
+     *            the maximum number of ObservableSources that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param bufferSize
      *            the number of items to prefetch from each inner ObservableSource
      * @return an Observable that emits items that are the result of flattening the items emitted by the
@@ -2940,7 +2957,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      * @param sources
      *            the array of ObservableSources
      * @param maxConcurrency
-     *            the maximum number of ObservableSources that may be subscribed to concurrently
+     *            the maximum number of ObservableSources that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param bufferSize
      *            the number of items to prefetch from each inner ObservableSource
      * @return an Observable that emits items that are the result of flattening the items emitted by the
@@ -2976,7 +2996,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      * @param sources
      *            the Iterable of ObservableSources
      * @param maxConcurrency
-     *            the maximum number of ObservableSources that may be subscribed to concurrently
+     *            the maximum number of ObservableSources that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return an Observable that emits items that are the result of flattening the items emitted by the
      *         ObservableSources in the Iterable
      * @see <a href="http://reactivex.io/documentation/operators/merge.html">ReactiveX operators documentation: Merge</a>
@@ -3044,7 +3067,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      * @param sources
      *            an ObservableSource that emits ObservableSources
      * @param maxConcurrency
-     *            the maximum number of ObservableSources that may be subscribed to concurrently
+     *            the maximum number of ObservableSources that may be subscribed to concurrently;
+     *            a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *            in a registry that only visits those with items to emit, suited to many thousands of them,
+     *            whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return an Observable that emits all of the items emitted by the ObservableSources emitted by the
      *         {@code source} ObservableSource
      * @see <a href="http://reactivex.io/documentation/operators/merge.html">ReactiveX operators documentation: Merge</a>
@@ -3209,6 +3235,68 @@ public abstract class Observable<T> implements ObservableSource<T> {
         return fromArray(sources).flatMap((Function1) Functions.identity(), true, sources.length);
     }
 
+    /**
+     * Merges ObservableSources, each emitting its items in the order defined by a comparator, into a single
+     * Observable emitting all of their items in that order.
+     * <p>
+     * The operator keeps the next item of each source in a heap; an item is emitted once every source
+     * that hasn't completed has provided its next item, so the items of a fast source are buffered
+     * while a slow source holds back the output. Items which compare equal are emitted in the order of
+     * their sources. If the sources are not sorted, the output is not sorted either.
+     * <dl>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code mergeSorted} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param <T> the common element base type
+     * @param comparator the comparator defining the order of the items of each source and of the result
+     * @param sources the sorted ObservableSources to merge
+     * @return the new Observable instance
+     * @see #mergeSorted(Iterable, Comparator, int)
+     */
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.NONE)
+    @Experimental
+    public static <T> Observable<T> mergeSorted(Comparator<? super T> comparator, ObservableSource<? extends T>... sources) {
+        ObjectHelper.requireNonNull(comparator, "comparator is null");
+        ObjectHelper.requireNonNull(sources, "sources is null");
+        if (sources.length == 0) {
+            return empty();
+        }
+        return RxJavaObservablePlugins.onAssembly(new ObservableMergeSorted<T>(sources, null, comparator, bufferSize()));
+    }
+
+    /**
+     * Merges an Iterable sequence of ObservableSources, each emitting its items in the order defined by
+     * a comparator, into a single Observable emitting all of their items in that order.
+     * <p>
+     * The operator keeps the next item of each source in a heap; an item is emitted once every source
+     * that hasn't completed has provided its next item, so the items of a fast source are buffered
+     * while a slow source holds back the output. Items which compare equal are emitted in the order of
+     * their sources. If the sources are not sorted, the output is not sorted either.
+     * <dl>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code mergeSorted} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param <T> the common element base type
+     * @param sources the sorted ObservableSources to merge
+     * @param comparator the comparator defining the order of the items of each source and of the result
+     * @param bufferSize the number of items expected to be buffered for each source, used as the
+     *        island size of their unbounded queues
+     * @return the new Observable instance
+     * @see #mergeSorted(Comparator, ObservableSource...)
+     */
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.NONE)
+    @Experimental
+    public static <T> Observable<T> mergeSorted(Iterable<? extends ObservableSource<? extends T>> sources, Comparator<? super T> comparator, int bufferSize) {
+        ObjectHelper.requireNonNull(sources, "sources is null");
+        ObjectHelper.requireNonNull(comparator, "comparator is null");
+        ObjectHelper.verifyPositive(bufferSize, "bufferSize");
+        return RxJavaObservablePlugins.onAssembly(new ObservableMergeSorted<T>(null, sources, comparator, bufferSize));
+    }
+
     /**
      * Returns an Observable that never sends any items or notifications to an {@link Observer}.
      * <p>
@@ -4846,6 +4934,49 @@ public abstract class Observable<T> implements ObservableSource<T> {
         return new BlockingObservableIterable<T>(this, bufferSize);
     }
 
+    /**
+     * Converts this {@code Observable} into an {@link Iterable} of lists, each holding the items that
+     * became available since the previous list, up to {@link #bufferSize()} items.
+     * <p>
+     * Each list costs one wait, which is cheaper than {@link #blockingIterable()} when the
+     * consumer processes items in batches.
+     * <dl>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code blockingChunks} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @return an {@link Iterable} of non-empty lists of the items of this {@code Observable}
+     * @see #blockingChunks(int)
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Iterable<List<T>> blockingChunks() {
+        return blockingChunks(bufferSize());
+    }
+
+    /**
+     * Converts this {@code Observable} into an {@link Iterable} of lists, each holding the items that
+     * became available since the previous list, up to {@code batchSize} items.
+     * <p>
+     * Each list costs one wait, which is cheaper than {@link #blockingIterable(int)} when the
+     * consumer processes items in batches.
+     * <dl>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code blockingChunks} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param batchSize the capacity hint of the buffer and the maximum size of each list
+     * @return an {@link Iterable} of non-empty lists of the items of this {@code Observable}
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public final Iterable<List<T>> blockingChunks(int batchSize) {
+        ObjectHelper.verifyPositive(batchSize, "batchSize");
+        return new BlockingObservableChunkIterable<T>(this, batchSize);
+    }
+
     /**
      * Returns the last item emitted by this {@code Observable}, or throws
      * {@code NoSuchElementException} if this {@code Observable} emits no items.
@@ -5828,6 +5959,39 @@ public abstract class Observable<T> implements ObservableSource<T> {
         return ObservableCache.from(this, initialCapacity);
     }
 
+    /**
+     * Returns an Observable that caches the events of this ObservableSource like {@link #cache()} but
+     * serves them to late Observers only for a limited time after the upstream completed and
+     * only up to the given number of items.
+     * <p>
+     * A late Observer subscribes to this ObservableSource again, replacing the cached events, when the
+     * cached sequence completed more than the given time ago, failed or has more than
+     * {@code maxItems} items. Observers that are already replaying a sequence that grows beyond
+     * {@code maxItems} items keep receiving it; the segments of the cache they all consumed
+     * are released, and the upstream is cancelled once none of them remains.
+     * <dl>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code cache} uses the given {@link Scheduler} only as its time source.</dd>
+     * </dl>
+     *
+     * @param maxItems the maximum number of items a late Observer can replay, positive
+     * @param time the time a completed sequence is replayed to late Observers, positive
+     * @param unit the unit of the time
+     * @param scheduler the scheduler providing the current time
+     * @return the new Observable instance
+     * @see #cache()
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    public final Observable<T> cache(int maxItems, long time, TimeUnit unit, Scheduler scheduler) {
+        ObjectHelper.verifyPositive(maxItems, "maxItems");
+        ObjectHelper.verifyPositive(time, "time");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        return RxJavaObservablePlugins.onAssembly(new ObservableCacheBounded<T>(this, maxItems, time, unit, scheduler));
+    }
+
     /**
      * Returns an Observable that emits the items emitted by the source ObservableSource, converted to the specified
      * type.
@@ -7384,7 +7548,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      *            a function that, when applied to an item emitted by the source ObservableSource, returns an
      *            ObservableSource
      * @param maxConcurrency
-     *         the maximum number of ObservableSources that may be subscribed to concurrently
+     *         the maximum number of ObservableSources that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param delayErrors
      *            if true, exceptions from the current Observable and all inner ObservableSources are delayed until all of them terminate
      *            if false, the first one signalling an exception will terminate the whole sequence immediately
@@ -7417,7 +7584,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      *            a function that, when applied to an item emitted by the source ObservableSource, returns an
      *            ObservableSource
      * @param maxConcurrency
-     *         the maximum number of ObservableSources that may be subscribed to concurrently
+     *         the maximum number of ObservableSources that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param delayErrors
      *            if true, exceptions from the current Observable and all inner ObservableSources are delayed until all of them terminate
      *            if false, the first one signalling an exception will terminate the whole sequence immediately
@@ -7505,7 +7675,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      *            a function that returns an ObservableSource to merge for an onComplete notification from the source
      *            ObservableSource
      * @param maxConcurrency
-     *         the maximum number of ObservableSources that may be subscribed to concurrently
+     *         the maximum number of ObservableSources that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return an Observable that emits the results of merging the ObservableSources returned from applying the
      *         specified functions to the emissions and notifications of the source ObservableSource
      * @see <a href="http://reactivex.io/documentation/operators/flatmap.html">ReactiveX operators documentation: FlatMap</a>
@@ -7541,7 +7714,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      *            a function that, when applied to an item emitted by the source ObservableSource, returns an
      *            ObservableSource
      * @param maxConcurrency
-     *         the maximum number of ObservableSources that may be subscribed to concurrently
+     *         the maximum number of ObservableSources that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return an Observable that emits the result of applying the transformation function to each item emitted
      *         by the source ObservableSource and merging the results of the ObservableSources obtained from this
      *         transformation
@@ -7638,7 +7814,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      *            a function that combines one item emitted by each of the source and collection ObservableSources and
      *            returns an item to be emitted by the resulting ObservableSource
      * @param maxConcurrency
-     *         the maximum number of ObservableSources that may be subscribed to concurrently
+     *         the maximum number of ObservableSources that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param delayErrors
      *            if true, exceptions from the current Observable and all inner ObservableSources are delayed until all of them terminate
      *            if false, the first one signalling an exception will terminate the whole sequence immediately
@@ -7675,7 +7854,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      *            a function that combines one item emitted by each of the source and collection ObservableSources and
      *            returns an item to be emitted by the resulting ObservableSource
      * @param maxConcurrency
-     *         the maximum number of ObservableSources that may be subscribed to concurrently
+     *         the maximum number of ObservableSources that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @param delayErrors
      *            if true, exceptions from the current Observable and all inner ObservableSources are delayed until all of them terminate
      *            if false, the first one signalling an exception will terminate the whole sequence immediately
@@ -7716,7 +7898,10 @@ public abstract class Observable<T> implements ObservableSource<T> {
      *            a function that combines one item emitted by each of the source and collection ObservableSources and
      *            returns an item to be emitted by the resulting ObservableSource
      * @param maxConcurrency
-     *         the maximum number of ObservableSources that may be subscribed to concurrently
+     *         the maximum number of ObservableSources that may be subscribed to concurrently;
+     *         a value of 1024 or more, other than {@code Integer.MAX_VALUE}, tracks the inner ObservableSources
+     *         in a registry that only visits those with items to emit, suited to many thousands of them,
+     *         whereas the unbounded default keeps the simpler tracking meant for fewer of them
      * @return an Observable that emits the results of applying a function to a pair of values emitted by the
      *         source ObservableSource and the collection ObservableSource
      * @see <a href="http://reactivex.io/documentation/operators/flatmap.html">ReactiveX operators documentation: FlatMap</a>
@@ -8278,6 +8463,31 @@ public abstract class Observable<T> implements ObservableSource<T> {
         return RxJavaObservablePlugins.onAssembly(new ObservableHide<T>(this));
     }
 
+    /**
+     * Records a long value mapped from each item of the source ObservableSource into a {@link Histogram}
+     * and signals the Histogram when the source completes.
+     * <p>
+     * Unlike sorting the items collected via {@code toList}, the memory used doesn't depend on the
+     * number of items: the Histogram keeps logarithmic buckets whose relative width is bound by the
+     * given number of significant digits, from which percentiles such as p50, p99 or p999 can be read.
+     * <dl>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code histogram} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param valueMapper the function returning the non-negative value to record for an item, such as a latency
+     * @param significantDigits the number of significant decimal digits to keep, between 1 and 5
+     * @return the new Single instance
+     * @see Histogram
+     */
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.NONE)
+    @Experimental
+    public final Single<Histogram> histogram(Function1<? super T, Long> valueMapper, int significantDigits) {
+        ObjectHelper.requireNonNull(valueMapper, "valueMapper is null");
+        return collect(HistogramHelper.supplier(significantDigits), HistogramHelper.<T>recorder(valueMapper));
+    }
+
     /**
      * Ignores all items emitted by the source ObservableSource and only calls {@code onComplete} or {@code onError}.
      * <p>
@@ -8364,6 +8574,109 @@ public abstract class Observable<T> implements ObservableSource<T> {
                 this, other, leftEnd, rightEnd, resultSelector));
     }
 
+    /**
+     * Pairs up the items of this and another ObservableSource which have equal keys and arrived
+     * less than the given time apart.
+     * <p>
+     * Unlike {@link #join(ObservableSource, Function1, Function1, Function2) join}, which tests each item against
+     * every open window of the other side, this operator keeps the recent items of both sides in hash
+     * buckets by key so an arriving item is matched only against the items with an equal key. An item
+     * is removed once it gets {@code time} old. Matches of an arriving item are emitted in the arrival
+     * order of the other side's items.
+     * <dl>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>{@code equiJoin} operates by default on the {@code computation} {@link Scheduler}.</dd>
+     * </dl>
+     *
+     * @param <TRight> the value type of the right ObservableSource
+     * @param <K> the key type
+     * @param <R> the result type
+     * @param other
+     *            the second ObservableSource to join items from
+     * @param leftKeySelector
+     *            a function returning the key of an item of this ObservableSource
+     * @param rightKeySelector
+     *            a function returning the key of an item of the {@code other} ObservableSource
+     * @param time
+     *            the time after which an item can no longer be matched
+     * @param unit
+     *            the time unit of {@code time}
+     * @param resultSelector
+     *            a function that computes an item to be emitted for any two items with equal keys
+     * @return the new Observable instance
+     * @see #equiJoin(ObservableSource, Function1, Function1, long, TimeUnit, Scheduler, int, Function2)
+     */
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.COMPUTATION)
+    @Experimental
+    public final <TRight, K, R> Observable<R> equiJoin(
+            ObservableSource<? extends TRight> other,
+            Function1<? super T, ? extends K> leftKeySelector,
+            Function1<? super TRight, ? extends K> rightKeySelector,
+            long time, TimeUnit unit,
+            Function2<? super T, ? super TRight, ? extends R> resultSelector) {
+        return equiJoin(other, leftKeySelector, rightKeySelector, time, unit, Schedulers.computation(), Integer.MAX_VALUE, resultSelector);
+    }
+
+    /**
+     * Pairs up the items of this and another ObservableSource which have equal keys and arrived
+     * less than the given time apart, keeping at most {@code count} items of each side.
+     * <p>
+     * Unlike {@link #join(ObservableSource, Function1, Function1, Function2) join}, which tests each item against
+     * every open window of the other side, this operator keeps the recent items of both sides in hash
+     * buckets by key so an arriving item is matched only against the items with an equal key. An item
+     * is removed once it gets {@code time} old, as measured by the {@code scheduler}, or once
+     * {@code count} newer items arrived on its side. Matches of an arriving item are emitted in the
+     * arrival order of the other side's items.
+     * <dl>
+     *  <dt><b>Scheduler:</b></dt>
+     *  <dd>You specify which {@link Scheduler} this operator will use</dd>
+     * </dl>
+     *
+     * @param <TRight> the value type of the right ObservableSource
+     * @param <K> the key type
+     * @param <R> the result type
+     * @param other
+     *            the second ObservableSource to join items from
+     * @param leftKeySelector
+     *            a function returning the key of an item of this ObservableSource
+     * @param rightKeySelector
+     *            a function returning the key of an item of the {@code other} ObservableSource
+     * @param time
+     *            the time after which an item can no longer be matched
+     * @param unit
+     *            the time unit of {@code time}
+     * @param scheduler
+     *            the {@link Scheduler} providing the current time and running the periodic
+     *            removal of the expired items
+     * @param count
+     *            the maximum number of items kept for each side
+     * @param resultSelector
+     *            a function that computes an item to be emitted for any two items with equal keys
+     * @return the new Observable instance
+     * @see #equiJoin(ObservableSource, Function1, Function1, long, TimeUnit, Function2)
+     */
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    @Experimental
+    public final <TRight, K, R> Observable<R> equiJoin(
+            ObservableSource<? extends TRight> other,
+            Function1<? super T, ? extends K> leftKeySelector,
+            Function1<? super TRight, ? extends K> rightKeySelector,
+            long time, TimeUnit unit, Scheduler scheduler, int count,
+            Function2<? super T, ? super TRight, ? extends R> resultSelector) {
+        ObjectHelper.requireNonNull(other, "other is null");
+        ObjectHelper.requireNonNull(leftKeySelector, "leftKeySelector is null");
+        ObjectHelper.requireNonNull(rightKeySelector, "rightKeySelector is null");
+        ObjectHelper.verifyPositive(time, "time");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.verifyPositive(count, "count");
+        ObjectHelper.requireNonNull(resultSelector, "resultSelector is null");
+        return RxJavaObservablePlugins.onAssembly(new ObservableEquiJoin<T, TRight, K, R>(
+                this, other, leftKeySelector, rightKeySelector, time, unit, scheduler, count, resultSelector));
+    }
+
     /**
      * Returns a Maybe that emits the last item emitted by this Observable or
      * completes if this Observable is empty.
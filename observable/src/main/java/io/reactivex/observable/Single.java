@@ -13,6 +13,8 @@
 
 package io.reactivex.observable;
 
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
@@ -53,7 +55,9 @@ import io.reactivex.observable.internal.operators.ObservableConcatMap;
 import io.reactivex.observable.internal.operators.ObservableFlatMap;
 import io.reactivex.observable.internal.operators.ObservableSingleSingle;
 import io.reactivex.observable.internal.operators.SingleAmb;
+import io.reactivex.observable.internal.operators.SingleBatchLoader;
 import io.reactivex.observable.internal.operators.SingleCache;
+import io.reactivex.observable.internal.operators.SingleCacheTimed;
 import io.reactivex.observable.internal.operators.SingleContains;
 import io.reactivex.observable.internal.operators.SingleCreate;
 import io.reactivex.observable.internal.operators.SingleDefer;
@@ -75,6 +79,7 @@ import io.reactivex.observable.internal.operators.SingleFlatMap;
 import io.reactivex.observable.internal.operators.SingleFlatMapCompletable;
 import io.reactivex.observable.internal.operators.SingleFlatMapIterableObservable;
 import io.reactivex.observable.internal.operators.SingleFlatMapMaybe;
+import io.reactivex.observable.internal.operators.SingleFlight;
 import io.reactivex.observable.internal.operators.SingleFromCallable;
 import io.reactivex.observable.internal.operators.SingleFromUnsafeSource;
 import io.reactivex.observable.internal.operators.SingleHide;
@@ -832,6 +837,150 @@ public abstract class Single<T> implements SingleSource<T> {
         return RxJavaObservablePlugins.onAssembly((Single<T>) SingleNever.INSTANCE);
     }
 
+    /**
+     * Returns a function that maps keys to Singles which share one subscription to the
+     * Single loaded for the key among all SingleObservers subscribing while it is in flight.
+     * <p>
+     * The loader is invoked when a SingleObserver subscribes to the Single of a key with
+     * no subscription in flight; a SingleObserver subscribing after the outcome has been signalled
+     * causes a new invocation. The shared subscription is disposed once all of its SingleObservers
+     * disposed. Keys are compared via {@code equals} and {@code hashCode}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>{@code singleFlight} does not operate by default on a particular {@link Scheduler}.</dd>
+     * </dl>
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param loader the function returning the SingleSource to subscribe to for a key
+     * @return the function returning the shared Single of a key
+     * @see #singleFlight(Function1, long, TimeUnit, Scheduler)
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.NONE)
+    public static <K, V> Function1<K, Single<V>> singleFlight(Function1<? super K, ? extends SingleSource<? extends V>> loader) {
+        ObjectHelper.requireNonNull(loader, "loader is null");
+        return new SingleFlight<K, V>(loader, 0L, TimeUnit.NANOSECONDS, Schedulers.trampoline());
+    }
+
+    /**
+     * Returns a function that maps keys to Singles which share one subscription to the
+     * Single loaded for the key among all SingleObservers subscribing while it is in flight
+     * and keep its success value for the given time.
+     * <p>
+     * The loader is invoked when a SingleObserver subscribes to the Single of a key with
+     * neither a subscription in flight nor a kept success value. The shared subscription is disposed
+     * once all of its SingleObservers disposed. Errors are not kept. Keys are compared via
+     * {@code equals} and {@code hashCode}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>{@code singleFlight} drops kept success values on the given {@link Scheduler}.</dd>
+     * </dl>
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param loader the function returning the SingleSource to subscribe to for a key
+     * @param time the time a success value is kept, zero to not keep it, non-negative
+     * @param unit the unit of the time
+     * @param scheduler the scheduler to drop the kept success values on
+     * @return the function returning the shared Single of a key
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    public static <K, V> Function1<K, Single<V>> singleFlight(Function1<? super K, ? extends SingleSource<? extends V>> loader,
+            long time, TimeUnit unit, Scheduler scheduler) {
+        ObjectHelper.requireNonNull(loader, "loader is null");
+        if (time < 0L) {
+            throw new IllegalArgumentException("time >= 0 required but it was " + time);
+        }
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        return new SingleFlight<K, V>(loader, time, unit, scheduler);
+    }
+
+    /**
+     * Returns a function that maps keys to Singles whose subscriptions are collected into
+     * batches and loaded with one call to the bulk loader per batch.
+     * <p>
+     * A batch is loaded once {@code maxBatchSize} SingleObservers joined it or the given time elapsed
+     * since the first one did, whichever happens first. The bulk loader receives the distinct keys of the
+     * batch in subscription order; each SingleObserver receives the value mapped to its key, a
+     * {@link NoSuchElementException} if the map has none, or the error of the bulk loader; a
+     * {@code null} map fails the whole batch with a {@link NullPointerException}. The bulk load is
+     * disposed once all SingleObservers of its batch disposed.
+     * <p>
+     * The function can be used directly with {@code flatMapSingle}:
+     * <pre><code>
+     * Function1&lt;Long, Single&lt;User&gt;&gt; users = Single.batchLoader(
+     *     new Function1&lt;List&lt;Long&gt;, Single&lt;Map&lt;Long, User&gt;&gt;&gt;() {
+     *         &#64;Override
+     *         public Single&lt;Map&lt;Long, User&gt;&gt; invoke(List&lt;Long&gt; ids) {
+     *             return repo.loadAll(ids);
+     *         }
+     *     }, 100, 5, TimeUnit.MILLISECONDS);
+     *
+     * ids.flatMapSingle(users)
+     * </code></pre>
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>{@code batchLoader} loads a batch whose time elapsed on the {@code computation} {@link Scheduler}.</dd>
+     * </dl>
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param bulkLoader the function returning the SingleSource of the values for a list of keys
+     * @param maxBatchSize the maximum number of SingleObservers in a batch, positive
+     * @param time the time a batch collects SingleObservers at most, non-negative
+     * @param unit the unit of the time
+     * @return the function returning the batched Single of a key
+     * @see #batchLoader(Function1, int, long, TimeUnit, Scheduler)
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.COMPUTATION)
+    public static <K, V> Function1<K, Single<V>> batchLoader(Function1<? super List<K>, ? extends SingleSource<? extends Map<K, V>>> bulkLoader,
+            int maxBatchSize, long time, TimeUnit unit) {
+        return batchLoader(bulkLoader, maxBatchSize, time, unit, Schedulers.computation());
+    }
+
+    /**
+     * Returns a function that maps keys to Singles whose subscriptions are collected into
+     * batches and loaded with one call to the bulk loader per batch.
+     * <p>
+     * A batch is loaded once {@code maxBatchSize} SingleObservers joined it or the given time elapsed
+     * since the first one did, whichever happens first. The bulk loader receives the distinct keys of the
+     * batch in subscription order; each SingleObserver receives the value mapped to its key, a
+     * {@link NoSuchElementException} if the map has none, or the error of the bulk loader; a
+     * {@code null} map fails the whole batch with a {@link NullPointerException}. The bulk load is
+     * disposed once all SingleObservers of its batch disposed.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>{@code batchLoader} loads a batch whose time elapsed on the given {@link Scheduler}; a full batch
+     * is loaded on the thread whose SingleObserver filled it.</dd>
+     * </dl>
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param bulkLoader the function returning the SingleSource of the values for a list of keys
+     * @param maxBatchSize the maximum number of SingleObservers in a batch, positive
+     * @param time the time a batch collects SingleObservers at most, non-negative
+     * @param unit the unit of the time
+     * @param scheduler the scheduler to load the batches whose time elapsed on
+     * @return the function returning the batched Single of a key
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    public static <K, V> Function1<K, Single<V>> batchLoader(Function1<? super List<K>, ? extends SingleSource<? extends Map<K, V>>> bulkLoader,
+            int maxBatchSize, long time, TimeUnit unit, Scheduler scheduler) {
+        ObjectHelper.requireNonNull(bulkLoader, "bulkLoader is null");
+        ObjectHelper.verifyPositive(maxBatchSize, "maxBatchSize");
+        if (time < 0L) {
+            throw new IllegalArgumentException("time >= 0 required but it was " + time);
+        }
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        return new SingleBatchLoader<K, V>(bulkLoader, maxBatchSize, time, unit, scheduler);
+    }
+
     /**
      * Signals success with 0L value after the given delay for each SingleObserver.
      * <dl>
@@ -1555,6 +1704,62 @@ public abstract class Single<T> implements SingleSource<T> {
         return RxJavaObservablePlugins.onAssembly(new SingleCache<T>(this));
     }
 
+    /**
+     * Caches the success value of the current Single for the given time and subscribes to it again
+     * when a SingleObserver arrives after the success value expired.
+     * <p>
+     * Errors are not cached, SingleObservers arriving after an error subscribe to the current Single again.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>{@code cache} uses the given {@link Scheduler} only as its time source.</dd>
+     * </dl>
+     *
+     * @param time the time the success value is cached, positive
+     * @param unit the unit of the time
+     * @param scheduler the scheduler providing the current time
+     * @return the new Single instance
+     * @see #cache(long, long, TimeUnit, Scheduler)
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    public final Single<T> cache(long time, TimeUnit unit, Scheduler scheduler) {
+        return cache(time, time, unit, scheduler);
+    }
+
+    /**
+     * Caches the success value of the current Single for the given time and refreshes it ahead of expiry.
+     * <p>
+     * Once the cached success value is older than {@code refreshAfter}, it is still served but the
+     * first SingleObserver to receive it triggers a new subscription to the current Single on the given
+     * {@link Scheduler}, after that SingleObserver has been served; the success value of that
+     * subscription replaces the cached one. A failed refresh keeps the
+     * cached success value until it expires. SingleObservers arriving after the success value expired wait for a
+     * new subscription, and errors are not cached.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>{@code cache} uses the given {@link Scheduler} as its time source and subscribes to the current
+     * Single on it to refresh the cached success value.</dd>
+     * </dl>
+     *
+     * @param time the time the success value is cached, positive
+     * @param refreshAfter the age of the cached success value from which it is refreshed, no refresh happens
+     *                     if not less than {@code time}, positive
+     * @param unit the unit of the times
+     * @param scheduler the scheduler providing the current time and running the refresh
+     * @return the new Single instance
+     */
+    @Experimental
+    @CheckReturnValue
+    @SchedulerSupport(SchedulerSupport.CUSTOM)
+    public final Single<T> cache(long time, long refreshAfter, TimeUnit unit, Scheduler scheduler) {
+        ObjectHelper.verifyPositive(time, "time");
+        ObjectHelper.verifyPositive(refreshAfter, "refreshAfter");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        return RxJavaObservablePlugins.onAssembly(new SingleCacheTimed<T>(this, time, refreshAfter, unit, scheduler));
+    }
+
     /**
      * Casts the success value of the current Single into the target type or signals a
      * ClassCastException if not compatible.
@@ -12,13 +12,11 @@
  */
 package io.reactivex.observable.internal.observers;
 
-import java.util.concurrent.CountDownLatch;
-
 import io.reactivex.common.Disposable;
 import io.reactivex.common.internal.utils.*;
 import io.reactivex.observable.Observer;
 
-public abstract class BlockingBaseObserver<T> extends CountDownLatch
+public abstract class BlockingBaseObserver<T> extends SpinParkLatch
 implements Observer<T>, Disposable {
 
     T value;
@@ -28,10 +26,6 @@ implements Observer<T>, Disposable {
 
     volatile boolean cancelled;
 
-    public BlockingBaseObserver() {
-        super(1);
-    }
-
     @Override
     public final void onSubscribe(Disposable d) {
         this.d = d;
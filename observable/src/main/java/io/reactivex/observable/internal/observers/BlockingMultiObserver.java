@@ -20,11 +20,11 @@ import io.reactivex.common.internal.utils.*;
 import io.reactivex.observable.*;
 
 /**
- * A combined Observer that awaits the success or error signal via a CountDownLatch.
+ * A combined Observer that awaits the success or error signal via a SpinParkLatch.
  * @param <T> the value type
  */
 public final class BlockingMultiObserver<T>
-extends CountDownLatch
+extends SpinParkLatch
 implements SingleObserver<T>, CompletableObserver, MaybeObserver<T> {
 
     T value;
@@ -34,10 +34,6 @@ implements SingleObserver<T>, CompletableObserver, MaybeObserver<T> {
 
     volatile boolean cancelled;
 
-    public BlockingMultiObserver() {
-        super(1);
-    }
-
     void dispose() {
         cancelled = true;
         Disposable d = this.d;
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import java.util.*;
+
+import io.reactivex.common.Disposable;
+import io.reactivex.observable.ObservableSource;
+import io.reactivex.observable.internal.operators.BlockingObservableIterable.BlockingObservableIterator;
+
+/**
+ * Iterates over lists of the items that became available since the previous list, so the
+ * consumer thread waits and polls once per list instead of once per item.
+ *
+ * @param <T> the value type
+ */
+public final class BlockingObservableChunkIterable<T> implements Iterable<List<T>> {
+    final ObservableSource<? extends T> source;
+
+    final int batchSize;
+
+    public BlockingObservableChunkIterable(ObservableSource<? extends T> source, int batchSize) {
+        this.source = source;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Iterator<List<T>> iterator() {
+        BlockingObservableIterator<T> it = new BlockingObservableIterator<T>(batchSize);
+        source.subscribe(it);
+        return new BlockingObservableChunkIterator<T>(it, batchSize);
+    }
+
+    static final class BlockingObservableChunkIterator<T> implements Iterator<List<T>>, Disposable {
+        final BlockingObservableIterator<T> items;
+
+        final int batchSize;
+
+        BlockingObservableChunkIterator(BlockingObservableIterator<T> items, int batchSize) {
+            this.items = items;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return items.hasNext();
+        }
+
+        @Override
+        public List<T> next() {
+            while (items.hasNext()) {
+                List<T> list = items.nextChunk(batchSize);
+                // the queue may briefly report non-empty before the item becomes pollable
+                if (!list.isEmpty()) {
+                    return list;
+                }
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override // otherwise default method which isn't available in Java 7
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public void dispose() {
+            items.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return items.isDisposed();
+        }
+    }
+}
@@ -15,7 +15,6 @@ package io.reactivex.observable.internal.operators;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.*;
 
 import io.reactivex.common.Disposable;
 import io.reactivex.common.internal.disposables.DisposableHelper;
@@ -49,17 +48,14 @@ public final class BlockingObservableIterable<T> implements Iterable<T> {
 
         final SpscLinkedArrayQueue<T> queue;
 
-        final Lock lock;
-
-        final Condition condition;
+        final SpinParkWaiter waiter;
 
         volatile boolean done;
         Throwable error;
 
         BlockingObservableIterator(int batchSize) {
             this.queue = new SpscLinkedArrayQueue<T>(batchSize);
-            this.lock = new ReentrantLock();
-            this.condition = lock.newCondition();
+            this.waiter = new SpinParkWaiter();
         }
 
         @Override
@@ -79,13 +75,13 @@ public final class BlockingObservableIterable<T> implements Iterable<T> {
                 if (empty) {
                     try {
                         BlockingHelper.verifyNonBlocking();
-                        lock.lock();
                         try {
+                            int round = 0;
                             while (!done && queue.isEmpty()) {
-                                condition.await();
+                                round = waiter.idle(round);
                             }
                         } finally {
-                            lock.unlock();
+                            waiter.clear();
                         }
                     } catch (InterruptedException ex) {
                         DisposableHelper.dispose(this);
@@ -106,6 +102,24 @@ public final class BlockingObservableIterable<T> implements Iterable<T> {
             throw new NoSuchElementException();
         }
 
+        /**
+         * Polls up to the given number of items at once; call only after
+         * {@link #hasNext()} returned true.
+         * @param max the maximum number of items to poll
+         * @return the list of items polled, possibly empty
+         */
+        List<T> nextChunk(int max) {
+            List<T> list = new ArrayList<T>();
+            for (int i = 0; i < max; i++) {
+                T v = queue.poll();
+                if (v == null) {
+                    break;
+                }
+                list.add(v);
+            }
+            return list;
+        }
+
         @Override
         public void onSubscribe(Disposable s) {
             DisposableHelper.setOnce(this, s);
@@ -131,12 +145,7 @@ public final class BlockingObservableIterable<T> implements Iterable<T> {
         }
 
         void signalConsumer() {
-            lock.lock();
-            try {
-                condition.signalAll();
-            } finally {
-                lock.unlock();
-            }
+            waiter.signal();
         }
 
         @Override // otherwise default method which isn't available in Java 7
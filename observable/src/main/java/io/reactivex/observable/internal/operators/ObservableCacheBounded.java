@@ -0,0 +1,398 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.*;
+
+import io.reactivex.common.*;
+import io.reactivex.common.internal.disposables.SequentialDisposable;
+import io.reactivex.observable.*;
+import io.reactivex.observable.internal.utils.NotificationLite;
+
+/**
+ * Caches the events of the upstream in generations: late Observers replay the current
+ * generation unless it has expired, failed or grown beyond the item limit, in which case
+ * they start a fresh generation by subscribing to the upstream again.
+ * <p>
+ * A generation that outgrew the item limit releases its head so the segments all
+ * Observers have moved past can be reclaimed.
+ *
+ * @param <T> the source element type
+ */
+public final class ObservableCacheBounded<T> extends AbstractObservableWithUpstream<T, T> {
+
+    final int maxItems;
+
+    final long time;
+
+    final TimeUnit unit;
+
+    final Scheduler scheduler;
+
+    final int capacityHint;
+
+    /** The generation late Observers may join. */
+    final AtomicReference<CacheState<T>> current;
+
+    public ObservableCacheBounded(ObservableSource<T> source, int maxItems, long time, TimeUnit unit, Scheduler scheduler) {
+        super(source);
+        this.maxItems = maxItems;
+        this.time = time;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.capacityHint = Math.min(maxItems, 16);
+        this.current = new AtomicReference<CacheState<T>>();
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> t) {
+        long now = scheduler.now(unit);
+        for (;;) {
+            CacheState<T> state = current.get();
+            boolean connect = false;
+            if (state == null || state.isStale(now)) {
+                CacheState<T> fresh = new CacheState<T>(this);
+                if (!current.compareAndSet(state, fresh)) {
+                    continue;
+                }
+                state = fresh;
+                connect = true;
+            }
+
+            // latch the head before joining, a generation that lost it can't be replayed from the start
+            Object[] h = state.head;
+            if (h == null) {
+                continue;
+            }
+            ReplayDisposable<T> rp = new ReplayDisposable<T>(t, state, h);
+            // hold off the replay until onSubscribe has been called
+            rp.lazySet(1);
+
+            if (state.addChild(rp)) {
+                t.onSubscribe(rp);
+
+                if (connect) {
+                    state.connect();
+                }
+
+                rp.drain();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events cached by the current generation.
+     * @return the number of events cached by the current generation
+     */
+    /* public */ long cachedEventCount() {
+        CacheState<T> state = current.get();
+        return state != null ? state.size : 0L;
+    }
+
+    /**
+     * Holds the events of one upstream subscription and the Observers replaying them.
+     *
+     * @param <T> the value type of the cached items
+     */
+    static final class CacheState<T> implements Observer<T> {
+        /** The parent operator holding the source and limits. */
+        final ObservableCacheBounded<T> parent;
+        /** Holds onto the Disposable of the connection to the source. */
+        final SequentialDisposable connection;
+
+        final AtomicReference<ReplayDisposable<T>[]> observers;
+        /** The default empty array of observers. */
+        @SuppressWarnings("rawtypes")
+        static final ReplayDisposable[] EMPTY = new ReplayDisposable[0];
+        /** Indicates the source has terminated, the cached events can still be replayed. */
+        @SuppressWarnings("rawtypes")
+        static final ReplayDisposable[] TERMINATED = new ReplayDisposable[0];
+        /** Indicates a truncated generation without Observers, its upstream has been disposed. */
+        @SuppressWarnings("rawtypes")
+        static final ReplayDisposable[] ABANDONED = new ReplayDisposable[0];
+
+        /**
+         * The first segment; set to null once the number of items exceeds the limit so
+         * no new Observer can join.
+         */
+        volatile Object[] head;
+        /** The segment where new events are added. */
+        Object[] tail;
+        /** The next available slot in the current tail. */
+        int indexInTail;
+        /** The number of events that can be read by the Observers (acquire). */
+        volatile long size;
+        /** The time until late Observers can join, Long.MAX_VALUE while the upstream is active. */
+        volatile long expiresAt;
+
+        boolean sourceDone;
+
+        @SuppressWarnings("unchecked")
+        CacheState(ObservableCacheBounded<T> parent) {
+            this.parent = parent;
+            this.connection = new SequentialDisposable();
+            this.observers = new AtomicReference<ReplayDisposable<T>[]>(EMPTY);
+            Object[] h = new Object[parent.capacityHint + 1];
+            this.tail = h;
+            this.head = h;
+            this.expiresAt = Long.MAX_VALUE;
+        }
+
+        boolean isStale(long now) {
+            return head == null || now >= expiresAt;
+        }
+
+        void connect() {
+            parent.source.subscribe(this);
+        }
+
+        void add(Object o) {
+            int c = parent.capacityHint;
+            if (indexInTail == c) {
+                Object[] t = new Object[c + 1];
+                t[0] = o;
+                tail[c] = t;
+                tail = t;
+                indexInTail = 1;
+            } else {
+                tail[indexInTail++] = o;
+            }
+            size++;
+        }
+
+        /**
+         * Adds a ReplayDisposable to the observers array atomically.
+         * @param p the target ReplayDisposable wrapping a downstream Observer with state
+         * @return false if the generation has been abandoned and can't be joined
+         */
+        boolean addChild(ReplayDisposable<T> p) {
+            for (;;) {
+                ReplayDisposable<T>[] a = observers.get();
+                if (a == TERMINATED) {
+                    return true;
+                }
+                if (a == ABANDONED) {
+                    return false;
+                }
+                int n = a.length;
+                @SuppressWarnings("unchecked")
+                ReplayDisposable<T>[] b = new ReplayDisposable[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = p;
+                if (observers.compareAndSet(a, b)) {
+                    return true;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void removeChild(ReplayDisposable<T> p) {
+            for (;;) {
+                ReplayDisposable<T>[] a = observers.get();
+                int n = a.length;
+                if (n == 0) {
+                    return;
+                }
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == p) {
+                        j = i;
+                        break;
+                    }
+                }
+                if (j < 0) {
+                    return;
+                }
+
+                ReplayDisposable<T>[] b;
+                if (n == 1) {
+                    // nobody can join a truncated generation, stop feeding it
+                    b = head == null ? ABANDONED : EMPTY;
+                } else {
+                    b = new ReplayDisposable[n - 1];
+                    System.arraycopy(a, 0, b, 0, j);
+                    System.arraycopy(a, j + 1, b, j, n - j - 1);
+                }
+                if (observers.compareAndSet(a, b)) {
+                    if (b == ABANDONED) {
+                        connection.dispose();
+                    } else
+                    if (b == EMPTY && head == null && observers.compareAndSet(EMPTY, ABANDONED)) {
+                        connection.dispose();
+                    }
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onSubscribe(Disposable s) {
+            connection.update(s);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNext(T t) {
+            if (!sourceDone) {
+                add(NotificationLite.next(t));
+                if (head != null && size > parent.maxItems) {
+                    head = null;
+                    if (observers.compareAndSet(EMPTY, ABANDONED)) {
+                        connection.dispose();
+                    }
+                }
+                for (ReplayDisposable<?> rp : observers.get()) {
+                    rp.replay();
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onError(Throwable e) {
+            if (!sourceDone) {
+                sourceDone = true;
+                // errors are not served to late Observers, they retry the upstream
+                expiresAt = Long.MIN_VALUE;
+                add(NotificationLite.error(e));
+                connection.dispose();
+                for (ReplayDisposable<?> rp : observers.getAndSet(TERMINATED)) {
+                    rp.replay();
+                }
+            } else {
+                RxJavaCommonPlugins.onError(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onComplete() {
+            if (!sourceDone) {
+                sourceDone = true;
+                long now = parent.scheduler.now(parent.unit);
+                long ttl = parent.time;
+                expiresAt = now > Long.MAX_VALUE - ttl ? Long.MAX_VALUE - 1 : now + ttl;
+                add(NotificationLite.complete());
+                connection.dispose();
+                for (ReplayDisposable<?> rp : observers.getAndSet(TERMINATED)) {
+                    rp.replay();
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps track of the replay position for a child Observer.
+     *
+     * @param <T> the value type
+     */
+    static final class ReplayDisposable<T>
+    extends AtomicInteger
+    implements Disposable {
+
+        private static final long serialVersionUID = -3930455342154233584L;
+        /** The actual child Observer. */
+        final Observer<? super T> child;
+        /** The cache state object. */
+        final CacheState<T> state;
+
+        /** The segment holding the next event to replay. */
+        Object[] currentBuffer;
+        /** The index into the currentBuffer where the next event is expected. */
+        int currentIndexInBuffer;
+        /** The absolute index up until the events have been replayed so far. */
+        long index;
+
+        /** Set if the ReplayDisposable has been cancelled/disposed. */
+        volatile boolean cancelled;
+
+        ReplayDisposable(Observer<? super T> child, CacheState<T> state, Object[] head) {
+            this.child = child;
+            this.state = state;
+            this.currentBuffer = head;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return cancelled;
+        }
+
+        @Override
+        public void dispose() {
+            if (!cancelled) {
+                cancelled = true;
+                state.removeChild(this);
+            }
+        }
+
+        /**
+         * Continue replaying available events.
+         */
+        void replay() {
+            if (getAndIncrement() == 0) {
+                drain();
+            }
+        }
+
+        /**
+         * Replays the available events; the caller must have incremented the work-in-progress counter.
+         */
+        void drain() {
+            final Observer<? super T> child = this.child;
+            int missed = 1;
+
+            for (;;) {
+
+                if (cancelled) {
+                    return;
+                }
+
+                long s = state.size;
+                Object[] b = currentBuffer;
+                final int n = b.length - 1;
+                long j = index;
+                int k = currentIndexInBuffer;
+
+                while (j < s) {
+                    if (cancelled) {
+                        return;
+                    }
+                    if (k == n) {
+                        b = (Object[])b[n];
+                        k = 0;
+                    }
+                    Object o = b[k];
+
+                    if (NotificationLite.accept(o, child)) {
+                        return;
+                    }
+
+                    k++;
+                    j++;
+                }
+
+                index = j;
+                currentIndexInBuffer = k;
+                currentBuffer = b;
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ import io.reactivex.common.Disposable;
 import io.reactivex.common.RxJavaCommonPlugins;
 import io.reactivex.common.exceptions.Exceptions;
 import io.reactivex.common.internal.disposables.DisposableHelper;
+import io.reactivex.common.internal.functions.Functions;
 import io.reactivex.common.internal.functions.ObjectHelper;
 import io.reactivex.common.internal.utils.AtomicThrowable;
 import io.reactivex.observable.Observable;
@@ -84,6 +85,13 @@ public final class ObservableCombineLatest<T, R> extends Observable<R> {
         final Function1<? super Object[], ? extends R> combiner;
         final CombinerObserver<T, R>[] observers;
         final T[] latest;
+        /**
+         * The drain-side copy of the latest values if the combiner does not retain its array;
+         * in this case only the changed value is queued instead of a snapshot of all values.
+         */
+        final Object[] row;
+        /** Set once the row received the values present when all sources first had one; guarded by this. */
+        boolean rowSeeded;
         final SpscLinkedArrayQueue<Object> queue;
         final boolean delayError;
 
@@ -104,6 +112,7 @@ public final class ObservableCombineLatest<T, R> extends Observable<R> {
             this.combiner = combiner;
             this.delayError = delayError;
             this.latest = (T[])new Object[count];
+            this.row = Functions.isArrayAdapter(combiner) ? new Object[count] : null;
             this.observers = new CombinerObserver[count];
             this.queue = new SpscLinkedArrayQueue<Object>(bufferSize);
         }
@@ -188,7 +197,16 @@ public final class ObservableCombineLatest<T, R> extends Observable<R> {
                         || (value == null && o == null); // or this source completed without any value
                 if (!empty) {
                     if (value != null && f) {
-                        queue.offer(cs, latest.clone());
+                        Object[] r = row;
+                        if (r != null) {
+                            if (!rowSeeded) {
+                                rowSeeded = true;
+                                System.arraycopy(latest, 0, r, 0, len);
+                            }
+                            queue.offer(cs, value);
+                        } else {
+                            queue.offer(cs, latest.clone());
+                        }
                     } else
                     if (value == null && errors.get() != null) {
                         done = true; // if this source completed without a value
@@ -233,8 +251,12 @@ public final class ObservableCombineLatest<T, R> extends Observable<R> {
                         break;
                     }
 
-                    @SuppressWarnings("unchecked")
-                    T[] array = (T[])q.poll();
+                    Object[] array = row;
+                    if (array != null) {
+                        array[cs.index] = q.poll();
+                    } else {
+                        array = (Object[])q.poll();
+                    }
 
                     R v;
                     try {
@@ -14,7 +14,7 @@
 package io.reactivex.observable.internal.operators;
 
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.reactivex.common.*;
 import io.reactivex.common.Scheduler.Worker;
@@ -22,6 +22,16 @@ import io.reactivex.common.internal.disposables.DisposableHelper;
 import io.reactivex.observable.*;
 import io.reactivex.observable.observers.SerializedObserver;
 
+/**
+ * Emits an item once no newer item arrived within the timeout.
+ * <p>
+ * Instead of scheduling and cancelling a timer task per item, each observer keeps one
+ * timer task armed while there is a pending item; items only swap in the latest value
+ * together with its deadline and the timer reschedules itself for the remaining time
+ * whenever it fires before the deadline.
+ *
+ * @param <T> the value type
+ */
 public final class ObservableDebounceTimed<T> extends AbstractObservableWithUpstream<T, T> {
     final long timeout;
     final TimeUnit unit;
@@ -42,24 +52,21 @@ public final class ObservableDebounceTimed<T> extends AbstractObservableWithUpst
     }
 
     static final class DebounceTimedObserver<T>
-    implements Observer<T>, Disposable {
+    implements Observer<T>, Disposable, Runnable {
         final Observer<? super T> actual;
-        final long timeout;
-        final TimeUnit unit;
+        final long timeoutNanos;
         final Scheduler.Worker worker;
 
         Disposable s;
 
-        final AtomicReference<Disposable> timer = new AtomicReference<Disposable>();
-
-        volatile long index;
+        /** The pending item, non-null exactly while the timer is armed. */
+        final AtomicReference<DebounceNode<T>> pending = new AtomicReference<DebounceNode<T>>();
 
         boolean done;
 
         DebounceTimedObserver(Observer<? super T> actual, long timeout, TimeUnit unit, Worker worker) {
             this.actual = actual;
-            this.timeout = timeout;
-            this.unit = unit;
+            this.timeoutNanos = unit.toNanos(timeout);
             this.worker = worker;
         }
 
@@ -76,21 +83,31 @@ public final class ObservableDebounceTimed<T> extends AbstractObservableWithUpst
             if (done) {
                 return;
             }
-            long idx = index + 1;
-            index = idx;
+            DebounceNode<T> node = new DebounceNode<T>(t, worker.now(TimeUnit.NANOSECONDS) + timeoutNanos);
 
-            Disposable d = timer.get();
-            if (d != null) {
-                d.dispose();
+            if (pending.getAndSet(node) == null) {
+                worker.schedule(this, timeoutNanos, TimeUnit.NANOSECONDS);
             }
+        }
 
-            DebounceEmitter<T> de = new DebounceEmitter<T>(t, idx, this);
-            if (timer.compareAndSet(d, de)) {
-                d = worker.schedule(de, timeout, unit);
-
-                de.setResource(d);
+        @Override
+        public void run() {
+            for (;;) {
+                DebounceNode<T> node = pending.get();
+                if (node == null) {
+                    return;
+                }
+                long now = worker.now(TimeUnit.NANOSECONDS);
+                if (now < node.deadline) {
+                    worker.schedule(this, node.deadline - now, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                // if a newer item arrived meanwhile, check its deadline instead
+                if (pending.compareAndSet(node, null)) {
+                    actual.onNext(node.value);
+                    return;
+                }
             }
-
         }
 
         @Override
@@ -111,12 +128,10 @@ public final class ObservableDebounceTimed<T> extends AbstractObservableWithUpst
             }
             done = true;
 
-            Disposable d = timer.get();
-            if (d != DisposableHelper.DISPOSED) {
-                @SuppressWarnings("unchecked")
-                DebounceEmitter<T> de = (DebounceEmitter<T>)d;
-                if (de != null) {
-                    de.run();
+            if (!worker.isDisposed()) {
+                DebounceNode<T> node = pending.getAndSet(null);
+                if (node != null) {
+                    actual.onNext(node.value);
                 }
                 actual.onComplete();
                 worker.dispose();
@@ -133,50 +148,16 @@ public final class ObservableDebounceTimed<T> extends AbstractObservableWithUpst
         public boolean isDisposed() {
             return worker.isDisposed();
         }
-
-        void emit(long idx, T t, DebounceEmitter<T> emitter) {
-            if (idx == index) {
-                actual.onNext(t);
-                emitter.dispose();
-            }
-        }
     }
 
-    static final class DebounceEmitter<T> extends AtomicReference<Disposable> implements Runnable, Disposable {
-
-        private static final long serialVersionUID = 6812032969491025141L;
-
+    static final class DebounceNode<T> {
         final T value;
-        final long idx;
-        final DebounceTimedObserver<T> parent;
 
-        final AtomicBoolean once = new AtomicBoolean();
+        final long deadline;
 
-        DebounceEmitter(T value, long idx, DebounceTimedObserver<T> parent) {
+        DebounceNode(T value, long deadline) {
             this.value = value;
-            this.idx = idx;
-            this.parent = parent;
-        }
-
-        @Override
-        public void run() {
-            if (once.compareAndSet(false, true)) {
-                parent.emit(idx, value, this);
-            }
-        }
-
-        @Override
-        public void dispose() {
-            DisposableHelper.dispose(this);
-        }
-
-        @Override
-        public boolean isDisposed() {
-            return get() == DisposableHelper.DISPOSED;
-        }
-
-        public void setResource(Disposable d) {
-            DisposableHelper.replace(this, d);
+            this.deadline = deadline;
         }
     }
 }
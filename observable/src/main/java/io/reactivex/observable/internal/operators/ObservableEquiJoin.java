@@ -0,0 +1,363 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.common.Disposable;
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.Scheduler;
+import io.reactivex.common.disposables.CompositeDisposable;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.common.internal.utils.ExceptionHelper;
+import io.reactivex.common.internal.utils.KeyedWindow;
+import io.reactivex.observable.ObservableSource;
+import io.reactivex.observable.Observer;
+import io.reactivex.observable.internal.operators.ObservableGroupJoin.JoinSupport;
+import io.reactivex.observable.internal.operators.ObservableGroupJoin.LeftRightEndObserver;
+import io.reactivex.observable.internal.operators.ObservableGroupJoin.LeftRightObserver;
+import io.reactivex.observable.internal.queues.SpscLinkedArrayQueue;
+import kotlin.jvm.functions.Function1;
+import kotlin.jvm.functions.Function2;
+
+/**
+ * Pairs up the items of two ObservableSources whose keys are equal and which arrived within
+ * a time window of each other, looking up the matches in per-key hash buckets.
+ *
+ * @param <TLeft> the left value type
+ * @param <TRight> the right value type
+ * @param <K> the key type
+ * @param <R> the result type
+ */
+public final class ObservableEquiJoin<TLeft, TRight, K, R> extends AbstractObservableWithUpstream<TLeft, R> {
+
+    final ObservableSource<? extends TRight> other;
+
+    final Function1<? super TLeft, ? extends K> leftKeySelector;
+
+    final Function1<? super TRight, ? extends K> rightKeySelector;
+
+    final long time;
+
+    final TimeUnit unit;
+
+    final Scheduler scheduler;
+
+    final int count;
+
+    final Function2<? super TLeft, ? super TRight, ? extends R> resultSelector;
+
+    public ObservableEquiJoin(
+            ObservableSource<TLeft> source,
+            ObservableSource<? extends TRight> other,
+            Function1<? super TLeft, ? extends K> leftKeySelector,
+            Function1<? super TRight, ? extends K> rightKeySelector,
+            long time, TimeUnit unit, Scheduler scheduler, int count,
+            Function2<? super TLeft, ? super TRight, ? extends R> resultSelector) {
+        super(source);
+        this.other = other;
+        this.leftKeySelector = leftKeySelector;
+        this.rightKeySelector = rightKeySelector;
+        this.time = time;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.count = count;
+        this.resultSelector = resultSelector;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super R> s) {
+
+        EquiJoinDisposable<TLeft, TRight, K, R> parent =
+                new EquiJoinDisposable<TLeft, TRight, K, R>(s, leftKeySelector, rightKeySelector,
+                        time, unit, scheduler, count, resultSelector);
+
+        s.onSubscribe(parent);
+
+        LeftRightObserver left = new LeftRightObserver(parent, true);
+        parent.disposables.add(left);
+        LeftRightObserver right = new LeftRightObserver(parent, false);
+        parent.disposables.add(right);
+
+        parent.disposables.add(scheduler.schedulePeriodicallyDirect(parent, time, time, unit));
+
+        source.subscribe(left);
+        other.subscribe(right);
+    }
+
+    static final class EquiJoinDisposable<TLeft, TRight, K, R>
+    extends AtomicInteger implements Disposable, JoinSupport, Runnable {
+
+        private static final long serialVersionUID = -5335262616463457218L;
+
+        final Observer<? super R> actual;
+
+        final SpscLinkedArrayQueue<Object> queue;
+
+        final CompositeDisposable disposables;
+
+        final KeyedWindow<K, TLeft> lefts;
+
+        final KeyedWindow<K, TRight> rights;
+
+        final AtomicReference<Throwable> error;
+
+        final Function1<? super TLeft, ? extends K> leftKeySelector;
+
+        final Function1<? super TRight, ? extends K> rightKeySelector;
+
+        final TimeUnit unit;
+
+        final Scheduler scheduler;
+
+        final Function2<? super TLeft, ? super TRight, ? extends R> resultSelector;
+
+        final AtomicInteger active;
+
+        volatile boolean cancelled;
+
+        static final Integer LEFT_VALUE = 1;
+
+        static final Integer RIGHT_VALUE = 2;
+
+        static final Integer EXPIRE = 3;
+
+        EquiJoinDisposable(Observer<? super R> actual,
+                Function1<? super TLeft, ? extends K> leftKeySelector,
+                Function1<? super TRight, ? extends K> rightKeySelector,
+                long time, TimeUnit unit, Scheduler scheduler, int count,
+                Function2<? super TLeft, ? super TRight, ? extends R> resultSelector) {
+            this.actual = actual;
+            this.disposables = new CompositeDisposable();
+            this.queue = new SpscLinkedArrayQueue<Object>(bufferSize());
+            this.lefts = new KeyedWindow<K, TLeft>(time, count);
+            this.rights = new KeyedWindow<K, TRight>(time, count);
+            this.error = new AtomicReference<Throwable>();
+            this.leftKeySelector = leftKeySelector;
+            this.rightKeySelector = rightKeySelector;
+            this.unit = unit;
+            this.scheduler = scheduler;
+            this.resultSelector = resultSelector;
+            this.active = new AtomicInteger(2);
+        }
+
+        @Override
+        public void dispose() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelAll();
+                if (getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return cancelled;
+        }
+
+        void cancelAll() {
+            disposables.dispose();
+        }
+
+        void errorAll(Observer<?> a) {
+            Throwable ex = ExceptionHelper.terminate(error);
+
+            lefts.clear();
+            rights.clear();
+
+            a.onError(ex);
+        }
+
+        void fail(Throwable exc, Observer<?> a, SpscLinkedArrayQueue<?> q) {
+            Exceptions.throwIfFatal(exc);
+            ExceptionHelper.addThrowable(error, exc);
+            q.clear();
+            cancelAll();
+            errorAll(a);
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                queue.offer(EXPIRE, EXPIRE);
+            }
+            drain();
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            SpscLinkedArrayQueue<Object> q = queue;
+            Observer<? super R> a = actual;
+
+            for (;;) {
+                for (;;) {
+                    if (cancelled) {
+                        q.clear();
+                        return;
+                    }
+
+                    Throwable ex = error.get();
+                    if (ex != null) {
+                        q.clear();
+                        cancelAll();
+                        errorAll(a);
+                        return;
+                    }
+
+                    boolean d = active.get() == 0;
+
+                    Integer mode = (Integer)q.poll();
+
+                    boolean empty = mode == null;
+
+                    if (d && empty) {
+
+                        lefts.clear();
+                        rights.clear();
+                        disposables.dispose();
+
+                        a.onComplete();
+                        return;
+                    }
+
+                    if (empty) {
+                        break;
+                    }
+
+                    Object val = q.poll();
+
+                    long now = scheduler.now(unit);
+                    lefts.expire(now);
+                    rights.expire(now);
+
+                    if (mode == LEFT_VALUE) {
+                        TLeft left = (TLeft)val;
+
+                        K key;
+
+                        try {
+                            key = ObjectHelper.requireNonNull(leftKeySelector.invoke(left), "The leftKeySelector returned a null key");
+                        } catch (Throwable exc) {
+                            fail(exc, a, q);
+                            return;
+                        }
+
+                        Collection<TRight> matches = rights.get(key);
+
+                        if (matches != null) {
+                            for (TRight right : matches) {
+
+                                R w;
+
+                                try {
+                                    w = ObjectHelper.requireNonNull(resultSelector.invoke(left, right), "The resultSelector returned a null value");
+                                } catch (Throwable exc) {
+                                    fail(exc, a, q);
+                                    return;
+                                }
+
+                                a.onNext(w);
+                            }
+                        }
+
+                        lefts.add(key, left, now);
+                    }
+                    else if (mode == RIGHT_VALUE) {
+                        TRight right = (TRight)val;
+
+                        K key;
+
+                        try {
+                            key = ObjectHelper.requireNonNull(rightKeySelector.invoke(right), "The rightKeySelector returned a null key");
+                        } catch (Throwable exc) {
+                            fail(exc, a, q);
+                            return;
+                        }
+
+                        Collection<TLeft> matches = lefts.get(key);
+
+                        if (matches != null) {
+                            for (TLeft left : matches) {
+
+                                R w;
+
+                                try {
+                                    w = ObjectHelper.requireNonNull(resultSelector.invoke(left, right), "The resultSelector returned a null value");
+                                } catch (Throwable exc) {
+                                    fail(exc, a, q);
+                                    return;
+                                }
+
+                                a.onNext(w);
+                            }
+                        }
+
+                        rights.add(key, right, now);
+                    }
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public void innerError(Throwable ex) {
+            if (ExceptionHelper.addThrowable(error, ex)) {
+                active.decrementAndGet();
+                drain();
+            } else {
+                RxJavaCommonPlugins.onError(ex);
+            }
+        }
+
+        @Override
+        public void innerComplete(LeftRightObserver sender) {
+            disposables.delete(sender);
+            active.decrementAndGet();
+            drain();
+        }
+
+        @Override
+        public void innerValue(boolean isLeft, Object o) {
+            synchronized (this) {
+                queue.offer(isLeft ? LEFT_VALUE : RIGHT_VALUE, o);
+            }
+            drain();
+        }
+
+        @Override
+        public void innerClose(boolean isLeft, LeftRightEndObserver index) {
+            // the windows are bounded by time and count, there are no duration ObservableSources
+        }
+
+        @Override
+        public void innerCloseError(Throwable ex) {
+            // the windows are bounded by time and count, there are no duration ObservableSources
+        }
+    }
+}
@@ -36,6 +36,13 @@ import io.reactivex.observable.internal.queues.SpscLinkedArrayQueue;
 import kotlin.jvm.functions.Function1;
 
 public final class ObservableFlatMap<T, U> extends AbstractObservableWithUpstream<T, U> {
+    /**
+     * The maxConcurrency from which the inner observers are tracked in a registry with
+     * a ready queue instead of a copy-on-write array scanned by the drain loop; the unbounded
+     * {@code Integer.MAX_VALUE} of the default overloads keeps using the array.
+     */
+    static final int LARGE_CONCURRENCY = 1024;
+
     final Function1<? super T, ? extends ObservableSource<? extends U>> mapper;
     final boolean delayErrors;
     final int maxConcurrency;
@@ -58,7 +65,11 @@ public final class ObservableFlatMap<T, U> extends AbstractObservableWithUpstrea
             return;
         }
 
-        source.subscribe(new MergeObserver<T, U>(t, mapper, delayErrors, maxConcurrency, bufferSize));
+        if (maxConcurrency >= LARGE_CONCURRENCY && maxConcurrency != Integer.MAX_VALUE) {
+            source.subscribe(new ObservableFlatMapLarge.MergeObserver<T, U>(t, mapper, delayErrors, maxConcurrency, bufferSize));
+        } else {
+            source.subscribe(new MergeObserver<T, U>(t, mapper, delayErrors, maxConcurrency, bufferSize));
+        }
     }
 
     static final class MergeObserver<T, U> extends AtomicInteger implements Disposable, Observer<T> {
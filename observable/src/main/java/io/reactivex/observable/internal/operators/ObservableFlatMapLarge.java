@@ -0,0 +1,522 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.common.Disposable;
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.disposables.CompositeDisposable;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.disposables.DisposableHelper;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.common.internal.utils.AtomicThrowable;
+import io.reactivex.common.internal.utils.ExceptionHelper;
+import io.reactivex.observable.Observer;
+import io.reactivex.observable.ObservableSource;
+import io.reactivex.observable.extensions.QueueDisposable;
+import io.reactivex.observable.extensions.SimplePlainQueue;
+import io.reactivex.observable.extensions.SimpleQueue;
+import io.reactivex.observable.internal.queues.MpscLinkedQueue;
+import io.reactivex.observable.internal.queues.SpscArrayQueue;
+import io.reactivex.observable.internal.queues.SpscLinkedArrayQueue;
+import kotlin.jvm.functions.Function1;
+
+/**
+ * The flatMap implementation used for a large maxConcurrency.
+ * <p>
+ * The inner observers are tracked in a hash-based registry with O(1) add and remove, and an
+ * inner enqueues itself into a ready queue when it has items or terminated, so the drain loop
+ * only visits the inner sources with something to do instead of scanning all of them.
+ */
+final class ObservableFlatMapLarge {
+
+    /** Utility class. */
+    private ObservableFlatMapLarge() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    static final class MergeObserver<T, U> extends AtomicInteger implements Disposable, Observer<T> {
+
+        private static final long serialVersionUID = -6214823925186442453L;
+
+        final Observer<? super U> actual;
+        final Function1<? super T, ? extends ObservableSource<? extends U>> mapper;
+        final boolean delayErrors;
+        final int maxConcurrency;
+        final int bufferSize;
+
+        volatile SimplePlainQueue<U> queue;
+
+        volatile boolean done;
+
+        final AtomicThrowable errors = new AtomicThrowable();
+
+        volatile boolean cancelled;
+
+        /** The active inner observers. */
+        final CompositeDisposable inners;
+
+        /** The inner observers with queued items or a terminal event to be processed. */
+        final SimplePlainQueue<InnerObserver<T, U>> ready;
+
+        Disposable s;
+
+        Queue<ObservableSource<? extends U>> sources;
+
+        int wip;
+
+        MergeObserver(Observer<? super U> actual, Function1<? super T, ? extends ObservableSource<? extends U>> mapper,
+                      boolean delayErrors, int maxConcurrency, int bufferSize) {
+            this.actual = actual;
+            this.mapper = mapper;
+            this.delayErrors = delayErrors;
+            this.maxConcurrency = maxConcurrency;
+            this.bufferSize = bufferSize;
+            if (maxConcurrency != Integer.MAX_VALUE) {
+                sources = new ArrayDeque<ObservableSource<? extends U>>();
+            }
+            this.inners = new CompositeDisposable();
+            this.ready = new MpscLinkedQueue<InnerObserver<T, U>>();
+        }
+
+        @Override
+        public void onSubscribe(Disposable s) {
+            if (DisposableHelper.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            // safeguard against misbehaving sources
+            if (done) {
+                return;
+            }
+            ObservableSource<? extends U> p;
+            try {
+                p = ObjectHelper.requireNonNull(mapper.invoke(t), "The mapper returned a null ObservableSource");
+            } catch (Throwable e) {
+                Exceptions.throwIfFatal(e);
+                s.dispose();
+                onError(e);
+                return;
+            }
+
+            if (maxConcurrency != Integer.MAX_VALUE) {
+                synchronized (this) {
+                    if (wip == maxConcurrency) {
+                        sources.offer(p);
+                        return;
+                    }
+                    wip++;
+                }
+            }
+
+            subscribeInner(p);
+        }
+
+        @SuppressWarnings("unchecked")
+        void subscribeInner(ObservableSource<? extends U> p) {
+            for (;;) {
+                if (p instanceof Callable) {
+                    tryEmitScalar(((Callable<? extends U>)p));
+
+                    if (maxConcurrency != Integer.MAX_VALUE) {
+                        synchronized (this) {
+                            p = sources.poll();
+                            if (p == null) {
+                                wip--;
+                                break;
+                            }
+                        }
+                    } else {
+                        break;
+                    }
+                } else {
+                    InnerObserver<T, U> inner = new InnerObserver<T, U>(this);
+                    if (inners.add(inner)) {
+                        p.subscribe(inner);
+                    }
+                    break;
+                }
+            }
+        }
+
+        void tryEmitScalar(Callable<? extends U> value) {
+            U u;
+            try {
+                u = value.call();
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                errors.addThrowable(ex);
+                drain();
+                return;
+            }
+
+            if (u == null) {
+                return;
+            }
+
+
+            if (get() == 0 && compareAndSet(0, 1)) {
+                actual.onNext(u);
+                if (decrementAndGet() == 0) {
+                    return;
+                }
+            } else {
+                SimplePlainQueue<U> q = queue;
+                if (q == null) {
+                    if (maxConcurrency == Integer.MAX_VALUE) {
+                        q = new SpscLinkedArrayQueue<U>(bufferSize);
+                    } else {
+                        q = new SpscArrayQueue<U>(maxConcurrency);
+                    }
+                    queue = q;
+                }
+
+                if (!q.offer(u)) {
+                    onError(new IllegalStateException("Scalar queue full?!"));
+                    return;
+                }
+                if (getAndIncrement() != 0) {
+                    return;
+                }
+            }
+            drainLoop();
+        }
+
+        void tryEmit(U value, InnerObserver<T, U> inner) {
+            if (get() == 0 && compareAndSet(0, 1)) {
+                actual.onNext(value);
+                if (decrementAndGet() == 0) {
+                    return;
+                }
+            } else {
+                SimpleQueue<U> q = inner.queue;
+                if (q == null) {
+                    q = new SpscLinkedArrayQueue<U>(bufferSize);
+                    inner.queue = q;
+                }
+                q.offer(value);
+                markReady(inner);
+                if (getAndIncrement() != 0) {
+                    return;
+                }
+            }
+            drainLoop();
+        }
+
+        /**
+         * Enqueues the inner into the ready queue unless it is already there.
+         * @param inner the inner with queued items or a terminal event
+         */
+        void markReady(InnerObserver<T, U> inner) {
+            AtomicBoolean rdy = inner.ready;
+            if (!rdy.get() && rdy.compareAndSet(false, true)) {
+                ready.offer(inner);
+            }
+        }
+
+        void signal(InnerObserver<T, U> inner) {
+            markReady(inner);
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaCommonPlugins.onError(t);
+                return;
+            }
+            if (errors.addThrowable(t)) {
+                done = true;
+                drain();
+            } else {
+                RxJavaCommonPlugins.onError(t);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void dispose() {
+            if (!cancelled) {
+                cancelled = true;
+                if (disposeAll()) {
+                    Throwable ex = errors.terminate();
+                    if (ex != null && ex != ExceptionHelper.TERMINATED) {
+                        RxJavaCommonPlugins.onError(ex);
+                    }
+                }
+                if (getAndIncrement() == 0) {
+                    ready.clear();
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return cancelled;
+        }
+
+        void drain() {
+            if (getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        void drainLoop() {
+            final Observer<? super U> child = this.actual;
+            int missed = 1;
+            for (;;) {
+                if (checkTerminate()) {
+                    return;
+                }
+                SimplePlainQueue<U> svq = queue;
+
+                if (svq != null) {
+                    for (;;) {
+                        if (checkTerminate()) {
+                            return;
+                        }
+
+                        U o = svq.poll();
+
+                        if (o == null) {
+                            break;
+                        }
+
+                        child.onNext(o);
+                    }
+                }
+
+                boolean d = done;
+                svq = queue;
+
+                if (d && (svq == null || svq.isEmpty()) && inners.size() == 0) {
+                    Throwable ex = errors.terminate();
+                    if (ex != ExceptionHelper.TERMINATED) {
+                        if (ex == null) {
+                            child.onComplete();
+                        } else {
+                            child.onError(ex);
+                        }
+                    }
+                    return;
+                }
+
+                int innerCompleted = 0;
+
+                for (;;) {
+                    if (checkTerminate()) {
+                        return;
+                    }
+                    InnerObserver<T, U> is = ready.poll();
+                    if (is == null) {
+                        break;
+                    }
+
+                    SimpleQueue<U> q = is.queue;
+                    boolean failed = false;
+                    if (q != null) {
+                        for (;;) {
+                            U o;
+                            try {
+                                o = q.poll();
+                            } catch (Throwable ex) {
+                                Exceptions.throwIfFatal(ex);
+                                is.dispose();
+                                errors.addThrowable(ex);
+                                failed = true;
+                                break;
+                            }
+                            if (o == null) {
+                                break;
+                            }
+
+                            child.onNext(o);
+
+                            if (checkTerminate()) {
+                                return;
+                            }
+                        }
+                    }
+
+                    if (failed) {
+                        if (checkTerminate()) {
+                            return;
+                        }
+                        inners.delete(is);
+                        innerCompleted++;
+                        continue;
+                    }
+
+                    is.ready.set(false);
+                    // an item or the terminal event may have arrived while the flag was still set
+                    boolean innerDone = is.done;
+                    q = is.queue;
+                    if (innerDone && (q == null || q.isEmpty())) {
+                        inners.delete(is);
+                        if (checkTerminate()) {
+                            return;
+                        }
+                        innerCompleted++;
+                    } else
+                    if ((innerDone || (q != null && !q.isEmpty())) && is.ready.compareAndSet(false, true)) {
+                        ready.offer(is);
+                    }
+                }
+
+                if (innerCompleted != 0) {
+                    if (maxConcurrency != Integer.MAX_VALUE) {
+                        while (innerCompleted-- != 0) {
+                            ObservableSource<? extends U> p;
+                            synchronized (this) {
+                                p = sources.poll();
+                                if (p == null) {
+                                    wip--;
+                                    continue;
+                                }
+                            }
+                            subscribeInner(p);
+                        }
+                    }
+                    continue;
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        boolean checkTerminate() {
+            if (cancelled) {
+                ready.clear();
+                return true;
+            }
+            Throwable e = errors.get();
+            if (!delayErrors && (e != null)) {
+                disposeAll();
+                ready.clear();
+                e = errors.terminate();
+                if (e != ExceptionHelper.TERMINATED) {
+                    actual.onError(e);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        boolean disposeAll() {
+            s.dispose();
+            if (!inners.isDisposed()) {
+                inners.dispose();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    static final class InnerObserver<T, U> extends AtomicReference<Disposable>
+    implements Observer<U>, Disposable {
+
+        private static final long serialVersionUID = 2730862497212446237L;
+        final MergeObserver<T, U> parent;
+
+        /** Set while this inner sits in the ready queue of the parent. */
+        final AtomicBoolean ready;
+
+        volatile boolean done;
+        volatile SimpleQueue<U> queue;
+
+        int fusionMode;
+
+        InnerObserver(MergeObserver<T, U> parent) {
+            this.parent = parent;
+            this.ready = new AtomicBoolean();
+        }
+        @Override
+        public void onSubscribe(Disposable s) {
+            if (DisposableHelper.setOnce(this, s)) {
+                if (s instanceof QueueDisposable) {
+                    @SuppressWarnings("unchecked")
+                    QueueDisposable<U> qd = (QueueDisposable<U>) s;
+
+                    int m = qd.requestFusion(QueueDisposable.ANY | QueueDisposable.BOUNDARY);
+                    if (m == QueueDisposable.SYNC) {
+                        fusionMode = m;
+                        queue = qd;
+                        done = true;
+                        parent.signal(this);
+                        return;
+                    }
+                    if (m == QueueDisposable.ASYNC) {
+                        fusionMode = m;
+                        queue = qd;
+                    }
+                }
+            }
+        }
+        @Override
+        public void onNext(U t) {
+            if (fusionMode == QueueDisposable.NONE) {
+                parent.tryEmit(t, this);
+            } else {
+                parent.signal(this);
+            }
+        }
+        @Override
+        public void onError(Throwable t) {
+            if (parent.errors.addThrowable(t)) {
+                if (!parent.delayErrors) {
+                    parent.disposeAll();
+                }
+                done = true;
+                parent.signal(this);
+            } else {
+                RxJavaCommonPlugins.onError(t);
+            }
+        }
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.signal(this);
+        }
+
+        @Override
+        public void dispose() {
+            DisposableHelper.dispose(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get() == DisposableHelper.DISPOSED;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.common.Disposable;
+import io.reactivex.common.RxJavaCommonPlugins;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.disposables.DisposableHelper;
+import io.reactivex.common.internal.utils.AtomicThrowable;
+import io.reactivex.observable.Observable;
+import io.reactivex.observable.ObservableSource;
+import io.reactivex.observable.Observer;
+import io.reactivex.observable.internal.disposables.EmptyDisposable;
+import io.reactivex.observable.internal.queues.SpscLinkedArrayQueue;
+
+/**
+ * Merges the items of ObservableSources, each sorted according to a comparator, into one sorted
+ * sequence by keeping the current head item of each source in a binary heap.
+ *
+ * @param <T> the value type
+ */
+public final class ObservableMergeSorted<T> extends Observable<T> {
+
+    final ObservableSource<? extends T>[] sources;
+
+    final Iterable<? extends ObservableSource<? extends T>> sourcesIterable;
+
+    final Comparator<? super T> comparator;
+
+    final int bufferSize;
+
+    public ObservableMergeSorted(ObservableSource<? extends T>[] sources,
+            Iterable<? extends ObservableSource<? extends T>> sourcesIterable,
+            Comparator<? super T> comparator, int bufferSize) {
+        this.sources = sources;
+        this.sourcesIterable = sourcesIterable;
+        this.comparator = comparator;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void subscribeActual(Observer<? super T> s) {
+        ObservableSource<? extends T>[] sources = this.sources;
+        int count = 0;
+        if (sources == null) {
+            sources = new ObservableSource[8];
+            try {
+                for (ObservableSource<? extends T> p : sourcesIterable) {
+                    if (p == null) {
+                        EmptyDisposable.error(new NullPointerException("One of the sources is null"), s);
+                        return;
+                    }
+                    if (count == sources.length) {
+                        ObservableSource<? extends T>[] b = new ObservableSource[count + (count >> 2)];
+                        System.arraycopy(sources, 0, b, 0, count);
+                        sources = b;
+                    }
+                    sources[count++] = p;
+                }
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                EmptyDisposable.error(ex, s);
+                return;
+            }
+        } else {
+            count = sources.length;
+        }
+
+        if (count == 0) {
+            EmptyDisposable.complete(s);
+            return;
+        }
+
+        MergeSortedCoordinator<T> coordinator = new MergeSortedCoordinator<T>(s, comparator, count, bufferSize);
+
+        s.onSubscribe(coordinator);
+
+        coordinator.subscribe(sources, count);
+    }
+
+    static final class MergeSortedCoordinator<T>
+    extends AtomicInteger
+    implements Disposable {
+
+        private static final long serialVersionUID = 2497410165787441577L;
+
+        final Observer<? super T> actual;
+
+        final MergeSortedObserver<T>[] observers;
+
+        final Comparator<? super T> comparator;
+
+        final AtomicThrowable errors;
+
+        /** The current head item of each source, null if not yet polled or the source finished. */
+        final Object[] heads;
+
+        /** The indexes of the sources having a head item, ordered as a binary min-heap of their heads. */
+        final int[] heap;
+
+        /** The indexes of the sources which need to provide their next item before anything can be emitted. */
+        final int[] pending;
+
+        int heapSize;
+
+        int pendingCount;
+
+        volatile boolean cancelled;
+
+        @SuppressWarnings("unchecked")
+        MergeSortedCoordinator(Observer<? super T> actual, Comparator<? super T> comparator, int n, int bufferSize) {
+            this.actual = actual;
+            this.comparator = comparator;
+            MergeSortedObserver<T>[] a = new MergeSortedObserver[n];
+            int[] p = new int[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = new MergeSortedObserver<T>(this, bufferSize);
+                p[i] = i;
+            }
+            this.observers = a;
+            this.heads = new Object[n];
+            this.heap = new int[n];
+            this.pending = p;
+            this.pendingCount = n;
+            this.errors = new AtomicThrowable();
+        }
+
+        void subscribe(ObservableSource<? extends T>[] sources, int n) {
+            MergeSortedObserver<T>[] a = observers;
+            for (int i = 0; i < n; i++) {
+                if (cancelled || errors.get() != null) {
+                    return;
+                }
+                sources[i].subscribe(a[i]);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelAll();
+
+                if (getAndIncrement() == 0) {
+                    clear();
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return cancelled;
+        }
+
+        void error(Throwable e) {
+            if (errors.addThrowable(e)) {
+                drain();
+            } else {
+                RxJavaCommonPlugins.onError(e);
+            }
+        }
+
+        void cancelAll() {
+            for (MergeSortedObserver<T> s : observers) {
+                s.dispose();
+            }
+        }
+
+        void clear() {
+            for (MergeSortedObserver<T> s : observers) {
+                s.queue.clear();
+            }
+            Arrays.fill(heads, null);
+            heapSize = 0;
+        }
+
+        /**
+         * Polls the next item of each pending source.
+         * @return true if no source is pending anymore
+         */
+        boolean fill() {
+            int[] p = pending;
+            int c = pendingCount;
+            MergeSortedObserver<T>[] qs = observers;
+
+            for (int j = c - 1; j >= 0; j--) {
+                int i = p[j];
+                MergeSortedObserver<T> inner = qs[i];
+
+                boolean d = inner.done;
+                T v = inner.queue.poll();
+
+                if (v != null) {
+                    heads[i] = v;
+                    siftUp(i);
+                } else if (!d) {
+                    continue;
+                }
+
+                p[j] = p[--c];
+            }
+
+            pendingCount = c;
+            return c == 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean less(int i, int j) {
+            int c = comparator.compare((T)heads[i], (T)heads[j]);
+            return c < 0 || (c == 0 && i < j);
+        }
+
+        void siftUp(int index) {
+            int[] h = heap;
+            int k = heapSize++;
+            while (k > 0) {
+                int parent = (k - 1) >> 1;
+                int pi = h[parent];
+                if (!less(index, pi)) {
+                    break;
+                }
+                h[k] = pi;
+                k = parent;
+            }
+            h[k] = index;
+        }
+
+        int removeFirst() {
+            int[] h = heap;
+            int first = h[0];
+            int n = --heapSize;
+            if (n != 0) {
+                int last = h[n];
+                int k = 0;
+                int half = n >> 1;
+                while (k < half) {
+                    int child = (k << 1) + 1;
+                    int ci = h[child];
+                    int right = child + 1;
+                    if (right < n && less(h[right], ci)) {
+                        child = right;
+                        ci = h[child];
+                    }
+                    if (!less(ci, last)) {
+                        break;
+                    }
+                    h[k] = ci;
+                    k = child;
+                }
+                h[k] = last;
+            }
+            return first;
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+
+            final Observer<? super T> a = actual;
+
+            int missed = 1;
+
+            for (;;) {
+
+                for (;;) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+
+                    if (errors.get() != null) {
+                        cancelAll();
+                        clear();
+                        a.onError(errors.terminate());
+                        return;
+                    }
+
+                    boolean ready;
+                    int index;
+
+                    try {
+                        ready = fill();
+                        index = ready && heapSize != 0 ? removeFirst() : -1;
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        cancelAll();
+                        clear();
+                        errors.addThrowable(ex);
+                        a.onError(errors.terminate());
+                        return;
+                    }
+
+                    if (!ready) {
+                        break;
+                    }
+
+                    if (index < 0) {
+                        a.onComplete();
+                        return;
+                    }
+
+                    T v = (T)heads[index];
+                    heads[index] = null;
+                    pending[pendingCount++] = index;
+
+                    a.onNext(v);
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    static final class MergeSortedObserver<T> implements Observer<T> {
+
+        final MergeSortedCoordinator<T> parent;
+
+        final SpscLinkedArrayQueue<T> queue;
+
+        final AtomicReference<Disposable> s = new AtomicReference<Disposable>();
+
+        volatile boolean done;
+
+        MergeSortedObserver(MergeSortedCoordinator<T> parent, int bufferSize) {
+            this.parent = parent;
+            this.queue = new SpscLinkedArrayQueue<T>(bufferSize);
+        }
+
+        @Override
+        public void onSubscribe(Disposable s) {
+            DisposableHelper.setOnce(this.s, s);
+        }
+
+        @Override
+        public void onNext(T t) {
+            queue.offer(t);
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            parent.error(t);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        void dispose() {
+            DisposableHelper.dispose(s);
+        }
+    }
+}
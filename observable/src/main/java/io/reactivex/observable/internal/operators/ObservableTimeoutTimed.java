@@ -14,7 +14,6 @@
 package io.reactivex.observable.internal.operators;
 
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicReference;
 
 import io.reactivex.common.*;
 import io.reactivex.common.Scheduler.Worker;
@@ -24,15 +23,21 @@ import io.reactivex.observable.internal.disposables.ObserverFullArbiter;
 import io.reactivex.observable.internal.observers.FullArbiterObserver;
 import io.reactivex.observable.observers.SerializedObserver;
 
+/**
+ * Times out if the next item doesn't arrive within the timeout after the previous one.
+ * <p>
+ * Instead of scheduling and cancelling a timer task per item, each observer keeps one
+ * timer task and items only record the latest deadline; the timer reschedules itself
+ * for the remaining time whenever it fires before the deadline.
+ *
+ * @param <T> the value type
+ */
 public final class ObservableTimeoutTimed<T> extends AbstractObservableWithUpstream<T, T> {
     final long timeout;
     final TimeUnit unit;
     final Scheduler scheduler;
     final ObservableSource<? extends T> other;
 
-
-    static final Disposable NEW_TIMER = new NewTimerEmptyDisposable();
-
     public ObservableTimeoutTimed(ObservableSource<T> source,
             long timeout, TimeUnit unit, Scheduler scheduler, ObservableSource<? extends T> other) {
         super(source);
@@ -55,30 +60,69 @@ public final class ObservableTimeoutTimed<T> extends AbstractObservableWithUpstr
         }
     }
 
-    static final class TimeoutTimedOtherObserver<T>
-    extends AtomicReference<Disposable> implements Observer<T>, Disposable {
-        private static final long serialVersionUID = -4619702551964128179L;
+    /**
+     * Runs on the worker when the timeout may have elapsed and reschedules itself
+     * if the deadline has moved since it was armed.
+     */
+    abstract static class DeadlineTimer implements Runnable {
+        /** Indicates an item is being emitted and the timeout is paused. */
+        static final long EMITTING = Long.MAX_VALUE;
 
-        final Observer<? super T> actual;
-        final long timeout;
-        final TimeUnit unit;
         final Scheduler.Worker worker;
+
+        final long timeoutNanos;
+
+        /** The worker time in nanoseconds when the timeout elapses. */
+        volatile long deadline;
+
+        DeadlineTimer(Scheduler.Worker worker, long timeout, TimeUnit unit) {
+            this.worker = worker;
+            this.timeoutNanos = unit.toNanos(timeout);
+        }
+
+        final void start() {
+            deadline = worker.now(TimeUnit.NANOSECONDS) + timeoutNanos;
+            worker.schedule(this, timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+
+        final void emitting() {
+            deadline = EMITTING;
+        }
+
+        final void emitted() {
+            deadline = worker.now(TimeUnit.NANOSECONDS) + timeoutNanos;
+        }
+
+        @Override
+        public final void run() {
+            long d = deadline;
+            long now = worker.now(TimeUnit.NANOSECONDS);
+            if (d == EMITTING) {
+                worker.schedule(this, timeoutNanos, TimeUnit.NANOSECONDS);
+            } else if (now < d) {
+                worker.schedule(this, d - now, TimeUnit.NANOSECONDS);
+            } else {
+                onTimeout();
+            }
+        }
+
+        abstract void onTimeout();
+    }
+
+    static final class TimeoutTimedOtherObserver<T> extends DeadlineTimer implements Observer<T>, Disposable {
+        final Observer<? super T> actual;
         final ObservableSource<? extends T> other;
 
         Disposable s;
 
         final ObserverFullArbiter<T> arbiter;
 
-        volatile long index;
-
         volatile boolean done;
 
         TimeoutTimedOtherObserver(Observer<? super T> actual, long timeout, TimeUnit unit, Worker worker,
                 ObservableSource<? extends T> other) {
+            super(worker, timeout, unit);
             this.actual = actual;
-            this.timeout = timeout;
-            this.unit = unit;
-            this.worker = worker;
             this.other = other;
             this.arbiter = new ObserverFullArbiter<T>(actual, this, 8);
         }
@@ -90,7 +134,7 @@ public final class ObservableTimeoutTimed<T> extends AbstractObservableWithUpstr
                 if (arbiter.setDisposable(s)) {
                     actual.onSubscribe(arbiter);
 
-                    scheduleTimeout(0L);
+                    start();
                 }
             }
 
@@ -101,24 +145,10 @@ public final class ObservableTimeoutTimed<T> extends AbstractObservableWithUpstr
             if (done) {
                 return;
             }
-            long idx = index + 1;
-            index = idx;
+            emitting();
 
             if (arbiter.onNext(t, s)) {
-                scheduleTimeout(idx);
-            }
-        }
-
-        void scheduleTimeout(final long idx) {
-            Disposable d = get();
-            if (d != null) {
-                d.dispose();
-            }
-
-            if (compareAndSet(d, NEW_TIMER)) {
-                d = worker.schedule(new SubscribeNext(idx), timeout, unit);
-
-                DisposableHelper.replace(this, d);
+                emitted();
             }
         }
 
@@ -158,49 +188,29 @@ public final class ObservableTimeoutTimed<T> extends AbstractObservableWithUpstr
             return worker.isDisposed();
         }
 
-        final class SubscribeNext implements Runnable {
-            private final long idx;
-
-            SubscribeNext(long idx) {
-                this.idx = idx;
-            }
-
-            @Override
-            public void run() {
-                if (idx == index) {
-                    done = true;
-                    s.dispose();
-                    DisposableHelper.dispose(TimeoutTimedOtherObserver.this);
+        @Override
+        void onTimeout() {
+            if (!done) {
+                done = true;
+                s.dispose();
 
-                    subscribeNext();
+                subscribeNext();
 
-                    worker.dispose();
-                }
+                worker.dispose();
             }
         }
     }
 
-    static final class TimeoutTimedObserver<T>
-    extends AtomicReference<Disposable>
-    implements Observer<T>, Disposable {
-        private static final long serialVersionUID = -8387234228317808253L;
-
+    static final class TimeoutTimedObserver<T> extends DeadlineTimer implements Observer<T>, Disposable {
         final Observer<? super T> actual;
-        final long timeout;
-        final TimeUnit unit;
-        final Scheduler.Worker worker;
 
         Disposable s;
 
-        volatile long index;
-
         volatile boolean done;
 
         TimeoutTimedObserver(Observer<? super T> actual, long timeout, TimeUnit unit, Worker worker) {
+            super(worker, timeout, unit);
             this.actual = actual;
-            this.timeout = timeout;
-            this.unit = unit;
-            this.worker = worker;
         }
 
         @Override
@@ -208,7 +218,7 @@ public final class ObservableTimeoutTimed<T> extends AbstractObservableWithUpstr
             if (DisposableHelper.validate(this.s, s)) {
                 this.s = s;
                 actual.onSubscribe(this);
-                scheduleTimeout(0L);
+                start();
             }
 
         }
@@ -218,25 +228,11 @@ public final class ObservableTimeoutTimed<T> extends AbstractObservableWithUpstr
             if (done) {
                 return;
             }
-            long idx = index + 1;
-            index = idx;
+            emitting();
 
             actual.onNext(t);
 
-            scheduleTimeout(idx);
-        }
-
-        void scheduleTimeout(final long idx) {
-            Disposable d = get();
-            if (d != null) {
-                d.dispose();
-            }
-
-            if (compareAndSet(d, NEW_TIMER)) {
-                d = worker.schedule(new TimeoutTask(idx), timeout, unit);
-
-                DisposableHelper.replace(this, d);
-            }
+            emitted();
         }
 
         @Override
@@ -273,35 +269,16 @@ public final class ObservableTimeoutTimed<T> extends AbstractObservableWithUpstr
             return worker.isDisposed();
         }
 
-        final class TimeoutTask implements Runnable {
-            private final long idx;
-
-            TimeoutTask(long idx) {
-                this.idx = idx;
-            }
-
-            @Override
-            public void run() {
-                if (idx == index) {
-                    done = true;
-                    s.dispose();
-                    DisposableHelper.dispose(TimeoutTimedObserver.this);
+        @Override
+        void onTimeout() {
+            if (!done) {
+                done = true;
+                s.dispose();
 
-                    actual.onError(new TimeoutException());
+                actual.onError(new TimeoutException());
 
-                    worker.dispose();
-                }
+                worker.dispose();
             }
         }
     }
-
-    static final class NewTimerEmptyDisposable implements Disposable {
-        @Override
-        public void dispose() { }
-
-        @Override
-        public boolean isDisposed() {
-            return true;
-        }
-    }
 }
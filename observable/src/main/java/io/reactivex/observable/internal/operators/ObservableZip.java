@@ -20,6 +20,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import io.reactivex.common.Disposable;
 import io.reactivex.common.exceptions.Exceptions;
 import io.reactivex.common.internal.disposables.DisposableHelper;
+import io.reactivex.common.internal.functions.Functions;
 import io.reactivex.common.internal.functions.ObjectHelper;
 import io.reactivex.observable.Observable;
 import io.reactivex.observable.ObservableSource;
@@ -83,6 +84,8 @@ public final class ObservableZip<T, R> extends Observable<R> {
         final Function1<? super Object[], ? extends R> zipper;
         final ZipObserver<T, R>[] observers;
         final T[] row;
+        /** True if the zipper does not retain its array, so the row can be passed without a copy. */
+        final boolean reuseRow;
         final boolean delayError;
 
         volatile boolean cancelled;
@@ -95,6 +98,7 @@ public final class ObservableZip<T, R> extends Observable<R> {
             this.zipper = zipper;
             this.observers = new ZipObserver[count];
             this.row = (T[])new Object[count];
+            this.reuseRow = Functions.isArrayAdapter(zipper);
             this.delayError = delayError;
         }
 
@@ -198,7 +202,7 @@ public final class ObservableZip<T, R> extends Observable<R> {
 
                     R v;
                     try {
-                        v = ObjectHelper.requireNonNull(zipper.invoke(os.clone()), "The zipper returned a null value");
+                        v = ObjectHelper.requireNonNull(zipper.invoke(reuseRow ? os : os.clone()), "The zipper returned a null value");
                     } catch (Throwable ex) {
                         Exceptions.throwIfFatal(ex);
                         cancel();
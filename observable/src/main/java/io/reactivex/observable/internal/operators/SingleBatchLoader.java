@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.*;
+
+import io.reactivex.common.*;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.disposables.*;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.observable.*;
+import kotlin.jvm.functions.Function1;
+
+/**
+ * Maps keys to Singles whose subscriptions are collected into batches, each batch being
+ * loaded with one call to the bulk loader once it is full or its time window elapsed.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class SingleBatchLoader<K, V> implements Function1<K, Single<V>> {
+
+    final Function1<? super List<K>, ? extends SingleSource<? extends Map<K, V>>> bulkLoader;
+
+    final int maxBatchSize;
+
+    final long time;
+
+    final TimeUnit unit;
+
+    final Scheduler scheduler;
+
+    /** The batch collecting keys, guarded by this. */
+    Batch<K, V> current;
+
+    public SingleBatchLoader(Function1<? super List<K>, ? extends SingleSource<? extends Map<K, V>>> bulkLoader,
+            int maxBatchSize, long time, TimeUnit unit, Scheduler scheduler) {
+        this.bulkLoader = bulkLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.time = time;
+        this.unit = unit;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Single<V> invoke(K key) {
+        ObjectHelper.requireNonNull(key, "key is null");
+        return RxJavaObservablePlugins.onAssembly(new BatchLoaderSingle<K, V>(this, key));
+    }
+
+    void enqueue(LoadDisposable<K, V> d) {
+        Batch<K, V> b;
+        boolean start;
+        boolean full;
+        synchronized (this) {
+            b = current;
+            start = b == null;
+            if (start) {
+                b = new Batch<K, V>(this);
+                current = b;
+            }
+            b.entries.add(d);
+            full = b.entries.size() == maxBatchSize;
+            if (full) {
+                current = null;
+            }
+        }
+
+        if (full) {
+            b.flush();
+        } else
+        if (start) {
+            b.timer.replace(scheduler.scheduleDirect(b, time, unit));
+        }
+    }
+
+    static final class BatchLoaderSingle<K, V> extends Single<V> {
+
+        final SingleBatchLoader<K, V> parent;
+
+        final K key;
+
+        BatchLoaderSingle(SingleBatchLoader<K, V> parent, K key) {
+            this.parent = parent;
+            this.key = key;
+        }
+
+        @Override
+        protected void subscribeActual(SingleObserver<? super V> s) {
+            LoadDisposable<K, V> d = new LoadDisposable<K, V>(s, key);
+            s.onSubscribe(d);
+            if (!d.isDisposed()) {
+                parent.enqueue(d);
+            }
+        }
+    }
+
+    /**
+     * The keys collected for one call to the bulk loader and the SingleObservers waiting for them.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    static final class Batch<K, V> implements SingleObserver<Map<K, V>>, Runnable {
+
+        final SingleBatchLoader<K, V> parent;
+
+        /** Guarded by parent until the batch is flushed. */
+        final List<LoadDisposable<K, V>> entries;
+
+        final SequentialDisposable timer;
+
+        /** The disposable of the bulk load. */
+        final AtomicReference<Disposable> upstream;
+
+        /** The number of entries not disposed since the flush, plus one while flushing. */
+        final AtomicInteger live;
+
+        Batch(SingleBatchLoader<K, V> parent) {
+            this.parent = parent;
+            this.entries = new ArrayList<LoadDisposable<K, V>>();
+            this.timer = new SequentialDisposable();
+            this.upstream = new AtomicReference<Disposable>();
+            this.live = new AtomicInteger(1);
+        }
+
+        @Override
+        public void run() {
+            SingleBatchLoader<K, V> p = parent;
+            synchronized (p) {
+                if (p.current != this) {
+                    return;
+                }
+                p.current = null;
+            }
+            flush();
+        }
+
+        void flush() {
+            timer.dispose();
+
+            Set<K> keys = new LinkedHashSet<K>();
+            for (LoadDisposable<K, V> d : entries) {
+                live.getAndIncrement();
+                if (d.compareAndSet(null, this)) {
+                    keys.add(d.key);
+                } else {
+                    live.decrementAndGet();
+                }
+            }
+            if (keys.isEmpty()) {
+                return;
+            }
+
+            SingleSource<? extends Map<K, V>> source;
+            try {
+                source = ObjectHelper.requireNonNull(parent.bulkLoader.invoke(new ArrayList<K>(keys)), "The bulkLoader returned a null SingleSource");
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                onError(ex);
+                return;
+            }
+            source.subscribe(this);
+
+            release();
+        }
+
+        /**
+         * Called once per entry disposed after the flush and once by the flush itself,
+         * the last one cancels the bulk load nobody waits for anymore.
+         */
+        void release() {
+            if (live.decrementAndGet() == 0) {
+                DisposableHelper.dispose(upstream);
+            }
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(upstream, d);
+        }
+
+        @Override
+        public void onSuccess(Map<K, V> values) {
+            try {
+                ObjectHelper.requireNonNull(values, "The bulkLoader returned a null map");
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                onError(ex);
+                return;
+            }
+
+            for (LoadDisposable<K, V> d : entries) {
+                if (!d.isDisposed()) {
+                    V v = values.get(d.key);
+                    if (v != null) {
+                        d.actual.onSuccess(v);
+                    } else {
+                        d.actual.onError(new NoSuchElementException("The bulkLoader returned no value for the key " + d.key));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            for (LoadDisposable<K, V> d : entries) {
+                if (!d.isDisposed()) {
+                    d.actual.onError(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The SingleObserver waiting for a key; holds null until its batch is flushed, then the
+     * batch to release when disposed.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    static final class LoadDisposable<K, V>
+    extends AtomicReference<Object>
+    implements Disposable {
+
+        private static final long serialVersionUID = -3196317536281961187L;
+
+        static final Object DISPOSED = new Object();
+
+        final SingleObserver<? super V> actual;
+
+        final K key;
+
+        LoadDisposable(SingleObserver<? super V> actual, K key) {
+            this.actual = actual;
+            this.key = key;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get() == DISPOSED;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void dispose() {
+            Object o = get();
+            if (o != DISPOSED) {
+                o = getAndSet(DISPOSED);
+                if (o instanceof Batch) {
+                    ((Batch<K, V>)o).release();
+                }
+            }
+        }
+    }
+}
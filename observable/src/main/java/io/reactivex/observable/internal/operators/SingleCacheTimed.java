@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.*;
+
+import io.reactivex.common.*;
+import io.reactivex.observable.*;
+
+/**
+ * Caches the success value of the source for a limited time and resubscribes once it expired;
+ * errors are not cached.
+ * <p>
+ * A value older than the refresh time is still served but the first SingleObserver to see it
+ * triggers a resubscription on the Scheduler whose value replaces the cached one.
+ *
+ * @param <T> the value type
+ */
+public final class SingleCacheTimed<T> extends Single<T> {
+
+    final SingleSource<? extends T> source;
+
+    final long time;
+
+    final long refreshAfter;
+
+    final TimeUnit unit;
+
+    final Scheduler scheduler;
+
+    final AtomicReference<CacheEntry<T>> current;
+
+    public SingleCacheTimed(SingleSource<? extends T> source, long time, long refreshAfter, TimeUnit unit, Scheduler scheduler) {
+        this.source = source;
+        this.time = time;
+        this.refreshAfter = refreshAfter;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.current = new AtomicReference<CacheEntry<T>>();
+    }
+
+    @Override
+    protected void subscribeActual(SingleObserver<? super T> s) {
+        long now = scheduler.now(unit);
+        for (;;) {
+            CacheEntry<T> entry = current.get();
+            if (entry == null || now >= entry.expiresAt) {
+                CacheEntry<T> fresh = new CacheEntry<T>(this, null);
+                if (!current.compareAndSet(entry, fresh)) {
+                    continue;
+                }
+                fresh.subscribe(s);
+                source.subscribe(fresh);
+                return;
+            }
+
+            boolean refresh = now >= entry.refreshAt && entry.refreshing.compareAndSet(false, true);
+
+            entry.subscribe(s);
+
+            if (refresh) {
+                // the cached result is already served, don't make this SingleObserver wait for the reload
+                scheduler.scheduleDirect(new RefreshTask<T>(this, entry));
+            }
+            return;
+        }
+    }
+
+    /**
+     * Subscribes to the source on the scheduler to replace the given entry.
+     *
+     * @param <T> the value type
+     */
+    static final class RefreshTask<T> implements Runnable {
+        final SingleCacheTimed<T> parent;
+
+        final CacheEntry<T> entry;
+
+        RefreshTask(SingleCacheTimed<T> parent, CacheEntry<T> entry) {
+            this.parent = parent;
+            this.entry = entry;
+        }
+
+        @Override
+        public void run() {
+            parent.source.subscribe(new CacheEntry<T>(parent, entry));
+        }
+    }
+
+    static long deadline(long now, long delta) {
+        return now > Long.MAX_VALUE - delta ? Long.MAX_VALUE - 1 : now + delta;
+    }
+
+    /**
+     * The outcome of one subscription to the source and the SingleObservers waiting for it.
+     *
+     * @param <T> the value type
+     */
+    static final class CacheEntry<T>
+    extends AtomicReference<CacheDisposable<T>[]>
+    implements SingleObserver<T> {
+
+        private static final long serialVersionUID = -4853312457237916384L;
+
+        @SuppressWarnings("rawtypes")
+        static final CacheDisposable[] EMPTY = new CacheDisposable[0];
+        @SuppressWarnings("rawtypes")
+        static final CacheDisposable[] TERMINATED = new CacheDisposable[0];
+
+        final SingleCacheTimed<T> parent;
+
+        /** The entry this one refreshes, null for a regular entry. */
+        CacheEntry<T> previous;
+
+        final AtomicBoolean refreshing;
+
+        T value;
+
+        Throwable error;
+
+        /** The time from which this entry is no longer served, Long.MAX_VALUE while in flight. */
+        volatile long expiresAt;
+
+        /** The time from which serving this entry triggers a refresh. */
+        volatile long refreshAt;
+
+        @SuppressWarnings("unchecked")
+        CacheEntry(SingleCacheTimed<T> parent, CacheEntry<T> previous) {
+            super(EMPTY);
+            this.parent = parent;
+            this.previous = previous;
+            this.refreshing = new AtomicBoolean();
+            this.expiresAt = Long.MAX_VALUE;
+            this.refreshAt = Long.MAX_VALUE;
+        }
+
+        void subscribe(SingleObserver<? super T> s) {
+            CacheDisposable<T> d = new CacheDisposable<T>(s, this);
+            s.onSubscribe(d);
+
+            if (add(d)) {
+                if (d.isDisposed()) {
+                    remove(d);
+                }
+            } else {
+                if (!d.isDisposed()) {
+                    Throwable ex = error;
+                    if (ex != null) {
+                        s.onError(ex);
+                    } else {
+                        s.onSuccess(value);
+                    }
+                }
+            }
+        }
+
+        boolean add(CacheDisposable<T> observer) {
+            for (;;) {
+                CacheDisposable<T>[] a = get();
+                if (a == TERMINATED) {
+                    return false;
+                }
+                int n = a.length;
+                @SuppressWarnings("unchecked")
+                CacheDisposable<T>[] b = new CacheDisposable[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = observer;
+                if (compareAndSet(a, b)) {
+                    return true;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void remove(CacheDisposable<T> observer) {
+            for (;;) {
+                CacheDisposable<T>[] a = get();
+                int n = a.length;
+                if (n == 0) {
+                    return;
+                }
+
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == observer) {
+                        j = i;
+                        break;
+                    }
+                }
+
+                if (j < 0) {
+                    return;
+                }
+
+                CacheDisposable<T>[] b;
+
+                if (n == 1) {
+                    b = EMPTY;
+                } else {
+                    b = new CacheDisposable[n - 1];
+                    System.arraycopy(a, 0, b, 0, j);
+                    System.arraycopy(a, j + 1, b, j, n - j - 1);
+                }
+                if (compareAndSet(a, b)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            // not supported by this operator
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onSuccess(T value) {
+            this.value = value;
+            SingleCacheTimed<T> p = parent;
+            long now = p.scheduler.now(p.unit);
+            refreshAt = deadline(now, p.refreshAfter);
+            expiresAt = deadline(now, p.time);
+
+            CacheEntry<T> prev = previous;
+            if (prev != null) {
+                previous = null;
+                p.current.compareAndSet(prev, this);
+            }
+
+            for (CacheDisposable<T> d : getAndSet(TERMINATED)) {
+                if (!d.isDisposed()) {
+                    d.actual.onSuccess(value);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onError(Throwable e) {
+            this.error = e;
+            expiresAt = Long.MIN_VALUE;
+
+            CacheEntry<T> prev = previous;
+            if (prev != null) {
+                previous = null;
+                // keep serving the older value and let a later SingleObserver retry the refresh
+                prev.refreshing.set(false);
+            }
+
+            for (CacheDisposable<T> d : getAndSet(TERMINATED)) {
+                if (!d.isDisposed()) {
+                    d.actual.onError(e);
+                }
+            }
+        }
+    }
+
+    static final class CacheDisposable<T>
+    extends AtomicBoolean
+    implements Disposable {
+
+        private static final long serialVersionUID = 2640287516498131454L;
+
+        final SingleObserver<? super T> actual;
+
+        final CacheEntry<T> parent;
+
+        CacheDisposable(SingleObserver<? super T> actual, CacheEntry<T> parent) {
+            this.actual = actual;
+            this.parent = parent;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get();
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                parent.remove(this);
+            }
+        }
+    }
+}
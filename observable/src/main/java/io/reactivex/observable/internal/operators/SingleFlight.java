@@ -0,0 +1,330 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import io.reactivex.common.*;
+import io.reactivex.common.exceptions.Exceptions;
+import io.reactivex.common.internal.disposables.DisposableHelper;
+import io.reactivex.common.internal.functions.ObjectHelper;
+import io.reactivex.observable.*;
+import kotlin.jvm.functions.Function1;
+
+/**
+ * Maps keys to Singles that share one in-flight subscription to the loaded source per key
+ * among all concurrent SingleObservers, optionally keeping the success value for a limited time.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class SingleFlight<K, V> implements Function1<K, Single<V>> {
+
+    final Function1<? super K, ? extends SingleSource<? extends V>> loader;
+
+    final long time;
+
+    final TimeUnit unit;
+
+    final Scheduler scheduler;
+
+    final ConcurrentMap<K, FlightEntry<K, V>> flights;
+
+    public SingleFlight(Function1<? super K, ? extends SingleSource<? extends V>> loader, long time, TimeUnit unit, Scheduler scheduler) {
+        this.loader = loader;
+        this.time = time;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.flights = new ConcurrentHashMap<K, FlightEntry<K, V>>();
+    }
+
+    @Override
+    public Single<V> invoke(K key) {
+        ObjectHelper.requireNonNull(key, "key is null");
+        return RxJavaObservablePlugins.onAssembly(new SingleFlightSingle<K, V>(this, key));
+    }
+
+    void subscribe(K key, FlightDisposable<V> d) {
+        ConcurrentMap<K, FlightEntry<K, V>> map = flights;
+        for (;;) {
+            if (d.isDisposed()) {
+                return;
+            }
+            FlightEntry<K, V> entry = map.get(key);
+            boolean connect = false;
+            if (entry == null) {
+                FlightEntry<K, V> fresh = new FlightEntry<K, V>(this, key);
+                entry = map.putIfAbsent(key, fresh);
+                if (entry == null) {
+                    entry = fresh;
+                    connect = true;
+                }
+            }
+
+            d.parent = entry;
+            if (entry.add(d)) {
+                if (d.isDisposed()) {
+                    entry.remove(d);
+                }
+                if (connect) {
+                    entry.connect();
+                }
+                return;
+            }
+
+            if (entry.get() == FlightEntry.CANCELLED) {
+                // all observers of the entry left before it signalled, start over with a new one
+                map.remove(key, entry);
+                continue;
+            }
+
+            // an entry that just left the map still delivers its outcome
+            if (!d.isDisposed()) {
+                Throwable ex = entry.error;
+                if (ex != null) {
+                    d.actual.onError(ex);
+                } else {
+                    d.actual.onSuccess(entry.value);
+                }
+            }
+            return;
+        }
+    }
+
+    static final class SingleFlightSingle<K, V> extends Single<V> {
+
+        final SingleFlight<K, V> parent;
+
+        final K key;
+
+        SingleFlightSingle(SingleFlight<K, V> parent, K key) {
+            this.parent = parent;
+            this.key = key;
+        }
+
+        @Override
+        protected void subscribeActual(SingleObserver<? super V> s) {
+            FlightDisposable<V> d = new FlightDisposable<V>(s);
+            s.onSubscribe(d);
+            parent.subscribe(key, d);
+        }
+    }
+
+    /**
+     * One subscription to the loaded source and the SingleObservers sharing it; the subscription
+     * is disposed and the entry leaves the map once all of them disposed before the outcome.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    static final class FlightEntry<K, V>
+    extends AtomicReference<FlightDisposable<V>[]>
+    implements SingleObserver<V>, Runnable {
+
+        private static final long serialVersionUID = 4460563418396390633L;
+
+        @SuppressWarnings("rawtypes")
+        static final FlightDisposable[] EMPTY = new FlightDisposable[0];
+        @SuppressWarnings("rawtypes")
+        static final FlightDisposable[] TERMINATED = new FlightDisposable[0];
+        @SuppressWarnings("rawtypes")
+        static final FlightDisposable[] CANCELLED = new FlightDisposable[0];
+
+        final SingleFlight<K, V> parent;
+
+        final K key;
+
+        final AtomicReference<Disposable> upstream;
+
+        V value;
+
+        Throwable error;
+
+        @SuppressWarnings("unchecked")
+        FlightEntry(SingleFlight<K, V> parent, K key) {
+            super(EMPTY);
+            this.parent = parent;
+            this.key = key;
+            this.upstream = new AtomicReference<Disposable>();
+        }
+
+        void connect() {
+            if (get() == CANCELLED) {
+                return;
+            }
+            SingleSource<? extends V> source;
+            try {
+                source = ObjectHelper.requireNonNull(parent.loader.invoke(key), "The loader returned a null SingleSource");
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                onError(ex);
+                return;
+            }
+            source.subscribe(this);
+        }
+
+        boolean add(FlightDisposable<V> observer) {
+            for (;;) {
+                FlightDisposable<V>[] a = get();
+                if (a == TERMINATED || a == CANCELLED) {
+                    return false;
+                }
+                int n = a.length;
+                @SuppressWarnings("unchecked")
+                FlightDisposable<V>[] b = new FlightDisposable[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = observer;
+                if (compareAndSet(a, b)) {
+                    return true;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void remove(FlightDisposable<V> observer) {
+            for (;;) {
+                FlightDisposable<V>[] a = get();
+                int n = a.length;
+                if (n == 0) {
+                    return;
+                }
+
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == observer) {
+                        j = i;
+                        break;
+                    }
+                }
+
+                if (j < 0) {
+                    return;
+                }
+
+                FlightDisposable<V>[] b;
+
+                if (n == 1) {
+                    b = CANCELLED;
+                } else {
+                    b = new FlightDisposable[n - 1];
+                    System.arraycopy(a, 0, b, 0, j);
+                    System.arraycopy(a, j + 1, b, j, n - j - 1);
+                }
+                if (compareAndSet(a, b)) {
+                    if (b == CANCELLED) {
+                        DisposableHelper.dispose(upstream);
+                        run();
+                    }
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(upstream, d);
+        }
+
+        @SuppressWarnings("unchecked")
+        FlightDisposable<V>[] terminate() {
+            for (;;) {
+                FlightDisposable<V>[] a = get();
+                if (a == CANCELLED) {
+                    return a;
+                }
+                if (compareAndSet(a, TERMINATED)) {
+                    return a;
+                }
+            }
+        }
+
+        @Override
+        public void onSuccess(V value) {
+            this.value = value;
+
+            FlightDisposable<V>[] a = terminate();
+            if (a == CANCELLED) {
+                return;
+            }
+
+            SingleFlight<K, V> p = parent;
+            if (p.time > 0L) {
+                p.scheduler.scheduleDirect(this, p.time, p.unit);
+            } else {
+                run();
+            }
+
+            for (FlightDisposable<V> d : a) {
+                if (!d.isDisposed()) {
+                    d.actual.onSuccess(value);
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            this.error = e;
+
+            FlightDisposable<V>[] a = terminate();
+            if (a == CANCELLED) {
+                RxJavaCommonPlugins.onError(e);
+                return;
+            }
+
+            run();
+
+            for (FlightDisposable<V> d : a) {
+                if (!d.isDisposed()) {
+                    d.actual.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            parent.flights.remove(key, this);
+        }
+    }
+
+    static final class FlightDisposable<V>
+    extends AtomicBoolean
+    implements Disposable {
+
+        private static final long serialVersionUID = -2327564728916237216L;
+
+        final SingleObserver<? super V> actual;
+
+        volatile FlightEntry<?, V> parent;
+
+        FlightDisposable(SingleObserver<? super V> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get();
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                FlightEntry<?, V> p = parent;
+                if (p != null) {
+                    p.remove(this);
+                }
+            }
+        }
+    }
+}
@@ -12,11 +12,15 @@
  */
 package io.reactivex.observable.observers;
 
+import java.util.concurrent.atomic.*;
+
 import io.reactivex.common.*;
 import io.reactivex.common.annotations.NonNull;
 import io.reactivex.common.internal.disposables.DisposableHelper;
 import io.reactivex.observable.Observer;
-import io.reactivex.observable.internal.utils.*;
+import io.reactivex.observable.extensions.SimplePlainQueue;
+import io.reactivex.observable.internal.queues.MpscLinkedQueue;
+import io.reactivex.observable.internal.utils.NotificationLite;
 
 /**
  * Serializes access to the onNext, onError and onComplete methods of another Observer.
@@ -25,6 +29,10 @@ import io.reactivex.observable.internal.utils.*;
  * make sure the {@code onSubscribe()} is called with a non-null {@code Disposable}
  * before any of the other methods are called.
  *
+ * <p>The calling threads never block: the first caller emits directly, concurrent callers
+ * enqueue their events into a multi-producer queue which is drained by the thread currently
+ * emitting.
+ *
  * <p>The implementation assumes that the actual Observer's methods don't throw.
  *
  * @param <T> the value type
@@ -33,15 +41,22 @@ public final class SerializedObserver<T> implements Observer<T>, Disposable {
     final Observer<? super T> actual;
     final boolean delayError;
 
-    static final int QUEUE_LINK_SIZE = 4;
+    /** Counts the pending emissions; the thread that increments it from zero emits. */
+    final AtomicInteger wip;
 
-    Disposable s;
+    /** Holds the onNext values that arrived while another thread was emitting. */
+    final SimplePlainQueue<T> queue;
 
-    boolean emitting;
-    AppendOnlyLinkedArrayList<Object> queue;
+    /** Holds the terminal NotificationLite event, set at most once. */
+    final AtomicReference<Object> terminal;
+
+    Disposable s;
 
     volatile boolean done;
 
+    /** Set once the terminal event has been emitted; accessed while holding the wip counter. */
+    boolean terminated;
+
     /**
      * Construct a SerializedObserver by wrapping the given actual Observer.
      * @param actual the actual Observer, not null (not verified)
@@ -60,6 +75,9 @@ public final class SerializedObserver<T> implements Observer<T>, Disposable {
     public SerializedObserver(@NonNull Observer<? super T> actual, boolean delayError) {
         this.actual = actual;
         this.delayError = delayError;
+        this.wip = new AtomicInteger();
+        this.queue = new MpscLinkedQueue<T>();
+        this.terminal = new AtomicReference<Object>();
     }
 
     @Override
@@ -93,108 +111,82 @@ public final class SerializedObserver<T> implements Observer<T>, Disposable {
             onError(new NullPointerException("onNext called with null. Null values are generally not allowed in 2.x operators and sources."));
             return;
         }
-        synchronized (this) {
-            if (done) {
+        AtomicInteger w = wip;
+        if (w.get() == 0 && w.compareAndSet(0, 1)) {
+            if (!terminated) {
+                actual.onNext(t);
+            }
+            if (w.decrementAndGet() == 0) {
                 return;
             }
-            if (emitting) {
-                AppendOnlyLinkedArrayList<Object> q = queue;
-                if (q == null) {
-                    q = new AppendOnlyLinkedArrayList<Object>(QUEUE_LINK_SIZE);
-                    queue = q;
-                }
-                q.add(NotificationLite.next(t));
+        } else {
+            queue.offer(t);
+            if (w.getAndIncrement() != 0) {
                 return;
             }
-            emitting = true;
         }
-
-        actual.onNext(t);
-
-        emitLoop();
+        drainLoop();
     }
 
     @Override
     public void onError(@NonNull Throwable t) {
-        if (done) {
-            RxJavaCommonPlugins.onError(t);
-            return;
-        }
-        boolean reportError;
-        synchronized (this) {
-            if (done) {
-                reportError = true;
-            } else
-            if (emitting) {
-                done = true;
-                AppendOnlyLinkedArrayList<Object> q = queue;
-                if (q == null) {
-                    q = new AppendOnlyLinkedArrayList<Object>(QUEUE_LINK_SIZE);
-                    queue = q;
-                }
-                Object err = NotificationLite.error(t);
-                if (delayError) {
-                    q.add(err);
-                } else {
-                    q.setFirst(err);
-                }
-                return;
-            } else {
-                done = true;
-                emitting = true;
-                reportError = false;
-            }
-        }
-
-        if (reportError) {
+        if (done || !terminal.compareAndSet(null, NotificationLite.error(t))) {
             RxJavaCommonPlugins.onError(t);
             return;
         }
-
-        actual.onError(t);
-        // no need to loop because this onError is the last event
+        done = true;
+        drain();
     }
 
     @Override
     public void onComplete() {
-        if (done) {
+        if (done || !terminal.compareAndSet(null, NotificationLite.complete())) {
             return;
         }
-        synchronized (this) {
-            if (done) {
-                return;
-            }
-            if (emitting) {
-                AppendOnlyLinkedArrayList<Object> q = queue;
-                if (q == null) {
-                    q = new AppendOnlyLinkedArrayList<Object>(QUEUE_LINK_SIZE);
-                    queue = q;
-                }
-                q.add(NotificationLite.complete());
-                return;
-            }
-            done = true;
-            emitting = true;
-        }
+        done = true;
+        drain();
+    }
 
-        actual.onComplete();
-        // no need to loop because this onComplete is the last event
+    void drain() {
+        if (wip.getAndIncrement() == 0) {
+            drainLoop();
+        }
     }
 
-    void emitLoop() {
+    void drainLoop() {
+        final Observer<? super T> a = actual;
+        final SimplePlainQueue<T> q = queue;
+        int missed = 1;
+
         for (;;) {
-            AppendOnlyLinkedArrayList<Object> q;
-            synchronized (this) {
-                q = queue;
-                if (q == null) {
-                    emitting = false;
-                    return;
+            while (!terminated) {
+                Object term = terminal.get();
+                if (term != null && !delayError && NotificationLite.isError(term)) {
+                    terminated = true;
+                    NotificationLite.accept(term, a);
+                    break;
+                }
+
+                T v = q.poll();
+
+                if (v == null) {
+                    if (term != null) {
+                        terminated = true;
+                        NotificationLite.accept(term, a);
+                    }
+                    break;
                 }
-                queue = null;
+
+                a.onNext(v);
             }
 
-            if (q.accept(actual)) {
-                return;
+            if (terminated) {
+                q.clear();
+            }
+
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
             }
         }
     }
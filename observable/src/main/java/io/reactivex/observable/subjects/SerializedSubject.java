@@ -13,28 +13,37 @@
 
 package io.reactivex.observable.subjects;
 
+import java.util.concurrent.atomic.*;
+
 import io.reactivex.common.Disposable;
 import io.reactivex.common.RxJavaCommonPlugins;
-import io.reactivex.common.internal.utils.AbstractAppendOnlyLinkedArrayList.NonThrowingPredicate;
 import io.reactivex.observable.Observer;
-import io.reactivex.observable.internal.utils.AppendOnlyLinkedArrayList;
+import io.reactivex.observable.extensions.SimplePlainQueue;
+import io.reactivex.observable.internal.queues.MpscLinkedQueue;
 import io.reactivex.observable.internal.utils.NotificationLite;
 
 /**
  * Serializes calls to the Observer methods.
  * <p>All other Observable and Subject methods are thread-safe by design.
+ * <p>The calling threads never block: the first caller emits directly, concurrent callers
+ * enqueue their events into a multi-producer queue which is drained by the thread currently
+ * emitting.
  *
  * @param <T> the item value type
  */
-/* public */ final class SerializedSubject<T> extends Subject<T> implements NonThrowingPredicate<Object> {
+/* public */ final class SerializedSubject<T> extends Subject<T> {
     /** The actual subscriber to serialize Subscriber calls to. */
     final Subject<T> actual;
-    /** Indicates an emission is going on, guarded by this. */
-    boolean emitting;
-    /** If not null, it holds the missed NotificationLite events. */
-    AppendOnlyLinkedArrayList<Object> queue;
+    /** Counts the pending emissions; the thread that increments it from zero emits. */
+    final AtomicInteger wip;
+    /** Holds the NotificationLite onSubscribe and onNext events that arrived while another thread was emitting. */
+    final SimplePlainQueue<Object> queue;
+    /** Holds the terminal NotificationLite event, set at most once. */
+    final AtomicReference<Object> terminal;
     /** Indicates a terminal event has been received and all further events will be dropped. */
     volatile boolean done;
+    /** Set once the terminal event has been emitted; accessed while holding the wip counter. */
+    boolean terminated;
 
     /**
      * Constructor that wraps an actual subject.
@@ -42,6 +51,9 @@ import io.reactivex.observable.internal.utils.NotificationLite;
      */
     SerializedSubject(final Subject<T> actual) {
         this.actual = actual;
+        this.wip = new AtomicInteger();
+        this.queue = new MpscLinkedQueue<Object>();
+        this.terminal = new AtomicReference<Object>();
     }
 
     @Override
@@ -52,34 +64,27 @@ import io.reactivex.observable.internal.utils.NotificationLite;
 
     @Override
     public void onSubscribe(Disposable s) {
-        boolean cancel;
-        if (!done) {
-            synchronized (this) {
-                if (done) {
-                    cancel = true;
-                } else {
-                    if (emitting) {
-                        AppendOnlyLinkedArrayList<Object> q = queue;
-                        if (q == null) {
-                            q = new AppendOnlyLinkedArrayList<Object>(4);
-                            queue = q;
-                        }
-                        q.add(NotificationLite.disposable(s));
-                        return;
-                    }
-                    emitting = true;
-                    cancel = false;
-                }
-            }
-        } else {
-            cancel = true;
-        }
-        if (cancel) {
+        if (done) {
             s.dispose();
+            return;
+        }
+        AtomicInteger w = wip;
+        if (w.get() == 0 && w.compareAndSet(0, 1)) {
+            if (terminated) {
+                s.dispose();
+            } else {
+                actual.onSubscribe(s);
+            }
+            if (w.decrementAndGet() == 0) {
+                return;
+            }
         } else {
-            actual.onSubscribe(s);
-            emitLoop();
+            queue.offer(NotificationLite.disposable(s));
+            if (w.getAndIncrement() != 0) {
+                return;
+            }
         }
+        drainLoop();
     }
 
     @Override
@@ -87,100 +92,101 @@ import io.reactivex.observable.internal.utils.NotificationLite;
         if (done) {
             return;
         }
-        synchronized (this) {
-            if (done) {
+        AtomicInteger w = wip;
+        if (w.get() == 0 && w.compareAndSet(0, 1)) {
+            if (!terminated) {
+                actual.onNext(t);
+            }
+            if (w.decrementAndGet() == 0) {
                 return;
             }
-            if (emitting) {
-                AppendOnlyLinkedArrayList<Object> q = queue;
-                if (q == null) {
-                    q = new AppendOnlyLinkedArrayList<Object>(4);
-                    queue = q;
-                }
-                q.add(NotificationLite.next(t));
+        } else {
+            queue.offer(NotificationLite.next(t));
+            if (w.getAndIncrement() != 0) {
                 return;
             }
-            emitting = true;
         }
-        actual.onNext(t);
-        emitLoop();
+        drainLoop();
     }
 
     @Override
     public void onError(Throwable t) {
-        if (done) {
-            RxJavaCommonPlugins.onError(t);
-            return;
-        }
-        boolean reportError;
-        synchronized (this) {
-            if (done) {
-                reportError = true;
-            } else {
-                done = true;
-                if (emitting) {
-                    AppendOnlyLinkedArrayList<Object> q = queue;
-                    if (q == null) {
-                        q = new AppendOnlyLinkedArrayList<Object>(4);
-                        queue = q;
-                    }
-                    q.setFirst(NotificationLite.error(t));
-                    return;
-                }
-                reportError = false;
-                emitting = true;
-            }
-        }
-        if (reportError) {
+        if (done || !terminal.compareAndSet(null, NotificationLite.error(t))) {
             RxJavaCommonPlugins.onError(t);
             return;
         }
-        actual.onError(t);
+        done = true;
+        drain();
     }
 
     @Override
     public void onComplete() {
-        if (done) {
+        if (done || !terminal.compareAndSet(null, NotificationLite.complete())) {
             return;
         }
-        synchronized (this) {
-            if (done) {
-                return;
-            }
-            done = true;
-            if (emitting) {
-                AppendOnlyLinkedArrayList<Object> q = queue;
-                if (q == null) {
-                    q = new AppendOnlyLinkedArrayList<Object>(4);
-                    queue = q;
-                }
-                q.add(NotificationLite.complete());
-                return;
-            }
-            emitting = true;
+        done = true;
+        drain();
+    }
+
+    void drain() {
+        if (wip.getAndIncrement() == 0) {
+            drainLoop();
         }
-        actual.onComplete();
     }
 
     /** Loops until all notifications in the queue has been processed. */
-    void emitLoop() {
+    void drainLoop() {
+        final Observer<? super T> a = actual;
+        final SimplePlainQueue<Object> q = queue;
+        int missed = 1;
+
         for (;;) {
-            AppendOnlyLinkedArrayList<Object> q;
-            synchronized (this) {
-                q = queue;
-                if (q == null) {
-                    emitting = false;
-                    return;
+            while (!terminated) {
+                Object term = terminal.get();
+                if (term != null && NotificationLite.isError(term)) {
+                    terminated = true;
+                    NotificationLite.accept(term, a);
+                    break;
+                }
+
+                Object o = q.poll();
+
+                if (o == null) {
+                    if (term != null) {
+                        terminated = true;
+                        NotificationLite.accept(term, a);
+                    }
+                    break;
                 }
-                queue = null;
+
+                NotificationLite.acceptFull(o, a);
+            }
+
+            if (terminated) {
+                clear(q);
+            }
+
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
             }
-            q.forEachWhile(this);
         }
     }
 
-    @Override
-    public Boolean invoke(Object o) {
-        return NotificationLite.acceptFull(o, actual);
+    /**
+     * Drops the queued events after termination, disposing the queued Disposables.
+     * @param q the queue to clear
+     */
+    static void clear(SimplePlainQueue<Object> q) {
+        for (;;) {
+            Object o = q.poll();
+            if (o == null) {
+                break;
+            }
+            if (NotificationLite.isDisposable(o)) {
+                NotificationLite.getDisposable(o).dispose();
+            }
+        }
     }
 
     @Override
@@ -19,7 +19,7 @@ import java.util.*;
 
 import org.junit.*;
 
-import io.reactivex.common.Disposables;
+import io.reactivex.common.*;
 import io.reactivex.common.exceptions.TestException;
 import io.reactivex.observable.Observable;
 import io.reactivex.observable.ObservableSource;
@@ -119,4 +119,44 @@ public class BlockingObservableToIteratorTest {
         BlockingObservableIterator<Integer> it = new BlockingObservableIterator<Integer>(128);
         it.remove();
     }
+
+    @Test
+    public void chunks() {
+        Iterator<List<Integer>> it = Observable.range(1, 10).blockingChunks(4).iterator();
+
+        assertTrue(it.hasNext());
+        assertEquals(Arrays.asList(1, 2, 3, 4), it.next());
+        assertEquals(Arrays.asList(5, 6, 7, 8), it.next());
+        assertEquals(Arrays.asList(9, 10), it.next());
+        assertFalse(it.hasNext());
+
+        try {
+            it.next();
+            fail("Should have thrown");
+        } catch (NoSuchElementException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void chunksAsync() {
+        List<Integer> all = new ArrayList<Integer>();
+        for (List<Integer> list : Observable.range(1, 10000).subscribeOn(Schedulers.computation()).blockingChunks(16)) {
+            assertFalse(list.isEmpty());
+            assertTrue(list.size() <= 16);
+            all.addAll(list);
+        }
+
+        assertEquals(Observable.range(1, 10000).toList().blockingGet(), all);
+    }
+
+    @Test(expected = TestException.class)
+    public void chunksError() {
+        Observable.<Integer>error(new TestException()).blockingChunks().iterator().hasNext();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void chunksInvalidBatchSize() {
+        Observable.range(1, 10).blockingChunks(0);
+    }
 }
@@ -13,15 +13,21 @@
 
 package io.reactivex.observable.internal.operators;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import io.reactivex.common.Disposable;
 import io.reactivex.common.Schedulers;
 import io.reactivex.common.TestCommonHelper;
+import io.reactivex.common.TestScheduler;
 import io.reactivex.common.exceptions.TestException;
 import io.reactivex.common.internal.functions.Functions;
 import io.reactivex.observable.Maybe;
 import io.reactivex.observable.MaybeObserver;
+import io.reactivex.observable.MaybeSource;
 import io.reactivex.observable.observers.TestObserver;
 import io.reactivex.observable.subjects.PublishSubject;
 import kotlin.Unit;
@@ -314,4 +320,122 @@ public class MaybeCacheTest {
         dout[0].dispose();
         dout[0].dispose();
     }
+
+    static Maybe<Integer> counting(final AtomicInteger subscriptions, final boolean empty) {
+        return Maybe.defer(new Callable<MaybeSource<Integer>>() {
+            @Override
+            public MaybeSource<Integer> call() throws Exception {
+                int n = subscriptions.incrementAndGet();
+                if (n == 1) {
+                    return empty ? Maybe.<Integer>empty() : Maybe.<Integer>error(new TestException());
+                }
+                return Maybe.just(n);
+            }
+        });
+    }
+
+    @Test
+    public void timedExpires() {
+        TestScheduler scheduler = new TestScheduler();
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        Maybe<Integer> cached = counting(subscriptions, true).cache(1, TimeUnit.SECONDS, scheduler);
+
+        cached.test().assertResult();
+
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+
+        cached.test().assertResult();
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+
+        cached.test().assertResult(2);
+        cached.test().assertResult(2);
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void timedRefreshAhead() {
+        TestScheduler scheduler = new TestScheduler();
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        Maybe<Integer> cached = counting(subscriptions, true).cache(10, 5, TimeUnit.SECONDS, scheduler);
+
+        cached.test().assertResult();
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        // served from the cache before the refresh runs
+        cached.test().assertResult();
+
+        assertEquals(1, subscriptions.get());
+
+        scheduler.triggerActions();
+
+        assertEquals(2, subscriptions.get());
+
+        cached.test().assertResult(2);
+    }
+
+    @Test
+    public void timedRefreshDoesNotWait() {
+        TestScheduler scheduler = new TestScheduler();
+        final AtomicInteger subscriptions = new AtomicInteger();
+        final PublishSubject<Integer> ps = PublishSubject.create();
+
+        Maybe<Integer> cached = Maybe.defer(new Callable<MaybeSource<Integer>>() {
+            @Override
+            public MaybeSource<Integer> call() throws Exception {
+                if (subscriptions.incrementAndGet() == 1) {
+                    return Maybe.just(1);
+                }
+                return ps.firstElement();
+            }
+        }).cache(10, 5, TimeUnit.SECONDS, scheduler);
+
+        cached.test().assertResult(1);
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        // the MaybeObserver triggering the refresh gets the cached value before the reload starts
+        cached.test().assertResult(1);
+
+        assertEquals(1, subscriptions.get());
+
+        scheduler.triggerActions();
+
+        assertEquals(2, subscriptions.get());
+
+        // the reload is in flight, the cached value is still served
+        cached.test().assertResult(1);
+
+        ps.onNext(2);
+
+        cached.test().assertResult(2);
+    }
+
+    @Test
+    public void timedErrorNotCached() {
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        Maybe<Integer> cached = counting(subscriptions, false).cache(1, TimeUnit.SECONDS, Schedulers.trampoline());
+
+        cached.test().assertFailure(TestException.class);
+
+        cached.test().assertResult(2);
+        cached.test().assertResult(2);
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timedInvalidTime() {
+        Maybe.just(1).cache(0, TimeUnit.SECONDS, Schedulers.trampoline());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timedInvalidRefreshAfter() {
+        Maybe.just(1).cache(10, -1, TimeUnit.SECONDS, Schedulers.trampoline());
+    }
 }
@@ -19,13 +19,16 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import io.reactivex.common.Disposable;
 import io.reactivex.common.Disposables;
 import io.reactivex.common.Schedulers;
 import io.reactivex.common.TestCommonHelper;
+import io.reactivex.common.TestScheduler;
 import io.reactivex.common.exceptions.TestException;
 import io.reactivex.observable.Observable;
 import io.reactivex.observable.ObservableSource;
@@ -367,4 +370,137 @@ public class ObservableCacheTest {
             .assertSubscribed().assertValueCount(500).assertComplete().assertNoErrors();
         }
     }
+
+    @Test
+    public void boundedExpires() {
+        TestScheduler scheduler = new TestScheduler();
+        final AtomicInteger subscriptions = new AtomicInteger();
+
+        Observable<Integer> cached = Observable.range(1, 3)
+                .doOnSubscribe(new Function1<Disposable, Unit>() {
+                    @Override
+                    public Unit invoke(Disposable d) {
+                        subscriptions.getAndIncrement();
+                        return Unit.INSTANCE;
+                    }
+                })
+                .cache(10, 1, TimeUnit.SECONDS, scheduler);
+
+        cached.test().assertResult(1, 2, 3);
+
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+
+        cached.test().assertResult(1, 2, 3);
+
+        assertEquals(1, subscriptions.get());
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+
+        cached.test().assertResult(1, 2, 3);
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void boundedTruncated() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+        final AtomicInteger disposals = new AtomicInteger();
+        PublishSubject<Integer> ps = PublishSubject.create();
+
+        Observable<Integer> cached = ps
+                .doOnSubscribe(new Function1<Disposable, Unit>() {
+                    @Override
+                    public Unit invoke(Disposable d) {
+                        subscriptions.getAndIncrement();
+                        return Unit.INSTANCE;
+                    }
+                })
+                .doOnDispose(new Function0() {
+                    @Override
+                    public Object invoke() {
+                        disposals.getAndIncrement();
+                        return Unit.INSTANCE;
+                    }
+                })
+                .cache(2, 1, TimeUnit.SECONDS, Schedulers.trampoline());
+
+        TestObserver<Integer> to1 = cached.test();
+
+        ps.onNext(1);
+        ps.onNext(2);
+
+        TestObserver<Integer> to0 = cached.test();
+
+        to0.assertValues(1, 2);
+
+        assertEquals(1, subscriptions.get());
+
+        ps.onNext(3);
+
+        TestObserver<Integer> to2 = cached.test();
+
+        assertEquals(2, subscriptions.get());
+
+        ps.onNext(4);
+
+        to1.assertValues(1, 2, 3, 4);
+        to2.assertValues(4);
+
+        to1.cancel();
+
+        assertEquals(0, disposals.get());
+
+        to0.cancel();
+
+        assertEquals(1, disposals.get());
+
+        ps.onNext(5);
+        ps.onComplete();
+
+        to2.assertResult(4, 5);
+    }
+
+    @Test
+    public void boundedErrorNotCached() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+
+        Observable<Integer> cached = Observable.defer(new Callable<ObservableSource<Integer>>() {
+            @Override
+            public ObservableSource<Integer> call() throws Exception {
+                if (subscriptions.getAndIncrement() == 0) {
+                    return Observable.error(new TestException());
+                }
+                return Observable.just(1);
+            }
+        })
+        .cache(10, 1, TimeUnit.SECONDS, Schedulers.trampoline());
+
+        cached.test().assertFailure(TestException.class);
+
+        cached.test().assertResult(1);
+
+        cached.test().assertResult(1);
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void boundedInvalidMaxItems() {
+        try {
+            Observable.just(1).cache(0, 1, TimeUnit.SECONDS, Schedulers.trampoline());
+            fail("Should have thrown");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("maxItems > 0 required but it was 0", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void boundedInvalidTime() {
+        try {
+            Observable.just(1).cache(10, -1, TimeUnit.SECONDS, Schedulers.trampoline());
+            fail("Should have thrown");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("time > 0 required but it was -1", ex.getMessage());
+        }
+    }
 }
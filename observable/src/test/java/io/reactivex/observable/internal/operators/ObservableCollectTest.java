@@ -23,6 +23,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.reactivex.common.Histogram;
 import io.reactivex.common.RxJavaCommonPlugins;
 import io.reactivex.observable.Observable;
 import io.reactivex.observable.ObservableSource;
@@ -387,4 +388,34 @@ public final class ObservableCollectTest {
             }
         }, false, 1, 2, Arrays.asList(1));
     }
+
+    @Test
+    public void histogram() {
+        Histogram h = Observable.range(1, 1000)
+        .histogram(new Function1<Integer, Long>() {
+            @Override
+            public Long invoke(Integer v) {
+                return v.longValue();
+            }
+        }, 3)
+        .blockingGet();
+
+        assertEquals(1000, h.count());
+        assertEquals(500, h.valueAtPercentile(50));
+        assertEquals(990, h.valueAtPercentile(99));
+        assertEquals(1000, h.max());
+    }
+
+    @Test
+    public void histogramNegativeValue() {
+        Observable.just(1, -1)
+        .histogram(new Function1<Integer, Long>() {
+            @Override
+            public Long invoke(Integer v) {
+                return v.longValue();
+            }
+        }, 3)
+        .test()
+        .assertFailure(IllegalArgumentException.class);
+    }
 }
@@ -1236,4 +1236,50 @@ public class ObservableCombineLatestTest {
         ps2.onNext(2);
         ts.assertResult(3);
     }
+
+    @Test
+    public void combineLatest2WithReusedRow() {
+        PublishSubject<Integer> ps1 = PublishSubject.create();
+        PublishSubject<Integer> ps2 = PublishSubject.create();
+
+        TestObserver<String> to = Observable.combineLatest(ps1, ps2, new Function2<Integer, Integer, String>() {
+            @Override
+            public String invoke(Integer a, Integer b) {
+                return a + "-" + b;
+            }
+        })
+        .test();
+
+        ps1.onNext(1);
+        ps1.onNext(2);
+        ps2.onNext(10);
+        ps1.onNext(3);
+        ps2.onNext(20);
+        ps1.onComplete();
+        ps2.onComplete();
+
+        to.assertResult("2-10", "3-10", "3-20");
+    }
+
+    @Test
+    public void combineLatestArrayFunctionGetsCopies() {
+        PublishSubject<Integer> ps1 = PublishSubject.create();
+        PublishSubject<Integer> ps2 = PublishSubject.create();
+
+        @SuppressWarnings("unchecked")
+        TestObserver<Object[]> to = Observable.combineLatest(new Function1<Object[], Object[]>() {
+            @Override
+            public Object[] invoke(Object[] a) {
+                return a;
+            }
+        }, 128, ps1, ps2)
+        .test();
+
+        ps1.onNext(1);
+        ps2.onNext(10);
+        ps1.onNext(2);
+
+        assertEquals(Arrays.asList(1, 10), Arrays.asList(to.values().get(0)));
+        assertEquals(Arrays.asList(2, 10), Arrays.asList(to.values().get(1)));
+    }
 }
@@ -21,7 +21,6 @@ import org.mockito.InOrder;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-import io.reactivex.common.Disposable;
 import io.reactivex.common.Disposables;
 import io.reactivex.common.RxJavaCommonPlugins;
 import io.reactivex.common.Scheduler;
@@ -323,12 +322,44 @@ public class ObservableDebounceTest {
 
         TestHelper.checkDisposed(PublishSubject.create().debounce(Functions.justFunction(Observable.never())));
 
-        Disposable d = new ObservableDebounceTimed.DebounceEmitter<Integer>(1, 1, null);
-        assertFalse(d.isDisposed());
+        TestScheduler scheduler = new TestScheduler();
+        PublishSubject<Integer> ps = PublishSubject.create();
+        TestObserver<Integer> ts = ps.debounce(1, TimeUnit.SECONDS, scheduler).test();
+
+        ps.onNext(1);
+
+        assertTrue(ps.hasObservers());
+
+        ts.dispose();
+
+        assertFalse(ps.hasObservers());
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        ts.assertEmpty();
+    }
+
+    @Test
+    public void timerRearmsForLatestItem() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishSubject<Integer> ps = PublishSubject.create();
+        TestObserver<Integer> ts = ps.debounce(1, TimeUnit.SECONDS, scheduler).test();
+
+        for (int i = 0; i < 10; i++) {
+            ps.onNext(i);
+            scheduler.advanceTimeBy(900, TimeUnit.MILLISECONDS);
+        }
+
+        ts.assertEmpty();
+
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+
+        ts.assertValue(9).assertNoErrors().assertNotComplete();
 
-        d.dispose();
+        ps.onNext(10);
+        ps.onComplete();
 
-        assertTrue(d.isDisposed());
+        ts.assertResult(9, 10);
     }
 
     @Test
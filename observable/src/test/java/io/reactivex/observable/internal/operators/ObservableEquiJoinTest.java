@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.common.TestScheduler;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.observable.Observable;
+import io.reactivex.observable.observers.TestObserver;
+import io.reactivex.observable.subjects.PublishSubject;
+import kotlin.jvm.functions.Function1;
+import kotlin.jvm.functions.Function2;
+
+public class ObservableEquiJoinTest {
+
+    static final Function1<String, Character> KEY = new Function1<String, Character>() {
+        @Override
+        public Character invoke(String s) {
+            return s.charAt(0);
+        }
+    };
+
+    static final Function2<String, String, String> PAIR = new Function2<String, String, String>() {
+        @Override
+        public String invoke(String a, String b) {
+            return a + "+" + b;
+        }
+    };
+
+    final TestScheduler scheduler = new TestScheduler();
+
+    @Test
+    public void matchByKey() {
+        PublishSubject<String> left = PublishSubject.create();
+        PublishSubject<String> right = PublishSubject.create();
+
+        TestObserver<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test();
+
+        left.onNext("a1");
+        left.onNext("b1");
+        right.onNext("a2");
+        right.onNext("c1");
+        left.onNext("a3");
+        right.onNext("a4");
+
+        t.assertValues("a1+a2", "a3+a2", "a1+a4", "a3+a4");
+
+        left.onComplete();
+
+        t.assertNotComplete();
+
+        right.onComplete();
+
+        t.assertComplete();
+    }
+
+    @Test
+    public void expireByTime() {
+        PublishSubject<String> left = PublishSubject.create();
+        PublishSubject<String> right = PublishSubject.create();
+
+        TestObserver<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test();
+
+        left.onNext("a1");
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        left.onNext("a2");
+        right.onNext("a3");
+
+        t.assertValues("a1+a3", "a2+a3");
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        right.onNext("a4");
+
+        t.assertValues("a1+a3", "a2+a3", "a2+a4");
+
+        scheduler.advanceTimeBy(10, TimeUnit.SECONDS);
+
+        right.onNext("a5");
+        left.onNext("a6");
+
+        t.assertValues("a1+a3", "a2+a3", "a2+a4", "a6+a5");
+    }
+
+    @Test
+    public void expireByCount() {
+        PublishSubject<String> left = PublishSubject.create();
+        PublishSubject<String> right = PublishSubject.create();
+
+        TestObserver<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 2, PAIR)
+        .test();
+
+        left.onNext("a1");
+        left.onNext("b1");
+        left.onNext("a2");
+        right.onNext("a3");
+
+        t.assertValues("a2+a3");
+    }
+
+    @Test
+    public void leftError() {
+        PublishSubject<String> left = PublishSubject.create();
+        PublishSubject<String> right = PublishSubject.create();
+
+        TestObserver<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test();
+
+        left.onError(new TestException());
+
+        t.assertFailure(TestException.class);
+
+        assertFalse(right.hasObservers());
+    }
+
+    @Test
+    public void keySelectorCrash() {
+        PublishSubject<String> left = PublishSubject.create();
+        PublishSubject<String> right = PublishSubject.create();
+
+        TestObserver<String> t = left.equiJoin(right, new Function1<String, Character>() {
+            @Override
+            public Character invoke(String s) {
+                throw new TestException();
+            }
+        }, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test();
+
+        left.onNext("a1");
+
+        t.assertFailure(TestException.class);
+
+        assertFalse(left.hasObservers());
+        assertFalse(right.hasObservers());
+    }
+
+    @Test
+    public void resultSelectorCrash() {
+        PublishSubject<String> left = PublishSubject.create();
+        PublishSubject<String> right = PublishSubject.create();
+
+        TestObserver<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, new Function2<String, String, String>() {
+            @Override
+            public String invoke(String a, String b) {
+                throw new TestException();
+            }
+        })
+        .test();
+
+        left.onNext("a1");
+        right.onNext("b1");
+
+        t.assertEmpty();
+
+        right.onNext("a2");
+
+        t.assertFailure(TestException.class);
+    }
+
+    @Test
+    public void dispose() {
+        PublishSubject<String> left = PublishSubject.create();
+        PublishSubject<String> right = PublishSubject.create();
+
+        TestObserver<String> t = left.equiJoin(right, KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 100, PAIR)
+        .test();
+
+        assertTrue(left.hasObservers());
+        assertTrue(right.hasObservers());
+
+        t.dispose();
+
+        assertFalse(left.hasObservers());
+        assertFalse(right.hasObservers());
+    }
+
+    @Test
+    public void manyKeys() {
+        TestObserver<String> t = Observable.range(0, 1000).map(new Function1<Integer, String>() {
+            @Override
+            public String invoke(Integer v) {
+                return (char)('a' + v % 26) + "l" + v;
+            }
+        })
+        .equiJoin(Observable.just("zr", "ar"), KEY, KEY, 10, TimeUnit.SECONDS, scheduler, 1000, PAIR)
+        .test()
+        .assertComplete();
+
+        List<String> list = t.values();
+        assertEquals(38 + 39, list.size());
+        assertEquals("zl25+zr", list.get(0));
+        assertEquals("al0+ar", list.get(38));
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.reactivex.common.Schedulers;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.observable.Observable;
+import io.reactivex.observable.ObservableSource;
+import io.reactivex.observable.observers.TestObserver;
+import io.reactivex.observable.subjects.PublishSubject;
+import kotlin.jvm.functions.Function1;
+
+public class ObservableFlatMapLargeTest {
+
+    static final int LARGE = ObservableFlatMap.LARGE_CONCURRENCY;
+
+    static final Function1<PublishSubject<Integer>, ObservableSource<Integer>> IDENTITY =
+            new Function1<PublishSubject<Integer>, ObservableSource<Integer>>() {
+        @Override
+        public ObservableSource<Integer> invoke(PublishSubject<Integer> v) {
+            return v;
+        }
+    };
+
+    static List<PublishSubject<Integer>> subjects(int n) {
+        List<PublishSubject<Integer>> list = new ArrayList<PublishSubject<Integer>>();
+        for (int i = 0; i < n; i++) {
+            list.add(PublishSubject.<Integer>create());
+        }
+        return list;
+    }
+
+    @Test
+    public void manyInners() {
+        Observable.range(0, 5000)
+        .flatMap(new Function1<Integer, ObservableSource<Integer>>() {
+            @Override
+            public ObservableSource<Integer> invoke(Integer v) {
+                return Observable.range(v * 2, 2).hide();
+            }
+        }, LARGE * 8)
+        .test()
+        .assertValueCount(10000)
+        .assertNoErrors()
+        .assertComplete();
+    }
+
+    @Test
+    public void completesOnlyAfterAllInners() {
+        List<PublishSubject<Integer>> list = subjects(LARGE * 2);
+
+        TestObserver<Integer> to = Observable.fromIterable(list)
+        .flatMap(IDENTITY, LARGE * 2)
+        .test();
+
+        for (int i = list.size() - 1; i > 0; i--) {
+            list.get(i).onNext(i);
+            list.get(i).onComplete();
+        }
+
+        to.assertValueCount(list.size() - 1).assertNotComplete();
+
+        list.get(0).onComplete();
+
+        to.assertValueCount(list.size() - 1)
+        .assertNoErrors()
+        .assertComplete();
+    }
+
+    @Test
+    public void maxConcurrencyRespected() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+        final List<PublishSubject<Integer>> list = new ArrayList<PublishSubject<Integer>>();
+
+        TestObserver<Integer> to = Observable.range(0, LARGE * 2)
+        .flatMap(new Function1<Integer, ObservableSource<Integer>>() {
+            @Override
+            public ObservableSource<Integer> invoke(Integer v) {
+                subscriptions.getAndIncrement();
+                PublishSubject<Integer> ps = PublishSubject.create();
+                list.add(ps);
+                return ps;
+            }
+        }, LARGE)
+        .test();
+
+        assertEquals(LARGE * 2, subscriptions.get());
+
+        int active = 0;
+        for (PublishSubject<Integer> ps : list) {
+            if (ps.hasObservers()) {
+                active++;
+            }
+        }
+        assertEquals(LARGE, active);
+
+        for (int i = 0; i < 10; i++) {
+            list.get(i).onComplete();
+        }
+
+        active = 0;
+        for (PublishSubject<Integer> ps : list) {
+            if (ps.hasObservers()) {
+                active++;
+            }
+        }
+        assertEquals(LARGE, active);
+
+        for (PublishSubject<Integer> ps : list) {
+            ps.onComplete();
+        }
+
+        to.assertResult();
+    }
+
+    @Test
+    public void disposeDisposesInners() {
+        List<PublishSubject<Integer>> list = subjects(LARGE * 2);
+
+        TestObserver<Integer> to = Observable.fromIterable(list)
+        .flatMap(IDENTITY, LARGE * 2)
+        .test();
+
+        for (PublishSubject<Integer> ps : list) {
+            assertTrue(ps.hasObservers());
+        }
+
+        to.dispose();
+
+        for (PublishSubject<Integer> ps : list) {
+            assertFalse(ps.hasObservers());
+        }
+    }
+
+    @Test
+    public void innerError() {
+        List<PublishSubject<Integer>> list = subjects(2);
+
+        TestObserver<Integer> to = Observable.fromIterable(list)
+        .flatMap(IDENTITY, LARGE * 2)
+        .test();
+
+        list.get(0).onNext(1);
+        list.get(1).onError(new TestException());
+
+        to.assertFailure(TestException.class, 1);
+
+        assertFalse(list.get(0).hasObservers());
+    }
+
+    @Test
+    public void innerErrorDelayed() {
+        List<PublishSubject<Integer>> list = subjects(2);
+
+        TestObserver<Integer> to = Observable.fromIterable(list)
+        .flatMap(IDENTITY, true, LARGE)
+        .test();
+
+        list.get(1).onError(new TestException());
+        list.get(0).onNext(1);
+
+        to.assertValues(1).assertNotTerminated();
+
+        list.get(0).onComplete();
+
+        to.assertFailure(TestException.class, 1);
+    }
+
+    @Test
+    public void async() {
+        for (int i = 0; i < 10; i++) {
+            Observable.range(0, 2000)
+            .flatMap(new Function1<Integer, ObservableSource<Integer>>() {
+                @Override
+                public ObservableSource<Integer> invoke(Integer v) {
+                    return Observable.range(v * 3, 3).subscribeOn(Schedulers.computation());
+                }
+            }, LARGE * 4)
+            .test()
+            .awaitDone(10, TimeUnit.SECONDS)
+            .assertValueCount(6000)
+            .assertNoErrors()
+            .assertComplete();
+        }
+    }
+}
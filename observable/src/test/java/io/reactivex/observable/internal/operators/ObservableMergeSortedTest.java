@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.common.Schedulers;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.common.internal.functions.Functions;
+import io.reactivex.observable.Observable;
+import io.reactivex.observable.observers.TestObserver;
+import io.reactivex.observable.subjects.PublishSubject;
+
+public class ObservableMergeSortedTest {
+
+    static final Comparator<Integer> NATURAL = Functions.naturalOrder();
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void normal() {
+        Observable.mergeSorted(NATURAL,
+                Observable.just(1, 4, 7, 10),
+                Observable.just(2, 5, 8),
+                Observable.<Integer>empty(),
+                Observable.just(3, 6, 9, 11, 12))
+        .test()
+        .assertResult(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void waitsForAllSources() {
+        PublishSubject<Integer> ps1 = PublishSubject.create();
+        PublishSubject<Integer> ps2 = PublishSubject.create();
+
+        TestObserver<Integer> to = Observable.mergeSorted(NATURAL, ps1, ps2).test();
+
+        ps1.onNext(1);
+        ps1.onNext(3);
+
+        to.assertEmpty();
+
+        ps2.onNext(2);
+
+        to.assertValues(1, 2);
+
+        ps2.onNext(4);
+
+        to.assertValues(1, 2, 3);
+
+        ps1.onComplete();
+
+        to.assertValues(1, 2, 3, 4);
+
+        ps2.onComplete();
+
+        to.assertResult(1, 2, 3, 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void error() {
+        PublishSubject<Integer> ps1 = PublishSubject.create();
+        PublishSubject<Integer> ps2 = PublishSubject.create();
+
+        TestObserver<Integer> to = Observable.mergeSorted(NATURAL, ps1, ps2).test();
+
+        ps1.onNext(1);
+        ps2.onError(new TestException());
+
+        to.assertFailure(TestException.class);
+
+        assertFalse(ps1.hasObservers());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void comparatorCrash() {
+        Observable.mergeSorted(new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                throw new TestException();
+            }
+        }, Observable.just(1), Observable.just(2))
+        .test()
+        .assertFailure(TestException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void dispose() {
+        PublishSubject<Integer> ps1 = PublishSubject.create();
+        PublishSubject<Integer> ps2 = PublishSubject.create();
+
+        TestObserver<Integer> to = Observable.mergeSorted(NATURAL, ps1, ps2).test();
+
+        assertTrue(ps1.hasObservers());
+
+        to.dispose();
+
+        assertFalse(ps1.hasObservers());
+        assertFalse(ps2.hasObservers());
+    }
+
+    @Test
+    public void empty() {
+        Observable.mergeSorted(Collections.<Observable<Integer>>emptyList(), NATURAL, 16)
+        .test()
+        .assertResult();
+    }
+
+    @Test
+    public void manySourcesAsync() {
+        List<Observable<Integer>> sources = new ArrayList<Observable<Integer>>();
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 33; i++) {
+            List<Integer> list = new ArrayList<Integer>();
+            for (int j = i; j < 3000; j += 7 + i) {
+                list.add(j);
+                expected.add(j);
+            }
+            sources.add(Observable.fromIterable(list).subscribeOn(Schedulers.computation()));
+        }
+        Collections.sort(expected);
+
+        Observable.mergeSorted(sources, NATURAL, 8)
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertResult(expected.toArray(new Integer[0]));
+    }
+}
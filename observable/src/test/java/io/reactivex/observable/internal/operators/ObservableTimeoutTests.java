@@ -423,9 +423,27 @@ public class ObservableTimeoutTests {
     }
 
     @Test
-    public void newTimer() {
-        ObservableTimeoutTimed.NEW_TIMER.dispose();
-        assertTrue(ObservableTimeoutTimed.NEW_TIMER.isDisposed());
+    public void timerRearmsUntilDeadline() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishSubject<Integer> ps = PublishSubject.create();
+        TestObserver<Integer> ts = ps.timeout(1, TimeUnit.SECONDS, scheduler).test();
+
+        for (int i = 0; i < 10; i++) {
+            scheduler.advanceTimeBy(900, TimeUnit.MILLISECONDS);
+            ps.onNext(i);
+        }
+
+        ts.assertValueCount(10).assertNoErrors().assertNotComplete();
+
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+
+        ts.assertNoErrors();
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+
+        ts.assertFailure(TimeoutException.class, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+        assertFalse(ps.hasObservers());
     }
 
     @Test
@@ -1459,4 +1459,44 @@ public class ObservableZipTest {
         ps2.onNext(2);
         ts.assertResult(3);
     }
+
+    @Test
+    public void zip2WithReusedRow() {
+        PublishSubject<Integer> p1 = PublishSubject.create();
+        PublishSubject<Integer> p2 = PublishSubject.create();
+
+        TestObserver<String> t = Observable.zip(p1, p2, new Function2<Integer, Integer, String>() {
+            @Override
+            public String invoke(Integer a, Integer b) {
+                return a + "-" + b;
+            }
+        })
+        .test();
+
+        p1.onNext(1);
+        p1.onNext(2);
+        p2.onNext(10);
+        p2.onNext(20);
+        p2.onNext(30);
+        p1.onNext(3);
+        p1.onComplete();
+
+        t.assertResult("1-10", "2-20", "3-30");
+    }
+
+    @Test
+    public void zipArrayFunctionGetsCopies() {
+        @SuppressWarnings("unchecked")
+        TestObserver<Object[]> t = Observable.zipArray(new Function1<Object[], Object[]>() {
+            @Override
+            public Object[] invoke(Object[] a) {
+                return a;
+            }
+        }, false, 16, Observable.just(1, 2), Observable.just(10, 20))
+        .test();
+
+        t.assertValueCount(2);
+        assertEquals(Arrays.asList(1, 10), Arrays.asList(t.values().get(0)));
+        assertEquals(Arrays.asList(2, 20), Arrays.asList(t.values().get(1)));
+    }
 }
@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.common.*;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.observable.*;
+import io.reactivex.observable.observers.TestObserver;
+import io.reactivex.observable.subjects.PublishSubject;
+import kotlin.jvm.functions.Function1;
+
+public class SingleBatchLoaderTest {
+
+    final List<List<Integer>> calls = Collections.synchronizedList(new ArrayList<List<Integer>>());
+
+    final Function1<List<Integer>, SingleSource<Map<Integer, String>>> bulk = new Function1<List<Integer>, SingleSource<Map<Integer, String>>>() {
+        @Override
+        public SingleSource<Map<Integer, String>> invoke(List<Integer> keys) {
+            calls.add(keys);
+            Map<Integer, String> map = new HashMap<Integer, String>();
+            for (Integer k : keys) {
+                if (k >= 0) {
+                    map.put(k, "v" + k);
+                }
+            }
+            return Single.just(map);
+        }
+    };
+
+    @Test
+    public void timeWindow() {
+        TestScheduler scheduler = new TestScheduler();
+        Function1<Integer, Single<String>> loader = Single.batchLoader(bulk, 10, 5, TimeUnit.MILLISECONDS, scheduler);
+
+        TestObserver<String> to1 = loader.invoke(1).test();
+        TestObserver<String> to2 = loader.invoke(2).test();
+        TestObserver<String> to3 = loader.invoke(1).test();
+
+        to1.assertEmpty();
+        assertTrue(calls.isEmpty());
+
+        scheduler.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+
+        assertEquals(Collections.singletonList(Arrays.asList(1, 2)), calls);
+
+        to1.assertResult("v1");
+        to2.assertResult("v2");
+        to3.assertResult("v1");
+
+        loader.invoke(3).test();
+
+        scheduler.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+
+        assertEquals(2, calls.size());
+        assertEquals(Arrays.asList(3), calls.get(1));
+    }
+
+    @Test
+    public void maxBatchSize() {
+        TestScheduler scheduler = new TestScheduler();
+        Function1<Integer, Single<String>> loader = Single.batchLoader(bulk, 2, 5, TimeUnit.MILLISECONDS, scheduler);
+
+        TestObserver<String> to1 = loader.invoke(1).test();
+        TestObserver<String> to2 = loader.invoke(2).test();
+
+        to1.assertResult("v1");
+        to2.assertResult("v2");
+
+        TestObserver<String> to3 = loader.invoke(3).test();
+
+        scheduler.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+
+        to3.assertResult("v3");
+
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3)), calls);
+    }
+
+    @Test
+    public void missingKey() {
+        TestScheduler scheduler = new TestScheduler();
+        Function1<Integer, Single<String>> loader = Single.batchLoader(bulk, 2, 5, TimeUnit.MILLISECONDS, scheduler);
+
+        TestObserver<String> to1 = loader.invoke(-1).test();
+        TestObserver<String> to2 = loader.invoke(2).test();
+
+        to1.assertFailure(NoSuchElementException.class);
+        to2.assertResult("v2");
+    }
+
+    @Test
+    public void bulkError() {
+        TestScheduler scheduler = new TestScheduler();
+        Function1<Integer, Single<String>> loader = Single.batchLoader(new Function1<List<Integer>, SingleSource<Map<Integer, String>>>() {
+            @Override
+            public SingleSource<Map<Integer, String>> invoke(List<Integer> keys) {
+                return Single.error(new TestException());
+            }
+        }, 2, 5, TimeUnit.MILLISECONDS, scheduler);
+
+        TestObserver<String> to1 = loader.invoke(1).test();
+        TestObserver<String> to2 = loader.invoke(2).test();
+
+        to1.assertFailure(TestException.class);
+        to2.assertFailure(TestException.class);
+    }
+
+    @Test
+    public void bulkCrash() {
+        TestScheduler scheduler = new TestScheduler();
+        Function1<Integer, Single<String>> loader = Single.batchLoader(new Function1<List<Integer>, SingleSource<Map<Integer, String>>>() {
+            @Override
+            public SingleSource<Map<Integer, String>> invoke(List<Integer> keys) {
+                throw new TestException();
+            }
+        }, 2, 5, TimeUnit.MILLISECONDS, scheduler);
+
+        TestObserver<String> to1 = loader.invoke(1).test();
+
+        scheduler.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+
+        to1.assertFailure(TestException.class);
+    }
+
+    @Test
+    public void disposedSkipped() {
+        TestScheduler scheduler = new TestScheduler();
+        Function1<Integer, Single<String>> loader = Single.batchLoader(bulk, 10, 5, TimeUnit.MILLISECONDS, scheduler);
+
+        TestObserver<String> to1 = loader.invoke(1).test();
+        TestObserver<String> to2 = loader.invoke(2).test();
+
+        to1.cancel();
+
+        scheduler.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+
+        to1.assertEmpty();
+        to2.assertResult("v2");
+
+        assertEquals(Collections.singletonList(Arrays.asList(2)), calls);
+
+        loader.invoke(3).test(true);
+
+        scheduler.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    public void disposeAllCancelsBulkLoad() {
+        final PublishSubject<Map<Integer, String>> ps = PublishSubject.create();
+        TestScheduler scheduler = new TestScheduler();
+        Function1<Integer, Single<String>> loader = Single.batchLoader(new Function1<List<Integer>, SingleSource<Map<Integer, String>>>() {
+            @Override
+            public SingleSource<Map<Integer, String>> invoke(List<Integer> keys) {
+                calls.add(keys);
+                return ps.singleOrError();
+            }
+        }, 10, 5, TimeUnit.MILLISECONDS, scheduler);
+
+        TestObserver<String> to1 = loader.invoke(1).test();
+        TestObserver<String> to2 = loader.invoke(2).test();
+
+        scheduler.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, calls.size());
+        assertTrue(ps.hasObservers());
+
+        to1.cancel();
+
+        assertTrue(ps.hasObservers());
+
+        to2.cancel();
+
+        assertFalse(ps.hasObservers());
+    }
+
+    @Test
+    public void flatMapSingle() {
+        Function1<Integer, Single<String>> loader = Single.batchLoader(bulk, 100, 100, TimeUnit.MILLISECONDS, Schedulers.computation());
+
+        Observable.range(1, 250)
+        .flatMapSingle(loader)
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertValueCount(250)
+        .assertNoErrors()
+        .assertComplete();
+
+        assertEquals(3, calls.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxBatchSize() {
+        Single.batchLoader(bulk, 0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void nullMap() {
+        TestScheduler scheduler = new TestScheduler();
+        Function1<Integer, Single<String>> loader = Single.batchLoader(new Function1<List<Integer>, SingleSource<Map<Integer, String>>>() {
+            @Override
+            public SingleSource<Map<Integer, String>> invoke(List<Integer> keys) {
+                return new SingleSource<Map<Integer, String>>() {
+                    @Override
+                    public void subscribe(SingleObserver<? super Map<Integer, String>> observer) {
+                        observer.onSubscribe(Disposables.empty());
+                        observer.onSuccess(null);
+                    }
+                };
+            }
+        }, 10, 5, TimeUnit.MILLISECONDS, scheduler);
+
+        TestObserver<String> to1 = loader.invoke(1).test();
+        TestObserver<String> to2 = loader.invoke(2).test();
+
+        scheduler.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+
+        to1.assertFailureAndMessage(NullPointerException.class, "The bulkLoader returned a null map");
+        to2.assertFailureAndMessage(NullPointerException.class, "The bulkLoader returned a null map");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeTime() {
+        Single.batchLoader(bulk, 10, -1, TimeUnit.SECONDS);
+    }
+}
@@ -13,9 +13,16 @@
 
 package io.reactivex.observable.internal.operators;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import io.reactivex.common.*;
+import io.reactivex.common.exceptions.TestException;
 import io.reactivex.observable.*;
 import io.reactivex.observable.observers.TestObserver;
 import io.reactivex.observable.subjects.PublishSubject;
@@ -95,4 +102,182 @@ public class SingleCacheTest {
 
         cached.subscribe(doubleDisposer);
     }
+
+    static Single<Integer> counting(final AtomicInteger subscriptions, final boolean failFirst) {
+        return Single.defer(new Callable<SingleSource<Integer>>() {
+            @Override
+            public SingleSource<Integer> call() throws Exception {
+                int n = subscriptions.incrementAndGet();
+                if (failFirst && n == 1) {
+                    return Single.error(new TestException());
+                }
+                return Single.just(n);
+            }
+        });
+    }
+
+    @Test
+    public void timedExpires() {
+        TestScheduler scheduler = new TestScheduler();
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        Single<Integer> cached = counting(subscriptions, false).cache(1, TimeUnit.SECONDS, scheduler);
+
+        cached.test().assertResult(1);
+
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+
+        cached.test().assertResult(1);
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+
+        cached.test().assertResult(2);
+        cached.test().assertResult(2);
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void timedRefreshAhead() {
+        TestScheduler scheduler = new TestScheduler();
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        Single<Integer> cached = counting(subscriptions, false).cache(10, 5, TimeUnit.SECONDS, scheduler);
+
+        cached.test().assertResult(1);
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        // served from the cache before the refresh runs
+        cached.test().assertResult(1);
+
+        assertEquals(1, subscriptions.get());
+
+        scheduler.triggerActions();
+
+        assertEquals(2, subscriptions.get());
+
+        cached.test().assertResult(2);
+
+        scheduler.advanceTimeBy(4, TimeUnit.SECONDS);
+
+        cached.test().assertResult(2);
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void timedRefreshAheadFails() {
+        TestScheduler scheduler = new TestScheduler();
+        final AtomicInteger subscriptions = new AtomicInteger();
+        final PublishSubject<Integer> ps = PublishSubject.create();
+
+        Single<Integer> cached = Single.defer(new Callable<SingleSource<Integer>>() {
+            @Override
+            public SingleSource<Integer> call() throws Exception {
+                if (subscriptions.incrementAndGet() == 1) {
+                    return Single.just(1);
+                }
+                return ps.single(-1);
+            }
+        }).cache(10, 5, TimeUnit.SECONDS, scheduler);
+
+        cached.test().assertResult(1);
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        cached.test().assertResult(1);
+        // the refresh is already scheduled
+        cached.test().assertResult(1);
+
+        scheduler.triggerActions();
+
+        assertEquals(2, subscriptions.get());
+
+        ps.onError(new TestException());
+
+        cached.test().assertResult(1);
+
+        scheduler.triggerActions();
+
+        assertEquals(3, subscriptions.get());
+    }
+
+    @Test
+    public void timedRefreshDoesNotWait() {
+        TestScheduler scheduler = new TestScheduler();
+        final AtomicInteger subscriptions = new AtomicInteger();
+        final PublishSubject<Integer> ps = PublishSubject.create();
+
+        Single<Integer> cached = Single.defer(new Callable<SingleSource<Integer>>() {
+            @Override
+            public SingleSource<Integer> call() throws Exception {
+                if (subscriptions.incrementAndGet() == 1) {
+                    return Single.just(1);
+                }
+                return ps.single(-1);
+            }
+        }).cache(10, 5, TimeUnit.SECONDS, scheduler);
+
+        cached.test().assertResult(1);
+
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        // the SingleObserver triggering the refresh gets the cached value before the reload starts
+        cached.test().assertResult(1);
+
+        assertEquals(1, subscriptions.get());
+
+        scheduler.triggerActions();
+
+        assertEquals(2, subscriptions.get());
+
+        // the reload is in flight, the cached value is still served
+        cached.test().assertResult(1);
+
+        ps.onNext(2);
+        ps.onComplete();
+
+        cached.test().assertResult(2);
+    }
+
+    @Test
+    public void timedErrorNotCached() {
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        Single<Integer> cached = counting(subscriptions, true).cache(1, TimeUnit.SECONDS, Schedulers.trampoline());
+
+        cached.test().assertFailure(TestException.class);
+
+        cached.test().assertResult(2);
+        cached.test().assertResult(2);
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void timedCancelImmediately() {
+        PublishSubject<Integer> ps = PublishSubject.create();
+
+        Single<Integer> cached = ps.single(-99).cache(1, TimeUnit.SECONDS, Schedulers.trampoline());
+
+        TestObserver<Integer> ts = cached.test(true);
+
+        ps.onNext(1);
+        ps.onComplete();
+
+        ts.assertEmpty();
+
+        cached.test().assertResult(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timedInvalidTime() {
+        Single.just(1).cache(0, TimeUnit.SECONDS, Schedulers.trampoline());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timedInvalidRefreshAfter() {
+        Single.just(1).cache(10, -1, TimeUnit.SECONDS, Schedulers.trampoline());
+    }
 }
@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2016-present, RxJava Contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package io.reactivex.observable.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.reactivex.common.*;
+import io.reactivex.common.exceptions.TestException;
+import io.reactivex.observable.*;
+import io.reactivex.observable.observers.TestObserver;
+import io.reactivex.observable.subjects.PublishSubject;
+import kotlin.jvm.functions.Function1;
+
+public class SingleFlightTest {
+
+    final List<String> loads = Collections.synchronizedList(new ArrayList<String>());
+
+    final Map<String, PublishSubject<Integer>> subjects = new HashMap<String, PublishSubject<Integer>>();
+
+    final Function1<String, SingleSource<Integer>> loader = new Function1<String, SingleSource<Integer>>() {
+        @Override
+        public SingleSource<Integer> invoke(String key) {
+            loads.add(key);
+            PublishSubject<Integer> ps = PublishSubject.create();
+            subjects.put(key, ps);
+            return ps.single(-1);
+        }
+    };
+
+    static void succeed(PublishSubject<Integer> ps, int value) {
+        ps.onNext(value);
+        ps.onComplete();
+    }
+
+    @Test
+    public void joinsInFlight() {
+        Function1<String, Single<Integer>> flights = Single.singleFlight(loader);
+
+        TestObserver<Integer> to1 = flights.invoke("a").test();
+        TestObserver<Integer> to2 = flights.invoke("a").test();
+        TestObserver<Integer> to3 = flights.invoke("b").test();
+
+        assertEquals(Arrays.asList("a", "b"), loads);
+
+        succeed(subjects.get("a"), 1);
+
+        to1.assertResult(1);
+        to2.assertResult(1);
+        to3.assertEmpty();
+
+        succeed(subjects.get("b"), 2);
+
+        to3.assertResult(2);
+
+        TestObserver<Integer> to4 = flights.invoke("a").test();
+
+        assertEquals(Arrays.asList("a", "b", "a"), loads);
+
+        succeed(subjects.get("a"), 3);
+
+        to4.assertResult(3);
+    }
+
+    @Test
+    public void disposeOneObserver() {
+        Function1<String, Single<Integer>> flights = Single.singleFlight(loader);
+
+        TestObserver<Integer> to1 = flights.invoke("a").test();
+        TestObserver<Integer> to2 = flights.invoke("a").test();
+
+        to1.cancel();
+
+        succeed(subjects.get("a"), 1);
+
+        to1.assertEmpty();
+        to2.assertResult(1);
+    }
+
+    @Test
+    public void errorNotKept() {
+        TestScheduler scheduler = new TestScheduler();
+        Function1<String, Single<Integer>> flights = Single.singleFlight(loader, 1, TimeUnit.SECONDS, scheduler);
+
+        TestObserver<Integer> to1 = flights.invoke("a").test();
+
+        subjects.get("a").onError(new TestException());
+
+        to1.assertFailure(TestException.class);
+
+        flights.invoke("a").test().assertEmpty();
+
+        assertEquals(Arrays.asList("a", "a"), loads);
+    }
+
+    @Test
+    public void keepsValue() {
+        TestScheduler scheduler = new TestScheduler();
+        Function1<String, Single<Integer>> flights = Single.singleFlight(loader, 1, TimeUnit.SECONDS, scheduler);
+
+        TestObserver<Integer> to1 = flights.invoke("a").test();
+
+        succeed(subjects.get("a"), 1);
+
+        to1.assertResult(1);
+
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+
+        flights.invoke("a").test().assertResult(1);
+
+        assertEquals(1, loads.size());
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+
+        flights.invoke("a").test().assertEmpty();
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    public void loaderCrash() {
+        Function1<String, Single<Integer>> flights = Single.singleFlight(new Function1<String, SingleSource<Integer>>() {
+            @Override
+            public SingleSource<Integer> invoke(String key) {
+                throw new TestException();
+            }
+        });
+
+        flights.invoke("a").test().assertFailure(TestException.class);
+        flights.invoke("a").test().assertFailure(TestException.class);
+    }
+
+    @Test
+    public void concurrentSubscribers() {
+        for (int i = 0; i < 500; i++) {
+            final PublishSubject<Integer> ps = PublishSubject.create();
+            final Function1<String, Single<Integer>> flights = Single.singleFlight(new Function1<String, SingleSource<Integer>>() {
+                @Override
+                public SingleSource<Integer> invoke(String key) {
+                    loads.add(key);
+                    return ps.single(-1);
+                }
+            });
+            loads.clear();
+
+            final TestObserver<Integer> to1 = new TestObserver<Integer>();
+            final TestObserver<Integer> to2 = new TestObserver<Integer>();
+
+            TestCommonHelper.race(new Runnable() {
+                @Override
+                public void run() {
+                    flights.invoke("a").subscribe(to1);
+                }
+            }, new Runnable() {
+                @Override
+                public void run() {
+                    flights.invoke("a").subscribe(to2);
+                }
+            }, Schedulers.single());
+
+            succeed(ps, 1);
+
+            to1.awaitDone(5, TimeUnit.SECONDS).assertResult(1);
+            to2.awaitDone(5, TimeUnit.SECONDS).assertResult(1);
+
+            assertEquals(1, loads.size());
+        }
+    }
+
+    @Test
+    public void disposeAllCancelsUpstream() {
+        Function1<String, Single<Integer>> flights = Single.singleFlight(loader);
+
+        TestObserver<Integer> to1 = flights.invoke("a").test();
+        TestObserver<Integer> to2 = flights.invoke("a").test();
+
+        PublishSubject<Integer> ps = subjects.get("a");
+
+        to1.cancel();
+
+        assertTrue(ps.hasObservers());
+
+        to2.cancel();
+
+        assertFalse(ps.hasObservers());
+
+        TestObserver<Integer> to3 = flights.invoke("a").test();
+
+        assertEquals(Arrays.asList("a", "a"), loads);
+
+        succeed(subjects.get("a"), 1);
+
+        to3.assertResult(1);
+        to1.assertEmpty();
+        to2.assertEmpty();
+    }
+
+    @Test
+    public void disposedBeforeSubscribe() {
+        Function1<String, Single<Integer>> flights = Single.singleFlight(loader);
+
+        flights.invoke("a").test(true).assertEmpty();
+
+        assertTrue(loads.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeTime() {
+        Single.singleFlight(loader, -1, TimeUnit.SECONDS, Schedulers.single());
+    }
+}
@@ -16,6 +16,8 @@ package io.reactivex.observable.subjects;
 import static org.junit.Assert.*;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 import org.junit.Test;
 
@@ -670,4 +672,58 @@ public class SerializedSubjectTest {
             ts.assertEmpty();
         }
     }
+
+    @Test
+    public void multipleProducers() throws Exception {
+        final Subject<Integer> s = PublishSubject.<Integer>create().toSerialized();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicBoolean overlap = new AtomicBoolean();
+
+        TestObserver<Integer> ts = new TestObserver<Integer>() {
+            @Override
+            public void onNext(Integer t) {
+                if (concurrent.getAndIncrement() != 0) {
+                    overlap.set(true);
+                }
+                super.onNext(t);
+                concurrent.decrementAndGet();
+            }
+        };
+
+        s.subscribe(ts);
+
+        final int n = 4;
+        final int count = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(n);
+
+        for (int i = 0; i < n; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    for (int j = 0; j < count; j++) {
+                        s.onNext(j);
+                    }
+                    finish.countDown();
+                }
+            }).start();
+        }
+
+        start.countDown();
+
+        assertTrue(finish.await(5, TimeUnit.SECONDS));
+
+        s.onComplete();
+
+        ts.assertValueCount(n * count)
+        .assertNoErrors()
+        .assertComplete();
+
+        assertFalse(overlap.get());
+    }
 }